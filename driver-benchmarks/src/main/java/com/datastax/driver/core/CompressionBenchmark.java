@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of compressing and decompressing a protocol v4 frame body with {@link
+ * LZ4Compressor} and {@link SnappyCompressor}.
+ *
+ * <p>The body is a page of rows with repeated text, which compresses about as well as typical
+ * results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+  @Param({"LZ4", "SNAPPY"})
+  public ProtocolOptions.Compression compression;
+
+  @Param({"1024", "65536"})
+  public int bodySize;
+
+  private FrameCompressor compressor;
+  private Frame frame;
+  private Frame compressed;
+
+  @Setup
+  public void setup() throws IOException {
+    compressor = compression.compressor();
+    if (compressor == null)
+      throw new IllegalStateException(compression + " is not available on the classpath");
+
+    ByteBuf body = ByteBufAllocator.DEFAULT.directBuffer(bodySize);
+    for (int i = 0; body.writerIndex() < bodySize; i++) {
+      CBUtil.writeValue(
+          TypeCodec.varchar().serialize("user" + i + "@example.com", ProtocolVersion.V4), body);
+      body.writeInt(8).writeLong(i);
+    }
+    body.writerIndex(bodySize);
+    frame =
+        Frame.create(
+            ProtocolVersion.V4,
+            Message.Response.Type.RESULT.opcode,
+            0,
+            EnumSet.noneOf(Frame.Header.Flag.class),
+            body);
+    compressed = compressor.compress(frame.with(body.duplicate()));
+  }
+
+  @TearDown
+  public void tearDown() {
+    frame.body.release();
+    compressed.body.release();
+  }
+
+  @Benchmark
+  public int compress() throws IOException {
+    Frame result = compressor.compress(frame.with(frame.body.duplicate()));
+    int length = result.body.readableBytes();
+    result.body.release();
+    return length;
+  }
+
+  @Benchmark
+  public int decompress() throws IOException {
+    Frame result = compressor.decompress(compressed.with(compressed.body.duplicate()));
+    int length = result.body.readableBytes();
+    result.body.release();
+    return length;
+  }
+}
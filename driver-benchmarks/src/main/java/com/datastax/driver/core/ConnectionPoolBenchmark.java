@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of borrowing a connection from a {@link HostConnectionPool} and giving it back,
+ * and of a full request round trip, against an in-process {@link StubNode}.
+ *
+ * <p>The round trip includes the server's time to answer, but not network latency; compare {@code
+ * gc.alloc.rate.norm} between runs to follow the driver's allocations per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectionPoolBenchmark {
+
+  private StubNode node;
+  private Cluster cluster;
+  private Session session;
+  private HostConnectionPool pool;
+  private BoundStatement statement;
+
+  @Setup
+  public void setup() {
+    node = new StubNode(new InetSocketAddress("127.0.0.1", 0)).start();
+    cluster =
+        Cluster.builder()
+            .addContactPointsWithPorts(node.getAddress())
+            .withQueryOptions(new QueryOptions().setMetadataEnabled(false))
+            .build();
+    session = cluster.connect();
+    Host host = cluster.getMetadata().getAllHosts().iterator().next();
+    pool = ((SessionManager) session).pools.get(host);
+    statement = session.prepare("INSERT INTO ks.t (k, v) VALUES (1, 1)").bind();
+  }
+
+  @TearDown
+  public void tearDown() {
+    cluster.close();
+    node.stop();
+  }
+
+  @Benchmark
+  public Connection borrowConnection() throws ExecutionException, InterruptedException {
+    Connection connection =
+        pool.borrowConnection(12, TimeUnit.SECONDS, 256, (RoutingContext) null).get();
+    connection.release();
+    return connection;
+  }
+
+  @Benchmark
+  public ResultSet execute() {
+    return session.execute(statement);
+  }
+}
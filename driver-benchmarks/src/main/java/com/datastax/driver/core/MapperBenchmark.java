@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.mapping.Mapper;
+import com.datastax.driver.mapping.MappingManager;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of mapping entities with the object mapper, against an in-process {@link
+ * StubNode}: binding an entity to an INSERT, and mapping a page of rows to entities.
+ *
+ * <p>{@code rows} fetches the same page as {@code mapAll} without mapping it, and {@code saveQuery}
+ * binds the entity without executing the INSERT, so that the mapper's own cost can be told apart
+ * from the round trip.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+  @Param({"100"})
+  public int rowCount;
+
+  private StubNode node;
+  private Cluster cluster;
+  private Session session;
+  private Mapper<User> mapper;
+  private User user;
+  private Statement select;
+
+  @Setup
+  public void setup() {
+    List<Object[]> rows = new ArrayList<Object[]>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      rows.add(new Object[] {i, "user" + i, "user" + i + "@example.com", 20 + i % 50});
+    }
+    node =
+        new StubNode(new InetSocketAddress("127.0.0.1", 0))
+            .withTable(
+                "ks",
+                "users",
+                "id",
+                DataType.cint(),
+                "name",
+                DataType.text(),
+                "email",
+                DataType.text(),
+                "age",
+                DataType.cint())
+            .withRows("ks", "users", rows)
+            .start();
+    cluster = Cluster.builder().addContactPointsWithPorts(node.getAddress()).build();
+    session = cluster.connect();
+    mapper = new MappingManager(session).mapper(User.class);
+
+    user = new User();
+    user.setId(42);
+    user.setName("user42");
+    user.setEmail("user42@example.com");
+    user.setAge(42);
+    select = session.prepare("SELECT * FROM ks.users").bind();
+  }
+
+  @TearDown
+  public void tearDown() {
+    cluster.close();
+    node.stop();
+  }
+
+  @Benchmark
+  public Statement saveQuery() {
+    return mapper.saveQuery(user);
+  }
+
+  @Benchmark
+  public void save() {
+    mapper.save(user);
+  }
+
+  @Benchmark
+  public List<Row> rows() {
+    return session.execute(select).all();
+  }
+
+  @Benchmark
+  public List<User> mapAll() {
+    return mapper.map(session.execute(select)).all();
+  }
+
+  @Table(keyspace = "ks", name = "users")
+  public static class User {
+
+    @PartitionKey private int id;
+    private String name;
+    private String email;
+    private int age;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public String getEmail() {
+      return email;
+    }
+
+    public void setEmail(String email) {
+      this.email = email;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public void setAge(int age) {
+      this.age = age;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of going through the protocol v4 handlers of a connection's pipeline: encoding
+ * an EXECUTE request into a frame, and decoding a RESULT frame that holds a page of rows.
+ *
+ * <p>The handlers run in an embedded channel, so no I/O is involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageCodecBenchmark {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.V4;
+
+  @Param({"8"})
+  public int valueCount;
+
+  @Param({"100"})
+  public int rowCount;
+
+  private EmbeddedChannel outbound;
+  private EmbeddedChannel inbound;
+
+  private MD5Digest statementId;
+  private ByteBuffer[] values;
+  private ByteBuf rowsFrame;
+
+  @Setup
+  public void setup() {
+    outbound = new EmbeddedChannel(new Frame.Encoder(), new Message.ProtocolEncoder(VERSION));
+    inbound = new EmbeddedChannel(new Frame.Decoder(), new Message.ProtocolDecoder());
+    inbound.attr(Message.CODEC_REGISTRY_ATTRIBUTE_KEY).set(CodecRegistry.DEFAULT_INSTANCE);
+
+    statementId = MD5Digest.wrap(new byte[16]);
+    values = new ByteBuffer[valueCount];
+    for (int i = 0; i < valueCount; i++) {
+      values[i] =
+          (i % 2 == 0)
+              ? TypeCodec.bigint().serialize((long) i, VERSION)
+              : TypeCodec.varchar().serialize("value" + i, VERSION);
+    }
+
+    rowsFrame = Unpooled.directBuffer();
+    ByteBuf body = Unpooled.buffer();
+    body.writeInt(2); // ROWS
+    body.writeInt(0x0001); // GLOBAL_TABLES_SPEC
+    body.writeInt(valueCount);
+    writeString("ks", body);
+    writeString("t", body);
+    for (int i = 0; i < valueCount; i++) {
+      writeString("c" + i, body);
+      body.writeShort(
+          (i % 2 == 0) ? DataType.Name.BIGINT.protocolId : DataType.Name.VARCHAR.protocolId);
+    }
+    body.writeInt(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      for (ByteBuffer value : values) CBUtil.writeValue(value.duplicate(), body);
+    }
+    rowsFrame.writeByte(0x80 | VERSION.toInt());
+    rowsFrame.writeByte(0);
+    rowsFrame.writeShort(0);
+    rowsFrame.writeByte(Message.Response.Type.RESULT.opcode);
+    rowsFrame.writeInt(body.readableBytes());
+    rowsFrame.writeBytes(body);
+  }
+
+  @TearDown
+  public void tearDown() {
+    outbound.finishAndReleaseAll();
+    inbound.finishAndReleaseAll();
+    rowsFrame.release();
+  }
+
+  @Benchmark
+  public void encodeExecute() {
+    // Same as what SessionManager.makeRequestMessage does for a bound statement
+    Requests.QueryProtocolOptions options =
+        new Requests.QueryProtocolOptions(
+            Message.Request.Type.EXECUTE,
+            ConsistencyLevel.LOCAL_ONE,
+            values,
+            Collections.<String, ByteBuffer>emptyMap(),
+            true,
+            5000,
+            null,
+            ConsistencyLevel.SERIAL,
+            Long.MIN_VALUE,
+            Integer.MIN_VALUE);
+    Requests.Execute execute = new Requests.Execute(statementId, statementId, options, false);
+    execute.setStreamId(1);
+    outbound.writeOutbound(execute);
+    Object encoded;
+    while ((encoded = outbound.readOutbound()) != null) ReferenceCountUtil.release(encoded);
+  }
+
+  @Benchmark
+  public void decodeRows(Blackhole bh) {
+    inbound.writeInbound(rowsFrame.retainedDuplicate());
+    Responses.Result.Rows rows = inbound.readInbound();
+    List<ByteBuffer> row;
+    while ((row = rows.data.poll()) != null) bh.consume(row.get(0));
+  }
+
+  private static void writeString(String s, ByteBuf body) {
+    byte[] bytes = s.getBytes(CharsetUtil.UTF_8);
+    body.writeShort(bytes.length);
+    body.writeBytes(bytes);
+  }
+}
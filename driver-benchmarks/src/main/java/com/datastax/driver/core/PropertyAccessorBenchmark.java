@@ -0,0 +1,387 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.mapping.DefaultPropertyMapper;
+import com.datastax.driver.mapping.MappedProperty;
+import com.datastax.driver.mapping.Mapper;
+import com.datastax.driver.mapping.MappingConfiguration;
+import com.datastax.driver.mapping.MappingManager;
+import com.datastax.driver.mapping.PropertyAccessorGenerationStrategy;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link PropertyAccessorGenerationStrategy property accessor generation strategies}
+ * on an entity with 20 properties, against an in-process {@link StubNode}.
+ *
+ * <p>{@code getValues} and {@code setValues} call the accessors of all the properties of the
+ * entity, the other benchmarks are those of {@link MapperBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyAccessorBenchmark {
+
+  @Param({"REFLECTION", "METHOD_HANDLES", "LAMBDA_METAFACTORY"})
+  public PropertyAccessorGenerationStrategy strategy;
+
+  @Param({"100"})
+  public int rowCount;
+
+  private StubNode node;
+  private Cluster cluster;
+  private Session session;
+  private Mapper<Wide> mapper;
+  private Wide entity;
+  private MappedProperty<Object>[] properties;
+  private Object[] values;
+  private Statement select;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    List<Object[]> rows = new ArrayList<Object[]>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      rows.add(
+          new Object[] {
+            i,
+            i + 1,
+            i + 2,
+            i + 3,
+            i + 4,
+            i + 5,
+            (long) i * 6,
+            (long) i * 7,
+            (long) i * 8,
+            (long) i * 9,
+            "value" + i,
+            "value" + i,
+            "value" + i,
+            "value" + i,
+            "value" + i,
+            i / 15.0,
+            i / 16.0,
+            i / 17.0,
+            i % 18 == 0,
+            i % 19 == 0
+          });
+    }
+    node =
+        new StubNode(new InetSocketAddress("127.0.0.1", 0))
+            .withTable(
+                "ks",
+                "wide",
+                "id",
+                DataType.cint(),
+                "i1",
+                DataType.cint(),
+                "i2",
+                DataType.cint(),
+                "i3",
+                DataType.cint(),
+                "i4",
+                DataType.cint(),
+                "i5",
+                DataType.cint(),
+                "l1",
+                DataType.bigint(),
+                "l2",
+                DataType.bigint(),
+                "l3",
+                DataType.bigint(),
+                "l4",
+                DataType.bigint(),
+                "s1",
+                DataType.text(),
+                "s2",
+                DataType.text(),
+                "s3",
+                DataType.text(),
+                "s4",
+                DataType.text(),
+                "s5",
+                DataType.text(),
+                "d1",
+                DataType.cdouble(),
+                "d2",
+                DataType.cdouble(),
+                "d3",
+                DataType.cdouble(),
+                "b1",
+                DataType.cboolean(),
+                "b2",
+                DataType.cboolean())
+            .withRows("ks", "wide", rows)
+            .start();
+    cluster = Cluster.builder().addContactPointsWithPorts(node.getAddress()).build();
+    session = cluster.connect();
+    MappingConfiguration configuration =
+        MappingConfiguration.builder()
+            .withPropertyMapper(
+                new DefaultPropertyMapper().setPropertyAccessorGenerationStrategy(strategy))
+            .build();
+    mapper = new MappingManager(session, configuration).mapper(Wide.class);
+
+    entity = mapper.map(session.execute("SELECT * FROM ks.wide")).one();
+    select = session.prepare("SELECT * FROM ks.wide").bind();
+
+    properties =
+        new DefaultPropertyMapper()
+            .setPropertyAccessorGenerationStrategy(strategy)
+            .mapTable(Wide.class)
+            .toArray(new MappedProperty[0]);
+    values = new Object[properties.length];
+    for (int i = 0; i < properties.length; i++) values[i] = properties[i].getValue(entity);
+  }
+
+  @TearDown
+  public void tearDown() {
+    cluster.close();
+    node.stop();
+  }
+
+  @Benchmark
+  public void getValues(Blackhole blackhole) {
+    for (MappedProperty<Object> property : properties) blackhole.consume(property.getValue(entity));
+  }
+
+  @Benchmark
+  public Wide setValues() {
+    for (int i = 0; i < properties.length; i++) properties[i].setValue(entity, values[i]);
+    return entity;
+  }
+
+  @Benchmark
+  public Statement saveQuery() {
+    return mapper.saveQuery(entity);
+  }
+
+  @Benchmark
+  public void save() {
+    mapper.save(entity);
+  }
+
+  @Benchmark
+  public List<Wide> mapAll() {
+    return mapper.map(session.execute(select)).all();
+  }
+
+  @Table(keyspace = "ks", name = "wide")
+  public static class Wide {
+
+    @PartitionKey private int id;
+    private int i1;
+    private int i2;
+    private int i3;
+    private int i4;
+    private int i5;
+    private long l1;
+    private long l2;
+    private long l3;
+    private long l4;
+    private String s1;
+    private String s2;
+    private String s3;
+    private String s4;
+    private String s5;
+    private double d1;
+    private double d2;
+    private double d3;
+    private boolean b1;
+    private boolean b2;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public int getI1() {
+      return i1;
+    }
+
+    public void setI1(int i1) {
+      this.i1 = i1;
+    }
+
+    public int getI2() {
+      return i2;
+    }
+
+    public void setI2(int i2) {
+      this.i2 = i2;
+    }
+
+    public int getI3() {
+      return i3;
+    }
+
+    public void setI3(int i3) {
+      this.i3 = i3;
+    }
+
+    public int getI4() {
+      return i4;
+    }
+
+    public void setI4(int i4) {
+      this.i4 = i4;
+    }
+
+    public int getI5() {
+      return i5;
+    }
+
+    public void setI5(int i5) {
+      this.i5 = i5;
+    }
+
+    public long getL1() {
+      return l1;
+    }
+
+    public void setL1(long l1) {
+      this.l1 = l1;
+    }
+
+    public long getL2() {
+      return l2;
+    }
+
+    public void setL2(long l2) {
+      this.l2 = l2;
+    }
+
+    public long getL3() {
+      return l3;
+    }
+
+    public void setL3(long l3) {
+      this.l3 = l3;
+    }
+
+    public long getL4() {
+      return l4;
+    }
+
+    public void setL4(long l4) {
+      this.l4 = l4;
+    }
+
+    public String getS1() {
+      return s1;
+    }
+
+    public void setS1(String s1) {
+      this.s1 = s1;
+    }
+
+    public String getS2() {
+      return s2;
+    }
+
+    public void setS2(String s2) {
+      this.s2 = s2;
+    }
+
+    public String getS3() {
+      return s3;
+    }
+
+    public void setS3(String s3) {
+      this.s3 = s3;
+    }
+
+    public String getS4() {
+      return s4;
+    }
+
+    public void setS4(String s4) {
+      this.s4 = s4;
+    }
+
+    public String getS5() {
+      return s5;
+    }
+
+    public void setS5(String s5) {
+      this.s5 = s5;
+    }
+
+    public double getD1() {
+      return d1;
+    }
+
+    public void setD1(double d1) {
+      this.d1 = d1;
+    }
+
+    public double getD2() {
+      return d2;
+    }
+
+    public void setD2(double d2) {
+      this.d2 = d2;
+    }
+
+    public double getD3() {
+      return d3;
+    }
+
+    public void setD3(double d3) {
+      this.d3 = d3;
+    }
+
+    public boolean isB1() {
+      return b1;
+    }
+
+    public void setB1(boolean b1) {
+      this.b1 = b1;
+    }
+
+    public boolean isB2() {
+      return b2;
+    }
+
+    public void setB2(boolean b2) {
+      this.b2 = b2;
+    }
+  }
+}
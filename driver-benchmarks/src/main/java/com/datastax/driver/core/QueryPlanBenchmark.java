@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.policies.DCAwareRoundRobinPolicy;
+import com.datastax.driver.core.policies.TokenAwarePolicy;
+import com.google.common.collect.ImmutableMap;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of building the query plan of a request with {@link TokenAwarePolicy} wrapping
+ * {@link DCAwareRoundRobinPolicy}, and of picking its first host.
+ *
+ * <p>{@code fromStatement} hashes the routing key and looks up the replicas on each call, like
+ * custom code that calls {@link TokenAwarePolicy#newQueryPlan(String, Statement)}; {@code
+ * fromRoutingContext} goes through a {@link RoutingContext}, like the driver does for each request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryPlanBenchmark {
+
+  private static final int KEYS = 1024;
+
+  @Param({"6", "60"})
+  public int nodes;
+
+  @Param({"256"})
+  public int vnodes;
+
+  private Cluster cluster;
+  private Metadata metadata;
+  private TokenAwarePolicy policy;
+  private Statement[] statements;
+  private int next;
+
+  @Setup
+  public void setup() {
+    cluster =
+        new Cluster(Cluster.builder().addContactPoint("127.0.0.1")) {
+          @Override
+          public Metadata getMetadata() {
+            // Don't connect
+            return metadata;
+          }
+        };
+    Random random = new Random(42);
+    Token.Factory factory = Token.M3PToken.FACTORY;
+
+    List<Host> hosts = new ArrayList<Host>();
+    Map<Host, Set<Token>> allTokens = new HashMap<Host, Set<Token>>();
+    for (int i = 0; i < nodes; i++) {
+      Host host =
+          new Host(
+              new TranslatedAddressEndPoint(new InetSocketAddress("127.0.0." + (i + 1), 9042)),
+              new ConvictionPolicy.DefaultConvictionPolicy.Factory(),
+              cluster.manager);
+      host.setLocationInfo("dc1", "rack" + (i % 3));
+      host.setUp();
+      Set<Token> hostTokens = new HashSet<Token>();
+      for (int j = 0; j < vnodes; j++) {
+        hostTokens.add(factory.fromString(Long.toString(random.nextLong())));
+      }
+      allTokens.put(host, hostTokens);
+      hosts.add(host);
+    }
+
+    metadata = new Metadata(cluster.manager);
+    metadata.keyspaces.put(
+        "ks",
+        new KeyspaceMetadata(
+            "ks", true, ImmutableMap.of("class", "NetworkTopologyStrategy", "dc1", "3"), false));
+    metadata.rebuildTokenMap(factory, allTokens);
+
+    policy = new TokenAwarePolicy(DCAwareRoundRobinPolicy.builder().build());
+    policy.init(cluster, hosts);
+
+    statements = new Statement[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      ByteBuffer routingKey = TypeCodec.bigint().serialize(random.nextLong(), ProtocolVersion.V4);
+      statements[i] =
+          new SimpleStatement("SELECT * FROM ks.t WHERE k = ?")
+              .setRoutingKey(routingKey)
+              .setKeyspace("ks");
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    cluster.close();
+  }
+
+  @Benchmark
+  public Host fromStatement() {
+    return policy.newQueryPlan("ks", nextStatement()).next();
+  }
+
+  @Benchmark
+  public Host fromRoutingContext() {
+    RoutingContext routingContext =
+        new RoutingContext(
+            metadata, ProtocolVersion.V4, CodecRegistry.DEFAULT_INSTANCE, "ks", nextStatement());
+    return policy.newQueryPlan("ks", routingContext).next();
+  }
+
+  private Statement nextStatement() {
+    Statement statement = statements[next];
+    next = (next + 1) & (KEYS - 1);
+    return statement;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of decoding a page of rows and reading one column of each row, with the default
+ * eager decoding and with {@link PageRows} ({@code -Dcom.datastax.driver.LAZY_ROWS_DECODING=true}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowsDecodingBenchmark {
+
+  @Param({"5000"})
+  public int rowCount;
+
+  @Param({"8"})
+  public int columnCount;
+
+  private ByteBuf page;
+
+  @Setup
+  public void setup() {
+    page = Unpooled.buffer();
+    for (int i = 0; i < rowCount; i++) {
+      for (int j = 0; j < columnCount; j++) {
+        CBUtil.writeValue(
+            TypeCodec.bigint().serialize((long) i * j, ProtocolVersion.DEFAULT), page);
+      }
+    }
+  }
+
+  @Benchmark
+  public void eager(Blackhole bh) {
+    ByteBuf body = page.duplicate();
+    Queue<List<ByteBuffer>> data = new ArrayDeque<List<ByteBuffer>>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      List<ByteBuffer> row = new ArrayList<ByteBuffer>(columnCount);
+      for (int j = 0; j < columnCount; j++) row.add(CBUtil.readValue(body));
+      data.add(row);
+    }
+    consume(data, bh);
+  }
+
+  @Benchmark
+  public void lazy(Blackhole bh) {
+    consume(PageRows.decode(page.duplicate(), rowCount, columnCount), bh);
+  }
+
+  private static void consume(Queue<List<ByteBuffer>> data, Blackhole bh) {
+    List<ByteBuffer> row;
+    while ((row = data.poll()) != null) {
+      bh.consume(row.get(1).getLong(0));
+    }
+  }
+}
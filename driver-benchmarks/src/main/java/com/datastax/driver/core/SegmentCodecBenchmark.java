@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of framing protocol v5 segments, without compression: encoding a segment with
+ * its header and CRCs, decoding it back, and computing the CRCs alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentCodecBenchmark {
+
+  @Param({"256", "16384"})
+  public int payloadSize;
+
+  private final ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
+  private final List<Object> out = new ArrayList<Object>(3);
+  private SegmentCodec codec;
+  private ByteBuf payload;
+  private ByteBuf encoded;
+
+  @Setup
+  public void setup() throws IOException {
+    codec = new SegmentCodec(allocator, ProtocolOptions.Compression.NONE);
+    byte[] bytes = new byte[payloadSize];
+    new Random(42).nextBytes(bytes);
+    payload = allocator.directBuffer(payloadSize).writeBytes(bytes);
+
+    codec.encode(new Segment(payload.retainedDuplicate(), true), out);
+    CompositeByteBuf composite = allocator.compositeDirectBuffer();
+    for (Object o : out) composite.addComponent(true, (ByteBuf) o);
+    out.clear();
+    encoded = allocator.directBuffer(composite.readableBytes()).writeBytes(composite);
+    composite.release();
+  }
+
+  @TearDown
+  public void tearDown() {
+    payload.release();
+    encoded.release();
+  }
+
+  @Benchmark
+  public void encode() throws IOException {
+    codec.encode(new Segment(payload.retainedDuplicate(), true), out);
+    for (int i = 0; i < out.size(); i++) ReferenceCountUtil.release(out.get(i));
+    out.clear();
+  }
+
+  @Benchmark
+  public boolean decode() throws Exception {
+    ByteBuf buffer = encoded.retainedDuplicate();
+    SegmentCodec.Header header = codec.decodeHeader(buffer);
+    Segment segment = codec.decode(header, buffer);
+    segment.getPayload().release();
+    return segment.isSelfContained();
+  }
+
+  @Benchmark
+  public int crc24() {
+    return Crc.computeCrc24(payloadSize | 1L << 17, 3);
+  }
+
+  @Benchmark
+  public int crc32() {
+    return Crc.computeCrc32(payload);
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of choosing the shard of a request on the connection borrow path.
+ *
+ * <p>Run with {@code -prof gc}: {@code gc.alloc.rate.norm} must be 0 B/op for {@link
+ * #shardIdFromToken()} and {@link #shardIdFromRoutingContext()}; {@link #shardIdFromTokenString()}
+ * reproduces the former string round trip for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardSelectionBenchmark {
+
+  private ShardingInfo shardingInfo;
+  private Token token;
+  private RoutingContext routingContext;
+
+  @Setup
+  public void setup() {
+    Map<String, List<String>> params = new HashMap<String, List<String>>();
+    params.put("SCYLLA_SHARD", Collections.singletonList("0"));
+    params.put("SCYLLA_NR_SHARDS", Collections.singletonList("64"));
+    params.put(
+        "SCYLLA_PARTITIONER",
+        Collections.singletonList("org.apache.cassandra.dht.Murmur3Partitioner"));
+    params.put("SCYLLA_SHARDING_ALGORITHM", Collections.singletonList("biased-token-round-robin"));
+    params.put("SCYLLA_SHARDING_IGNORE_MSB", Collections.singletonList("12"));
+    shardingInfo = ShardingInfo.parseShardingInfo(params).shardingInfo;
+
+    ByteBuffer routingKey = TypeCodec.bigint().serialize(42L, ProtocolVersion.DEFAULT);
+    token = Token.M3PToken.FACTORY.hash(routingKey);
+
+    Statement statement =
+        new SimpleStatement("SELECT * FROM ks.t WHERE k = 42") {
+          @Override
+          public Token.Factory getPartitioner() {
+            return Token.M3PToken.FACTORY;
+          }
+        }.setRoutingKey(routingKey);
+    routingContext =
+        new RoutingContext(
+            new Metadata(null),
+            ProtocolVersion.DEFAULT,
+            CodecRegistry.DEFAULT_INSTANCE,
+            "ks",
+            statement);
+    // the token is memoized on first access, like for the first execution of a request
+    routingContext.getToken();
+  }
+
+  @Benchmark
+  public int shardIdFromTokenString() {
+    return shardingInfo.shardId(Long.parseLong(token.toString()));
+  }
+
+  @Benchmark
+  public int shardIdFromToken() {
+    return shardingInfo.shardId(token);
+  }
+
+  @Benchmark
+  public int shardIdFromRoutingContext() {
+    // the statement has no table, so the host is not needed to look up tablets
+    return routingContext.getShardId(null, shardingInfo);
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of borrowing and releasing a stream id when several threads share a connection.
+ *
+ * <p>{@code legacy} is a copy of the previous implementation, which made every thread advance a
+ * shared cursor before looking for an id.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamIdGeneratorBenchmark {
+
+  @Param({"legacy", "current"})
+  public String implementation;
+
+  private Generator generator;
+
+  @Setup
+  public void setup() {
+    if (implementation.equals("legacy")) {
+      generator = new LegacyGenerator(StreamIdGenerator.MAX_STREAM_PER_CONNECTION_V3);
+    } else {
+      final StreamIdGenerator current = StreamIdGenerator.newInstance(ProtocolVersion.V4);
+      generator =
+          new Generator() {
+            @Override
+            public int next() {
+              return current.next();
+            }
+
+            @Override
+            public void release(int streamId) {
+              current.release(streamId);
+            }
+          };
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int nextAndRelease_1Thread() {
+    return nextAndRelease();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public int nextAndRelease_8Threads() {
+    return nextAndRelease();
+  }
+
+  @Benchmark
+  @Threads(32)
+  public int nextAndRelease_32Threads() {
+    return nextAndRelease();
+  }
+
+  private int nextAndRelease() {
+    int id = generator.next();
+    generator.release(id);
+    return id;
+  }
+
+  interface Generator {
+    int next();
+
+    void release(int streamId);
+  }
+
+  /** The implementation of {@link StreamIdGenerator} before it used per-thread hints. */
+  static class LegacyGenerator implements Generator {
+
+    private final AtomicLongArray bits;
+    private final AtomicInteger offset;
+
+    LegacyGenerator(int maxIds) {
+      bits = new AtomicLongArray(maxIds / 64);
+      for (int i = 0; i < bits.length(); i++) bits.set(i, -1L);
+      offset = new AtomicInteger(bits.length() - 1);
+    }
+
+    @Override
+    public int next() {
+      int previousOffset, myOffset;
+      do {
+        previousOffset = offset.get();
+        myOffset = (previousOffset + 1) % bits.length();
+      } while (!offset.compareAndSet(previousOffset, myOffset));
+
+      for (int i = 0; i < bits.length(); i++) {
+        int j = (i + myOffset) % bits.length();
+
+        int id = atomicGetAndSetFirstAvailable(j);
+        if (id >= 0) return id + (64 * j);
+      }
+      return -1;
+    }
+
+    @Override
+    public void release(int streamId) {
+      int idx = streamId / 64;
+      long mask = 1L << (streamId % 64);
+      while (true) {
+        long l = bits.get(idx);
+        if (bits.compareAndSet(idx, l, l | mask)) return;
+      }
+    }
+
+    private int atomicGetAndSetFirstAvailable(int idx) {
+      while (true) {
+        long l = bits.get(idx);
+        if (l == 0) return -1;
+        int id = Long.numberOfTrailingZeros(l);
+        if (bits.compareAndSet(idx, l, l ^ (1L << id))) return id;
+      }
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of finding the tablet that owns a token, as done for every request to a table
+ * that uses tablets, and of resolving its replicas.
+ *
+ * <p>Run with {@code -prof gc}: {@code gc.alloc.rate.norm} must be 0 B/op for {@code getTablet}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TabletLookupBenchmark {
+
+  @Param({"128", "4096"})
+  public int tabletCount;
+
+  private Cluster cluster;
+  private TabletMap tabletMap;
+
+  @Setup
+  public void setup() {
+    // Not initialized: only used for its metadata, which getReplicas checks the replicas against.
+    cluster = Cluster.builder().addContactPoint("127.0.0.1").build();
+    cluster.manager.metadata = new Metadata(cluster.manager);
+    List<UUID> hostIds = new ArrayList<UUID>();
+    for (int i = 0; i < 6; i++) {
+      Host host =
+          new Host(
+              new TranslatedAddressEndPoint(new InetSocketAddress("127.0.0." + (i + 1), 9042)),
+              new ConvictionPolicy.DefaultConvictionPolicy.Factory(),
+              cluster.manager);
+      host.setHostId(UUID.randomUUID());
+      cluster.manager.metadata.addIfAbsent(host);
+      hostIds.add(host.getHostId());
+    }
+    NavigableSet<TabletMap.Tablet> tablets = new TreeSet<TabletMap.Tablet>();
+    long step = -(Long.MIN_VALUE / tabletCount) * 2;
+    long first = Long.MIN_VALUE;
+    for (int i = 0; i < tabletCount; i++) {
+      long last = (i == tabletCount - 1) ? Long.MAX_VALUE : first + step;
+      tablets.add(
+          new TabletMap.Tablet(
+              "ks",
+              null,
+              "t",
+              first,
+              last,
+              new LinkedHashSet<TabletMap.HostShardPair>(
+                  Arrays.asList(
+                      new TabletMap.HostShardPair(hostIds.get(i % 6), i % 8),
+                      new TabletMap.HostShardPair(hostIds.get((i + 1) % 6), i % 8),
+                      new TabletMap.HostShardPair(hostIds.get((i + 2) % 6), i % 8)))));
+      first = last;
+    }
+    ConcurrentMap<TabletMap.KeyspaceTableNamePair, NavigableSet<TabletMap.Tablet>> mapping =
+        new ConcurrentHashMap<TabletMap.KeyspaceTableNamePair, NavigableSet<TabletMap.Tablet>>();
+    mapping.put(new TabletMap.KeyspaceTableNamePair("ks", "t"), tablets);
+    tabletMap = new TabletMap(cluster.manager, mapping);
+  }
+
+  @TearDown
+  public void tearDown() {
+    cluster.close();
+  }
+
+  @Benchmark
+  public TabletMap.Tablet getTablet() {
+    return tabletMap.getTablet("ks", "t", ThreadLocalRandom.current().nextLong());
+  }
+
+  @Benchmark
+  public Set<UUID> getReplicas() {
+    return tabletMap.getReplicas("ks", "t", ThreadLocalRandom.current().nextLong());
+  }
+}
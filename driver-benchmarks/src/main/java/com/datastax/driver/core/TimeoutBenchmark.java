@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of starting and cancelling the timeouts of a request, which is what happens to
+ * nearly every request.
+ *
+ * <p>{@code hashedWheelTimer} is how read timeouts were scheduled before they moved to a {@link
+ * TimeoutWheel} on each event loop. The {@code executions} benchmarks compare the bookkeeping of a
+ * request's running speculative executions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeoutBenchmark {
+
+  private static final int BATCH = 1000;
+  private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(12);
+
+  private static final TimerTask NOOP_TASK =
+      new TimerTask() {
+        @Override
+        public void run(Timeout timeout) {}
+      };
+
+  private HashedWheelTimer timer;
+  private EventLoop eventLoop;
+  private TimeoutWheel wheel;
+  private Callable<Integer> wheelBatch;
+
+  @Setup
+  public void setup() {
+    timer = new HashedWheelTimer();
+    timer.start();
+    eventLoop = new DefaultEventLoop();
+    wheel = new TimeoutWheel(eventLoop);
+    wheelBatch =
+        new Callable<Integer>() {
+          @Override
+          public Integer call() {
+            return addAndCancel();
+          }
+        };
+  }
+
+  @TearDown
+  public void tearDown() {
+    timer.stop();
+    eventLoop.shutdownGracefully(0, 0, TimeUnit.SECONDS).syncUninterruptibly();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public int hashedWheelTimer() {
+    int cancelled = 0;
+    for (int i = 0; i < BATCH; i++) {
+      Timeout timeout = timer.newTimeout(NOOP_TASK, TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+      if (timeout.cancel()) cancelled += 1;
+    }
+    return cancelled;
+  }
+
+  /** Timeouts started and cancelled on the event loop, like in response handlers. */
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public int timeoutWheel_onEventLoop() throws Exception {
+    return eventLoop.submit(wheelBatch).get();
+  }
+
+  /** Timeouts started and cancelled from another thread, which go through the incoming queue. */
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public int timeoutWheel_otherThread() {
+    return addAndCancel();
+  }
+
+  private int addAndCancel() {
+    int cancelled = 0;
+    for (int i = 0; i < BATCH; i++) {
+      NoopEntry entry = new NoopEntry();
+      wheel.add(entry, TIMEOUT_NANOS);
+      wheel.cancel(entry);
+      cancelled += 1;
+    }
+    return cancelled;
+  }
+
+  @Benchmark
+  public boolean executions_copyOnWriteSet() {
+    Object execution = new Object();
+    Set<Object> running = new CopyOnWriteArraySet<Object>();
+    running.add(execution);
+    return running.remove(execution) && running.isEmpty();
+  }
+
+  @Benchmark
+  public boolean executions_array() {
+    Object execution = new Object();
+    AtomicReferenceArray<Object> running =
+        new AtomicReferenceArray<Object>(RequestHandler.INITIAL_EXECUTIONS);
+    running.set(0, execution);
+    return running.compareAndSet(0, execution, null);
+  }
+
+  static class NoopEntry extends TimeoutWheel.Entry {
+    @Override
+    void onTimeout() {}
+  }
+}
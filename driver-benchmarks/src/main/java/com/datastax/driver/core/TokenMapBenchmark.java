@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.collect.ImmutableMap;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of finding the replicas of a token in the token map, as done by token-aware
+ * routing for every request to a table that doesn't use tablets.
+ *
+ * <p>{@code legacy} reproduces the previous lookup: a probe in a {@code HashMap} keyed by token,
+ * then a binary search over the boxed tokens of the ring.
+ *
+ * <p>Run with {@code -prof gc}: {@code gc.alloc.rate.norm} must be 0 B/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenMapBenchmark {
+
+  private static final int LOOKUPS = 1024;
+
+  @Param({"6", "60"})
+  public int nodes;
+
+  @Param({"256"})
+  public int vnodes;
+
+  private Cluster cluster;
+  private Metadata metadata;
+
+  // the previous implementation
+  private List<Token> ring;
+  private Map<Token, Set<Host>> tokenToHosts;
+
+  private Token[] tokens;
+  private int next;
+
+  @Setup
+  public void setup() {
+    cluster = Cluster.builder().addContactPoint("127.0.0.1").build();
+    Random random = new Random(42);
+    Token.Factory factory = Token.M3PToken.FACTORY;
+
+    Map<Host, Set<Token>> allTokens = new HashMap<Host, Set<Token>>();
+    Map<Token, Host> tokenToPrimary = new HashMap<Token, Host>();
+    for (int i = 0; i < nodes; i++) {
+      Host host =
+          new Host(
+              new TranslatedAddressEndPoint(new InetSocketAddress("127.0.0." + (i + 1), 9042)),
+              new ConvictionPolicy.DefaultConvictionPolicy.Factory(),
+              cluster.manager);
+      host.setLocationInfo("dc1", "rack" + (i % 3));
+      Set<Token> hostTokens = new HashSet<Token>();
+      for (int j = 0; j < vnodes; j++) {
+        Token token = factory.fromString(Long.toString(random.nextLong()));
+        hostTokens.add(token);
+        tokenToPrimary.put(token, host);
+      }
+      allTokens.put(host, hostTokens);
+    }
+
+    Map<String, String> replication =
+        ImmutableMap.of("class", "NetworkTopologyStrategy", "dc1", "3");
+    metadata = new Metadata(cluster.manager);
+    metadata.keyspaces.put("ks", new KeyspaceMetadata("ks", true, replication, false));
+    metadata.rebuildTokenMap(factory, allTokens);
+
+    ring = new ArrayList<Token>(new TreeSet<Token>(tokenToPrimary.keySet()));
+    tokenToHosts =
+        ReplicationStrategy.create(replication)
+            .computeTokenToReplicaMap("ks", tokenToPrimary, ring);
+
+    tokens = new Token[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      tokens[i] = factory.fromString(Long.toString(random.nextLong()));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    cluster.close();
+  }
+
+  @Benchmark
+  public Set<Host> current() {
+    return metadata.getReplicas("ks", nextToken());
+  }
+
+  @Benchmark
+  public Set<Host> legacy() {
+    Token token = nextToken();
+    Set<Host> hosts = tokenToHosts.get(token);
+    if (hosts != null) return hosts;
+    int i = Collections.binarySearch(ring, token);
+    if (i < 0) {
+      i = -i - 1;
+      if (i >= ring.size()) i = 0;
+    }
+    return tokenToHosts.get(ring.get(i));
+  }
+
+  private Token nextToken() {
+    Token token = tokens[next];
+    next = (next + 1) & (LOOKUPS - 1);
+    return token;
+  }
+}
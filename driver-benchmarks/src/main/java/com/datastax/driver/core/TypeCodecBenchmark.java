@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of serializing and deserializing common CQL types with the built-in {@link
+ * TypeCodec}s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypeCodecBenchmark {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.V4;
+
+  private final TypeCodec<List<Integer>> intList = TypeCodec.list(TypeCodec.cint());
+
+  private String text;
+  private UUID uuid;
+  private List<Integer> list;
+
+  private ByteBuffer serializedBigint;
+  private ByteBuffer serializedText;
+  private ByteBuffer serializedUuid;
+  private ByteBuffer serializedList;
+
+  @Setup
+  public void setup() {
+    text = "user42@example.com";
+    uuid = UUID.randomUUID();
+    list = new ArrayList<Integer>();
+    for (int i = 0; i < 16; i++) list.add(i);
+
+    serializedBigint = TypeCodec.bigint().serializeNoBoxing(42L, VERSION);
+    serializedText = TypeCodec.varchar().serialize(text, VERSION);
+    serializedUuid = TypeCodec.uuid().serialize(uuid, VERSION);
+    serializedList = intList.serialize(list, VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeBigint() {
+    return TypeCodec.bigint().serializeNoBoxing(42L, VERSION);
+  }
+
+  @Benchmark
+  public long deserializeBigint() {
+    return TypeCodec.bigint().deserializeNoBoxing(serializedBigint.duplicate(), VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeText() {
+    return TypeCodec.varchar().serialize(text, VERSION);
+  }
+
+  @Benchmark
+  public String deserializeText() {
+    return TypeCodec.varchar().deserialize(serializedText.duplicate(), VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeUuid() {
+    return TypeCodec.uuid().serialize(uuid, VERSION);
+  }
+
+  @Benchmark
+  public UUID deserializeUuid() {
+    return TypeCodec.uuid().deserialize(serializedUuid.duplicate(), VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeList() {
+    return intList.serialize(list, VERSION);
+  }
+
+  @Benchmark
+  public List<Integer> deserializeList() {
+    return intList.deserialize(serializedList.duplicate(), VERSION);
+  }
+}
@@ -176,6 +176,21 @@ abstract class ArrayBackedResultSet implements ResultSet {
     return metadata;
   }
 
+  /**
+   * Removes the rows of the current page, fetching the next page first if the current one has been
+   * consumed already.
+   *
+   * @return the remaining rows of the current page, empty if this result set is exhausted.
+   */
+  abstract Queue<List<ByteBuffer>> pollPage();
+
+  /** @see ColumnarPage#nextPage(ResultSet) */
+  ColumnarPage nextColumnarPage() {
+    Queue<List<ByteBuffer>> rows = pollPage();
+    // polling the page might have updated the metadata
+    return new ColumnarPage(metadata, protocolVersion, rows);
+  }
+
   @Override
   public List<Row> all() {
     if (isExhausted()) return Collections.emptyList();
@@ -223,7 +238,7 @@ abstract class ArrayBackedResultSet implements ResultSet {
 
   private static class SinglePage extends ArrayBackedResultSet {
 
-    private final Queue<List<ByteBuffer>> rows;
+    private Queue<List<ByteBuffer>> rows;
     private final ExecutionInfo info;
 
     private SinglePage(
@@ -248,6 +263,13 @@ abstract class ArrayBackedResultSet implements ResultSet {
       return ArrayBackedRow.fromData(metadata, tokenFactory, protocolVersion, rows.poll());
     }
 
+    @Override
+    Queue<List<ByteBuffer>> pollPage() {
+      Queue<List<ByteBuffer>> page = rows;
+      rows = EMPTY_QUEUE;
+      return page;
+    }
+
     @Override
     public int getAvailableWithoutFetching() {
       return rows.size();
@@ -333,6 +355,14 @@ abstract class ArrayBackedResultSet implements ResultSet {
       return ArrayBackedRow.fromData(metadata, tokenFactory, protocolVersion, currentPage.poll());
     }
 
+    @Override
+    Queue<List<ByteBuffer>> pollPage() {
+      prepareNextRow();
+      Queue<List<ByteBuffer>> page = currentPage;
+      currentPage = EMPTY_QUEUE;
+      return page;
+    }
+
     @Override
     public int getAvailableWithoutFetching() {
       int available = currentPage.size();
@@ -20,7 +20,7 @@ import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.regex.Pattern;
 
-/** Implementation of a Row backed by an ArrayList. */
+/** Implementation of a Row backed by a list of values. */
 class ArrayBackedRow extends AbstractGettableData implements Row {
 
   /**
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.utils.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts the executions of each simple statement query string, prepares the ones that reach a
+ * threshold in the background, and executes them as bound statements from then on.
+ *
+ * @see QueryOptions#setAutoPrepareThreshold(int)
+ */
+class AutoPreparer {
+
+  private static final Logger logger = LoggerFactory.getLogger(AutoPreparer.class);
+
+  /** The number of query strings whose executions are tracked. */
+  static final int MAX_TRACKED_QUERIES = 10000;
+
+  private final SessionManager session;
+  private final int threshold;
+  private final Cache<Key, Candidate> candidates =
+      CacheBuilder.newBuilder().maximumSize(MAX_TRACKED_QUERIES).build();
+
+  AutoPreparer(SessionManager session, int threshold) {
+    this.session = session;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Returns the statement to execute in place of {@code statement}: a bound statement if it was
+   * prepared, or {@code statement} itself otherwise.
+   */
+  Statement maybeBind(Statement statement) {
+    if (!(statement instanceof SimpleStatement)) return statement;
+    SimpleStatement simpleStatement = (SimpleStatement) statement;
+    // Named values can't be matched to the variables without parsing the query, and statements
+    // with their own keyspace would be prepared in the wrong one
+    if (simpleStatement.usesNamedValues() || simpleStatement.getKeyspace() != null)
+      return statement;
+
+    Key key = new Key(simpleStatement.getQueryString(), session.poolsState.keyspace);
+    Candidate candidate = candidates.asMap().get(key);
+    if (candidate == null) {
+      Candidate newCandidate = new Candidate();
+      candidate = candidates.asMap().putIfAbsent(key, newCandidate);
+      if (candidate == null) candidate = newCandidate;
+    }
+
+    ListenableFuture<PreparedStatement> prepared = candidate.prepared;
+    if (prepared == null) {
+      if (candidate.executions.incrementAndGet() == threshold) prepare(key, candidate);
+      return statement;
+    }
+    if (!prepared.isDone()) return statement;
+    try {
+      return bind(Uninterruptibles.getUninterruptibly(prepared), simpleStatement);
+    } catch (ExecutionException e) {
+      return statement;
+    }
+  }
+
+  /**
+   * Forgets all the queries, so that they get prepared again with up-to-date metadata once they
+   * reach the threshold.
+   */
+  void clear() {
+    candidates.invalidateAll();
+  }
+
+  private void prepare(final Key key, final Candidate candidate) {
+    logger.debug("Preparing {} after {} executions", key.query, threshold);
+    // Not shared with the application, which may have set options on its own prepared statement
+    candidate.prepared = session.prepareUnsharedAsync(key.query);
+    GuavaCompatibility.INSTANCE.addCallback(
+        candidate.prepared,
+        new FutureCallback<PreparedStatement>() {
+          @Override
+          public void onSuccess(PreparedStatement result) {}
+
+          @Override
+          public void onFailure(Throwable t) {
+            // Start counting again, in case the failure was transient
+            logger.debug("Error while preparing " + key.query + ", will retry later", t);
+            candidate.executions.set(0);
+            candidate.prepared = null;
+          }
+        });
+  }
+
+  private Statement bind(PreparedStatement prepared, SimpleStatement statement) {
+    ProtocolVersion protocolVersion = session.cluster.manager.protocolVersion();
+    CodecRegistry codecRegistry = session.cluster.getConfiguration().getCodecRegistry();
+    ByteBuffer[] values = statement.getValues(protocolVersion, codecRegistry);
+    int count = (values == null) ? 0 : values.length;
+    if (count != prepared.getVariables().size()) return statement;
+
+    BoundStatement bound = prepared.bind();
+    // The values are serialized like they would be for the simple statement, and validated by the
+    // server in the same way
+    for (int i = 0; i < count; i++) bound.setBytesUnsafe(i, values[i]);
+    statement.copyOptionsTo(bound);
+    return bound;
+  }
+
+  private static class Candidate {
+    final AtomicInteger executions = new AtomicInteger();
+    volatile ListenableFuture<PreparedStatement> prepared;
+  }
+
+  private static class Key {
+    final String query;
+    final String keyspace;
+
+    Key(String query, String keyspace) {
+      this.query = query;
+      this.keyspace = keyspace;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other == this) return true;
+      if (!(other instanceof Key)) return false;
+      Key that = (Key) other;
+      return this.query.equals(that.query) && MoreObjects.equal(this.keyspace, that.keyspace);
+    }
+
+    @Override
+    public int hashCode() {
+      return MoreObjects.hashCode(query, keyspace);
+    }
+  }
+}
@@ -45,11 +45,9 @@ import com.google.common.base.Functions;
 import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
-import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.FutureCallback;
@@ -68,15 +66,19 @@ import java.net.InetSocketAddress;
 import java.net.URL;
 import java.net.UnknownHostException;
 import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
@@ -88,6 +90,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -1549,6 +1552,44 @@ public class Cluster implements Closeable {
     return "cluster" + CLUSTER_ID.incrementAndGet();
   }
 
+  /**
+   * Sorts statements by last use, most recent first.
+   *
+   * <p>The last use of a statement keeps changing while it gets executed, so it is read once per
+   * statement before sorting; otherwise the order could change during the sort, which makes it
+   * fail.
+   */
+  static List<PreparedStatement> mostRecentlyUsedFirst(Collection<PreparedStatement> statements) {
+    List<StatementUsage> usages = new ArrayList<StatementUsage>(statements.size());
+    for (PreparedStatement statement : statements) {
+      usages.add(new StatementUsage(statement, statement.getPreparedId().lastUsedNanos));
+    }
+    Collections.sort(usages, StatementUsage.MOST_RECENTLY_USED_FIRST);
+    List<PreparedStatement> sorted = new ArrayList<PreparedStatement>(usages.size());
+    for (StatementUsage usage : usages) sorted.add(usage.statement);
+    return sorted;
+  }
+
+  private static class StatementUsage {
+    static final Comparator<StatementUsage> MOST_RECENTLY_USED_FIRST =
+        new Comparator<StatementUsage>() {
+          @Override
+          public int compare(StatementUsage usage1, StatementUsage usage2) {
+            // nanoTime values must be compared by difference
+            long diff = usage2.lastUsedNanos - usage1.lastUsedNanos;
+            return (diff > 0) ? 1 : (diff < 0) ? -1 : 0;
+          }
+        };
+
+    final PreparedStatement statement;
+    final long lastUsedNanos;
+
+    StatementUsage(PreparedStatement statement, long lastUsedNanos) {
+      this.statement = statement;
+      this.lastUsedNanos = lastUsedNanos;
+    }
+  }
+
   /**
    * The sessions and hosts managed by this a Cluster instance.
    *
@@ -1580,6 +1621,8 @@ public class Cluster implements Closeable {
     ListeningExecutorService blockingExecutor;
     ScheduledExecutorService reconnectionExecutor;
     ScheduledExecutorService scheduledTasksExecutor;
+    // Can be null
+    ExecutorService tokenMapExecutor;
 
     BlockingQueue<Runnable> executorQueue;
     BlockingQueue<Runnable> blockingExecutorQueue;
@@ -1690,6 +1733,9 @@ public class Cluster implements Closeable {
                 ? ((ThreadPoolExecutor) scheduledTasksExecutor).getQueue()
                 : null;
 
+        // token map executor
+        this.tokenMapExecutor = threadingOptions.createTokenMapExecutor(clusterName);
+
         this.reaper = new ConnectionReaper(threadingOptions.createReaperExecutor(clusterName));
         this.metadata = new Metadata(this);
         this.connectionFactory = new Connection.Factory(this, configuration);
@@ -1960,6 +2006,7 @@ public class Cluster implements Closeable {
         shutdownNow(reconnectionExecutor);
         shutdownNow(scheduledTasksExecutor);
         shutdownNow(blockingExecutor);
+        shutdownNow(tokenMapExecutor);
 
         // but for the worker executor, we want to let submitted tasks finish unless the shutdown is
         // forced.
@@ -2562,71 +2609,43 @@ public class Cluster implements Closeable {
     }
 
     /**
+     * Registers a statement so that it gets re-prepared when needed, unless a statement with the
+     * same id is already registered. Unlike {@link #addPrepared(PreparedStatement)}, {@code stmt}
+     * is never swapped for the registered instance, so that it isn't shared with the application.
+     */
+    void registerPrepared(PreparedStatement stmt) {
+      preparedQueries.putIfAbsent(stmt.getPreparedId().boundValuesMetadata.id, stmt);
+    }
+
+    /**
+     * Re-prepares the most recently used statements on a host, and schedules the preparation of the
+     * others in the background.
+     *
      * @param reusedConnection an existing connection (from a reconnection attempt) that we want to
      *     reuse to prepare the statements (might be null).
      * @return a connection that the rest of the initialization process can use (it will be made
      *     part of a connection pool). Can be reusedConnection, or one that was open in the method.
      */
-    private Connection prepareAllQueries(Host host, Connection reusedConnection)
+    private Connection prepareAllQueries(final Host host, Connection reusedConnection)
         throws InterruptedException, UnsupportedProtocolVersionException,
             ClusterNameMismatchException {
       if (preparedQueries.isEmpty()) return reusedConnection;
 
+      QueryOptions queryOptions = configuration.getQueryOptions();
+      final int concurrency = queryOptions.getReprepareOnUpConcurrency();
+      List<PreparedStatement> statements = mostRecentlyUsedFirst(preparedQueries.values());
+      int hotCount = Math.min(statements.size(), queryOptions.getReprepareOnUpHotStatements());
+      final List<PreparedStatement> cold = statements.subList(hotCount, statements.size());
+
       logger.debug(
-          "Preparing {} prepared queries on newly up node {}", preparedQueries.size(), host);
+          "Preparing {} prepared queries on newly up node {} ({} in the background)",
+          statements.size(),
+          host,
+          cold.size());
       Connection connection = null;
       try {
         connection = (reusedConnection == null) ? connectionFactory.open(host) : reusedConnection;
-
-        // Furthermore, along with each prepared query we keep the current keyspace at the time of
-        // preparation
-        // as we need to make it is the same when we re-prepare on new/restarted nodes. Most query
-        // will use the
-        // same keyspace so keeping it each time is slightly wasteful, but this doesn't really
-        // matter and is
-        // simpler. Besides, we do avoid in prepareAllQueries to not set the current keyspace more
-        // than needed.
-
-        // We need to make sure we prepared every query with the right current keyspace, i.e. the
-        // one originally
-        // used for preparing it. However, since we are likely that all prepared query belong to
-        // only a handful
-        // of different keyspace (possibly only one), and to avoid setting the current keyspace more
-        // than needed,
-        // we first sort the query per keyspace.
-        SetMultimap<String, String> perKeyspace = HashMultimap.create();
-        for (PreparedStatement ps : preparedQueries.values()) {
-          // It's possible for a query to not have a current keyspace. But since null doesn't work
-          // well as
-          // map keys, we use the empty string instead (that is not a valid keyspace name).
-          String keyspace = ps.getQueryKeyspace() == null ? "" : ps.getQueryKeyspace();
-          perKeyspace.put(keyspace, ps.getQueryString());
-        }
-
-        for (String keyspace : perKeyspace.keySet()) {
-          // Empty string mean no particular keyspace to set
-          if (!keyspace.isEmpty()) connection.setKeyspace(keyspace);
-
-          List<Connection.Future> futures =
-              new ArrayList<Connection.Future>(preparedQueries.size());
-          for (String query : perKeyspace.get(keyspace)) {
-            futures.add(connection.write(new Requests.Prepare(query)));
-          }
-          for (Connection.Future future : futures) {
-            try {
-              future.get();
-            } catch (ExecutionException e) {
-              // This "might" happen if we drop a CF but haven't removed it's prepared queries
-              // (which we don't do
-              // currently). It's not a big deal however as if it's a more serious problem it'll
-              // show up later when
-              // the query is tried for execution.
-              logger.debug("Unexpected error while preparing queries on new/newly up host", e);
-            }
-          }
-        }
-
-        return connection;
+        prepareAll(connection, statements.subList(0, hotCount), concurrency);
       } catch (ConnectionException e) {
         // Ignore, not a big deal
         if (connection != null) connection.closeAsync();
@@ -2643,6 +2662,87 @@ public class Cluster implements Closeable {
         if (connection != null) connection.closeAsync();
         return null;
       }
+
+      if (!cold.isEmpty()) {
+        // The connection we return will be added to a pool, so use a dedicated one
+        try {
+          blockingExecutor.submit(
+              new Runnable() {
+                @Override
+                public void run() {
+                  Connection connection = null;
+                  try {
+                    connection = connectionFactory.open(host);
+                    prepareAll(connection, cold, concurrency);
+                    logger.debug(
+                        "Done preparing {} prepared queries in the background on {}",
+                        cold.size(),
+                        host);
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  } catch (Exception e) {
+                    // Not a big deal, statements will be prepared on the fly if they get executed
+                    logger.debug("Error while preparing queries in the background on " + host, e);
+                  } finally {
+                    if (connection != null) connection.closeAsync();
+                  }
+                }
+              });
+        } catch (RejectedExecutionException e) {
+          // The cluster is closing
+          logger.debug("Not preparing queries in the background on {}, cluster is closing", host);
+        }
+      }
+      return connection;
+    }
+
+    /**
+     * Prepares statements on a connection, with at most {@code concurrency} requests in flight.
+     *
+     * <p>Each statement must be prepared with the keyspace that was current when it was originally
+     * prepared. Since a connection only has one current keyspace at a time, statements are grouped
+     * by keyspace, and we wait for all the requests of a group before switching to the next one.
+     * Most applications only use a handful of keyspaces (possibly only one), so this rarely
+     * happens. Groups are processed in the order of their most recently used statement.
+     */
+    private void prepareAll(
+        Connection connection, List<PreparedStatement> statements, int concurrency)
+        throws InterruptedException, ConnectionException, BusyConnectionException {
+      // It's possible for a query to not have a current keyspace, LinkedHashMap accepts null keys
+      Map<String, List<String>> perKeyspace = new LinkedHashMap<String, List<String>>();
+      for (PreparedStatement ps : statements) {
+        List<String> queries = perKeyspace.get(ps.getQueryKeyspace());
+        if (queries == null) {
+          queries = new ArrayList<String>();
+          perKeyspace.put(ps.getQueryKeyspace(), queries);
+        }
+        queries.add(ps.getQueryString());
+      }
+
+      Queue<Connection.Future> inFlight = new ArrayDeque<Connection.Future>(concurrency);
+      for (Map.Entry<String, List<String>> entry : perKeyspace.entrySet()) {
+        // null means no particular keyspace to set
+        if (entry.getKey() != null) {
+          while (!inFlight.isEmpty()) awaitPreparation(inFlight.poll());
+          connection.setKeyspace(entry.getKey());
+        }
+        for (String query : entry.getValue()) {
+          if (inFlight.size() >= concurrency) awaitPreparation(inFlight.poll());
+          inFlight.add(connection.write(new Requests.Prepare(query)));
+        }
+      }
+      while (!inFlight.isEmpty()) awaitPreparation(inFlight.poll());
+    }
+
+    private void awaitPreparation(Connection.Future future) throws InterruptedException {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        // This "might" happen if we drop a CF but haven't removed it's prepared queries (which we
+        // don't do currently). It's not a big deal however as if it's a more serious problem it'll
+        // show up later when the query is tried for execution.
+        logger.debug("Unexpected error while preparing queries on new/newly up host", e);
+      }
     }
 
     ListenableFuture<Void> submitSchemaRefresh(
@@ -2796,6 +2896,7 @@ public class Cluster implements Closeable {
           }
           break;
         case SCHEMA_CHANGE:
+          for (SessionManager session : sessions) session.invalidatePreparedStatementCache();
           if (!configuration.getQueryOptions().isMetadataEnabled()) return;
 
           ProtocolEvent.SchemaChange scc = (ProtocolEvent.SchemaChange) event;
@@ -2972,6 +3073,9 @@ public class Cluster implements Closeable {
                   if (blockingExecutor != null) {
                     blockingExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
                   }
+                  if (tokenMapExecutor != null) {
+                    tokenMapExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+                  }
 
                   // Some of the jobs on the executors can be doing query stuff, so close the
                   // connectionFactory at the very last
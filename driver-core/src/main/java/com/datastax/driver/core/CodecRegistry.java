@@ -123,6 +123,8 @@ import org.slf4j.LoggerFactory;
  *       you can use your {@code LocalDateCodec} to retrieve it as a {@code java.time.LocalDate};
  *   <li>{@link TupleType tuple types}, mapped to {@link TupleValue} (with the same rules for nested
  *       fields);
+ *   <li>{@link com.datastax.driver.core.DataType.VectorType vectors} of {@code float}, mapped to
+ *       {@code float[]};
  *   <li>{@link com.datastax.driver.core.DataType.CustomType custom types}, mapped to {@code
  *       ByteBuffer}.
  * </ul>
@@ -704,6 +706,11 @@ public final class CodecRegistry {
       return (TypeCodec<T>) TypeCodec.userType((UserType) cqlType);
     }
 
+    if (isFloatVector(cqlType)
+        && (javaType == null || float[].class.equals(javaType.getRawType()))) {
+      return (TypeCodec<T>) TypeCodec.floatVector((DataType.VectorType) cqlType);
+    }
+
     if (cqlType instanceof DataType.CustomType
         && (javaType == null || ByteBuffer.class.isAssignableFrom(javaType.getRawType()))) {
       return (TypeCodec<T>) TypeCodec.custom((DataType.CustomType) cqlType);
@@ -790,6 +797,10 @@ public final class CodecRegistry {
           TypeCodec.userType(cqlType == null ? ((UDTValue) value).getType() : (UserType) cqlType);
     }
 
+    if (isFloatVector(cqlType) && value instanceof float[]) {
+      return (TypeCodec<T>) TypeCodec.floatVector((DataType.VectorType) cqlType);
+    }
+
     if ((cqlType != null && cqlType instanceof DataType.CustomType)
         && value instanceof ByteBuffer) {
       return (TypeCodec<T>) TypeCodec.custom((DataType.CustomType) cqlType);
@@ -798,6 +809,11 @@ public final class CodecRegistry {
     return null;
   }
 
+  private static boolean isFloatVector(DataType cqlType) {
+    return cqlType instanceof DataType.VectorType
+        && ((DataType.VectorType) cqlType).getElementType().getName() == DataType.Name.FLOAT;
+  }
+
   private static CodecNotFoundException notFound(DataType cqlType, TypeToken<?> javaType) {
     String msg =
         String.format(
@@ -0,0 +1,368 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.exceptions.CodecNotFoundException;
+import com.google.common.annotations.Beta;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A page of results, accessed by column rather than by row.
+ *
+ * <p>This is meant for applications that read a few columns out of large pages, typically to
+ * aggregate them: values are decoded straight into arrays, without creating {@link Row} instances
+ * nor boxing primitive values.
+ *
+ * <pre>{@code
+ * ResultSet rs = session.execute("SELECT id, amount FROM ks.sales");
+ * double total = 0;
+ * for (ColumnarPage page = ColumnarPage.nextPage(rs);
+ *     page.getRowCount() > 0;
+ *     page = ColumnarPage.nextPage(rs)) {
+ *   for (double amount : page.getDoubleColumn("amount")) total += amount;
+ * }
+ * }</pre>
+ *
+ * Like for {@link Row} getters, the values are decoded with the codecs of the {@link
+ * CodecRegistry}; for primitive types, {@code null} values are returned as the type's default value
+ * (use {@link #isNull(int, int)} to tell them apart).
+ */
+@Beta
+public final class ColumnarPage {
+
+  private final ColumnDefinitions metadata;
+  private final ProtocolVersion protocolVersion;
+  private final List<List<ByteBuffer>> rows;
+
+  ColumnarPage(
+      ColumnDefinitions metadata,
+      ProtocolVersion protocolVersion,
+      Collection<List<ByteBuffer>> rows) {
+    this.metadata = metadata;
+    this.protocolVersion = protocolVersion;
+    this.rows = new ArrayList<List<ByteBuffer>>(rows);
+  }
+
+  /**
+   * Removes the rows of the current page of a result set and returns them as columns.
+   *
+   * <p>If all the rows of the current page have already been consumed, the next page is fetched
+   * first; like {@link ResultSet#one()}, this blocks until it is received. The rows returned by
+   * this method are consumed: they will not be returned by the result set's iterator.
+   *
+   * @param resultSet the result set, which must have been returned by the driver.
+   * @return the remaining rows of the current page. The page is empty if and only if {@code
+   *     resultSet} is exhausted.
+   * @throws IllegalArgumentException if {@code resultSet} was not returned by the driver.
+   */
+  public static ColumnarPage nextPage(ResultSet resultSet) {
+    if (!(resultSet instanceof ArrayBackedResultSet)) {
+      throw new IllegalArgumentException(
+          "Columnar access is only supported for result sets returned by the driver, got "
+              + resultSet.getClass().getName());
+    }
+    return ((ArrayBackedResultSet) resultSet).nextColumnarPage();
+  }
+
+  /**
+   * Returns the columns in this page.
+   *
+   * @return the columns in this page.
+   */
+  public ColumnDefinitions getColumnDefinitions() {
+    return metadata;
+  }
+
+  /**
+   * Returns the number of rows in this page, which is also the length of the arrays returned by the
+   * column getters.
+   *
+   * @return the number of rows in this page.
+   */
+  public int getRowCount() {
+    return rows.size();
+  }
+
+  /**
+   * Returns whether a value of this page is {@code null}.
+   *
+   * @param row the index of the row.
+   * @param column the index of the column.
+   * @return whether the value is {@code null}.
+   * @throws IndexOutOfBoundsException if {@code row} or {@code column} are not valid indexes.
+   */
+  public boolean isNull(int row, int column) {
+    return rows.get(row).get(column) == null;
+  }
+
+  /**
+   * Returns the values of the {@code i}th column as booleans.
+   *
+   * @param i the index of the column.
+   * @return the values, with {@code false} for {@code null} values.
+   * @throws IndexOutOfBoundsException if {@code i} is not a valid index for this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a Java boolean.
+   */
+  public boolean[] getBoolColumn(int i) {
+    TypeCodec<Boolean> codec = codecFor(i, Boolean.class);
+    boolean[] values = new boolean[rows.size()];
+    for (int row = 0; row < values.length; row++) {
+      ByteBuffer value = rows.get(row).get(i);
+      if (codec instanceof TypeCodec.PrimitiveBooleanCodec) {
+        values[row] =
+            ((TypeCodec.PrimitiveBooleanCodec) codec).deserializeNoBoxing(value, protocolVersion);
+      } else {
+        Boolean b = codec.deserialize(value, protocolVersion);
+        values[row] = b != null && b;
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Returns the values of a column as booleans.
+   *
+   * @param name the name of the column.
+   * @return the values, with {@code false} for {@code null} values.
+   * @throws IllegalArgumentException if {@code name} is not a column of this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a Java boolean.
+   */
+  public boolean[] getBoolColumn(String name) {
+    return getBoolColumn(metadata.getFirstIdx(name));
+  }
+
+  /**
+   * Returns the values of the {@code i}th column as ints.
+   *
+   * @param i the index of the column.
+   * @return the values, with {@code 0} for {@code null} values.
+   * @throws IndexOutOfBoundsException if {@code i} is not a valid index for this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a Java int.
+   */
+  public int[] getIntColumn(int i) {
+    TypeCodec<Integer> codec = codecFor(i, Integer.class);
+    int[] values = new int[rows.size()];
+    for (int row = 0; row < values.length; row++) {
+      ByteBuffer value = rows.get(row).get(i);
+      if (codec instanceof TypeCodec.PrimitiveIntCodec) {
+        values[row] =
+            ((TypeCodec.PrimitiveIntCodec) codec).deserializeNoBoxing(value, protocolVersion);
+      } else {
+        Integer v = codec.deserialize(value, protocolVersion);
+        values[row] = v == null ? 0 : v;
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Returns the values of a column as ints.
+   *
+   * @param name the name of the column.
+   * @return the values, with {@code 0} for {@code null} values.
+   * @throws IllegalArgumentException if {@code name} is not a column of this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a Java int.
+   */
+  public int[] getIntColumn(String name) {
+    return getIntColumn(metadata.getFirstIdx(name));
+  }
+
+  /**
+   * Returns the values of the {@code i}th column as longs.
+   *
+   * @param i the index of the column.
+   * @return the values, with {@code 0L} for {@code null} values.
+   * @throws IndexOutOfBoundsException if {@code i} is not a valid index for this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a Java long.
+   */
+  public long[] getLongColumn(int i) {
+    TypeCodec<Long> codec = codecFor(i, Long.class);
+    long[] values = new long[rows.size()];
+    for (int row = 0; row < values.length; row++) {
+      ByteBuffer value = rows.get(row).get(i);
+      if (codec instanceof TypeCodec.PrimitiveLongCodec) {
+        values[row] =
+            ((TypeCodec.PrimitiveLongCodec) codec).deserializeNoBoxing(value, protocolVersion);
+      } else {
+        Long v = codec.deserialize(value, protocolVersion);
+        values[row] = v == null ? 0L : v;
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Returns the values of a column as longs.
+   *
+   * @param name the name of the column.
+   * @return the values, with {@code 0L} for {@code null} values.
+   * @throws IllegalArgumentException if {@code name} is not a column of this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a Java long.
+   */
+  public long[] getLongColumn(String name) {
+    return getLongColumn(metadata.getFirstIdx(name));
+  }
+
+  /**
+   * Returns the values of the {@code i}th column as floats.
+   *
+   * @param i the index of the column.
+   * @return the values, with {@code 0.0f} for {@code null} values.
+   * @throws IndexOutOfBoundsException if {@code i} is not a valid index for this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a Java float.
+   */
+  public float[] getFloatColumn(int i) {
+    TypeCodec<Float> codec = codecFor(i, Float.class);
+    float[] values = new float[rows.size()];
+    for (int row = 0; row < values.length; row++) {
+      ByteBuffer value = rows.get(row).get(i);
+      if (codec instanceof TypeCodec.PrimitiveFloatCodec) {
+        values[row] =
+            ((TypeCodec.PrimitiveFloatCodec) codec).deserializeNoBoxing(value, protocolVersion);
+      } else {
+        Float v = codec.deserialize(value, protocolVersion);
+        values[row] = v == null ? 0.0f : v;
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Returns the values of a column as floats.
+   *
+   * @param name the name of the column.
+   * @return the values, with {@code 0.0f} for {@code null} values.
+   * @throws IllegalArgumentException if {@code name} is not a column of this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a Java float.
+   */
+  public float[] getFloatColumn(String name) {
+    return getFloatColumn(metadata.getFirstIdx(name));
+  }
+
+  /**
+   * Returns the values of the {@code i}th column as doubles.
+   *
+   * @param i the index of the column.
+   * @return the values, with {@code 0.0} for {@code null} values.
+   * @throws IndexOutOfBoundsException if {@code i} is not a valid index for this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a Java double.
+   */
+  public double[] getDoubleColumn(int i) {
+    TypeCodec<Double> codec = codecFor(i, Double.class);
+    double[] values = new double[rows.size()];
+    for (int row = 0; row < values.length; row++) {
+      ByteBuffer value = rows.get(row).get(i);
+      if (codec instanceof TypeCodec.PrimitiveDoubleCodec) {
+        values[row] =
+            ((TypeCodec.PrimitiveDoubleCodec) codec).deserializeNoBoxing(value, protocolVersion);
+      } else {
+        Double v = codec.deserialize(value, protocolVersion);
+        values[row] = v == null ? 0.0 : v;
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Returns the values of a column as doubles.
+   *
+   * @param name the name of the column.
+   * @return the values, with {@code 0.0} for {@code null} values.
+   * @throws IllegalArgumentException if {@code name} is not a column of this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a Java double.
+   */
+  public double[] getDoubleColumn(String name) {
+    return getDoubleColumn(metadata.getFirstIdx(name));
+  }
+
+  /**
+   * Returns the values of the {@code i}th column as UUIDs.
+   *
+   * @param i the index of the column.
+   * @return the values, with {@code null} for {@code null} values.
+   * @throws IndexOutOfBoundsException if {@code i} is not a valid index for this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a {@code UUID}.
+   */
+  public UUID[] getUUIDColumn(int i) {
+    return getColumn(i, UUID.class, new UUID[rows.size()]);
+  }
+
+  /**
+   * Returns the values of a column as UUIDs.
+   *
+   * @param name the name of the column.
+   * @return the values, with {@code null} for {@code null} values.
+   * @throws IllegalArgumentException if {@code name} is not a column of this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a {@code UUID}.
+   */
+  public UUID[] getUUIDColumn(String name) {
+    return getUUIDColumn(metadata.getFirstIdx(name));
+  }
+
+  /**
+   * Returns the values of the {@code i}th column as strings.
+   *
+   * @param i the index of the column.
+   * @return the values, with {@code null} for {@code null} values.
+   * @throws IndexOutOfBoundsException if {@code i} is not a valid index for this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a {@code String}.
+   */
+  public String[] getStringColumn(int i) {
+    return getColumn(i, String.class, new String[rows.size()]);
+  }
+
+  /**
+   * Returns the values of a column as strings.
+   *
+   * @param name the name of the column.
+   * @return the values, with {@code null} for {@code null} values.
+   * @throws IllegalArgumentException if {@code name} is not a column of this page.
+   * @throws CodecNotFoundException if there is no registered codec to convert the column's CQL type
+   *     to a {@code String}.
+   */
+  public String[] getStringColumn(String name) {
+    return getStringColumn(metadata.getFirstIdx(name));
+  }
+
+  private <T> T[] getColumn(int i, Class<T> javaClass, T[] values) {
+    TypeCodec<T> codec = codecFor(i, javaClass);
+    for (int row = 0; row < values.length; row++) {
+      values[row] = codec.deserialize(rows.get(row).get(i), protocolVersion);
+    }
+    return values;
+  }
+
+  private <T> TypeCodec<T> codecFor(int i, Class<T> javaClass) {
+    return metadata.codecRegistry.codecFor(metadata.getType(i), javaClass);
+  }
+}
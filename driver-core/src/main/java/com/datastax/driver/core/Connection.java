@@ -24,6 +24,7 @@ package com.datastax.driver.core;
 import static com.datastax.driver.core.Message.Response.Type.ERROR;
 import static io.netty.handler.timeout.IdleState.READER_IDLE;
 
+import com.codahale.metrics.Histogram;
 import com.datastax.driver.core.Responses.Result.SetKeyspace;
 import com.datastax.driver.core.Responses.Supported;
 import com.datastax.driver.core.exceptions.AuthenticationException;
@@ -68,9 +69,7 @@ import io.netty.handler.codec.DecoderException;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.handler.timeout.IdleStateHandler;
-import io.netty.util.Timeout;
 import io.netty.util.Timer;
-import io.netty.util.TimerTask;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
@@ -81,7 +80,6 @@ import java.security.InvalidParameterException;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -136,6 +134,9 @@ class Connection {
   @VisibleForTesting volatile Channel channel;
   private final Factory factory;
 
+  // The read timeouts of the requests sent on this connection; set on first use
+  private volatile TimeoutWheel timeoutWheel;
+
   @VisibleForTesting final Dispatcher dispatcher;
 
   // Used by connection pooling to count how many requests are "in flight" on that connection.
@@ -1145,7 +1146,7 @@ class Connection {
       logger.debug("{} has already terminated", this);
       return true;
     } else {
-      if (force || dispatcher.pending.isEmpty()) {
+      if (force || !dispatcher.hasPendingRequests()) {
         if (force)
           logger.warn(
               "Forcing termination of {}. This should not happen and is likely a bug, please report.",
@@ -1240,6 +1241,14 @@ class Connection {
 
     private final ChannelGroup allChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
 
+    // One flusher per event loop; they are specific to each cluster since they use its options
+    private final ConcurrentMap<EventLoop, Flusher> flusherLookup =
+        new MapMaker().concurrencyLevel(16).weakKeys().makeMap();
+
+    // One timeout wheel per event loop, for the read timeouts of the connections it serves
+    private final ConcurrentMap<EventLoop, TimeoutWheel> timeoutWheels =
+        new MapMaker().concurrencyLevel(16).weakKeys().makeMap();
+
     private final ConcurrentMap<Host, AtomicInteger> idGenerators =
         new ConcurrentHashMap<Host, AtomicInteger>();
     final DefaultResponseHandler defaultHandler;
@@ -1410,12 +1419,30 @@ class Connection {
 
   private static final class Flusher implements Runnable {
     final WeakReference<EventLoop> eventLoopRef;
+    final SocketOptions socketOptions;
+    final Histogram batchSizes; // null if metrics are disabled
     final Queue<FlushItem> queued = new ConcurrentLinkedQueue<FlushItem>();
     final AtomicBoolean running = new AtomicBoolean(false);
+
+    // The fields below are only accessed from the event loop
     final HashSet<Channel> channels = new HashSet<Channel>();
+    // The number of requests written since the last flush, and when the first of them was written
+    private int pendingRequests;
+    private long batchStartNanos;
+    private boolean flushScheduled;
+    private final Runnable scheduledFlush =
+        new Runnable() {
+          @Override
+          public void run() {
+            flushScheduled = false;
+            Flusher.this.run();
+          }
+        };
 
-    private Flusher(EventLoop eventLoop) {
+    private Flusher(EventLoop eventLoop, SocketOptions socketOptions, Histogram batchSizes) {
       this.eventLoopRef = new WeakReference<EventLoop>(eventLoop);
+      this.socketOptions = socketOptions;
+      this.batchSizes = batchSizes;
     }
 
     void start() {
@@ -1434,12 +1461,30 @@ class Connection {
         if (channel.isActive()) {
           channels.add(channel);
           channel.write(flush.request).addListener(flush.listener);
+          if (pendingRequests++ == 0) batchStartNanos = System.nanoTime();
         }
       }
 
-      // Always flush what we have (don't artificially delay to try to coalesce more messages)
-      for (Channel channel : channels) channel.flush();
-      channels.clear();
+      if (pendingRequests > 0) {
+        long delay =
+            socketOptions
+                .getWriteCoalescingStrategy()
+                .nanosBeforeFlush(pendingRequests, System.nanoTime() - batchStartNanos);
+        if (delay <= 0) {
+          for (Channel channel : channels) channel.flush();
+          channels.clear();
+          if (batchSizes != null) batchSizes.update(pendingRequests);
+          pendingRequests = 0;
+        } else if (!flushScheduled) {
+          // Wait for more requests. If some get queued in the meantime, they will be written by a
+          // new execution of this task, which will ask the strategy again.
+          EventLoop eventLoop = eventLoopRef.get();
+          if (eventLoop != null && !eventLoop.isShuttingDown()) {
+            flushScheduled = true;
+            eventLoop.schedule(scheduledFlush, delay, TimeUnit.NANOSECONDS);
+          }
+        }
+      }
 
       // either reschedule or cancel
       running.set(false);
@@ -1456,9 +1501,6 @@ class Connection {
     }
   }
 
-  private static final ConcurrentMap<EventLoop, Flusher> flusherLookup =
-      new MapMaker().concurrencyLevel(16).weakKeys().makeMap();
-
   private static class FlushItem {
     final Channel channel;
     final Object request;
@@ -1471,11 +1513,36 @@ class Connection {
     }
   }
 
+  private TimeoutWheel timeoutWheel() {
+    TimeoutWheel wheel = this.timeoutWheel;
+    if (wheel == null) {
+      // The channel is registered by now, and stays on the same event loop
+      EventLoop loop = channel.eventLoop();
+      wheel = factory.timeoutWheels.get(loop);
+      if (wheel == null) {
+        TimeoutWheel alt = factory.timeoutWheels.putIfAbsent(loop, wheel = new TimeoutWheel(loop));
+        if (alt != null) wheel = alt;
+      }
+      this.timeoutWheel = wheel;
+    }
+    return wheel;
+  }
+
   private void flush(FlushItem item) {
     EventLoop loop = item.channel.eventLoop();
+    ConcurrentMap<EventLoop, Flusher> flusherLookup = factory.flusherLookup;
     Flusher flusher = flusherLookup.get(loop);
     if (flusher == null) {
-      Flusher alt = flusherLookup.putIfAbsent(loop, flusher = new Flusher(loop));
+      Flusher alt =
+          flusherLookup.putIfAbsent(
+              loop,
+              flusher =
+                  new Flusher(
+                      loop,
+                      factory.configuration.getSocketOptions(),
+                      factory.configuration.getMetricsOptions().isEnabled()
+                          ? factory.manager.metrics.getFlushBatchSizes()
+                          : null));
       if (alt != null) flusher = alt;
     }
 
@@ -1487,8 +1554,8 @@ class Connection {
   class Dispatcher extends SimpleChannelInboundHandler<Message.Response> {
 
     final StreamIdGenerator streamIdHandler;
-    private final ConcurrentMap<Integer, ResponseHandler> pending =
-        new ConcurrentHashMap<Integer, ResponseHandler>();
+
+    private final StreamHandlerTable<ResponseHandler> pending;
 
     Dispatcher() {
       ProtocolVersion protocolVersion = factory.protocolVersion;
@@ -1498,11 +1565,19 @@ class Connection {
         protocolVersion = ProtocolVersion.V2;
       }
       streamIdHandler = StreamIdGenerator.newInstance(protocolVersion);
+      pending = new StreamHandlerTable<ResponseHandler>(streamIdHandler.maxIds());
     }
 
     void add(ResponseHandler handler) {
-      ResponseHandler old = pending.put(handler.streamId, handler);
-      assert old == null;
+      // Responses are only dispatched on the event loop, so they will see the handler. Other
+      // threads only remove the handler after write() has published it (it performs volatile
+      // writes before the request is visible to anyone else), so a cheaper ordered store is enough
+      // on the event loop.
+      pending.put(handler.streamId, handler, channel.eventLoop().inEventLoop());
+    }
+
+    boolean hasPendingRequests() {
+      return !pending.isEmpty();
     }
 
     void removeHandler(ResponseHandler handler, boolean releaseStreamId) {
@@ -1554,8 +1629,9 @@ class Connection {
          *      ignoring this completely.
          *   2) This request has timed out. In that case, we've already switched to another host (or errored out
          *      to the user). So log it for debugging purpose, but it's fine ignoring otherwise.
+         * In the second case, the stream id was marked when the request timed out; releasing it above also
+         * reclaimed the capacity it was holding.
          */
-        streamIdHandler.unmark(streamId);
         if (logger.isDebugEnabled())
           logger.debug(
               "{} Response received on stream {} but no handler set anymore (either the request has "
@@ -1619,7 +1695,6 @@ class Connection {
           ResponseHandler handler = pending.remove(streamId);
           streamIdHandler.release(streamId);
           if (handler == null) {
-            streamIdHandler.unmark(streamId);
             if (logger.isDebugEnabled())
               logger.debug(
                   "{} FrameTooLongException received on stream {} but no handler set anymore (either the request has "
@@ -1643,13 +1718,12 @@ class Connection {
     }
 
     void errorOutAllHandler(ConnectionException ce) {
-      Iterator<ResponseHandler> iter = pending.values().iterator();
-      while (iter.hasNext()) {
-        ResponseHandler handler = iter.next();
+      for (int streamId = 0; streamId < pending.capacity() && !pending.isEmpty(); streamId++) {
+        ResponseHandler handler = pending.remove(streamId);
+        if (handler == null) continue;
         handler.cancelTimeout();
         handler.callback.onException(
             Connection.this, ce, System.nanoTime() - handler.startTime, handler.retryCount);
-        iter.remove();
       }
     }
   }
@@ -1872,7 +1946,7 @@ class Connection {
     boolean onTimeout(Connection connection, long latency, int retryCount);
   }
 
-  static class ResponseHandler {
+  static class ResponseHandler extends TimeoutWheel.Entry {
 
     final Connection connection;
     final int streamId;
@@ -1881,7 +1955,6 @@ class Connection {
     private final long readTimeoutMillis;
 
     private final long startTime;
-    private volatile Timeout timeout;
 
     private final AtomicBoolean isCancelled = new AtomicBoolean();
 
@@ -1902,15 +1975,12 @@ class Connection {
     }
 
     void startTimeout() {
-      this.timeout =
-          this.readTimeoutMillis <= 0
-              ? null
-              : connection.factory.timer.newTimeout(
-                  onTimeoutTask(), this.readTimeoutMillis, TimeUnit.MILLISECONDS);
+      if (readTimeoutMillis > 0)
+        connection.timeoutWheel().add(this, TimeUnit.MILLISECONDS.toNanos(readTimeoutMillis));
     }
 
     void cancelTimeout() {
-      if (timeout != null) timeout.cancel();
+      if (readTimeoutMillis > 0) connection.timeoutWheel().cancel(this);
     }
 
     boolean cancelHandler() {
@@ -1927,14 +1997,10 @@ class Connection {
       return true;
     }
 
-    private TimerTask onTimeoutTask() {
-      return new TimerTask() {
-        @Override
-        public void run(Timeout timeout) {
-          if (callback.onTimeout(connection, System.nanoTime() - startTime, retryCount))
-            cancelHandler();
-        }
-      };
+    @Override
+    void onTimeout() {
+      if (callback.onTimeout(connection, System.nanoTime() - startTime, retryCount))
+        cancelHandler();
     }
   }
 
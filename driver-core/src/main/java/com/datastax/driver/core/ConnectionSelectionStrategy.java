@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.annotations.Beta;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which connection of a pool a request is sent on, among the connections to the shard that
+ * owns the request's data (or to any shard, for requests that are not shard-aware).
+ *
+ * <p>The cost of the selection and its result can be observed with {@link
+ * Metrics#getConnectionSelectionLatency()} and {@link Metrics#getConnectionImbalance()}.
+ *
+ * @see PoolingOptions#setConnectionSelectionStrategy(ConnectionSelectionStrategy)
+ */
+@Beta
+public enum ConnectionSelectionStrategy {
+
+  /**
+   * Picks the connection with the fewest in-flight requests. This is the default.
+   *
+   * <p>This reads the in-flight counter of every connection to the shard, so it gets more expensive
+   * as the number of connections per shard grows.
+   */
+  LEAST_BUSY {
+    @Override
+    Connection select(HostConnectionPool.ShardConnections connections) {
+      Connection[] candidates = connections.snapshot();
+      int minInFlight = Integer.MAX_VALUE;
+      Connection result = null;
+      for (Connection connection : candidates) {
+        int inFlight = connection.inFlight.get();
+        if (inFlight < minInFlight) {
+          minInFlight = inFlight;
+          result = connection;
+        }
+      }
+      return result;
+    }
+  },
+
+  /**
+   * Picks two connections at random, and uses the one with the fewest in-flight requests.
+   *
+   * <p>This only reads two in-flight counters regardless of the number of connections, and still
+   * keeps the load well balanced.
+   */
+  POWER_OF_TWO_CHOICES {
+    @Override
+    Connection select(HostConnectionPool.ShardConnections connections) {
+      Connection[] candidates = connections.snapshot();
+      int count = candidates.length;
+      if (count <= 1) return (count == 0) ? null : candidates[0];
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int i = random.nextInt(count);
+      // pick a different index for the second choice
+      int j = (i + 1 + random.nextInt(count - 1)) % count;
+      Connection first = candidates[i];
+      Connection second = candidates[j];
+      return (second.inFlight.get() < first.inFlight.get()) ? second : first;
+    }
+  },
+
+  /**
+   * Cycles through the connections to the shard, regardless of their load.
+   *
+   * <p>This is the cheapest strategy, since it doesn't read any in-flight counter, but a slow
+   * connection will keep receiving its share of requests until it is full.
+   */
+  ROUND_ROBIN {
+    @Override
+    Connection select(HostConnectionPool.ShardConnections connections) {
+      Connection[] candidates = connections.snapshot();
+      int count = candidates.length;
+      if (count <= 1) return (count == 0) ? null : candidates[0];
+      return candidates[(connections.nextIndex() & Integer.MAX_VALUE) % count];
+    }
+  };
+
+  /**
+   * Returns the connection to use among the given ones, or {@code null} if there are none. The
+   * caller checks that the connection can accept a new request.
+   */
+  abstract Connection select(HostConnectionPool.ShardConnections connections);
+}
@@ -164,7 +164,8 @@ public abstract class DataType {
         if (DataTypeClassNameParser.isDuration(className)) {
           return DataType.duration();
         } else if (DataTypeClassNameParser.isUserType(className)
-            || DataTypeClassNameParser.isTupleType(className)) {
+            || DataTypeClassNameParser.isTupleType(className)
+            || DataTypeClassNameParser.isVectorType(className)) {
           return DataTypeClassNameParser.parseOne(className, protocolVersion, codecRegistry);
         } else {
           return custom(className);
@@ -504,6 +505,27 @@ public abstract class DataType {
     return new DataType.CustomType(Name.CUSTOM, typeClassName);
   }
 
+  /**
+   * Returns the type of fixed-length vectors of the given element type, such as {@code
+   * vector<float, 3>}.
+   *
+   * <p>Server-side, vectors are implemented as a custom type; this is why the returned type is a
+   * {@link DataType.CustomType CustomType}.
+   *
+   * @param elementType the type of the elements. User types are not supported.
+   * @param dimensions the number of elements of every vector, strictly positive.
+   * @return the vector type.
+   * @throws IllegalArgumentException if {@code dimensions} is not positive, or the driver cannot
+   *     build the server-side class name of {@code elementType}.
+   */
+  public static DataType.VectorType vector(DataType elementType, int dimensions) {
+    if (elementType == null) throw new NullPointerException();
+    if (dimensions <= 0)
+      throw new IllegalArgumentException("Vector dimensions must be positive, got " + dimensions);
+    return new DataType.VectorType(
+        elementType, dimensions, DataTypeClassNameParser.vectorClassName(elementType, dimensions));
+  }
+
   /**
    * Returns the Duration type, introduced in Cassandra 3.10.
    *
@@ -736,4 +758,56 @@ public abstract class DataType {
       return String.format("'%s'", customClassName);
     }
   }
+
+  /**
+   * The type of fixed-length vectors, such as {@code vector<float, 3>}.
+   *
+   * <p>Vectors are implemented server-side as a custom type, and are transmitted as such: vector
+   * types are equal to the {@link DataType#custom(String) custom type} of the same class name.
+   *
+   * <p>The default codec of vectors of {@code float} maps them to {@code float[]}, see {@link
+   * TypeCodec#floatVector(DataType.VectorType)}. Vectors of other types are mapped to {@code
+   * ByteBuffer}, like other custom types.
+   *
+   * @see DataType#vector(DataType, int)
+   */
+  public static class VectorType extends CustomType {
+
+    private final DataType elementType;
+    private final int dimensions;
+
+    private VectorType(DataType elementType, int dimensions, String className) {
+      super(Name.CUSTOM, className);
+      this.elementType = elementType;
+      this.dimensions = dimensions;
+    }
+
+    /**
+     * Returns the type of the elements of the vectors.
+     *
+     * @return the type of the elements of the vectors.
+     */
+    public DataType getElementType() {
+      return elementType;
+    }
+
+    /**
+     * Returns the number of elements of every vector.
+     *
+     * @return the number of elements of every vector.
+     */
+    public int getDimensions() {
+      return dimensions;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("vector<%s, %d>", elementType, dimensions);
+    }
+
+    @Override
+    public String asFunctionParameterString() {
+      return String.format("vector<%s, %d>", elementType.asFunctionParameterString(), dimensions);
+    }
+  }
 }
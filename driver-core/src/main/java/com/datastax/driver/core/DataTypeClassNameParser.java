@@ -54,6 +54,7 @@ class DataTypeClassNameParser {
   private static final String UDT_TYPE = "org.apache.cassandra.db.marshal.UserType";
   private static final String TUPLE_TYPE = "org.apache.cassandra.db.marshal.TupleType";
   private static final String DURATION_TYPE = "org.apache.cassandra.db.marshal.DurationType";
+  private static final String VECTOR_TYPE = "org.apache.cassandra.db.marshal.VectorType";
 
   private static ImmutableMap<String, DataType> cassTypeToDataType =
       new ImmutableMap.Builder<String, DataType>()
@@ -79,6 +80,13 @@ class DataTypeClassNameParser {
           .put(DURATION_TYPE, DataType.duration())
           .build();
 
+  private static final Map<DataType, String> dataTypeToCassType = new HashMap<DataType, String>();
+
+  static {
+    for (Map.Entry<String, DataType> entry : cassTypeToDataType.entrySet())
+      dataTypeToCassType.put(entry.getValue(), entry.getKey());
+  }
+
   static DataType parseOne(
       String className, ProtocolVersion protocolVersion, CodecRegistry codecRegistry) {
     boolean frozen = false;
@@ -109,6 +117,27 @@ class DataTypeClassNameParser {
           frozen);
     }
 
+    if (next.startsWith(VECTOR_TYPE)) {
+      List<String> params = parser.getTypeParameters();
+      if (params.size() != 2)
+        throw new DriverInternalError(
+            String.format("Excepting two parameters for vector, got %s", params));
+      DataType elementType = parseOne(params.get(0), protocolVersion, codecRegistry);
+      int dimensions;
+      try {
+        dimensions = Integer.parseInt(params.get(1));
+      } catch (NumberFormatException e) {
+        throw new DriverInternalError(
+            String.format("Invalid vector dimensions in '%s'", className), e);
+      }
+      try {
+        return DataType.vector(elementType, dimensions);
+      } catch (IllegalArgumentException e) {
+        // e.g. vectors of user types, only supported as raw custom types
+        return DataType.custom(className);
+      }
+    }
+
     if (frozen)
       logger.warn(
           "Got o.a.c.db.marshal.FrozenType for something else than a collection, "
@@ -183,6 +212,55 @@ class DataTypeClassNameParser {
     return className.equals(DURATION_TYPE);
   }
 
+  public static boolean isVectorType(String className) {
+    return className.startsWith(VECTOR_TYPE);
+  }
+
+  /**
+   * Builds the class name of a vector type, in the format used by Cassandra. Server-side, vector
+   * elements are always frozen.
+   *
+   * @throws IllegalArgumentException if there is no known class name for the element type.
+   */
+  static String vectorClassName(DataType elementType, int dimensions) {
+    return String.format("%s(%s , %d)", VECTOR_TYPE, className(elementType, true), dimensions);
+  }
+
+  private static String className(DataType type, boolean frozen) {
+    if (type instanceof DataType.CustomType)
+      return ((DataType.CustomType) type).getCustomTypeClassName();
+    String className = dataTypeToCassType.get(type);
+    if (className != null) return className;
+    StringBuilder sb = new StringBuilder();
+    switch (type.getName()) {
+      case LIST:
+        sb.append(LIST_TYPE);
+        break;
+      case SET:
+        sb.append(SET_TYPE);
+        break;
+      case MAP:
+        sb.append(MAP_TYPE);
+        break;
+      case TUPLE:
+        sb.append(TUPLE_TYPE);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported vector element type " + type);
+    }
+    List<DataType> arguments =
+        type instanceof TupleType
+            ? ((TupleType) type).getComponentTypes()
+            : type.getTypeArguments();
+    sb.append('(');
+    for (int i = 0; i < arguments.size(); i++) {
+      if (i > 0) sb.append(',');
+      sb.append(className(arguments.get(i), false));
+    }
+    sb.append(')');
+    return frozen || type.isFrozen() ? String.format("%s(%s)", FROZEN_TYPE, sb) : sb.toString();
+  }
+
   static ParseResult parseWithComposite(
       String className, ProtocolVersion protocolVersion, CodecRegistry codecRegistry) {
     Parser parser = new Parser(className, 0);
@@ -40,6 +40,7 @@ import static com.datastax.driver.core.DataType.tinyint;
 import static com.datastax.driver.core.DataType.uuid;
 import static com.datastax.driver.core.DataType.varchar;
 import static com.datastax.driver.core.DataType.varint;
+import static com.datastax.driver.core.DataType.vector;
 import static com.datastax.driver.core.ParseUtils.isBlank;
 import static com.datastax.driver.core.ParseUtils.isIdentifierChar;
 import static com.datastax.driver.core.ParseUtils.skipSpaces;
@@ -66,6 +67,7 @@ class DataTypeCqlNameParser {
   private static final String SET = "set";
   private static final String MAP = "map";
   private static final String TUPLE = "tuple";
+  private static final String VECTOR = "vector";
   private static final String EMPTY = "empty";
 
   private static final ImmutableMap<String, DataType> NATIVE_TYPES_MAP =
@@ -230,6 +232,27 @@ class DataTypeCqlNameParser {
       return cluster.getMetadata().newTupleType(types);
     }
 
+    if (type.equalsIgnoreCase(VECTOR)) {
+      if (parameters.size() != 2)
+        throw new DriverInternalError(
+            String.format("Excepting two parameters for vector, got %s", parameters));
+      DataType elementType =
+          parse(
+              parameters.get(0),
+              cluster,
+              currentKeyspaceName,
+              currentUserTypes,
+              oldUserTypes,
+              false,
+              shallowUserTypes);
+      try {
+        return vector(elementType, Integer.parseInt(parameters.get(1)));
+      } catch (NumberFormatException e) {
+        throw new DriverInternalError(
+            String.format("Invalid vector dimensions in '%s'", toParse), e);
+      }
+    }
+
     throw new IllegalArgumentException("Could not parse type name " + toParse);
   }
 
@@ -97,6 +97,8 @@ class DefaultResultSetFuture extends AbstractFuture<ResultSet>
               ResultSet rs =
                   ArrayBackedResultSet.fromMessage(rm, session, protocolVersion, info, statement);
               final Cluster.Manager cluster = session.cluster.manager;
+              for (SessionManager sessionManager : cluster.sessions)
+                sessionManager.invalidatePreparedStatementCache();
               if (!cluster.configuration.getQueryOptions().isMetadataEnabled()) {
                 cluster.waitForSchemaAgreementAndSignal(connection, this, rs);
               } else {
@@ -26,6 +26,8 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
@@ -92,6 +94,11 @@ public class Host {
 
   final ExecutionInfo defaultExecutionInfo;
 
+  // The PREPARE requests that are in flight after an execution returned UNPREPARED, so that
+  // concurrent executions of the same statement share them.
+  final ConcurrentMap<MD5Digest, Connection.Future> repreparations =
+      new ConcurrentHashMap<MD5Digest, Connection.Future>();
+
   private volatile String datacenter;
   private volatile String rack;
   private volatile VersionNumber cassandraVersion;
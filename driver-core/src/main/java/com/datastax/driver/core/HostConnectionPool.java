@@ -33,6 +33,7 @@ import com.datastax.driver.core.exceptions.UnsupportedProtocolVersionException;
 import com.datastax.driver.core.utils.MoreFutures;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.FutureCallback;
@@ -43,21 +44,23 @@ import com.google.common.util.concurrent.Uninterruptibles;
 import io.netty.util.concurrent.EventExecutor;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
@@ -69,6 +72,8 @@ class HostConnectionPool implements Connection.Owner {
 
   private static final int MAX_SIMULTANEOUS_CREATION = 1;
   private static final Random RAND = new Random();
+  // Only time one connection selection out of this many, to keep the overhead of the metric low.
+  private static final int SELECTION_LATENCY_SAMPLING_RATE = 64;
 
   final Host host;
   volatile HostDistance hostDistance;
@@ -76,7 +81,7 @@ class HostConnectionPool implements Connection.Owner {
 
   private int connectionsPerShard;
   private int maxConnectionsPerShard;
-  List<Connection>[] connections;
+  ShardConnections[] connections;
   private AtomicInteger[] open;
   /** The total number of in-flight requests on all connections of this pool. */
   final AtomicInteger totalInFlight = new AtomicInteger();
@@ -88,8 +93,20 @@ class HostConnectionPool implements Connection.Owner {
 
   @VisibleForTesting Set<Connection>[] trash;
 
-  private Queue<PendingBorrow>[] pendingBorrows;
-  final AtomicInteger pendingBorrowCount = new AtomicInteger();
+  private PendingBorrowQueue[] pendingBorrows;
+  // The number of borrows in all the queues, which maxQueueSize applies to
+  private final AtomicInteger pendingBorrowTotal = new AtomicInteger();
+  // Borrows time out through a single task per pool. It runs on coarse ticks, so that under load it
+  // doesn't run for every borrow that expires; borrows can time out up to one tick late.
+  private static final long SWEEP_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  private final AtomicBoolean sweepScheduled = new AtomicBoolean();
+  private final Runnable sweepTask =
+      new Runnable() {
+        @Override
+        public void run() {
+          sweepPendingBorrows();
+        }
+      };
 
   private AtomicInteger[] scheduledForCreation;
 
@@ -300,17 +317,17 @@ class HostConnectionPool implements Connection.Owner {
         maxConnections / shardsCount + (maxConnections % shardsCount > 0 ? 1 : 0);
     int toCreate = shardsCount * connectionsPerShard;
 
-    this.connections = new List[shardsCount];
+    this.connections = new ShardConnections[shardsCount];
     scheduledForCreation = new AtomicInteger[shardsCount];
     open = new AtomicInteger[shardsCount];
     trash = new Set[shardsCount];
-    pendingBorrows = new Queue[shardsCount];
+    pendingBorrows = new PendingBorrowQueue[shardsCount];
     for (int i = 0; i < shardsCount; ++i) {
-      this.connections[i] = new CopyOnWriteArrayList<Connection>();
+      this.connections[i] = new ShardConnections();
       scheduledForCreation[i] = new AtomicInteger();
       open[i] = new AtomicInteger();
       trash[i] = new CopyOnWriteArraySet<Connection>();
-      pendingBorrows[i] = new ConcurrentLinkedQueue<PendingBorrow>();
+      pendingBorrows[i] = new PendingBorrowQueue(pendingBorrowTotal);
     }
 
     final List<Connection> connections = Lists.newArrayListWithCapacity(toCreate);
@@ -486,15 +503,31 @@ class HostConnectionPool implements Connection.Owner {
     return manager.configuration().getPoolingOptions();
   }
 
-  private Connection findLeastBusyForShard(int shardId) {
-    int minInFlight = Integer.MAX_VALUE;
-    Connection result = null;
-    for (Connection connection : connections[shardId]) {
-      int inFlight = connection.inFlight.get();
-      if (inFlight < minInFlight) {
-        minInFlight = inFlight;
-        result = connection;
+  private Connection selectConnection(int shardId, ConnectionSelectionStrategy strategy) {
+    Metrics metrics = manager.cluster.manager.metrics;
+    if (metrics == null
+        || ThreadLocalRandom.current().nextInt(SELECTION_LATENCY_SAMPLING_RATE) != 0) {
+      return strategy.select(connections[shardId]);
+    }
+    long start = System.nanoTime();
+    Connection connection = strategy.select(connections[shardId]);
+    metrics.getConnectionSelectionLatency().update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return connection;
+  }
+
+  /** The largest difference between the in-flight requests of two connections to the same shard. */
+  int connectionImbalance() {
+    int result = 0;
+    for (ShardConnections shardConnections : connections) {
+      Connection[] snapshot = shardConnections.snapshot();
+      if (snapshot.length < 2) continue;
+      int min = Integer.MAX_VALUE, max = 0;
+      for (Connection connection : snapshot) {
+        int inFlight = connection.inFlight.get();
+        min = Math.min(min, inFlight);
+        max = Math.max(max, inFlight);
       }
+      result = Math.max(result, max - min);
     }
     return result;
   }
@@ -507,32 +540,59 @@ class HostConnectionPool implements Connection.Owner {
       ByteBuffer routingKey,
       String keyspace,
       String table) {
+    Token token = null;
+    if (routingKey != null && host.getShardingInfo() != null) {
+      if (partitioner == null) {
+        partitioner = manager.cluster.getMetadata().tokenFactory();
+      }
+      if (partitioner != null) {
+        token = partitioner.hash(routingKey);
+      }
+    }
+    int shardId = -1;
+    if (token != null) {
+      if (keyspace != null && table != null) {
+        shardId =
+            manager
+                .cluster
+                .getMetadata()
+                .getShardForTabletToken(keyspace, table, (Token.TokenLong64) token, host);
+      }
+      if (shardId < 0 || shardId >= host.getShardingInfo().getShardsCount()) {
+        shardId = host.getShardingInfo().shardId(token);
+      }
+    }
+    return borrowConnection(timeout, unit, maxQueueSize, shardId);
+  }
+
+  ListenableFuture<Connection> borrowConnection(
+      long timeout, TimeUnit unit, int maxQueueSize, RoutingContext routingContext) {
+    int shardId = -1;
+    ShardingInfo shardingInfo = host.getShardingInfo();
+    if (shardingInfo != null && routingContext != null) {
+      shardId = routingContext.getShardId(host, shardingInfo);
+    }
+    return borrowConnection(timeout, unit, maxQueueSize, shardId);
+  }
+
+  /**
+   * Borrows a connection to the given shard, or to a random shard if {@code shardId} is negative.
+   * This is ignored if the host is not sharding-aware.
+   */
+  private ListenableFuture<Connection> borrowConnection(
+      long timeout, TimeUnit unit, int maxQueueSize, int shardId) {
     Phase phase = this.phase.get();
     if (phase != Phase.READY)
       return Futures.immediateFailedFuture(
           new ConnectionException(host.getEndPoint(), "Pool is " + phase));
 
-    int shardId = 0;
-    if (host.getShardingInfo() != null) {
-      if (routingKey != null) {
-        Metadata metadata = manager.cluster.getMetadata();
-        Token t = metadata.newToken(partitioner, routingKey);
-        shardId = -1;
-        if (keyspace != null && table != null) {
-          assert t instanceof Token.TokenLong64;
-          shardId =
-              Integer.min(
-                  metadata.getShardForTabletToken(keyspace, table, (Token.TokenLong64) t, host),
-                  host.getShardingInfo().getShardsCount());
-        }
-        if (shardId == -1) { // means that tablet lookup failed
-          shardId = host.getShardingInfo().shardId(t);
-        }
-      } else {
-        shardId = RAND.nextInt(host.getShardingInfo().getShardsCount());
-      }
+    if (host.getShardingInfo() == null) {
+      shardId = 0;
+    } else if (shardId < 0) {
+      shardId = RAND.nextInt(host.getShardingInfo().getShardsCount());
     }
 
+    ConnectionSelectionStrategy strategy = options().getConnectionSelectionStrategy();
     Connection leastBusy = null;
 
     if (connections[shardId].isEmpty()) {
@@ -551,11 +611,11 @@ class HostConnectionPool implements Connection.Owner {
       int firstShardToCheck = RAND.nextInt(connections.length);
       int shardToCheck = firstShardToCheck;
       do {
-        leastBusy = findLeastBusyForShard(shardToCheck);
+        leastBusy = selectConnection(shardToCheck, strategy);
         shardToCheck = (shardToCheck + 1) % connections.length;
       } while (leastBusy == null && shardToCheck != firstShardToCheck);
     } else {
-      leastBusy = findLeastBusyForShard(shardId);
+      leastBusy = selectConnection(shardId, strategy);
     }
 
     if (leastBusy == null) {
@@ -612,19 +672,15 @@ class HostConnectionPool implements Connection.Owner {
       return Futures.immediateFailedFuture(new BusyPoolException(host.getEndPoint(), 0));
     }
 
-    while (true) {
-      int count = pendingBorrowCount.get();
-      if (count >= maxQueueSize) {
-        return Futures.immediateFailedFuture(
-            new BusyPoolException(host.getEndPoint(), maxQueueSize));
-      }
-      if (pendingBorrowCount.compareAndSet(count, count + 1)) {
-        break;
-      }
+    // Each shard has its own queue, so that connections of a shard serve its borrows in order, but
+    // the maximum size applies to the borrows of all the shards together
+    PendingBorrow pendingBorrow = new PendingBorrow(timeout, unit, System.nanoTime());
+    if (!pendingBorrows[shardId].offer(pendingBorrow, maxQueueSize)) {
+      return Futures.immediateFailedFuture(new BusyPoolException(host.getEndPoint(), maxQueueSize));
+    }
+    if (sweepScheduled.compareAndSet(false, true)) {
+      timeoutsExecutor.schedule(sweepTask, SWEEP_TICK_NANOS, TimeUnit.NANOSECONDS);
     }
-
-    PendingBorrow pendingBorrow = new PendingBorrow(timeout, unit, timeoutsExecutor);
-    pendingBorrows[shardId].add(pendingBorrow);
 
     // If we raced with shutdown, make sure the future will be completed. This has no effect if it
     // was properly
@@ -636,6 +692,61 @@ class HostConnectionPool implements Connection.Owner {
     return pendingBorrow.future;
   }
 
+  // Fails the pending borrows that have timed out, and reschedules itself if some are left.
+  private void sweepPendingBorrows() {
+    long now = System.nanoTime();
+    long nextDelay = Long.MAX_VALUE;
+    List<PendingBorrow> expired = new ArrayList<PendingBorrow>();
+    for (PendingBorrowQueue queue : pendingBorrows) {
+      nextDelay = Math.min(nextDelay, queue.expire(now, expired));
+    }
+    for (PendingBorrow pendingBorrow : expired) {
+      pendingBorrow.setException(
+          new BusyPoolException(host.getEndPoint(), pendingBorrow.timeout, pendingBorrow.unit));
+    }
+    if (nextDelay != Long.MAX_VALUE) {
+      timeoutsExecutor.schedule(sweepTask, sweepDelay(nextDelay), TimeUnit.NANOSECONDS);
+      return;
+    }
+    sweepScheduled.set(false);
+    // A borrow might have been enqueued after we checked its queue, but before we reset the flag
+    for (PendingBorrowQueue queue : pendingBorrows) {
+      if (!queue.isEmpty()) {
+        if (sweepScheduled.compareAndSet(false, true)) timeoutsExecutor.execute(sweepTask);
+        return;
+      }
+    }
+  }
+
+  // Rounds a delay up to a whole number of ticks
+  @VisibleForTesting
+  static long sweepDelay(long nanos) {
+    long ticks = (nanos + SWEEP_TICK_NANOS - 1) / SWEEP_TICK_NANOS;
+    return Math.max(1, ticks) * SWEEP_TICK_NANOS;
+  }
+
+  /** The number of requests waiting for a connection, on all shards. */
+  int pendingBorrowCount() {
+    return pendingBorrowTotal.get();
+  }
+
+  /**
+   * The number of requests that could be sent right now without waiting for a connection: the
+   * remaining capacity of the open connections, minus the requests already waiting.
+   */
+  int availablePermits() {
+    if (phase.get() != Phase.READY) return 0;
+    int maxRequests = options().getMaxRequestsPerConnection(hostDistance);
+    int permits = 0;
+    for (ShardConnections shardConnections : connections) {
+      for (Connection connection : shardConnections.snapshot()) {
+        int capacity = Math.min(connection.maxAvailableStreams(), maxRequests);
+        permits += Math.max(0, capacity - connection.inFlight.get());
+      }
+    }
+    return Math.max(0, permits - pendingBorrowCount());
+  }
+
   void returnConnection(Connection connection, boolean busy) {
     connection.inFlight.decrementAndGet();
     totalInFlight.decrementAndGet();
@@ -663,7 +774,8 @@ class HostConnectionPool implements Connection.Owner {
   // When a connection gets returned to the pool, check if there are pending borrows that can be
   // completed with it.
   private void dequeue(final Connection connection) {
-    while (!pendingBorrows[connection.shardId()].isEmpty()) {
+    PendingBorrowQueue queue = pendingBorrows[connection.shardId()];
+    while (!queue.isEmpty()) {
 
       // We can only reuse the connection if it's under its maximum number of inFlight requests.
       // Do this atomically, as we could be competing with other borrowConnection or dequeue calls.
@@ -682,12 +794,16 @@ class HostConnectionPool implements Connection.Owner {
         }
       }
 
-      final PendingBorrow pendingBorrow = pendingBorrows[connection.shardId()].poll();
+      final PendingBorrow pendingBorrow = queue.poll();
       if (pendingBorrow == null) {
         // Another thread has emptied the queue since our last check, restore the count
         connection.inFlight.decrementAndGet();
+      } else if (pendingBorrow.deadlineNanos - System.nanoTime() <= 0) {
+        // Timed out, but the sweep hasn't run yet
+        pendingBorrow.setException(
+            new BusyPoolException(host.getEndPoint(), pendingBorrow.timeout, pendingBorrow.unit));
+        connection.inFlight.decrementAndGet();
       } else {
-        pendingBorrowCount.decrementAndGet();
         // Ensure that the keyspace set on the connection is the one set on the pool state, in the
         // general case it will be.
         ListenableFuture<Connection> setKeyspaceFuture =
@@ -975,9 +1091,12 @@ class HostConnectionPool implements Connection.Owner {
 
     phase.set(Phase.CLOSING);
 
-    for (Queue<PendingBorrow> queue : pendingBorrows) {
-      for (PendingBorrow pendingBorrow : queue) {
-        pendingBorrow.setException(new ConnectionException(host.getEndPoint(), "Pool is shutdown"));
+    if (pendingBorrows != null) {
+      for (PendingBorrowQueue queue : pendingBorrows) {
+        for (PendingBorrow pendingBorrow : queue.drain()) {
+          pendingBorrow.setException(
+              new ConnectionException(host.getEndPoint(), "Pool is shutdown"));
+        }
       }
     }
 
@@ -1068,6 +1187,78 @@ class HostConnectionPool implements Connection.Owner {
     }
   }
 
+  /**
+   * The connections to a shard. This is a copy-on-write list, which also gives direct access to its
+   * backing array so that connection selection doesn't need to allocate an iterator.
+   */
+  static class ShardConnections extends AbstractList<Connection> {
+
+    private static final Connection[] EMPTY = new Connection[0];
+
+    private volatile Connection[] connections = EMPTY;
+
+    // The position of ConnectionSelectionStrategy.ROUND_ROBIN. Concurrent updates may get lost,
+    // which only makes the rotation slightly less regular.
+    private int nextIndex;
+
+    /** Returns the current connections. The array must not be modified. */
+    Connection[] snapshot() {
+      return connections;
+    }
+
+    int nextIndex() {
+      return nextIndex++;
+    }
+
+    @Override
+    public Connection get(int index) {
+      return connections[index];
+    }
+
+    @Override
+    public int size() {
+      return connections.length;
+    }
+
+    @Override
+    public Iterator<Connection> iterator() {
+      return Iterators.forArray(connections);
+    }
+
+    @Override
+    public synchronized boolean add(Connection connection) {
+      Connection[] current = connections;
+      Connection[] updated = Arrays.copyOf(current, current.length + 1);
+      updated[current.length] = connection;
+      connections = updated;
+      return true;
+    }
+
+    @Override
+    public synchronized Connection set(int index, Connection connection) {
+      Connection[] updated = connections.clone();
+      Connection previous = updated[index];
+      updated[index] = connection;
+      connections = updated;
+      return previous;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+      Connection[] current = connections;
+      for (int i = 0; i < current.length; i++) {
+        if (current[i].equals(o)) {
+          Connection[] updated = new Connection[current.length - 1];
+          System.arraycopy(current, 0, updated, 0, i);
+          System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+          connections = updated;
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   static class PoolState {
     volatile String keyspace;
 
@@ -1076,33 +1267,111 @@ class HostConnectionPool implements Connection.Owner {
     }
   }
 
-  private class PendingBorrow {
-    final SettableFuture<Connection> future;
-    final Future<?> timeoutTask;
+  static class PendingBorrow {
+    final SettableFuture<Connection> future = SettableFuture.create();
+    final long timeout;
+    final TimeUnit unit;
+    final long deadlineNanos;
 
-    PendingBorrow(final long timeout, final TimeUnit unit, EventExecutor timeoutsExecutor) {
-      this.future = SettableFuture.create();
-      this.timeoutTask =
-          timeoutsExecutor.schedule(
-              new Runnable() {
-                @Override
-                public void run() {
-                  future.setException(new BusyPoolException(host.getEndPoint(), timeout, unit));
-                }
-              },
-              timeout,
-              unit);
+    PendingBorrow(long timeout, TimeUnit unit, long nowNanos) {
+      this.timeout = timeout;
+      this.unit = unit;
+      this.deadlineNanos = nowNanos + unit.toNanos(timeout);
     }
 
     boolean set(Connection connection) {
-      boolean succeeded = this.future.set(connection);
-      this.timeoutTask.cancel(false);
-      return succeeded;
+      return this.future.set(connection);
     }
 
     void setException(Throwable exception) {
       this.future.setException(exception);
-      this.timeoutTask.cancel(false);
+    }
+  }
+
+  /**
+   * The borrows waiting for a connection to a shard, in arrival order.
+   *
+   * <p>Borrows only wait when the shard's connections are saturated, so a lock is fine here; it
+   * lets the sweep remove timed out borrows so that they don't take space in the queue. The bound
+   * can be shared with the queues of the other shards, through a common counter.
+   */
+  static class PendingBorrowQueue {
+    private final ArrayDeque<PendingBorrow> borrows = new ArrayDeque<PendingBorrow>();
+    // Updated with the lock held, read without it
+    private volatile int size;
+    // The number of borrows in this queue and the other queues that share the same bound
+    private final AtomicInteger total;
+
+    PendingBorrowQueue() {
+      this(new AtomicInteger());
+    }
+
+    PendingBorrowQueue(AtomicInteger total) {
+      this.total = total;
+    }
+
+    /**
+     * Returns {@code false} if the queues that share the bound of this one already hold {@code
+     * maxSize} borrows.
+     */
+    boolean offer(PendingBorrow borrow, int maxSize) {
+      while (true) {
+        int current = total.get();
+        if (current >= maxSize) return false;
+        if (total.compareAndSet(current, current + 1)) break;
+      }
+      synchronized (this) {
+        borrows.add(borrow);
+        size = borrows.size();
+      }
+      return true;
+    }
+
+    synchronized PendingBorrow poll() {
+      PendingBorrow borrow = borrows.poll();
+      if (borrow != null) total.decrementAndGet();
+      size = borrows.size();
+      return borrow;
+    }
+
+    /**
+     * Removes the borrows whose deadline has passed.
+     *
+     * @param expired receives the removed borrows.
+     * @return the delay until the next deadline, in nanoseconds, or {@link Long#MAX_VALUE} if the
+     *     queue is now empty.
+     */
+    synchronized long expire(long nowNanos, List<PendingBorrow> expired) {
+      long nextDelay = Long.MAX_VALUE;
+      for (Iterator<PendingBorrow> iterator = borrows.iterator(); iterator.hasNext(); ) {
+        PendingBorrow borrow = iterator.next();
+        long delay = borrow.deadlineNanos - nowNanos;
+        if (delay <= 0) {
+          iterator.remove();
+          total.decrementAndGet();
+          expired.add(borrow);
+        } else {
+          nextDelay = Math.min(nextDelay, delay);
+        }
+      }
+      size = borrows.size();
+      return nextDelay;
+    }
+
+    synchronized List<PendingBorrow> drain() {
+      List<PendingBorrow> drained = new ArrayList<PendingBorrow>(borrows);
+      total.addAndGet(-drained.size());
+      borrows.clear();
+      size = 0;
+      return drained;
+    }
+
+    int size() {
+      return size;
+    }
+
+    boolean isEmpty() {
+      return size == 0;
     }
   }
 }
@@ -22,9 +22,12 @@
 package com.datastax.driver.core;
 
 import com.google.common.annotations.Beta;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Uninterruptibles;
 import io.netty.util.collection.IntObjectHashMap;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
@@ -34,17 +37,22 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableSet;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -157,6 +165,7 @@ public class Metadata {
     lock.lock();
     try {
       if (tokenMap == null) return;
+      long start = System.nanoTime();
       this.tokenMap =
           TokenMap.build(
               tokenMap.factory,
@@ -164,7 +173,10 @@ public class Metadata {
               keyspaces.values(),
               tokenMap.ring,
               tokenMap.tokenRanges,
-              tokenMap.tokenToPrimary);
+              tokenMap.tokenToPrimary,
+              tokenMap,
+              tokenMapExecutor());
+      onTokenMapRebuilt(start);
     } finally {
       lock.unlock();
     }
@@ -174,12 +186,40 @@ public class Metadata {
   void rebuildTokenMap(Token.Factory factory, Map<Host, Set<Token>> allTokens) {
     lock.lock();
     try {
-      this.tokenMap = TokenMap.build(factory, allTokens, keyspaces.values());
+      long start = System.nanoTime();
+      this.tokenMap =
+          TokenMap.build(factory, allTokens, keyspaces.values(), tokenMap, tokenMapExecutor());
+      onTokenMapRebuilt(start);
     } finally {
       lock.unlock();
     }
   }
 
+  private ExecutorService tokenMapExecutor() {
+    return (cluster == null) ? null : cluster.tokenMapExecutor;
+  }
+
+  private void onTokenMapRebuilt(long startNanos) {
+    long elapsed = System.nanoTime() - startNanos;
+    TokenMap current = tokenMap;
+    logger.debug(
+        "Rebuilt token map in {} ms ({} tokens, {} replica positions recomputed)",
+        TimeUnit.NANOSECONDS.toMillis(elapsed),
+        current.ring.size(),
+        current.recomputedPositions);
+    Metrics metrics = (cluster == null) ? null : cluster.metrics;
+    if (metrics != null) {
+      metrics.getTokenMapRebuildTime().update(elapsed, TimeUnit.NANOSECONDS);
+      metrics.getTokenMapRecomputedPositions().update(current.recomputedPositions);
+    }
+  }
+
+  /** The number of tokens in the ring, or 0 if the token map is not known yet. */
+  int getTokenMapSize() {
+    TokenMap current = tokenMap;
+    return (current == null) ? 0 : current.ring.size();
+  }
+
   Host newHost(EndPoint endPoint) {
     return new Host(endPoint, cluster.convictionPolicyFactory, cluster);
   }
@@ -205,11 +245,19 @@ public class Metadata {
    * @return the previous host associated with this id, or {@code null} if there was no such host.
    */
   Host addIfAbsent(Host host) {
-    return hosts.putIfAbsent(host.getHostId(), host);
+    Host previous = hosts.putIfAbsent(host.getHostId(), host);
+    if (previous == null) {
+      tabletMap.onHostsChanged();
+    }
+    return previous;
   }
 
   boolean remove(Host host) {
-    return hosts.remove(host.getHostId()) != null;
+    boolean removed = hosts.remove(host.getHostId()) != null;
+    if (removed) {
+      tabletMap.onHostsChanged();
+    }
+    return removed;
   }
 
   Host getHost(UUID hostId) {
@@ -550,21 +598,57 @@ public class Metadata {
       if (partitioner == null) {
         partitioner = current.factory;
       }
+      Token token = partitioner.hash(partitionKey);
       // If possible, try tablet lookup first
       if (keyspace != null && table != null) {
-        Token token = partitioner.hash(partitionKey);
         assert (token instanceof Token.TokenLong64);
-        Set<UUID> hostUuids = tabletMap.getReplicas(keyspace, table, (long) token.getValue());
-        if (!hostUuids.isEmpty()) {
-          return hostUuids.stream().map(this::getHost).collect(Collectors.toSet());
+        Set<Host> hosts =
+            getTabletReplicas(
+                    tabletMap.getTablet(keyspace, table, ((Token.TokenLong64) token).longValue()))
+                .getHosts();
+        if (!hosts.isEmpty()) {
+          return hosts;
         }
       }
       // Fall back to tokenMap
-      Set<Host> hosts = current.getReplicas(keyspace, partitioner.hash(partitionKey));
+      Set<Host> hosts = current.getReplicas(keyspace, token);
       return hosts == null ? Collections.<Host>emptySet() : hosts;
     }
   }
 
+  /**
+   * Returns the set of hosts that are replica for a given token according to the token map,
+   * ignoring tablets. Unlike the public variants, this expects an already hashed token so that
+   * callers that route the same request several times only hash its partition key once.
+   */
+  Set<Host> getReplicas(String keyspace, Token token) {
+    keyspace = handleId(keyspace);
+    TokenMap current = tokenMap;
+    if (current == null) {
+      return Collections.emptySet();
+    }
+    Set<Host> hosts = current.getReplicas(keyspace, token);
+    return hosts == null ? Collections.<Host>emptySet() : hosts;
+  }
+
+  /**
+   * Resolves the replicas of a tablet to the currently known hosts, in the order in which they were
+   * reported by the server. The result is cached on the tablet until hosts are added or removed.
+   */
+  TabletMap.TabletReplicas getTabletReplicas(TabletMap.Tablet tablet) {
+    if (tablet == null) {
+      return TabletMap.TabletReplicas.NONE;
+    }
+    // Read the version before the hosts, so that a concurrent change invalidates what we resolve
+    long hostsVersion = tabletMap.getHostsVersion();
+    TabletMap.TabletReplicas replicas = tablet.resolvedReplicas;
+    if (replicas == null || !replicas.isValid(hostsVersion)) {
+      replicas = TabletMap.TabletReplicas.resolve(tablet, this, hostsVersion);
+      tablet.resolvedReplicas = replicas;
+    }
+    return replicas;
+  }
+
   /**
    * Returns the set of hosts that are replica for a given partition key. Partitioner can be {@code
    * null} and then a cluster-wide partitioner will be invoked.
@@ -671,7 +755,7 @@ public class Metadata {
 
   KeyspaceMetadata removeKeyspace(String keyspace) {
     KeyspaceMetadata removed = keyspaces.remove(keyspace);
-    if (tokenMap != null) tokenMap.tokenToHostsByKeyspace.remove(keyspace);
+    if (tokenMap != null) tokenMap.replicasByKeyspace.remove(keyspace);
     return removed;
   }
 
@@ -913,35 +997,17 @@ public class Metadata {
           host);
       return -1;
     }
-    UUID targetHostUuid = host.getHostId();
-    long tokenValue = (long) token.getValue();
-    TabletMap.KeyspaceTableNamePair key = new TabletMap.KeyspaceTableNamePair(keyspace, table);
-    NavigableSet<TabletMap.Tablet> targetTablets = tabletMap.getMapping().get(key);
-    if (targetTablets == null) {
+    TabletMap.Tablet row = tabletMap.getTablet(keyspace, table, token.longValue());
+    if (row == null) {
       logger.trace(
-          "Could not determine shard for token {} on host {} because table {}.{} is not present in tablets "
-              + "metadata. Returning -1.",
+          "Could not find tablet corresponding to token {} on host {} for table {} in keyspace {}. Returning -1.",
           token,
           host,
-          keyspace,
-          table);
+          table,
+          keyspace);
       return -1;
     }
-    TabletMap.Tablet row = targetTablets.ceiling(TabletMap.Tablet.malformedTablet(tokenValue));
-    if (row != null && row.getFirstToken() < tokenValue) {
-      for (TabletMap.HostShardPair hostShardPair : row.getReplicas()) {
-        if (hostShardPair.getHost().equals(targetHostUuid)) {
-          return hostShardPair.getShard();
-        }
-      }
-    }
-    logger.trace(
-        "Could not find tablet corresponding to token {} on host {} for table {} in keyspace {}. Returning -1.",
-        token,
-        host,
-        table,
-        keyspace);
-    return -1;
+    return getTabletReplicas(row).getShard(host);
   }
 
   /**
@@ -958,27 +1024,47 @@ public class Metadata {
 
     private final Token.Factory factory;
     private final Map<Host, Set<Token>> primaryToTokens;
-    private final Map<String, Map<Token, Set<Host>>> tokenToHostsByKeyspace;
+    private final Map<String, ReplicaSets> replicasByKeyspace;
     private final Map<String, Map<Host, Set<TokenRange>>> hostsToRangesByKeyspace;
     private final List<Token> ring;
+    // The values of the ring's tokens if they are 64-bit (e.g. Murmur3), so that lookups don't go
+    // through boxed tokens; null otherwise.
+    private final long[] longRing;
     private final Set<TokenRange> tokenRanges;
     private final Map<Token, Host> tokenToPrimary;
 
+    // What the replicas were computed from, so that the next rebuild can reuse them
+    private final Map<Host, List<String>> locations;
+    private final Map<ReplicationStrategy, ReplicaSets> replicasByStrategy;
+    private final Map<ReplicationStrategy, Map<Host, Set<TokenRange>>> hostsToRangesByStrategy;
+    // How many ring positions had their replicas computed (rather than reused) by this rebuild
+    private final int recomputedPositions;
+
     private TokenMap(
         Token.Factory factory,
         List<Token> ring,
+        long[] longRing,
         Set<TokenRange> tokenRanges,
         Map<Token, Host> tokenToPrimary,
         Map<Host, Set<Token>> primaryToTokens,
-        Map<String, Map<Token, Set<Host>>> tokenToHostsByKeyspace,
-        Map<String, Map<Host, Set<TokenRange>>> hostsToRangesByKeyspace) {
+        Map<String, ReplicaSets> replicasByKeyspace,
+        Map<String, Map<Host, Set<TokenRange>>> hostsToRangesByKeyspace,
+        Map<Host, List<String>> locations,
+        Map<ReplicationStrategy, ReplicaSets> replicasByStrategy,
+        Map<ReplicationStrategy, Map<Host, Set<TokenRange>>> hostsToRangesByStrategy,
+        int recomputedPositions) {
       this.factory = factory;
       this.ring = ring;
+      this.longRing = longRing;
       this.tokenRanges = tokenRanges;
       this.tokenToPrimary = tokenToPrimary;
       this.primaryToTokens = primaryToTokens;
-      this.tokenToHostsByKeyspace = tokenToHostsByKeyspace;
+      this.replicasByKeyspace = replicasByKeyspace;
       this.hostsToRangesByKeyspace = hostsToRangesByKeyspace;
+      this.locations = locations;
+      this.replicasByStrategy = replicasByStrategy;
+      this.hostsToRangesByStrategy = hostsToRangesByStrategy;
+      this.recomputedPositions = recomputedPositions;
       for (Map.Entry<Host, Set<Token>> entry : primaryToTokens.entrySet()) {
         Host host = entry.getKey();
         host.setTokens(ImmutableSet.copyOf(entry.getValue()));
@@ -988,7 +1074,9 @@ public class Metadata {
     private static TokenMap build(
         Token.Factory factory,
         Map<Host, Set<Token>> allTokens,
-        Collection<KeyspaceMetadata> keyspaces) {
+        Collection<KeyspaceMetadata> keyspaces,
+        TokenMap previous,
+        ExecutorService executor) {
       Map<Token, Host> tokenToPrimary = new HashMap<Token, Host>();
       Set<Token> allSorted = new TreeSet<Token>();
       for (Map.Entry<Host, ? extends Collection<Token>> entry : allTokens.entrySet()) {
@@ -1002,78 +1090,192 @@ public class Metadata {
           }
         }
       }
+      if (previous != null
+          && previous.factory.equals(factory)
+          && previous.tokenToPrimary.equals(tokenToPrimary)) {
+        // Typically a node list refresh that didn't change the ring
+        return build(
+            factory,
+            allTokens,
+            keyspaces,
+            previous.ring,
+            previous.tokenRanges,
+            previous.tokenToPrimary,
+            previous,
+            executor);
+      }
       List<Token> ring = new ArrayList<Token>(allSorted);
       Set<TokenRange> tokenRanges = makeTokenRanges(ring, factory);
-      return build(factory, allTokens, keyspaces, ring, tokenRanges, tokenToPrimary);
+      return build(
+          factory, allTokens, keyspaces, ring, tokenRanges, tokenToPrimary, previous, executor);
     }
 
+    /**
+     * @param previous the current token map, to reuse the replicas of the ring positions that are
+     *     not affected by the changes since it was built. Can be {@code null}.
+     * @param executor the executor to compute the replicas of distinct strategies in parallel. Can
+     *     be {@code null}.
+     */
     private static TokenMap build(
         Token.Factory factory,
         Map<Host, Set<Token>> allTokens,
         Collection<KeyspaceMetadata> keyspaces,
         List<Token> ring,
         Set<TokenRange> tokenRanges,
-        Map<Token, Host> tokenToPrimary) {
-      Set<Host> hosts = allTokens.keySet();
-      Map<String, Map<Token, Set<Host>>> tokenToHosts =
-          new HashMap<String, Map<Token, Set<Host>>>();
-      Map<ReplicationStrategy, Map<Token, Set<Host>>> replStrategyToHosts =
-          new HashMap<ReplicationStrategy, Map<Token, Set<Host>>>();
-      Map<String, Map<Host, Set<TokenRange>>> hostsToRanges =
-          new HashMap<String, Map<Host, Set<TokenRange>>>();
+        Map<Token, Host> tokenToPrimary,
+        TokenMap previous,
+        ExecutorService executor) {
+      long[] longRing = toLongRing(ring);
+      Map<Host, List<String>> locations = locations(tokenToPrimary.values());
+      RingChanges changes =
+          (previous == null || !previous.factory.equals(factory))
+              ? null
+              : RingChanges.between(previous, tokenToPrimary, locations);
+
+      // Compute the replicas of each distinct strategy, in parallel if there are several of them
+      Map<ReplicationStrategy, ReplicaSets> replicasByStrategy =
+          new HashMap<ReplicationStrategy, ReplicaSets>();
+      Map<List<Host>, Set<Host>> internedReplicas = new HashMap<List<Host>, Set<Host>>();
+      List<ReplicaComputation> computations = new ArrayList<ReplicaComputation>();
       for (KeyspaceMetadata keyspace : keyspaces) {
         ReplicationStrategy strategy = keyspace.replicationStrategy();
-        Map<Token, Set<Host>> ksTokens = replStrategyToHosts.get(strategy);
-        if (ksTokens == null) {
-          ksTokens =
-              (strategy == null)
-                  ? makeNonReplicatedMap(tokenToPrimary)
-                  : strategy.computeTokenToReplicaMap(keyspace.getName(), tokenToPrimary, ring);
-          replStrategyToHosts.put(strategy, ksTokens);
+        if (replicasByStrategy.containsKey(strategy)) continue;
+        ReplicaSets previousReplicas =
+            (changes == null || !changes.allowsReuse(strategy))
+                ? null
+                : previous.replicasByStrategy.get(strategy);
+        if (previousReplicas != null) previousReplicas.internInto(internedReplicas);
+        if (previousReplicas != null && changes.isEmpty()) {
+          replicasByStrategy.put(strategy, previousReplicas);
+        } else {
+          replicasByStrategy.put(strategy, null);
+          computations.add(
+              new ReplicaComputation(
+                  strategy, keyspace.getName(), ring, tokenToPrimary, previousReplicas, changes));
         }
+      }
+      runAll(computations, executor);
+      int recomputedPositions = 0;
+      for (ReplicaComputation computation : computations) {
+        replicasByStrategy.put(computation.strategy, computation.toReplicaSets(internedReplicas));
+        recomputedPositions += computation.recomputedPositions;
+      }
 
-        tokenToHosts.put(keyspace.getName(), ksTokens);
-
-        Map<Host, Set<TokenRange>> ksRanges;
-        if (ring.size() == 1) {
-          // We forced the single range to ]minToken,minToken], make sure to use that instead of
-          // relying on the host's token
-          ImmutableMap.Builder<Host, Set<TokenRange>> builder = ImmutableMap.builder();
-          for (Host host : allTokens.keySet()) builder.put(host, tokenRanges);
-          ksRanges = builder.build();
-        } else {
-          ksRanges = computeHostsToRangesMap(tokenRanges, ksTokens, hosts.size());
+      Map<String, ReplicaSets> replicas = new HashMap<String, ReplicaSets>();
+      Map<ReplicationStrategy, Map<Host, Set<TokenRange>>> hostsToRangesByStrategy =
+          new HashMap<ReplicationStrategy, Map<Host, Set<TokenRange>>>();
+      Map<String, Map<Host, Set<TokenRange>>> hostsToRanges =
+          new HashMap<String, Map<Host, Set<TokenRange>>>();
+      for (KeyspaceMetadata keyspace : keyspaces) {
+        ReplicationStrategy strategy = keyspace.replicationStrategy();
+        ReplicaSets ksReplicas = replicasByStrategy.get(strategy);
+        replicas.put(keyspace.getName(), ksReplicas);
+
+        Map<Host, Set<TokenRange>> ksRanges = hostsToRangesByStrategy.get(strategy);
+        if (ksRanges == null) {
+          if (previous != null
+              && previous.tokenRanges == tokenRanges
+              && previous.replicasByStrategy.get(strategy) == ksReplicas) {
+            ksRanges = previous.hostsToRangesByStrategy.get(strategy);
+          } else if (ring.size() == 1) {
+            // We forced the single range to ]minToken,minToken], make sure to use that instead of
+            // relying on the host's token
+            ImmutableMap.Builder<Host, Set<TokenRange>> builder = ImmutableMap.builder();
+            for (Host host : allTokens.keySet()) builder.put(host, tokenRanges);
+            ksRanges = builder.build();
+          } else {
+            ksRanges =
+                computeHostsToRangesMap(
+                    tokenRanges, ring, longRing, ksReplicas, allTokens.keySet().size());
+          }
+          hostsToRangesByStrategy.put(strategy, ksRanges);
         }
         hostsToRanges.put(keyspace.getName(), ksRanges);
       }
       return new TokenMap(
-          factory, ring, tokenRanges, tokenToPrimary, allTokens, tokenToHosts, hostsToRanges);
+          factory,
+          ring,
+          longRing,
+          tokenRanges,
+          tokenToPrimary,
+          allTokens,
+          replicas,
+          hostsToRanges,
+          locations,
+          replicasByStrategy,
+          hostsToRangesByStrategy,
+          recomputedPositions);
+    }
+
+    // Runs the first computation on the current thread, and the others on the executor if there is
+    // one
+    private static void runAll(List<ReplicaComputation> computations, ExecutorService executor) {
+      List<Future<?>> futures = new ArrayList<Future<?>>();
+      for (int i = 1; i < computations.size(); i++) {
+        ReplicaComputation computation = computations.get(i);
+        if (executor == null) {
+          computation.run();
+          continue;
+        }
+        try {
+          futures.add(executor.submit(computation));
+        } catch (RejectedExecutionException e) {
+          // The cluster is closing
+          computation.run();
+        }
+      }
+      if (!computations.isEmpty()) computations.get(0).run();
+      for (Future<?> future : futures) {
+        try {
+          Uninterruptibles.getUninterruptibly(future);
+        } catch (ExecutionException e) {
+          throw Throwables.propagate(e.getCause());
+        } catch (CancellationException e) {
+          // Cancelled by a forced shutdown of the executor, the token map is not needed anymore
+          throw new IllegalStateException("Token map rebuild interrupted by cluster shutdown", e);
+        }
+      }
     }
 
     private Set<Host> getReplicas(String keyspace, Token token) {
 
-      Map<Token, Set<Host>> tokenToHosts = tokenToHostsByKeyspace.get(keyspace);
-      if (tokenToHosts == null) return Collections.emptySet();
+      ReplicaSets replicas = replicasByKeyspace.get(keyspace);
+      if (replicas == null || ring.isEmpty()) return Collections.emptySet();
 
-      // If the token happens to be one of the "primary" tokens, get result directly
-      Set<Host> hosts = tokenToHosts.get(token);
-      if (hosts != null) return hosts;
+      return replicas.get(ringIndex(ring, longRing, token));
+    }
 
-      // Otherwise, find closest "primary" token on the ring
-      int i = Collections.binarySearch(ring, token);
+    /** Finds the position of the closest "primary" token on the (non-empty) ring. */
+    private static int ringIndex(List<Token> ring, long[] longRing, Token token) {
+      int i =
+          (longRing != null && token instanceof Token.TokenLong64)
+              ? Arrays.binarySearch(longRing, ((Token.TokenLong64) token).longValue())
+              : Collections.binarySearch(ring, token);
       if (i < 0) {
         i = -i - 1;
         if (i >= ring.size()) i = 0;
       }
+      return i;
+    }
 
-      return tokenToHosts.get(ring.get(i));
+    private static long[] toLongRing(List<Token> ring) {
+      long[] result = new long[ring.size()];
+      for (int i = 0; i < result.length; i++) {
+        Token token = ring.get(i);
+        if (!(token instanceof Token.TokenLong64)) return null;
+        result[i] = ((Token.TokenLong64) token).longValue();
+      }
+      return result;
     }
 
-    private static Map<Token, Set<Host>> makeNonReplicatedMap(Map<Token, Host> input) {
-      Map<Token, Set<Host>> output = new HashMap<Token, Set<Host>>(input.size());
-      for (Map.Entry<Token, Host> entry : input.entrySet())
-        output.put(entry.getKey(), ImmutableSet.of(entry.getValue()));
-      return output;
+    // The datacenter and rack of each host, as seen by replication strategies
+    private static Map<Host, List<String>> locations(Collection<Host> hosts) {
+      Map<Host, List<String>> locations = new HashMap<Host, List<String>>();
+      for (Host host : hosts) {
+        if (!locations.containsKey(host))
+          locations.put(host, Arrays.asList(host.getDatacenter(), host.getRack()));
+      }
+      return locations;
     }
 
     private static Set<TokenRange> makeTokenRanges(List<Token> ring, Token.Factory factory) {
@@ -1092,11 +1294,15 @@ public class Metadata {
     }
 
     private static Map<Host, Set<TokenRange>> computeHostsToRangesMap(
-        Set<TokenRange> tokenRanges, Map<Token, Set<Host>> ksTokens, int hostCount) {
+        Set<TokenRange> tokenRanges,
+        List<Token> ring,
+        long[] longRing,
+        ReplicaSets ksReplicas,
+        int hostCount) {
       Map<Host, ImmutableSet.Builder<TokenRange>> builders =
           Maps.newHashMapWithExpectedSize(hostCount);
       for (TokenRange range : tokenRanges) {
-        Set<Host> replicas = ksTokens.get(range.getEnd());
+        Set<Host> replicas = ksReplicas.get(ringIndex(ring, longRing, range.getEnd()));
         for (Host host : replicas) {
           ImmutableSet.Builder<TokenRange> hostRanges = builders.get(host);
           if (hostRanges == null) {
@@ -1113,4 +1319,241 @@ public class Metadata {
       return ksRanges;
     }
   }
+
+  /**
+   * The ring positions that changed between a token map and the next one: tokens that were added or
+   * removed, or whose primary host changed (including its datacenter or rack).
+   *
+   * <p>The replicas of a position only depend on the primaries of the positions visited to find
+   * them (see {@link ReplicationStrategy#computeReplicas}), as long as the number of hosts and
+   * racks in each datacenter stays the same. So they can be reused if none of these positions
+   * changed.
+   */
+  private static final class RingChanges {
+
+    private final List<Token> previousRing;
+    private final List<Token> changedTokens;
+    private final boolean topologyChanged;
+
+    private RingChanges(
+        List<Token> previousRing, List<Token> changedTokens, boolean topologyChanged) {
+      this.previousRing = previousRing;
+      this.changedTokens = changedTokens;
+      this.topologyChanged = topologyChanged;
+    }
+
+    /** Whether the replicas previously computed for the given strategy can be reused. */
+    boolean allowsReuse(ReplicationStrategy strategy) {
+      return !topologyChanged || strategy == null || !strategy.dependsOnTopology();
+    }
+
+    static RingChanges between(
+        TokenMap previous, Map<Token, Host> tokenToPrimary, Map<Host, List<String>> locations) {
+      boolean topologyChanged = !topology(previous.locations).equals(topology(locations));
+
+      List<Token> changedTokens = new ArrayList<Token>();
+      for (Map.Entry<Token, Host> entry : tokenToPrimary.entrySet()) {
+        Host host = entry.getValue();
+        Host previousHost = previous.tokenToPrimary.get(entry.getKey());
+        if (!host.equals(previousHost)
+            || !locations.get(host).equals(previous.locations.get(host))) {
+          changedTokens.add(entry.getKey());
+        }
+      }
+      for (Token token : previous.tokenToPrimary.keySet()) {
+        if (!tokenToPrimary.containsKey(token)) changedTokens.add(token);
+      }
+      Collections.sort(changedTokens);
+      return new RingChanges(previous.ring, changedTokens, topologyChanged);
+    }
+
+    // The number of hosts in each rack of each datacenter
+    private static Map<String, Map<String, Integer>> topology(Map<Host, List<String>> locations) {
+      Map<String, Map<String, Integer>> topology = new HashMap<String, Map<String, Integer>>();
+      for (List<String> location : locations.values()) {
+        Map<String, Integer> racks = topology.get(location.get(0));
+        if (racks == null) {
+          racks = new HashMap<String, Integer>();
+          topology.put(location.get(0), racks);
+        }
+        Integer count = racks.get(location.get(1));
+        racks.put(location.get(1), (count == null) ? 1 : count + 1);
+      }
+      return topology;
+    }
+
+    boolean isEmpty() {
+      return changedTokens.isEmpty();
+    }
+
+    /**
+     * Returns the position in the previous ring of the given token, if its replicas in {@code
+     * previous} are still valid; -1 otherwise.
+     */
+    int reusablePosition(Token token, ReplicaSets previous) {
+      int changed = Collections.binarySearch(changedTokens, token);
+      if (changed >= 0) return -1;
+      int position = Collections.binarySearch(previousRing, token);
+      if (position < 0) return -1;
+
+      int walkLength = Math.max(1, previous.walkLength(position));
+      if (walkLength >= previousRing.size()) return changedTokens.isEmpty() ? position : -1;
+
+      // Check if a change falls in the clockwise arc [token, end] that was visited
+      Token end = previousRing.get((position + walkLength - 1) % previousRing.size());
+      int next = -changed - 1; // the first change after token
+      boolean affected;
+      if (token.compareTo(end) <= 0) {
+        affected = next < changedTokens.size() && changedTokens.get(next).compareTo(end) <= 0;
+      } else {
+        affected =
+            next < changedTokens.size()
+                || (!changedTokens.isEmpty() && changedTokens.get(0).compareTo(end) <= 0);
+      }
+      return affected ? -1 : position;
+    }
+  }
+
+  /** Computes the replicas of a replication strategy, possibly on the token map executor. */
+  private static final class ReplicaComputation implements Runnable {
+
+    private final ReplicationStrategy strategy;
+    private final String keyspaceName;
+    private final List<Token> ring;
+    private final Map<Token, Host> tokenToPrimary;
+    private final ReplicaSets previous;
+    private final RingChanges changes;
+
+    private Set<Host>[] replicas;
+    private int[] walkLengths;
+    private int recomputedPositions;
+
+    /**
+     * @param previous the replicas of the strategy in the previous token map, if they can be
+     *     partially reused; {@code null} otherwise.
+     */
+    ReplicaComputation(
+        ReplicationStrategy strategy,
+        String keyspaceName,
+        List<Token> ring,
+        Map<Token, Host> tokenToPrimary,
+        ReplicaSets previous,
+        RingChanges changes) {
+      this.strategy = strategy;
+      this.keyspaceName = keyspaceName;
+      this.ring = ring;
+      this.tokenToPrimary = tokenToPrimary;
+      this.previous = previous;
+      this.changes = changes;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void run() {
+      int size = ring.size();
+      replicas = new Set[size];
+      walkLengths = new int[size];
+
+      boolean[] toCompute = null;
+      recomputedPositions = size;
+      if (previous != null) {
+        toCompute = new boolean[size];
+        recomputedPositions = 0;
+        for (int i = 0; i < size; i++) {
+          int position = changes.reusablePosition(ring.get(i), previous);
+          if (position < 0) {
+            toCompute[i] = true;
+            recomputedPositions += 1;
+          } else {
+            replicas[i] = previous.get(position);
+            walkLengths[i] = previous.walkLength(position);
+          }
+        }
+      }
+
+      if (strategy == null) {
+        // Not replicated
+        for (int i = 0; i < size; i++) {
+          if (toCompute != null && !toCompute[i]) continue;
+          replicas[i] = ImmutableSet.of(tokenToPrimary.get(ring.get(i)));
+          walkLengths[i] = 1;
+        }
+      } else if (recomputedPositions > 0) {
+        strategy.computeReplicas(
+            keyspaceName, tokenToPrimary, ring, toCompute, replicas, walkLengths);
+      }
+    }
+
+    ReplicaSets toReplicaSets(Map<List<Host>, Set<Host>> internedReplicas) {
+      return ReplicaSets.of(replicas, walkLengths, internedReplicas);
+    }
+  }
+
+  /**
+   * The replicas of each token of the ring, for a given replication strategy.
+   *
+   * <p>With vnodes, there are many more tokens than distinct sets of replicas, so the sets are
+   * shared (including across strategies that happen to yield the same sets), and each token only
+   * stores the index of its set.
+   */
+  private static final class ReplicaSets {
+
+    // The index in sets of the replicas of each token, in ring order
+    private final int[] indexes;
+    private final Set<Host>[] sets;
+    // See ReplicationStrategy.computeReplicas
+    private final int[] walkLengths;
+
+    private ReplicaSets(int[] indexes, Set<Host>[] sets, int[] walkLengths) {
+      this.indexes = indexes;
+      this.sets = sets;
+      this.walkLengths = walkLengths;
+    }
+
+    /**
+     * @param interned the sets built so far, keyed by their hosts in order. Reusing them across
+     *     calls shares identical sets between strategies.
+     */
+    @SuppressWarnings("unchecked")
+    static ReplicaSets of(
+        Set<Host>[] replicas, int[] walkLengths, Map<List<Host>, Set<Host>> interned) {
+      int[] indexes = new int[replicas.length];
+      Map<Set<Host>, Integer> setIndexes = new IdentityHashMap<Set<Host>, Integer>();
+      List<Set<Host>> sets = new ArrayList<Set<Host>>();
+      for (int i = 0; i < indexes.length; i++) {
+        Set<Host> hosts = replicas[i];
+        // Order matters (the first replica is the primary one), so intern by list
+        List<Host> key = ImmutableList.copyOf(hosts);
+        Set<Host> set = interned.get(key);
+        if (set == null) {
+          set = ImmutableSet.copyOf(hosts);
+          interned.put(key, set);
+        }
+        Integer index = setIndexes.get(set);
+        if (index == null) {
+          index = sets.size();
+          sets.add(set);
+          setIndexes.put(set, index);
+        }
+        indexes[i] = index;
+      }
+      return new ReplicaSets(indexes, sets.toArray(new Set[0]), walkLengths);
+    }
+
+    /** Makes the sets of this instance the ones that identical sets will be interned to. */
+    void internInto(Map<List<Host>, Set<Host>> interned) {
+      for (Set<Host> set : sets) {
+        List<Host> key = ImmutableList.copyOf(set);
+        if (!interned.containsKey(key)) interned.put(key, set);
+      }
+    }
+
+    Set<Host> get(int ringIndex) {
+      return sets[indexes[ringIndex]];
+    }
+
+    int walkLength(int ringIndex) {
+      return walkLengths[ringIndex];
+    }
+  }
 }
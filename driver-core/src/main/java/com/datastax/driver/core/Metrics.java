@@ -23,11 +23,13 @@ package com.datastax.driver.core;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.JmxReporter;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.datastax.driver.core.policies.SpeculativeExecutionPolicy;
+import com.google.common.annotations.Beta;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -58,6 +60,15 @@ public class Metrics {
   private final Timer requests = registry.timer("requests");
   private final Meter bytesSent = registry.meter("bytes-sent");
   private final Meter bytesReceived = registry.meter("bytes-received");
+  private final Histogram flushBatchSizes = registry.histogram("flush-batch-size");
+  private final Timer connectionSelectionLatency = registry.timer("connection-selection-latency");
+  private final Timer tokenMapRebuildTime = registry.timer("token-map-rebuild-time");
+  private final Histogram tokenMapRecomputedPositions =
+      registry.histogram("token-map-recomputed-positions");
+  private final Counter preparedStatementCacheHits =
+      registry.counter("prepared-statement-cache-hits");
+  private final Counter preparedStatementCacheMisses =
+      registry.counter("prepared-statement-cache-misses");
 
   private final Gauge<Integer> knownHosts =
       registry.register(
@@ -117,6 +128,43 @@ public class Metrics {
             }
           });
 
+  private final Gauge<Integer> connectionImbalance =
+      registry.register(
+          "connection-imbalance",
+          new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+              int value = 0;
+              for (SessionManager session : manager.sessions)
+                for (HostConnectionPool pool : session.pools.values())
+                  value = Math.max(value, pool.connectionImbalance());
+              return value;
+            }
+          });
+
+  private final Gauge<Integer> tokenMapSize =
+      registry.register(
+          "token-map-size",
+          new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+              return manager.metadata.getTokenMapSize();
+            }
+          });
+
+  private final Gauge<Integer> preparedStatementCacheSize =
+      registry.register(
+          "prepared-statement-cache-size",
+          new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+              int value = 0;
+              for (SessionManager session : manager.sessions)
+                value += session.preparedStatementCacheSize();
+              return value;
+            }
+          });
+
   private final Gauge<Integer> requestQueueDepth =
       registry.register(
           "request-queue-depth",
@@ -126,7 +174,7 @@ public class Metrics {
               int value = 0;
               for (SessionManager session : manager.sessions)
                 for (HostConnectionPool pool : session.pools.values())
-                  value += pool.pendingBorrowCount.get();
+                  value += pool.pendingBorrowCount();
               return value;
             }
           });
@@ -374,6 +422,121 @@ public class Metrics {
     return shardAwarenessInfo;
   }
 
+  /**
+   * Returns the number of requests sent to the network at once by each flush of an I/O thread.
+   *
+   * <p>Each value is the number of requests (across all connections served by an I/O thread) that
+   * were written since the previous flush. Larger batches mean fewer system calls; they are
+   * influenced by the {@link SocketOptions#setWriteCoalescingStrategy(WriteCoalescingStrategy)
+   * write coalescing strategy}.
+   *
+   * @return the histogram of flush batch sizes.
+   */
+  @Beta
+  public Histogram getFlushBatchSizes() {
+    return flushBatchSizes;
+  }
+
+  /**
+   * Returns the time it takes to pick the connection a request is sent on.
+   *
+   * <p>To keep the overhead low, only a sample of the selections are timed. This depends on the
+   * {@link PoolingOptions#setConnectionSelectionStrategy(ConnectionSelectionStrategy) connection
+   * selection strategy} and on the number of connections per host (or shard).
+   *
+   * @return the timer of connection selections.
+   */
+  @Beta
+  public Timer getConnectionSelectionLatency() {
+    return connectionSelectionLatency;
+  }
+
+  /**
+   * Returns the largest difference between the number of in-flight requests of two connections to
+   * the same host (or shard), across all hosts.
+   *
+   * <p>A value that stays high relative to {@link PoolingOptions#getMaxRequestsPerConnection} means
+   * that the {@link PoolingOptions#setConnectionSelectionStrategy(ConnectionSelectionStrategy)
+   * connection selection strategy} doesn't balance the load well.
+   *
+   * @return the connection imbalance gauge.
+   */
+  @Beta
+  public Gauge<Integer> getConnectionImbalance() {
+    return connectionImbalance;
+  }
+
+  /**
+   * Returns the time it takes to rebuild the token map, which happens when nodes join, leave or
+   * move, and when keyspaces are created, altered or dropped.
+   *
+   * @return the timer of token map rebuilds.
+   */
+  @Beta
+  public Timer getTokenMapRebuildTime() {
+    return tokenMapRebuildTime;
+  }
+
+  /**
+   * Returns the number of ring positions whose replicas had to be computed by each rebuild of the
+   * token map, across all replication strategies.
+   *
+   * <p>Rebuilds only recompute the replicas of the ring segments affected by a topology change, as
+   * long as the number of nodes and racks in each datacenter doesn't change.
+   *
+   * @return the histogram of recomputed positions.
+   */
+  @Beta
+  public Histogram getTokenMapRecomputedPositions() {
+    return tokenMapRecomputedPositions;
+  }
+
+  /**
+   * Returns the number of tokens in the token map (one per node, or per virtual node when vnodes
+   * are used).
+   *
+   * @return the token map size gauge.
+   */
+  @Beta
+  public Gauge<Integer> getTokenMapSize() {
+    return tokenMapSize;
+  }
+
+  /**
+   * Returns the number of times a query was prepared again, and its statement was found in the
+   * prepared statement cache of the session.
+   *
+   * @return the counter of prepared statement cache hits.
+   * @see QueryOptions#setPreparedStatementCacheSize(int)
+   */
+  @Beta
+  public Counter getPreparedStatementCacheHits() {
+    return preparedStatementCacheHits;
+  }
+
+  /**
+   * Returns the number of times a query was prepared, and its statement was not found in the
+   * prepared statement cache of the session (including when the cache is disabled).
+   *
+   * @return the counter of prepared statement cache misses.
+   * @see QueryOptions#setPreparedStatementCacheSize(int)
+   */
+  @Beta
+  public Counter getPreparedStatementCacheMisses() {
+    return preparedStatementCacheMisses;
+  }
+
+  /**
+   * Returns the number of prepared statements cached by all sessions.
+   *
+   * @return the prepared statement cache size gauge.
+   * @see QueryOptions#setPreparedStatementCacheSize(int)
+   */
+  @Beta
+  public Gauge<Integer> getPreparedStatementCacheSize() {
+    return preparedStatementCacheSize;
+  }
+
   /**
    * Returns the number of bytes sent so far.
    *
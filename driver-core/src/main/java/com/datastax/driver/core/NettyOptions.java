@@ -199,7 +199,10 @@ public class NettyOptions {
   }
 
   /**
-   * Return the {@link Timer} instance used by Read Timeouts and Speculative Execution.
+   * Return the {@link Timer} instance used by Speculative Execution.
+   *
+   * <p>Read timeouts don't use it: they are tracked by each event loop of the {@link
+   * #eventLoopGroup(ThreadFactory) event loop group}.
    *
    * <p>This hook is invoked only once at {@link Cluster} initialization; the returned instance will
    * be kept in use throughout the cluster lifecycle.
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import io.netty.buffer.ByteBuf;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The rows of a result page, kept as a single copy of the page's bytes plus an index of the
+ * position of each cell in it.
+ *
+ * <p>Rows are views over that copy, and their values are only wrapped into {@link ByteBuffer}s when
+ * they are accessed. Compared to decoding each value eagerly, this trades one byte array, one
+ * {@code ArrayList} and one {@code ByteBuffer} per cell for one small object per row.
+ *
+ * <p>Note that the values returned by the rows share the page's backing array: {@link
+ * ByteBuffer#array()} returns the whole page, and must be used along with {@link
+ * ByteBuffer#arrayOffset()}.
+ *
+ * <p>This is a read-only queue: rows are consumed with {@link #poll()}, and can not be added.
+ */
+class PageRows extends AbstractQueue<List<ByteBuffer>> {
+
+  private final byte[] bytes;
+  // Two ints per cell: the offset of its value in bytes, and its length (negative for null).
+  private final int[] index;
+  private final int rowCount;
+  private final int columnCount;
+
+  // The next row to be polled. Rows are only consumed by the thread iterating the result set.
+  private int next;
+
+  private PageRows(byte[] bytes, int[] index, int rowCount, int columnCount) {
+    this.bytes = bytes;
+    this.index = index;
+    this.rowCount = rowCount;
+    this.columnCount = columnCount;
+  }
+
+  /**
+   * Decodes {@code rowCount} rows of {@code columnCount} {@code [bytes]} values from {@code body}.
+   * On return, the reader index of {@code body} is after the last value.
+   */
+  static PageRows decode(ByteBuf body, int rowCount, int columnCount) {
+    int[] index = new int[2 * rowCount * columnCount];
+    int start = body.readerIndex();
+    int position = start;
+    for (int i = 0; i < index.length; i += 2) {
+      int length = body.getInt(position);
+      position += 4;
+      index[i] = position - start;
+      index[i + 1] = length;
+      if (length > 0) {
+        position += length;
+      }
+    }
+    byte[] bytes = new byte[position - start];
+    body.readBytes(bytes);
+    return new PageRows(bytes, index, rowCount, columnCount);
+  }
+
+  @Override
+  public boolean offer(List<ByteBuffer> row) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public List<ByteBuffer> poll() {
+    return (next < rowCount) ? new Row(next++) : null;
+  }
+
+  @Override
+  public List<ByteBuffer> peek() {
+    return (next < rowCount) ? new Row(next) : null;
+  }
+
+  @Override
+  public int size() {
+    return rowCount - next;
+  }
+
+  @Override
+  public Iterator<List<ByteBuffer>> iterator() {
+    return new Iterator<List<ByteBuffer>>() {
+      private int current = next;
+
+      @Override
+      public boolean hasNext() {
+        return current < rowCount;
+      }
+
+      @Override
+      public List<ByteBuffer> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return new Row(current++);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  private class Row extends AbstractList<ByteBuffer> {
+    private final int first;
+
+    private Row(int row) {
+      this.first = 2 * row * columnCount;
+    }
+
+    @Override
+    public ByteBuffer get(int column) {
+      if (column < 0 || column >= columnCount) {
+        throw new IndexOutOfBoundsException("Index: " + column + ", Size: " + columnCount);
+      }
+      int i = first + 2 * column;
+      int length = index[i + 1];
+      return (length < 0) ? null : ByteBuffer.wrap(bytes, index[i], length).slice();
+    }
+
+    @Override
+    public int size() {
+      return columnCount;
+    }
+  }
+}
@@ -18,6 +18,7 @@ package com.datastax.driver.core;
 import static com.datastax.driver.core.HostDistance.LOCAL;
 import static com.datastax.driver.core.HostDistance.REMOTE;
 
+import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import java.util.Map;
@@ -157,6 +158,9 @@ public class PoolingOptions {
 
   private volatile Executor initializationExecutor = DEFAULT_INITIALIZATION_EXECUTOR;
 
+  private volatile ConnectionSelectionStrategy connectionSelectionStrategy =
+      ConnectionSelectionStrategy.LEAST_BUSY;
+
   public PoolingOptions() {}
 
   void register(Cluster.Manager manager) {
@@ -488,6 +492,10 @@ public class PoolingOptions {
    * com.datastax.driver.core.policies.LoadBalancingPolicy#newQueryPlan(String, Statement)} query
    * plan}.
    *
+   * <p>For Scylla hosts, requests wait in a separate queue for each shard, until a connection to
+   * their shard is available. This value still limits the number of requests waiting for all the
+   * shards of the host together.
+   *
    * <p>The default value is {@value DEFAULT_MAX_QUEUE_SIZE}. If this option is set to zero, the
    * driver will never enqueue requests.
    *
@@ -569,6 +577,36 @@ public class PoolingOptions {
     return this;
   }
 
+  /**
+   * Returns the strategy that picks the connection a request is sent on.
+   *
+   * @return the strategy.
+   * @see #setConnectionSelectionStrategy(ConnectionSelectionStrategy)
+   */
+  @Beta
+  public ConnectionSelectionStrategy getConnectionSelectionStrategy() {
+    return connectionSelectionStrategy;
+  }
+
+  /**
+   * Sets the strategy that picks the connection a request is sent on, among the connections to the
+   * target host (and shard, for Scylla hosts).
+   *
+   * <p>By default, this is {@link ConnectionSelectionStrategy#LEAST_BUSY}. This option can be
+   * changed at runtime.
+   *
+   * @param connectionSelectionStrategy the strategy to use.
+   * @return this {@code PoolingOptions}
+   * @throws java.lang.NullPointerException if the strategy is null
+   */
+  @Beta
+  public PoolingOptions setConnectionSelectionStrategy(
+      ConnectionSelectionStrategy connectionSelectionStrategy) {
+    Preconditions.checkNotNull(connectionSelectionStrategy);
+    this.connectionSelectionStrategy = connectionSelectionStrategy;
+    return this;
+  }
+
   synchronized void setProtocolVersion(ProtocolVersion actualVersion) {
     this.protocolVersion = actualVersion;
 
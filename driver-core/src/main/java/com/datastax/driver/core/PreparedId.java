@@ -15,6 +15,8 @@
  */
 package com.datastax.driver.core;
 
+import java.util.concurrent.TimeUnit;
+
 /** Identifies a PreparedStatement. */
 public class PreparedId {
 
@@ -30,6 +32,10 @@ public class PreparedId {
   // can change over time, see JAVA-1196, JAVA-420
   volatile PreparedMetadata resultSetMetadata;
 
+  // Used to re-prepare the most recently used statements first when a node comes back up
+  private static final long USAGE_RESOLUTION_NANOS = TimeUnit.SECONDS.toNanos(1);
+  volatile long lastUsedNanos = System.nanoTime();
+
   PreparedId(
       PreparedMetadata boundValuesMetadata,
       PreparedMetadata resultSetMetadata,
@@ -43,6 +49,12 @@ public class PreparedId {
     this.protocolVersion = protocolVersion;
   }
 
+  void markUsed() {
+    long now = System.nanoTime();
+    // Only written once per resolution period, to avoid contention between the executing threads
+    if (now - lastUsedNanos > USAGE_RESOLUTION_NANOS) lastUsedNanos = now;
+  }
+
   static class PreparedMetadata {
 
     final MD5Digest id;
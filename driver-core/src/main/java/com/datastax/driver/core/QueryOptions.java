@@ -18,6 +18,7 @@ package com.datastax.driver.core;
 import com.datastax.driver.core.exceptions.UnsupportedFeatureException;
 import com.datastax.driver.core.utils.MoreFutures;
 import com.datastax.driver.core.utils.MoreObjects;
+import com.google.common.annotations.Beta;
 
 /** Options related to defaults for individual queries. */
 public class QueryOptions {
@@ -48,6 +49,15 @@ public class QueryOptions {
 
   public static final int DEFAULT_REFRESH_SCHEMA_INTERVAL_MILLIS = 1000;
 
+  /** The default number of statements that are re-prepared concurrently on a node that comes up. */
+  public static final int DEFAULT_REPREPARE_ON_UP_CONCURRENCY = 64;
+
+  /** The default number of statements that are re-prepared before a node that comes up is used. */
+  public static final int DEFAULT_REPREPARE_ON_UP_HOT_STATEMENTS = 1000;
+
+  /** The default size of each session's prepared statement cache (disabled). */
+  public static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 0;
+
   private volatile ConsistencyLevel consistency = DEFAULT_CONSISTENCY_LEVEL;
   private volatile ConsistencyLevel serialConsistency = DEFAULT_SERIAL_CONSISTENCY_LEVEL;
   private volatile int fetchSize = DEFAULT_FETCH_SIZE;
@@ -67,11 +77,16 @@ public class QueryOptions {
   private volatile int refreshSchemaIntervalMillis = DEFAULT_REFRESH_SCHEMA_INTERVAL_MILLIS;
 
   private volatile boolean reprepareOnUp = true;
+  private volatile int reprepareOnUpConcurrency = DEFAULT_REPREPARE_ON_UP_CONCURRENCY;
+  private volatile int reprepareOnUpHotStatements = DEFAULT_REPREPARE_ON_UP_HOT_STATEMENTS;
   private volatile Cluster.Manager manager;
   private volatile boolean prepareOnAllHosts = true;
 
   private volatile boolean schemaQueriesPaged = true;
 
+  private volatile int preparedStatementCacheSize = DEFAULT_PREPARED_STATEMENT_CACHE_SIZE;
+  private volatile int autoPrepareThreshold = 0;
+
   /**
    * Creates a new {@link QueryOptions} instance using the {@link #DEFAULT_CONSISTENCY_LEVEL},
    * {@link #DEFAULT_SERIAL_CONSISTENCY_LEVEL} and {@link #DEFAULT_FETCH_SIZE}.
@@ -267,6 +282,167 @@ public class QueryOptions {
     return this.reprepareOnUp;
   }
 
+  /**
+   * Sets the maximum number of {@code PREPARE} requests that are in flight at once when statements
+   * are {@link #setReprepareOnUp(boolean) re-prepared} on a node that comes back up.
+   *
+   * <p>This defaults to {@link #DEFAULT_REPREPARE_ON_UP_CONCURRENCY}.
+   *
+   * @param reprepareOnUpConcurrency the maximum number of concurrent requests per node.
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if {@code reprepareOnUpConcurrency} is not strictly positive.
+   */
+  @Beta
+  public QueryOptions setReprepareOnUpConcurrency(int reprepareOnUpConcurrency) {
+    if (reprepareOnUpConcurrency <= 0)
+      throw new IllegalArgumentException(
+          "Invalid re-prepare concurrency, should be > 0, got " + reprepareOnUpConcurrency);
+    this.reprepareOnUpConcurrency = reprepareOnUpConcurrency;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of {@code PREPARE} requests that are in flight at once when
+   * statements are re-prepared on a node that comes back up.
+   *
+   * @return the value.
+   * @see #setReprepareOnUpConcurrency(int)
+   */
+  @Beta
+  public int getReprepareOnUpConcurrency() {
+    return reprepareOnUpConcurrency;
+  }
+
+  /**
+   * Sets how many statements must be {@link #setReprepareOnUp(boolean) re-prepared} on a node that
+   * comes back up before the driver starts sending it requests.
+   *
+   * <p>Statements are re-prepared starting with the most recently executed ones. Once this number
+   * of statements has been prepared, the node is marked up, and the remaining statements are
+   * prepared in the background. If one of them is executed on the node before that, the node
+   * replies that it is not prepared, and the driver prepares it on the fly (a given statement is
+   * only prepared once per node, even if many requests execute it at the same time).
+   *
+   * <p>This defaults to {@link #DEFAULT_REPREPARE_ON_UP_HOT_STATEMENTS}; use {@link
+   * Integer#MAX_VALUE} to prepare all the statements before using the node.
+   *
+   * @param reprepareOnUpHotStatements the number of statements to prepare before using the node.
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if {@code reprepareOnUpHotStatements} is negative.
+   */
+  @Beta
+  public QueryOptions setReprepareOnUpHotStatements(int reprepareOnUpHotStatements) {
+    if (reprepareOnUpHotStatements < 0)
+      throw new IllegalArgumentException(
+          "Invalid number of hot statements, should be >= 0, got " + reprepareOnUpHotStatements);
+    this.reprepareOnUpHotStatements = reprepareOnUpHotStatements;
+    return this;
+  }
+
+  /**
+   * Returns how many statements must be re-prepared on a node that comes back up before the driver
+   * starts sending it requests.
+   *
+   * @return the value.
+   * @see #setReprepareOnUpHotStatements(int)
+   */
+  @Beta
+  public int getReprepareOnUpHotStatements() {
+    return reprepareOnUpHotStatements;
+  }
+
+  /**
+   * Sets the maximum number of prepared statements that each {@link Session} caches.
+   *
+   * <p>When a query string is prepared again on the same session, with the same logged keyspace and
+   * the same custom payload, {@link Session#prepareAsync(String)} returns the statement that was
+   * already prepared instead of sending a new {@code PREPARE} request. Concurrent preparations of
+   * the same query also share a single request. Once the cache is full, the least recently prepared
+   * queries are evicted first. The cache is emptied whenever the schema changes, so that statements
+   * get their new result metadata.
+   *
+   * <p><b>With the cache enabled, all the callers that prepare the same query get the same {@link
+   * PreparedStatement} instance.</b> The options set on it, such as its consistency level, retry
+   * policy, idempotence, routing key, outgoing payload or tracing, apply to the statements bound by
+   * all of them. Only enable the cache if the application doesn't change these options, or sets
+   * them on the bound statements instead.
+   *
+   * <p>This defaults to {@link #DEFAULT_PREPARED_STATEMENT_CACHE_SIZE}, which disables the cache so
+   * that every call to {@code prepare} sends a request and returns a new instance. Changes only
+   * affect the sessions that are created afterwards. Cache hits and misses are exposed by {@link
+   * Metrics#getPreparedStatementCacheHits()} and {@link Metrics#getPreparedStatementCacheMisses()}.
+   *
+   * @param preparedStatementCacheSize the maximum number of cached statements per session.
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if {@code preparedStatementCacheSize} is negative.
+   */
+  @Beta
+  public QueryOptions setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+    if (preparedStatementCacheSize < 0)
+      throw new IllegalArgumentException(
+          "Invalid prepared statement cache size, should be >= 0, got "
+              + preparedStatementCacheSize);
+    this.preparedStatementCacheSize = preparedStatementCacheSize;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of prepared statements that each {@link Session} caches.
+   *
+   * @return the value.
+   * @see #setPreparedStatementCacheSize(int)
+   */
+  @Beta
+  public int getPreparedStatementCacheSize() {
+    return preparedStatementCacheSize;
+  }
+
+  /**
+   * Sets the number of executions after which a simple statement gets prepared automatically.
+   *
+   * <p>When this is enabled, each {@link Session} counts how many times it executes each query
+   * string through a {@link SimpleStatement} (including {@link Session#execute(String,
+   * Object...)}). Once a query string reaches the threshold, it is prepared in the background, and
+   * from then on its executions are sent as {@code EXECUTE} requests of a {@link BoundStatement},
+   * which the server doesn't have to parse again and which are routed by token-aware policies. The
+   * options of the simple statement (consistency level, paging state, etc.) are copied to the bound
+   * statement, and its values are serialized in the same way.
+   *
+   * <p>Note that {@link LatencyTracker}s (such as {@link QueryLogger}) are then passed the bound
+   * statement, not the original simple statement. Statements that use named values, or that {@link
+   * SimpleStatement#setKeyspace(String) set their own keyspace}, are never prepared. Executions are
+   * only tracked for the 10000 most recently executed query strings, and those should contain bind
+   * markers rather than literal values, otherwise they won't be executed often enough to be
+   * prepared.
+   *
+   * <p>This is disabled by default ({@code 0}). Changes only affect the sessions that are created
+   * afterwards.
+   *
+   * @param autoPrepareThreshold the number of executions of a query string after which it gets
+   *     prepared, or {@code 0} to disable automatic preparation.
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if {@code autoPrepareThreshold} is negative.
+   */
+  @Beta
+  public QueryOptions setAutoPrepareThreshold(int autoPrepareThreshold) {
+    if (autoPrepareThreshold < 0)
+      throw new IllegalArgumentException(
+          "Invalid auto-prepare threshold, should be >= 0, got " + autoPrepareThreshold);
+    this.autoPrepareThreshold = autoPrepareThreshold;
+    return this;
+  }
+
+  /**
+   * Returns the number of executions after which a simple statement gets prepared automatically.
+   *
+   * @return the value, or {@code 0} if automatic preparation is disabled.
+   * @see #setAutoPrepareThreshold(int)
+   */
+  @Beta
+  public int getAutoPrepareThreshold() {
+    return autoPrepareThreshold;
+  }
+
   /**
    * Toggle client-side token and schema metadata.
    *
@@ -520,7 +696,11 @@ public class QueryOptions {
             && this.refreshSchemaIntervalMillis == other.refreshSchemaIntervalMillis
             && this.reprepareOnUp == other.reprepareOnUp
             && this.prepareOnAllHosts == other.prepareOnAllHosts)
-        && this.schemaQueriesPaged == other.schemaQueriesPaged;
+        && this.schemaQueriesPaged == other.schemaQueriesPaged
+        && this.preparedStatementCacheSize == other.preparedStatementCacheSize
+        && this.autoPrepareThreshold == other.autoPrepareThreshold
+        && this.reprepareOnUpConcurrency == other.reprepareOnUpConcurrency
+        && this.reprepareOnUpHotStatements == other.reprepareOnUpHotStatements;
   }
 
   @Override
@@ -539,7 +719,11 @@ public class QueryOptions {
         refreshSchemaIntervalMillis,
         reprepareOnUp,
         prepareOnAllHosts,
-        schemaQueriesPaged);
+        schemaQueriesPaged,
+        preparedStatementCacheSize,
+        autoPrepareThreshold,
+        reprepareOnUpConcurrency,
+        reprepareOnUpHotStatements);
   }
 
   public boolean isConsistencySet() {
@@ -67,8 +67,38 @@ abstract class ReplicationStrategy {
     }
   }
 
-  abstract Map<Token, Set<Host>> computeTokenToReplicaMap(
-      String keyspaceName, Map<Token, Host> tokenToPrimary, List<Token> ring);
+  Map<Token, Set<Host>> computeTokenToReplicaMap(
+      String keyspaceName, Map<Token, Host> tokenToPrimary, List<Token> ring) {
+    @SuppressWarnings("unchecked")
+    Set<Host>[] replicas = new Set[ring.size()];
+    computeReplicas(keyspaceName, tokenToPrimary, ring, null, replicas, new int[ring.size()]);
+    Map<Token, Set<Host>> replicaMap = new HashMap<Token, Set<Host>>(tokenToPrimary.size());
+    for (int i = 0; i < ring.size(); i++) replicaMap.put(ring.get(i), replicas[i]);
+    return replicaMap;
+  }
+
+  /**
+   * Computes the replicas of some positions of the ring.
+   *
+   * @param toCompute the positions to compute, or {@code null} to compute all of them.
+   * @param replicas receives the replicas of each computed position, the primary replica first.
+   * @param walkLengths receives, for each computed position, the number of consecutive positions
+   *     (starting with itself) that were visited to find its replicas. As long as the primaries of
+   *     these positions and the topology of the cluster don't change, neither do the replicas.
+   */
+  abstract void computeReplicas(
+      String keyspaceName,
+      Map<Token, Host> tokenToPrimary,
+      List<Token> ring,
+      boolean[] toCompute,
+      Set<Host>[] replicas,
+      int[] walkLengths);
+
+  /**
+   * Whether the replicas also depend on the number of hosts in each datacenter and rack, and not
+   * only on the primaries of the positions visited by {@link #computeReplicas}.
+   */
+  abstract boolean dependsOnTopology();
 
   private static Token getTokenWrapping(int i, List<Token> ring) {
     return ring.get(i % ring.size());
@@ -83,20 +113,32 @@ abstract class ReplicationStrategy {
     }
 
     @Override
-    Map<Token, Set<Host>> computeTokenToReplicaMap(
-        String keyspaceName, Map<Token, Host> tokenToPrimary, List<Token> ring) {
+    boolean dependsOnTopology() {
+      return false;
+    }
+
+    @Override
+    void computeReplicas(
+        String keyspaceName,
+        Map<Token, Host> tokenToPrimary,
+        List<Token> ring,
+        boolean[] toCompute,
+        Set<Host>[] result,
+        int[] walkLengths) {
 
       int rf = Math.min(replicationFactor.fullReplicas(), ring.size());
 
-      Map<Token, Set<Host>> replicaMap = new HashMap<Token, Set<Host>>(tokenToPrimary.size());
+      Set<Host> replicas = new LinkedHashSet<Host>();
       for (int i = 0; i < ring.size(); i++) {
+        if (toCompute != null && !toCompute[i]) continue;
         // Consecutive sections of the ring can assigned to the same host
-        Set<Host> replicas = new LinkedHashSet<Host>();
-        for (int j = 0; j < ring.size() && replicas.size() < rf; j++)
+        replicas.clear();
+        int j = 0;
+        for (; j < ring.size() && replicas.size() < rf; j++)
           replicas.add(tokenToPrimary.get(getTokenWrapping(i + j, ring)));
-        replicaMap.put(ring.get(i), ImmutableSet.copyOf(replicas));
+        result[i] = ImmutableSet.copyOf(replicas);
+        walkLengths[i] = j;
       }
-      return replicaMap;
     }
 
     @Override
@@ -125,8 +167,18 @@ abstract class ReplicationStrategy {
     }
 
     @Override
-    Map<Token, Set<Host>> computeTokenToReplicaMap(
-        String keyspaceName, Map<Token, Host> tokenToPrimary, List<Token> ring) {
+    boolean dependsOnTopology() {
+      return true;
+    }
+
+    @Override
+    void computeReplicas(
+        String keyspaceName,
+        Map<Token, Host> tokenToPrimary,
+        List<Token> ring,
+        boolean[] toCompute,
+        Set<Host>[] result,
+        int[] walkLengths) {
 
       logger.debug("Computing token to replica map for keyspace: {}.", keyspaceName);
 
@@ -135,7 +187,6 @@ abstract class ReplicationStrategy {
 
       // This is essentially a copy of org.apache.cassandra.locator.NetworkTopologyStrategy
       Map<String, Set<String>> racks = getRacksInDcs(tokenToPrimary.values());
-      Map<Token, Set<Host>> replicaMap = new HashMap<Token, Set<Host>>(tokenToPrimary.size());
       Map<String, Integer> dcHostCount = Maps.newHashMapWithExpectedSize(replicationFactors.size());
       Set<String> warnedDcs = Sets.newHashSetWithExpectedSize(replicationFactors.size());
       // find maximum number of nodes in each DC
@@ -146,19 +197,28 @@ abstract class ReplicationStrategy {
         }
         dcHostCount.put(dc, dcHostCount.get(dc) + 1);
       }
+      // The per-position state is reset for each position rather than reallocated
+      Map<String, Set<Host>> allDcReplicas = new HashMap<String, Set<Host>>();
+      Map<String, Set<String>> seenRacks = new HashMap<String, Set<String>>();
+      Map<String, Set<Host>> skippedDcEndpoints = new HashMap<String, Set<Host>>();
+      for (String dc : replicationFactors.keySet()) {
+        allDcReplicas.put(dc, new HashSet<Host>());
+        seenRacks.put(dc, new HashSet<String>());
+        skippedDcEndpoints.put(dc, new LinkedHashSet<Host>()); // preserve order
+      }
+      // Preserve order - primary replica will be first
+      Set<Host> replicas = new LinkedHashSet<Host>();
       for (int i = 0; i < ring.size(); i++) {
-        Map<String, Set<Host>> allDcReplicas = new HashMap<String, Set<Host>>();
-        Map<String, Set<String>> seenRacks = new HashMap<String, Set<String>>();
-        Map<String, Set<Host>> skippedDcEndpoints = new HashMap<String, Set<Host>>();
+        if (toCompute != null && !toCompute[i]) continue;
         for (String dc : replicationFactors.keySet()) {
-          allDcReplicas.put(dc, new HashSet<Host>());
-          seenRacks.put(dc, new HashSet<String>());
-          skippedDcEndpoints.put(dc, new LinkedHashSet<Host>()); // preserve order
+          allDcReplicas.get(dc).clear();
+          seenRacks.get(dc).clear();
+          skippedDcEndpoints.get(dc).clear();
         }
+        replicas.clear();
 
-        // Preserve order - primary replica will be first
-        Set<Host> replicas = new LinkedHashSet<Host>();
-        for (int j = 0; j < ring.size() && !allDone(allDcReplicas, dcHostCount); j++) {
+        int j = 0;
+        for (; j < ring.size() && !allDone(allDcReplicas, dcHostCount); j++) {
           Host h = tokenToPrimary.get(getTokenWrapping(i + j, ring));
           String dc = h.getDatacenter();
           if (dc == null || !allDcReplicas.containsKey(dc)) continue;
@@ -214,7 +274,8 @@ abstract class ReplicationStrategy {
           }
         }
 
-        replicaMap.put(ring.get(i), ImmutableSet.copyOf(replicas));
+        result[i] = ImmutableSet.copyOf(replicas);
+        walkLengths[i] = j;
       }
 
       long duration = System.currentTimeMillis() - startTime;
@@ -222,8 +283,6 @@ abstract class ReplicationStrategy {
           "Token to replica map computation for keyspace {} completed in {} milliseconds",
           keyspaceName,
           duration);
-
-      return replicaMap;
     }
 
     private boolean allDone(Map<String, Set<Host>> map, Map<String, Integer> dcHostCount) {
@@ -37,21 +37,21 @@ import com.datastax.driver.core.exceptions.ServerError;
 import com.datastax.driver.core.exceptions.UnavailableException;
 import com.datastax.driver.core.exceptions.WriteFailureException;
 import com.datastax.driver.core.exceptions.WriteTimeoutException;
+import com.datastax.driver.core.policies.LoadBalancingPolicy;
+import com.datastax.driver.core.policies.NoSpeculativeExecutionPolicy;
 import com.datastax.driver.core.policies.RetryPolicy;
 import com.datastax.driver.core.policies.RetryPolicy.RetryDecision.Type;
 import com.datastax.driver.core.policies.SpeculativeExecutionPolicy.SpeculativeExecutionPlan;
+import com.datastax.driver.core.policies.TokenAwarePolicy;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
-import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.netty.util.Timeout;
 import io.netty.util.TimerTask;
-import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -59,6 +59,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -78,11 +79,19 @@ class RequestHandler {
   private final SessionManager manager;
   private final Callback callback;
 
+  private final RoutingContext routingContext;
   private final QueryPlan queryPlan;
   private final SpeculativeExecutionPlan speculativeExecutionPlan;
   private final boolean allowSpeculativeExecutions;
-  private final Set<SpeculativeExecution> runningExecutions = Sets.newCopyOnWriteArraySet();
-  private final Set<Timeout> scheduledExecutions = Sets.newCopyOnWriteArraySet();
+  // The initial size of the running executions array when speculative executions are enabled
+  static final int INITIAL_EXECUTIONS = 4;
+
+  // The running executions, indexed by position. Since each execution schedules at most one other,
+  // at most one is scheduled at any time. The array grows when the speculative execution plan asks
+  // for more executions; growing it and removing executions are guarded by the handler's monitor.
+  private volatile AtomicReferenceArray<SpeculativeExecution> runningExecutions;
+  private final AtomicInteger runningExecutionCount = new AtomicInteger();
+  private volatile Timeout scheduledExecution;
   private final Statement statement;
   private final io.netty.util.Timer scheduler;
 
@@ -95,42 +104,6 @@ class RequestHandler {
   private final AtomicBoolean isDone = new AtomicBoolean();
   private final AtomicInteger executionIndex = new AtomicInteger();
 
-  private Iterator<Host> getReplicas(
-      String loggedKeyspace, Statement statement, Iterator<Host> fallback) {
-    ProtocolVersion protocolVersion = manager.cluster.manager.protocolVersion();
-    CodecRegistry codecRegistry = manager.cluster.manager.configuration.getCodecRegistry();
-    ByteBuffer partitionKey = statement.getRoutingKey(protocolVersion, codecRegistry);
-    String keyspace = statement.getKeyspace();
-    if (keyspace == null) {
-      keyspace = loggedKeyspace;
-    }
-
-    if (partitionKey == null || keyspace == null) {
-      return fallback;
-    }
-
-    Token.Factory partitioner = statement.getPartitioner();
-    String tableName = null;
-    ColumnDefinitions defs = null;
-    if (statement instanceof BoundStatement) {
-      defs = ((BoundStatement) statement).preparedStatement().getVariables();
-    } else if (statement instanceof PreparedStatement) {
-      defs = ((PreparedStatement) statement).getVariables();
-    }
-    if (defs != null && defs.size() > 0) {
-      tableName = defs.getTable(0);
-    }
-
-    final Set<Host> replicas =
-        manager
-            .cluster
-            .getMetadata()
-            .getReplicas(Metadata.quote(keyspace), tableName, partitioner, partitionKey);
-
-    // replicas are stored in the right order starting with the primary replica
-    return replicas.iterator();
-  }
-
   public RequestHandler(SessionManager manager, Callback callback, Statement statement) {
     this.id = Long.toString(System.identityHashCode(this));
     if (logger.isTraceEnabled()) logger.trace("[{}] {}", id, statement);
@@ -140,22 +113,21 @@ class RequestHandler {
 
     callback.register(this);
 
+    this.routingContext =
+        new RoutingContext(
+            manager.cluster.getMetadata(),
+            manager.cluster.manager.protocolVersion(),
+            manager.cluster.manager.configuration.getCodecRegistry(),
+            manager.poolsState.keyspace,
+            statement);
+
     // If host is explicitly set on statement, bypass load balancing policy.
     if (statement.getHost() != null) {
       this.queryPlan = new QueryPlan(Iterators.singletonIterator(statement.getHost()));
     } else if (statement.isLWT()) {
-      this.queryPlan =
-          new QueryPlan(
-              getReplicas(
-                  manager.poolsState.keyspace,
-                  statement,
-                  manager
-                      .loadBalancingPolicy()
-                      .newQueryPlan(manager.poolsState.keyspace, statement)));
+      this.queryPlan = new QueryPlan(getReplicas(manager.poolsState.keyspace, statement));
     } else {
-      this.queryPlan =
-          new QueryPlan(
-              manager.loadBalancingPolicy().newQueryPlan(manager.poolsState.keyspace, statement));
+      this.queryPlan = new QueryPlan(newQueryPlan(manager.poolsState.keyspace, statement));
     }
 
     this.speculativeExecutionPlan =
@@ -163,12 +135,38 @@ class RequestHandler {
     this.allowSpeculativeExecutions =
         statement != Statement.DEFAULT
             && statement.isIdempotentWithDefault(manager.configuration().getQueryOptions());
+    this.runningExecutions =
+        new AtomicReferenceArray<SpeculativeExecution>(
+            allowSpeculativeExecutions
+                    && !(manager.speculativeExecutionPolicy()
+                        instanceof NoSpeculativeExecutionPolicy)
+                ? INITIAL_EXECUTIONS
+                : 1);
     this.statement = statement;
 
     this.timerContext = metricsEnabled() ? metrics().getRequestsTimer().time() : null;
     this.startTime = System.nanoTime();
   }
 
+  private Iterator<Host> newQueryPlan(String loggedKeyspace, Statement statement) {
+    LoadBalancingPolicy loadBalancingPolicy = manager.loadBalancingPolicy();
+    // Subclasses may override newQueryPlan(String, Statement), which must then remain the entry
+    // point
+    if (loadBalancingPolicy.getClass() == TokenAwarePolicy.class) {
+      return ((TokenAwarePolicy) loadBalancingPolicy).newQueryPlan(loggedKeyspace, routingContext);
+    }
+    return loadBalancingPolicy.newQueryPlan(loggedKeyspace, statement);
+  }
+
+  private Iterator<Host> getReplicas(String loggedKeyspace, Statement statement) {
+    if (routingContext.getRoutingKey() == null || routingContext.getKeyspace() == null) {
+      return newQueryPlan(loggedKeyspace, statement);
+    }
+
+    // replicas are stored in the right order starting with the primary replica
+    return routingContext.getReplicas().iterator();
+  }
+
   void sendRequest() {
     startNewExecution();
   }
@@ -187,7 +185,18 @@ class RequestHandler {
     int position = executionIndex.getAndIncrement();
 
     SpeculativeExecution execution = new SpeculativeExecution(request, position);
-    runningExecutions.add(execution);
+    runningExecutionCount.incrementAndGet();
+    synchronized (this) {
+      AtomicReferenceArray<SpeculativeExecution> executions = runningExecutions;
+      if (position >= executions.length()) {
+        AtomicReferenceArray<SpeculativeExecution> grown =
+            new AtomicReferenceArray<SpeculativeExecution>(
+                Math.max(position + 1, executions.length() * 2));
+        for (int i = 0; i < executions.length(); i++) grown.set(i, executions.get(i));
+        runningExecutions = executions = grown;
+      }
+      executions.set(position, execution);
+    }
     execution.findNextHostAndQuery();
   }
 
@@ -199,8 +208,8 @@ class RequestHandler {
       // kick off request immediately
       scheduleExecutionImmediately();
     } else {
-      scheduledExecutions.add(
-          scheduler.newTimeout(newExecutionTask, delayMillis, TimeUnit.MILLISECONDS));
+      scheduledExecution =
+          scheduler.newTimeout(newExecutionTask, delayMillis, TimeUnit.MILLISECONDS);
     }
   }
 
@@ -208,7 +217,7 @@ class RequestHandler {
       new TimerTask() {
         @Override
         public void run(final Timeout timeout) throws Exception {
-          scheduledExecutions.remove(timeout);
+          scheduledExecution = null;
           if (!isDone.get()) {
             // We're on the timer thread so reschedule to another executor
             manager
@@ -230,10 +239,15 @@ class RequestHandler {
   }
 
   private void cancelPendingExecutions(SpeculativeExecution ignore) {
-    for (SpeculativeExecution execution : runningExecutions)
-      if (execution != ignore) // not vital but this produces nicer logs
+    AtomicReferenceArray<SpeculativeExecution> executions = runningExecutions;
+    int count = Math.min(executionIndex.get(), executions.length());
+    for (int i = 0; i < count; i++) {
+      SpeculativeExecution execution = executions.get(i);
+      if (execution != null && execution != ignore) // not vital but this produces nicer logs
       execution.cancel();
-    for (Timeout execution : scheduledExecutions) execution.cancel();
+    }
+    Timeout execution = scheduledExecution;
+    if (execution != null) execution.cancel();
   }
 
   private void setFinalResult(
@@ -326,8 +340,11 @@ class RequestHandler {
   // Triggered when an execution reaches the end of the query plan.
   // This is only a failure if there are no other running executions.
   private void reportNoMoreHosts(SpeculativeExecution execution) {
-    runningExecutions.remove(execution);
-    if (runningExecutions.isEmpty())
+    boolean removed;
+    synchronized (this) {
+      removed = runningExecutions.compareAndSet(execution.position, execution, null);
+    }
+    if (removed && runningExecutionCount.decrementAndGet() == 0)
       setFinalException(
           execution,
           null,
@@ -443,33 +460,13 @@ class RequestHandler {
       if (allowSpeculativeExecutions && nextExecutionScheduled.compareAndSet(false, true))
         scheduleExecution(speculativeExecutionPlan.nextExecution(host));
 
-      ProtocolVersion protocolVersion = manager.cluster.manager.protocolVersion();
-      CodecRegistry codecRegistry = manager.cluster.manager.configuration.getCodecRegistry();
-      ByteBuffer routingKey = statement.getRoutingKey(protocolVersion, codecRegistry);
-
       PoolingOptions poolingOptions = manager.configuration().getPoolingOptions();
-      String statementKeyspace = statement.getKeyspace();
-      String statementTable = null;
-      ColumnDefinitions defs = null;
-      if (statement instanceof PreparedStatement) {
-        defs = ((PreparedStatement) statement).getVariables();
-      }
-      if (statement instanceof BoundStatement) {
-        defs = ((BoundStatement) statement).statement.getVariables();
-      }
-      if (defs != null && defs.size() > 0) {
-        statementTable = defs.getTable(0);
-      }
-
       ListenableFuture<Connection> connectionFuture =
           pool.borrowConnection(
               poolingOptions.getPoolTimeoutMillis(),
               TimeUnit.MILLISECONDS,
               poolingOptions.getMaxQueueSize(),
-              statement.getPartitioner(),
-              routingKey,
-              statementKeyspace,
-              statementTable);
+              routingContext);
       GuavaCompatibility.INSTANCE.addCallback(
           connectionFuture,
           new FutureCallback<Connection>() {
@@ -851,15 +848,8 @@ class RequestHandler {
                           toPrepare.getQueryString()));
                 }
 
-                logger.info(
-                    "Query {} is not prepared on {}, preparing before retrying executing. "
-                        + "Seeing this message a few times is fine, but seeing it a lot may be source of performance problems",
-                    toPrepare.getQueryString(),
-                    toPrepare.getQueryKeyspace(),
-                    connection.endPoint);
-
-                write(connection, prepareAndRetry(toPrepare.getQueryString()));
-                // we're done for now, the prepareAndRetry callback will handle the rest
+                reprepareAndRetry(connection, queriedHost, id, toPrepare);
+                // we're done for now, the callback on the PREPARE request will handle the rest
                 return;
               case READ_FAILURE:
                 assert exceptionToReport instanceof ReadFailureException;
@@ -904,96 +894,79 @@ class RequestHandler {
       }
     }
 
-    private Connection.ResponseCallback prepareAndRetry(final String toPrepare) {
+    private void reprepareAndRetry(
+        final Connection connection,
+        final Host host,
+        final MD5Digest preparedId,
+        PreparedStatement toPrepare)
+        throws ConnectionException, BusyConnectionException {
       // do not bother inspecting retry policy at this step, no other decision
       // makes sense than retry on the same host if the query was prepared,
       // or on another host, if an error/timeout occurred.
       // The original request hasn't been executed so far, so there is no risk
       // of re-executing non-idempotent statements.
-      return new Connection.ResponseCallback() {
-
-        @Override
-        public Message.Request request() {
-          Requests.Prepare request = new Requests.Prepare(toPrepare);
-          // propagate the original custom payload in the prepare request
-          request.setCustomPayload(statement.getOutgoingPayload());
-          return request;
-        }
-
-        @Override
-        public int retryCount() {
-          return SpeculativeExecution.this.retryCount();
+      Requests.Prepare request = new Requests.Prepare(toPrepare.getQueryString());
+      // propagate the original custom payload in the prepare request
+      request.setCustomPayload(statement.getOutgoingPayload());
+      Connection.Future future = new Connection.Future(request);
+      Connection.Future existing = host.repreparations.putIfAbsent(preparedId, future);
+      if (existing == null) {
+        logger.info(
+            "Query {} is not prepared on {}, preparing before retrying executing. "
+                + "Seeing this message a few times is fine, but seeing it a lot may be source of performance problems",
+            toPrepare.getQueryString(),
+            connection.endPoint);
+        try {
+          connection.write(future);
+        } catch (ConnectionException e) {
+          host.repreparations.remove(preparedId, future);
+          throw e;
+        } catch (BusyConnectionException e) {
+          host.repreparations.remove(preparedId, future);
+          throw e;
         }
+        final Connection.Future repreparation = future;
+        future.addListener(
+            new Runnable() {
+              @Override
+              public void run() {
+                host.repreparations.remove(preparedId, repreparation);
+                connection.release();
+              }
+            },
+            GuavaCompatibility.INSTANCE.sameThreadExecutor());
+      } else {
+        // Another request is already preparing the statement on this host, it's not using our
+        // connection
+        logger.debug(
+            "[{}] Waiting for query {} to be prepared on {}", id, toPrepare.getQueryString(), host);
+        connection.release();
+        future = existing;
+      }
 
-        @Override
-        public void onSet(
-            Connection connection, Message.Response response, long latency, int retryCount) {
-          QueryState queryState = queryStateRef.get();
-          if (!queryState.isInProgressAt(retryCount)
-              || !queryStateRef.compareAndSet(queryState, queryState.complete())) {
-            logger.debug(
-                "onSet triggered but the response was completed by another thread, cancelling (retryCount = {}, queryState = {}, queryStateRef = {})",
-                retryCount,
-                queryState,
-                queryStateRef.get());
-            return;
-          }
-
-          connection.release();
-
-          switch (response.type) {
-            case RESULT:
-              if (((Responses.Result) response).kind == Responses.Result.Kind.PREPARED) {
+      final EndPoint endPoint = connection.endPoint;
+      GuavaCompatibility.INSTANCE.addCallback(
+          future,
+          new FutureCallback<Message.Response>() {
+            @Override
+            public void onSuccess(Message.Response response) {
+              if (response.type == Message.Response.Type.RESULT
+                  && ((Responses.Result) response).kind == Responses.Result.Kind.PREPARED) {
                 logger.debug("Scheduling retry now that query is prepared");
                 retry(true, null);
               } else {
-                logError(
-                    connection.endPoint,
-                    new DriverException("Got unexpected response to prepare message: " + response));
+                logError(endPoint, new DriverException("Error preparing query, got " + response));
+                if (metricsEnabled()) metrics().getErrorMetrics().getOthers().inc();
                 retry(false, null);
               }
-              break;
-            case ERROR:
-              logError(
-                  connection.endPoint,
-                  new DriverException("Error preparing query, got " + response));
-              if (metricsEnabled()) metrics().getErrorMetrics().getOthers().inc();
-              retry(false, null);
-              break;
-            default:
-              // Something's wrong, so we return but we let setFinalResult propagate the exception
-              SpeculativeExecution.this.setFinalResult(connection, response);
-              break;
-          }
-        }
-
-        @Override
-        public void onException(
-            Connection connection, Exception exception, long latency, int retryCount) {
-          SpeculativeExecution.this.onException(connection, exception, latency, retryCount);
-        }
+            }
 
-        @Override
-        public boolean onTimeout(Connection connection, long latency, int retryCount) {
-          QueryState queryState = queryStateRef.get();
-          if (!queryState.isInProgressAt(retryCount)
-              || !queryStateRef.compareAndSet(queryState, queryState.complete())) {
-            logger.debug(
-                "onTimeout triggered but the response was completed by another thread, cancelling (retryCount = {}, queryState = {}, queryStateRef = {})",
-                retryCount,
-                queryState,
-                queryStateRef.get());
-            return false;
-          }
-          connection.release();
-          logError(
-              connection.endPoint,
-              new OperationTimedOutException(
-                  connection.endPoint, "Timed out waiting for response to PREPARE message"));
-          retry(false, null);
-          return true;
-        }
-      };
+            @Override
+            public void onFailure(Throwable t) {
+              logError(endPoint, t);
+              retry(false, null);
+            }
+          });
     }
 
     @Override
@@ -536,6 +536,13 @@ class Responses {
         }
       }
 
+      /**
+       * Whether to decode rows lazily (see {@link PageRows}), instead of copying each value into
+       * its own buffer.
+       */
+      static final boolean LAZY_ROWS_DECODING =
+          SystemProperties.getBoolean("com.datastax.driver.LAZY_ROWS_DECODING", false);
+
       static final Message.Decoder<Result> subcodec =
           new Message.Decoder<Result>() {
             @Override
@@ -547,6 +554,10 @@ class Responses {
               int rowCount = body.readInt();
               int columnCount = metadata.columnCount;
 
+              if (LAZY_ROWS_DECODING) {
+                return new Rows(metadata, PageRows.decode(body, rowCount, columnCount), version);
+              }
+
               Queue<List<ByteBuffer>> data = new ArrayDeque<List<ByteBuffer>>(rowCount);
               for (int i = 0; i < rowCount; i++) {
                 List<ByteBuffer> row = new ArrayList<ByteBuffer>(columnCount);
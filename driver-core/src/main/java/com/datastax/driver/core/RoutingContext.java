@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.annotations.Beta;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The routing information of a single request: its routing key, the {@link Token} of that key, the
+ * replicas of the tablet owning that token (if any) with their shards, and the resulting replicas.
+ *
+ * <p>One instance is created per request execution and shared by the load balancing policy, the
+ * speculative executions and shard selection, so that the routing key is only composed and hashed
+ * once, however many times the request is routed. Each piece of information is computed lazily on
+ * first access and then memoized.
+ *
+ * <p>Note that this information is a snapshot: it is not updated if the cluster metadata changes
+ * while the request is in progress.
+ */
+@Beta
+public final class RoutingContext {
+
+  private final Metadata metadata;
+  private final ProtocolVersion protocolVersion;
+  private final CodecRegistry codecRegistry;
+  private final Statement statement;
+  private final String keyspace;
+  private final String table;
+
+  // All memoized values are computed idempotently, so concurrent initializations are harmless.
+  // Each value is written before its flag, so reading a flag as true guarantees the value is
+  // visible.
+  private ByteBuffer routingKey;
+  private volatile boolean routingKeyResolved;
+  private Token token;
+  private volatile boolean tokenResolved;
+  private volatile TabletMap.TabletReplicas tabletReplicas;
+  private volatile Set<Host> replicas;
+
+  RoutingContext(
+      Metadata metadata,
+      ProtocolVersion protocolVersion,
+      CodecRegistry codecRegistry,
+      String loggedKeyspace,
+      Statement statement) {
+    this.metadata = metadata;
+    this.protocolVersion = protocolVersion;
+    this.codecRegistry = codecRegistry;
+    this.statement = statement;
+    String keyspace = statement.getKeyspace();
+    this.keyspace = keyspace == null ? loggedKeyspace : keyspace;
+    this.table = tableOf(statement);
+  }
+
+  private static String tableOf(Statement statement) {
+    ColumnDefinitions defs = null;
+    if (statement instanceof BoundStatement) {
+      defs = ((BoundStatement) statement).preparedStatement().getVariables();
+    } else if (statement instanceof PreparedStatement) {
+      defs = ((PreparedStatement) statement).getVariables();
+    }
+    return (defs != null && defs.size() > 0) ? defs.getTable(0) : null;
+  }
+
+  /**
+   * Returns the statement this context was created for.
+   *
+   * @return the statement.
+   */
+  public Statement getStatement() {
+    return statement;
+  }
+
+  /**
+   * Returns the keyspace the request will be routed against: the statement's keyspace if it has
+   * one, the session's logged keyspace otherwise.
+   *
+   * @return the keyspace, or {@code null} if neither the statement nor the session have one.
+   */
+  public String getKeyspace() {
+    return keyspace;
+  }
+
+  /**
+   * Returns the table targeted by the statement, if it can be determined (that is only the case for
+   * prepared and bound statements).
+   *
+   * @return the table, or {@code null}.
+   */
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * Returns the statement's {@linkplain Statement#getRoutingKey(ProtocolVersion, CodecRegistry)
+   * routing key}.
+   *
+   * @return the routing key, or {@code null} if the statement does not have one.
+   */
+  public ByteBuffer getRoutingKey() {
+    if (!routingKeyResolved) {
+      routingKey = statement.getRoutingKey(protocolVersion, codecRegistry);
+      routingKeyResolved = true;
+    }
+    return routingKey;
+  }
+
+  /**
+   * Returns the token of the routing key, computed with the statement's {@linkplain
+   * Statement#getPartitioner() partitioner}, or the cluster-wide one if it does not specify one.
+   *
+   * @return the token, or {@code null} if the statement has no routing key or if the partitioner is
+   *     unknown (which happens if metadata was explicitly disabled with {@link
+   *     QueryOptions#setMetadataEnabled(boolean)}).
+   */
+  public Token getToken() {
+    if (!tokenResolved) {
+      Token token = null;
+      ByteBuffer routingKey = getRoutingKey();
+      if (routingKey != null) {
+        Token.Factory partitioner = statement.getPartitioner();
+        if (partitioner == null) {
+          partitioner = metadata.tokenFactory();
+        }
+        if (partitioner != null) {
+          token = partitioner.hash(routingKey);
+        }
+      }
+      this.token = token;
+      tokenResolved = true;
+    }
+    return token;
+  }
+
+  /**
+   * Returns the replicas of the tablet that owns the routing token.
+   *
+   * @return the replicas, which are empty if the table is not known, does not use tablets or if the
+   *     driver has not learnt the tablet owning the token yet.
+   */
+  TabletMap.TabletReplicas getTabletReplicas() {
+    TabletMap.TabletReplicas result = tabletReplicas;
+    if (result == null) {
+      TabletMap.Tablet tablet = null;
+      Token token = getToken();
+      if (keyspace != null && table != null && token instanceof Token.TokenLong64) {
+        tablet =
+            metadata
+                .getTabletMap()
+                .getTablet(keyspace, table, ((Token.TokenLong64) token).longValue());
+      }
+      result = metadata.getTabletReplicas(tablet);
+      tabletReplicas = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the replicas of the routing token, starting with the primary replica. Replicas are
+   * taken from the tablet owning the token if there is one, and from the token map otherwise.
+   *
+   * @return the (immutable) set of replicas. It is empty if the statement has no routing key or no
+   *     keyspace, or if the replicas are not known.
+   */
+  public Set<Host> getReplicas() {
+    Set<Host> result = replicas;
+    if (result == null) {
+      Token token = getToken();
+      if (token == null || keyspace == null) {
+        result = Collections.emptySet();
+      } else {
+        result = getTabletReplicas().getHosts();
+        if (result.isEmpty()) {
+          result = metadata.getReplicas(Metadata.quote(keyspace), token);
+        }
+      }
+      replicas = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the shard of {@code host} that should serve this request.
+   *
+   * @param host the host; it must be sharding-aware.
+   * @param shardingInfo the sharding information of {@code host}.
+   * @return the shard from the tablet owning the routing token if {@code host} is one of its
+   *     replicas, the shard computed from the routing token otherwise, or -1 if there is no routing
+   *     token.
+   */
+  int getShardId(Host host, ShardingInfo shardingInfo) {
+    int shardId = getTabletReplicas().getShard(host);
+    if (shardId >= 0 && shardId < shardingInfo.getShardsCount()) {
+      return shardId;
+    }
+    Token token = getToken();
+    return token == null ? -1 : shardingInfo.shardId(token);
+  }
+}
@@ -20,6 +20,7 @@ import com.datastax.driver.core.exceptions.NoHostAvailableException;
 import com.datastax.driver.core.exceptions.QueryExecutionException;
 import com.datastax.driver.core.exceptions.QueryValidationException;
 import com.datastax.driver.core.exceptions.UnsupportedFeatureException;
+import com.google.common.annotations.Beta;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.io.Closeable;
 import java.util.Collection;
@@ -450,5 +451,28 @@ public interface Session extends Closeable {
      *     to {@code host}.
      */
     int getInFlightQueries(Host host);
+
+    /**
+     * The number of requests that can currently be sent to a given host without waiting for a
+     * connection.
+     *
+     * <p>This is the remaining capacity of the open connections to the host (as bounded by {@link
+     * PoolingOptions#getMaxRequestsPerConnection(HostDistance)}), minus the requests that are
+     * already waiting for a connection. When it drops to 0, new requests to the host get enqueued,
+     * and then rejected with a {@link com.datastax.driver.core.exceptions.BusyPoolException} once
+     * the queue is full. Producers can use it to throttle themselves before that happens.
+     *
+     * <p>The states returned by the driver's sessions implement this method. The default
+     * implementation, for other implementations of this interface, returns {@link
+     * Integer#MAX_VALUE} since it can't know how busy the host is.
+     *
+     * @param host the host to get available permits for.
+     * @return the number of available permits (as in 'at the time the state was grabbed') for
+     *     {@code host}, or 0 if the session is not connected to it.
+     */
+    @Beta
+    default int getAvailablePermits(Host host) {
+      return Integer.MAX_VALUE;
+    }
   }
 }
@@ -30,7 +30,10 @@ import com.datastax.driver.core.policies.LoadBalancingPolicy;
 import com.datastax.driver.core.policies.ReconnectionPolicy;
 import com.datastax.driver.core.policies.SpeculativeExecutionPolicy;
 import com.datastax.driver.core.utils.MoreFutures;
+import com.datastax.driver.core.utils.MoreObjects;
 import com.google.common.base.Functions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.AsyncFunction;
@@ -66,6 +69,13 @@ class SessionManager extends AbstractSession {
       new AtomicReference<ListenableFuture<Session>>();
   final AtomicReference<CloseFuture> closeFuture = new AtomicReference<CloseFuture>();
 
+  // Null if disabled. Values are in-flight or completed preparations; failed ones are removed.
+  private final Cache<PreparedStatementKey, ListenableFuture<PreparedStatement>>
+      preparedStatementCache;
+  // Null if disabled
+  // Package protected for tests
+  final AutoPreparer autoPreparer;
+
   private volatile boolean isInit;
   private volatile boolean isClosing;
 
@@ -74,6 +84,17 @@ class SessionManager extends AbstractSession {
     this.cluster = cluster;
     this.pools = new ConcurrentHashMap<Host, HostConnectionPool>();
     this.poolsState = new HostConnectionPool.PoolState();
+    int cacheSize = cluster.getConfiguration().getQueryOptions().getPreparedStatementCacheSize();
+    this.preparedStatementCache =
+        (cacheSize == 0)
+            ? null
+            : CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .<PreparedStatementKey, ListenableFuture<PreparedStatement>>build();
+    int autoPrepareThreshold =
+        cluster.getConfiguration().getQueryOptions().getAutoPrepareThreshold();
+    this.autoPreparer =
+        (autoPrepareThreshold == 0) ? null : new AutoPreparer(this, autoPrepareThreshold);
   }
 
   @Override
@@ -140,7 +161,9 @@ class SessionManager extends AbstractSession {
   }
 
   @Override
-  public ResultSetFuture executeAsync(final Statement statement) {
+  public ResultSetFuture executeAsync(Statement originalStatement) {
+    final Statement statement =
+        (autoPreparer == null) ? originalStatement : autoPreparer.maybeBind(originalStatement);
     if (isInit) {
       DefaultResultSetFuture future =
           new DefaultResultSetFuture(
@@ -177,11 +200,112 @@ class SessionManager extends AbstractSession {
   @Override
   protected ListenableFuture<PreparedStatement> prepareAsync(
       String query, Map<String, ByteBuffer> customPayload) {
+    if (preparedStatementCache == null) {
+      if (metricsEnabled()) metrics().getPreparedStatementCacheMisses().inc();
+      return sendPrepare(query, customPayload);
+    }
+
+    final PreparedStatementKey key =
+        new PreparedStatementKey(query, poolsState.keyspace, customPayload);
+    final SettableFuture<PreparedStatement> placeholder = SettableFuture.create();
+    ListenableFuture<PreparedStatement> existing =
+        preparedStatementCache.asMap().putIfAbsent(key, placeholder);
+    if (existing != null) {
+      if (metricsEnabled()) metrics().getPreparedStatementCacheHits().inc();
+      return callerView(existing);
+    }
+    if (metricsEnabled()) metrics().getPreparedStatementCacheMisses().inc();
+
+    // Failures are not cached, the next call will retry
+    GuavaCompatibility.INSTANCE.addCallback(
+        placeholder,
+        new FutureCallback<PreparedStatement>() {
+          @Override
+          public void onSuccess(PreparedStatement result) {}
+
+          @Override
+          public void onFailure(Throwable t) {
+            preparedStatementCache.asMap().remove(key, placeholder);
+          }
+        });
+    GuavaCompatibility.INSTANCE.addCallback(
+        sendPrepare(query, customPayload),
+        new FutureCallback<PreparedStatement>() {
+          @Override
+          public void onSuccess(PreparedStatement result) {
+            placeholder.set(result);
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            placeholder.setException(t);
+          }
+        });
+    return callerView(placeholder);
+  }
+
+  // The cached future is shared by all the callers, each gets its own future so that cancelling it
+  // doesn't affect the others
+  private ListenableFuture<PreparedStatement> callerView(
+      ListenableFuture<PreparedStatement> shared) {
+    final SettableFuture<PreparedStatement> view = SettableFuture.create();
+    GuavaCompatibility.INSTANCE.addCallback(
+        shared,
+        new FutureCallback<PreparedStatement>() {
+          @Override
+          public void onSuccess(PreparedStatement result) {
+            view.set(result);
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            view.setException(t);
+          }
+        });
+    return view;
+  }
+
+  /**
+   * Prepares a query for internal use. The statement is neither cached nor shared with the
+   * statements prepared by the application, so that the options they set don't leak into it.
+   */
+  ListenableFuture<PreparedStatement> prepareUnsharedAsync(String query) {
+    return sendPrepare(query, null, false);
+  }
+
+  private ListenableFuture<PreparedStatement> sendPrepare(
+      String query, Map<String, ByteBuffer> customPayload) {
+    return sendPrepare(query, customPayload, true);
+  }
+
+  private ListenableFuture<PreparedStatement> sendPrepare(
+      String query, Map<String, ByteBuffer> customPayload, boolean shared) {
     Requests.Prepare request = new Requests.Prepare(query);
     request.setCustomPayload(customPayload);
     Connection.Future future = new Connection.Future(request);
     execute(future, Statement.DEFAULT);
-    return toPreparedStatement(query, future);
+    return toPreparedStatement(query, future, shared);
+  }
+
+  /**
+   * Empties the prepared statement cache and the statements prepared automatically, so that the
+   * next preparations get up-to-date metadata from the server.
+   */
+  void invalidatePreparedStatementCache() {
+    if (preparedStatementCache != null) preparedStatementCache.invalidateAll();
+    if (autoPreparer != null) autoPreparer.clear();
+  }
+
+  int preparedStatementCacheSize() {
+    return (preparedStatementCache == null) ? 0 : (int) preparedStatementCache.size();
+  }
+
+  private boolean metricsEnabled() {
+    return configuration().getMetricsOptions().isEnabled();
+  }
+
+  private Metrics metrics() {
+    return cluster.manager.metrics;
   }
 
   @Override
@@ -217,8 +341,12 @@ class SessionManager extends AbstractSession {
     return new State(this);
   }
 
+  /**
+   * @param shared whether to return the instance that the cluster already knows for the same
+   *     statement, if there is one.
+   */
   private ListenableFuture<PreparedStatement> toPreparedStatement(
-      final String query, final Connection.Future future) {
+      final String query, final Connection.Future future, final boolean shared) {
     return GuavaCompatibility.INSTANCE.transformAsync(
         future,
         new AsyncFunction<Response, PreparedStatement>() {
@@ -237,7 +365,11 @@ class SessionManager extends AbstractSession {
                             query,
                             poolsState.keyspace,
                             future.getHost().getLwtInfo());
-                    stmt = cluster.manager.addPrepared(stmt);
+                    if (shared) {
+                      stmt = cluster.manager.addPrepared(stmt);
+                    } else {
+                      cluster.manager.registerPrepared(stmt);
+                    }
                     if (cluster.getConfiguration().getQueryOptions().isPrepareOnAllHosts()) {
                       // All Sessions are connected to the same nodes so it's enough to prepare only
                       // the nodes of this session.
@@ -653,6 +785,7 @@ class SessionManager extends AbstractSession {
                 bs.statement.getPreparedId().boundValuesMetadata.id));
       }
       if (protocolVersion.compareTo(ProtocolVersion.V4) < 0) bs.ensureAllSet();
+      bs.statement.getPreparedId().markUsed();
 
       // skip resultset metadata if version > 1 (otherwise this feature is not supported)
       // and if we already have metadata for the prepared statement being executed.
@@ -808,6 +941,7 @@ class SessionManager extends AbstractSession {
     private final int[] openConnections;
     private final int[] trashedConnections;
     private final int[] inFlightQueries;
+    private final int[] availablePermits;
 
     private State(SessionManager session) {
       this.session = session;
@@ -816,6 +950,7 @@ class SessionManager extends AbstractSession {
       this.openConnections = new int[connectedHosts.size()];
       this.trashedConnections = new int[connectedHosts.size()];
       this.inFlightQueries = new int[connectedHosts.size()];
+      this.availablePermits = new int[connectedHosts.size()];
 
       int i = 0;
       for (Host h : connectedHosts) {
@@ -828,12 +963,14 @@ class SessionManager extends AbstractSession {
           openConnections[i] = 0;
           trashedConnections[i] = 0;
           inFlightQueries[i] = 0;
+          availablePermits[i] = 0;
           continue;
         }
 
         openConnections[i] = p.opened();
         inFlightQueries[i] = p.totalInFlight.get();
         trashedConnections[i] = p.trashed();
+        availablePermits[i] = p.availablePermits();
         i++;
       }
     }
@@ -876,5 +1013,38 @@ class SessionManager extends AbstractSession {
       int i = getIdx(host);
       return i < 0 ? 0 : inFlightQueries[i];
     }
+
+    @Override
+    public int getAvailablePermits(Host host) {
+      int i = getIdx(host);
+      return i < 0 ? 0 : availablePermits[i];
+    }
+  }
+
+  private static class PreparedStatementKey {
+    private final String query;
+    private final String keyspace;
+    private final Map<String, ByteBuffer> customPayload;
+
+    PreparedStatementKey(String query, String keyspace, Map<String, ByteBuffer> customPayload) {
+      this.query = query;
+      this.keyspace = keyspace;
+      this.customPayload = customPayload;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other == this) return true;
+      if (!(other instanceof PreparedStatementKey)) return false;
+      PreparedStatementKey that = (PreparedStatementKey) other;
+      return this.query.equals(that.query)
+          && MoreObjects.equal(this.keyspace, that.keyspace)
+          && MoreObjects.equal(this.customPayload, that.customPayload);
+    }
+
+    @Override
+    public int hashCode() {
+      return MoreObjects.hashCode(query, keyspace, customPayload);
+    }
   }
 }
@@ -54,14 +54,33 @@ public class ShardingInfo {
     return shardsCount;
   }
 
+  /**
+   * Computes the shard that owns a token.
+   *
+   * @param t the token.
+   * @return the shard id.
+   */
   public int shardId(Token t) {
-    long token = Long.parseLong(t.toString());
+    long token =
+        (t instanceof Token.TokenLong64)
+            ? ((Token.TokenLong64) t).longValue()
+            : Long.parseLong(t.toString());
+    return shardId(token);
+  }
+
+  /**
+   * Computes the shard that owns a Murmur3 token, without any allocation.
+   *
+   * @param token the value of the token.
+   * @return the shard id.
+   */
+  public int shardId(long token) {
     token += Long.MIN_VALUE;
     token <<= shardingIgnoreMSB;
     long tokLo = token & 0xffffffffL;
     long tokHi = (token >>> 32) & 0xffffffffL;
-    long mul1 = tokLo * shardsCount;
-    long mul2 = tokHi * shardsCount; // logically shifted 32 bits
+    long mul1 = tokLo * (long) shardsCount;
+    long mul2 = tokHi * (long) shardsCount; // logically shifted 32 bits
     long sum = (mul1 >>> 32) + mul2;
     return (int) (sum >>> 32);
   }
@@ -15,6 +15,9 @@
  */
 package com.datastax.driver.core;
 
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+
 /**
  * Options to configure low-level socket options for the connections kept to the Cassandra hosts.
  */
@@ -47,6 +50,8 @@ public class SocketOptions {
   private volatile Boolean tcpNoDelay = Boolean.TRUE;
   private volatile Integer receiveBufferSize;
   private volatile Integer sendBufferSize;
+  private volatile WriteCoalescingStrategy writeCoalescingStrategy =
+      WriteCoalescingStrategy.Immediate.INSTANCE;
 
   /** Creates a new {@code SocketOptions} instance with default values. */
   public SocketOptions() {}
@@ -277,4 +282,31 @@ public class SocketOptions {
     this.sendBufferSize = sendBufferSize;
     return this;
   }
+
+  /**
+   * Returns the strategy that decides when written requests are flushed to the network.
+   *
+   * @return the strategy.
+   * @see #setWriteCoalescingStrategy(WriteCoalescingStrategy)
+   */
+  @Beta
+  public WriteCoalescingStrategy getWriteCoalescingStrategy() {
+    return writeCoalescingStrategy;
+  }
+
+  /**
+   * Sets the strategy that decides when written requests are flushed to the network.
+   *
+   * <p>By default, this is {@link WriteCoalescingStrategy.Immediate}. This option can be changed at
+   * runtime; it is taken into account for the next batch of requests.
+   *
+   * @param writeCoalescingStrategy the new strategy.
+   * @return this {@code SocketOptions}.
+   */
+  @Beta
+  public SocketOptions setWriteCoalescingStrategy(WriteCoalescingStrategy writeCoalescingStrategy) {
+    this.writeCoalescingStrategy =
+        Preconditions.checkNotNull(writeCoalescingStrategy, "writeCoalescingStrategy");
+    return this;
+  }
 }
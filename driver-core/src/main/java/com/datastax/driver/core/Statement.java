@@ -695,4 +695,23 @@ public abstract class Statement {
     this.nowInSeconds = nowInSeconds;
     return this;
   }
+
+  /**
+   * Copies the execution options that were explicitly set on this statement to another statement,
+   * leaving the other options of the target untouched.
+   */
+  void copyOptionsTo(Statement target) {
+    if (consistency != null) target.consistency = consistency;
+    if (serialConsistency != null) target.serialConsistency = serialConsistency;
+    if (traceQuery) target.traceQuery = true;
+    if (fetchSize != 0) target.fetchSize = fetchSize;
+    if (defaultTimestamp != Long.MIN_VALUE) target.defaultTimestamp = defaultTimestamp;
+    if (readTimeoutMillis != Integer.MIN_VALUE) target.readTimeoutMillis = readTimeoutMillis;
+    if (retryPolicy != null) target.retryPolicy = retryPolicy;
+    if (pagingState != null) target.pagingState = pagingState;
+    if (idempotent != null) target.idempotent = idempotent;
+    if (outgoingPayload != null) target.outgoingPayload = outgoingPayload;
+    if (host != null) target.host = host;
+    if (nowInSeconds != Integer.MIN_VALUE) target.nowInSeconds = nowInSeconds;
+  }
 }
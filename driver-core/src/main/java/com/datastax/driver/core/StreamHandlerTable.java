@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The handlers of the in-flight requests of a connection, indexed by stream id.
+ *
+ * <p>Stream ids are dense and bounded, so this avoids boxing them and allocating map entries on
+ * every request. The number of handlers is tracked separately, so that checking whether there are
+ * in-flight requests doesn't have to scan all the slots.
+ */
+class StreamHandlerTable<T> {
+
+  private final AtomicReferenceArray<T> handlers;
+  private final AtomicInteger size = new AtomicInteger();
+
+  StreamHandlerTable(int maxIds) {
+    this.handlers = new AtomicReferenceArray<T>(maxIds);
+  }
+
+  /**
+   * Registers the handler of a stream id that was just acquired from the generator, so that nobody
+   * else can write its slot.
+   *
+   * @param ordered whether a cheaper ordered store is enough to publish the handler, see {@link
+   *     AtomicReferenceArray#lazySet(int, Object)}.
+   */
+  void put(int streamId, T handler, boolean ordered) {
+    assert handlers.get(streamId) == null;
+    // Count first, so that the table never looks empty while a handler is registered
+    size.incrementAndGet();
+    if (ordered) {
+      handlers.lazySet(streamId, handler);
+    } else {
+      handlers.set(streamId, handler);
+    }
+  }
+
+  /**
+   * Removes the handler registered for the given stream id, or returns {@code null} if there is
+   * none, or if the stream id is out of bounds.
+   */
+  T remove(int streamId) {
+    if (streamId < 0 || streamId >= handlers.length()) return null;
+    // Check with a plain volatile read first, so that responses to timed out requests don't pay for
+    // an atomic write.
+    if (handlers.get(streamId) == null) return null;
+    T handler = handlers.getAndSet(streamId, null);
+    if (handler != null) size.decrementAndGet();
+    return handler;
+  }
+
+  /**
+   * Removes the handler registered for the given stream id, only if it is {@code handler}.
+   *
+   * @return whether it was removed.
+   */
+  boolean remove(int streamId, T handler) {
+    if (!handlers.compareAndSet(streamId, handler, null)) return false;
+    size.decrementAndGet();
+    return true;
+  }
+
+  boolean isEmpty() {
+    return size.get() == 0;
+  }
+
+  int size() {
+    return size.get();
+  }
+
+  /** The number of slots, which is also the bound of the stream ids. */
+  int capacity() {
+    return handlers.length();
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.datastax.driver.core;
 
+import io.netty.util.concurrent.FastThreadLocal;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLongArray;
 
@@ -27,14 +28,30 @@ import java.util.concurrent.atomic.AtomicLongArray;
  *
  * <p>Implementation notes: we use an atomic long array where each bit represents an id. It is set
  * to 1 if the id is available, 0 otherwise. When looking for an id, we find a long that has
- * remaining 1's and pick the rightmost one. To minimize the average time to find that long, we
- * search the array in a round-robin fashion.
+ * remaining 1's and pick the rightmost one. Each thread starts looking from the long where it last
+ * found an id, and threads initially start from different cache lines: this way, concurrent
+ * borrowers don't contend on a shared cursor, and mostly don't update the same cache line either.
  */
 class StreamIdGenerator {
   static final int MAX_STREAM_PER_CONNECTION_V2 = 128;
   static final int MAX_STREAM_PER_CONNECTION_V3 = 32768;
   private static final long MAX_UNSIGNED_LONG = -1L;
 
+  // How many longs fit in a (64-byte) cache line.
+  private static final int LONGS_PER_CACHE_LINE = 8;
+
+  private static final AtomicInteger nextHint = new AtomicInteger();
+
+  // The index of the long where the current thread last found an id. This is shared by all
+  // generators, since it is only used as a starting point.
+  private static final FastThreadLocal<int[]> hint =
+      new FastThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+          return new int[] {nextHint.getAndAdd(LONGS_PER_CACHE_LINE)};
+        }
+      };
+
   static StreamIdGenerator newInstance(ProtocolVersion version) {
     return new StreamIdGenerator(streamIdSizeFor(version));
   }
@@ -56,13 +73,13 @@ class StreamIdGenerator {
 
   private final AtomicLongArray bits;
   private final int maxIds;
-  private final AtomicInteger offset;
 
   // If a query timeout, we'll stop waiting for it. However in that case, we
   // can't release/reuse the ID because we don't know if the response is lost
   // or will just come back to use sometimes in the future. In that case, we
-  // just "mark" the fact that we have one less available ID and marked counts
-  // how many marks we've put.
+  // "mark" the ID as orphaned: we have one less available ID until the late
+  // response gets released.
+  private final AtomicLongArray orphaned;
   private final AtomicInteger marked = new AtomicInteger(0);
 
   private StreamIdGenerator(int streamIdSizeInBytes) {
@@ -70,7 +87,8 @@ class StreamIdGenerator {
     // (negative stream IDs are for server side initiated streams).
     maxIds = 1 << (streamIdSizeInBytes * 8 - 1);
 
-    // This is true for 1 byte = 128 streams, and therefore for any higher value
+    // This is true for 1 byte = 128 streams, and therefore for any higher value.
+    // Since maxIds is a power of 2, so is the length of the array.
     assert maxIds % 64 == 0;
 
     // We use one bit in our array of longs to represent each stream ID.
@@ -79,41 +97,60 @@ class StreamIdGenerator {
     // Initialize all bits to 1
     for (int i = 0; i < bits.length(); i++) bits.set(i, MAX_UNSIGNED_LONG);
 
-    offset = new AtomicInteger(bits.length() - 1);
+    orphaned = new AtomicLongArray(maxIds / 64);
   }
 
   public int next() {
-    int previousOffset, myOffset;
-    do {
-      previousOffset = offset.get();
-      myOffset = (previousOffset + 1) % bits.length();
-    } while (!offset.compareAndSet(previousOffset, myOffset));
+    int[] threadHint = hint.get();
+    int lastIndex = bits.length() - 1;
+    int start = threadHint[0] & lastIndex;
 
-    for (int i = 0; i < bits.length(); i++) {
-      int j = (i + myOffset) % bits.length();
+    for (int i = 0; i <= lastIndex; i++) {
+      int j = (start + i) & lastIndex;
 
       int id = atomicGetAndSetFirstAvailable(j);
-      if (id >= 0) return id + (64 * j);
+      if (id >= 0) {
+        if (i > 0) threadHint[0] = j;
+        return id + (64 * j);
+      }
     }
     return -1;
   }
 
+  /**
+   * Returns an id to the set. If it was {@link #mark(int) marked}, this also reclaims the capacity
+   * it was holding.
+   */
   public void release(int streamId) {
-    atomicClear(streamId / 64, streamId % 64);
+    int idx = streamId / 64;
+    long mask = mask(streamId % 64);
+    if ((orphaned.get(idx) & mask) != 0 && atomicUpdate(orphaned, idx, mask, false))
+      marked.decrementAndGet();
+    atomicUpdate(bits, idx, mask, true);
   }
 
+  /**
+   * Marks an id as orphaned: its request was abandoned, but the id can't be reused until a (late)
+   * response is received for it.
+   */
   public void mark(int streamId) {
-    marked.incrementAndGet();
+    if (atomicUpdate(orphaned, streamId / 64, mask(streamId % 64), true)) marked.incrementAndGet();
   }
 
+  /** Reverts a call to {@link #mark(int)}, if the id has not been released since. */
   public void unmark(int streamId) {
-    marked.decrementAndGet();
+    if (atomicUpdate(orphaned, streamId / 64, mask(streamId % 64), false)) marked.decrementAndGet();
   }
 
   public int maxAvailableStreams() {
     return maxIds - marked.get();
   }
 
+  /** The number of stream ids handed out by this generator: they range from 0 to this - 1. */
+  int maxIds() {
+    return maxIds;
+  }
+
   // Returns >= 0 if found and set an id, -1 if no bits are available.
   private int atomicGetAndSetFirstAvailable(int idx) {
     while (true) {
@@ -126,10 +163,12 @@ class StreamIdGenerator {
     }
   }
 
-  private void atomicClear(int idx, int toClear) {
+  // Sets or clears a bit, and returns whether it was changed.
+  private static boolean atomicUpdate(AtomicLongArray array, int idx, long mask, boolean set) {
     while (true) {
-      long l = bits.get(idx);
-      if (bits.compareAndSet(idx, l, l | mask(toClear))) return;
+      long l = array.get(idx);
+      if (((l & mask) != 0) == set) return false;
+      if (array.compareAndSet(idx, l, l ^ mask)) return true;
     }
   }
 
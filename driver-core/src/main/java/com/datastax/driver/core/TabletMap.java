@@ -2,30 +2,54 @@ package com.datastax.driver.core;
 
 import com.google.common.annotations.Beta;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Holds currently known tablet mappings. Updated lazily through received custom payloads described
  * in Scylla's CQL protocol extensions (tablets-routing-v1).
+ *
+ * <p>The tablets of each table are kept in an immutable {@link TableTablets} snapshot, made of
+ * sorted arrays of tokens, so that lookups are a binary search that does not allocate nor lock.
+ * Updates build a new snapshot and swap it in; payloads received concurrently are queued and merged
+ * in a single batch by whichever thread gets to apply them first.
  */
 @Beta
 public class TabletMap {
   private static final Logger logger = LoggerFactory.getLogger(TabletMap.class);
 
-  private final ConcurrentMap<KeyspaceTableNamePair, NavigableSet<Tablet>> mapping;
+  // Keyed by keyspace then by table, so that looking up a table does not allocate a composite key.
+  private final ConcurrentMap<String, ConcurrentMap<String, TableTablets>> mapping =
+      new ConcurrentHashMap<>();
+
+  // Tablets received from the server but not merged into the mapping yet.
+  private final Queue<Tablet> pendingTablets = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean merging = new AtomicBoolean();
+
+  // Incremented whenever hosts are added or removed, to invalidate the TabletReplicas of all
+  // tablets
+  private final AtomicLong hostsVersion = new AtomicLong();
 
   private final Cluster.Manager cluster;
 
@@ -36,7 +60,11 @@ public class TabletMap {
   public TabletMap(
       Cluster.Manager cluster, ConcurrentMap<KeyspaceTableNamePair, NavigableSet<Tablet>> mapping) {
     this.cluster = cluster;
-    this.mapping = mapping;
+    for (Map.Entry<KeyspaceTableNamePair, NavigableSet<Tablet>> entry : mapping.entrySet()) {
+      List<Tablet> tablets = new ArrayList<>(entry.getValue());
+      tablesOf(entry.getKey().getKeyspace())
+          .put(entry.getKey().getTableName(), TableTablets.EMPTY.merge(tablets));
+    }
   }
 
   public static TabletMap emptyMap(Cluster.Manager cluster) {
@@ -46,10 +74,21 @@ public class TabletMap {
   /**
    * Returns the mapping of tables to their tablets.
    *
+   * <p>This is a snapshot of the current state, built on each call: it is meant for inspection, not
+   * for routing requests. The sets of tablets are immutable views that are shared between calls
+   * until their table is updated, so only the outer map is rebuilt.
+   *
    * @return the Map keyed by (keyspace,table) pairs with Set of tablets as value type.
    */
   public Map<KeyspaceTableNamePair, NavigableSet<Tablet>> getMapping() {
-    return mapping;
+    Map<KeyspaceTableNamePair, NavigableSet<Tablet>> result = new HashMap<>();
+    for (Map.Entry<String, ConcurrentMap<String, TableTablets>> keyspace : mapping.entrySet()) {
+      for (Map.Entry<String, TableTablets> table : keyspace.getValue().entrySet()) {
+        result.put(
+            new KeyspaceTableNamePair(keyspace.getKey(), table.getKey()), table.getValue().asSet());
+      }
+    }
+    return Collections.unmodifiableMap(result);
   }
 
   /**
@@ -61,35 +100,43 @@ public class TabletMap {
    * @return Set of host UUIDS that do have a tablet for given token for a given table.
    */
   public Set<UUID> getReplicas(String keyspace, String table, long token) {
-    TabletMap.KeyspaceTableNamePair key = new TabletMap.KeyspaceTableNamePair(keyspace, table);
-
-    if (mapping == null) {
-      logger.trace("This tablets map is null. Returning empty set.");
+    Tablet row = getTablet(keyspace, table, token);
+    if (row == null) {
       return Collections.emptySet();
     }
 
-    NavigableSet<Tablet> set = mapping.get(key);
-    if (set == null) {
+    HashSet<UUID> uuidSet = new HashSet<>();
+    for (UUID hostId : row.hostIds) {
+      if (cluster.metadata.getHost(hostId) != null) uuidSet.add(hostId);
+    }
+    return uuidSet;
+  }
+
+  /**
+   * Finds the tablet that owns a given token of a given table.
+   *
+   * @param keyspace the keyspace that table is in
+   * @param table the table name
+   * @param token the token to look for
+   * @return the tablet owning {@code token}, or {@code null} if it is not known.
+   */
+  Tablet getTablet(String keyspace, String table, long token) {
+    Map<String, TableTablets> tables = mapping.get(keyspace);
+    TableTablets tablets = (tables == null) ? null : tables.get(table);
+    if (tablets == null) {
       logger.trace(
-          "There is no tablets for {}.{} in this mapping. Returning empty set.", keyspace, table);
-      return Collections.emptySet();
+          "There is no tablets for {}.{} in this mapping. Returning null.", keyspace, table);
+      return null;
     }
-    Tablet row = mapping.get(key).ceiling(Tablet.malformedTablet(token));
-    if (row == null || row.firstToken >= token) {
+    Tablet row = tablets.find(token);
+    if (row == null && logger.isTraceEnabled()) {
       logger.trace(
-          "Could not find tablet for {}.{} that owns token {}. Returning empty set.",
+          "Could not find tablet for {}.{} that owns token {}. Returning null.",
           keyspace,
           table,
           token);
-      return Collections.emptySet();
     }
-
-    HashSet<UUID> uuidSet = new HashSet<>();
-    for (HostShardPair hostShardPair : row.replicas) {
-      if (cluster.metadata.getHost(hostShardPair.getHost()) != null)
-        uuidSet.add(hostShardPair.getHost());
-    }
-    return uuidSet;
+    return row;
   }
 
   /**
@@ -97,13 +144,16 @@ public class TabletMap {
    * correspond to {@code TupleType(LongType, LongType, ListType(TupleType(UUIDType, Int32Type)))}.
    * Handles removing outdated tables that intersect with the one about to be added.
    *
+   * <p>The new tablet is queued, then merged either by this thread or by a thread that is already
+   * merging other tablets; in the latter case it might only become visible shortly after this
+   * method returns.
+   *
    * @param keyspace the keyspace of the table
    * @param table the table name
    * @param payload the payload to be deserialized and processed
    */
   void processTabletsRoutingV1Payload(String keyspace, String table, ByteBuffer payload) {
     TupleValue tupleValue = getTabletPayloadCodec().deserialize(payload, cluster.protocolVersion());
-    KeyspaceTableNamePair ktPair = new KeyspaceTableNamePair(keyspace, table);
 
     long firstToken = tupleValue.getLong(0);
     long lastToken = tupleValue.getLong(1);
@@ -115,52 +165,63 @@ public class TabletMap {
         firstToken,
         lastToken);
 
-    Set<HostShardPair> replicas = new HashSet<>();
+    // Preserve the order of the replicas, as sent by the server
+    Set<HostShardPair> replicas = new LinkedHashSet<>();
     List<TupleValue> list = tupleValue.getList(2, TupleValue.class);
     for (TupleValue tuple : list) {
       HostShardPair hostShardPair = new HostShardPair(tuple.getUUID(0), tuple.getInt(1));
       replicas.add(hostShardPair);
     }
 
-    // Working on a copy to avoid concurrent modification of the same set
-    NavigableSet<Tablet> existingTablets =
-        new TreeSet<>(mapping.computeIfAbsent(ktPair, k -> new TreeSet<>()));
-
-    // Single tablet token range is represented by (firstToken, lastToken] interval
-    // We need to do two sweeps: remove overlapping tablets by looking at lastToken of existing
-    // tablets
-    // and then by looking at firstToken of existing tablets. Currently, the tablets are sorted
-    // according
-    // to their lastTokens.
-
-    // First sweep: remove all tablets whose lastToken is inside this interval
-    Iterator<Tablet> it =
-        existingTablets.headSet(Tablet.malformedTablet(lastToken), true).descendingIterator();
-    while (it.hasNext()) {
-      Tablet tablet = it.next();
-      if (tablet.lastToken <= firstToken) {
-        break;
-      }
-      it.remove();
-    }
+    pendingTablets.add(new Tablet(keyspace, null, table, firstToken, lastToken, replicas));
+    mergePendingTablets();
+  }
 
-    // Second sweep: remove all tablets whose firstToken is inside this tuple's (firstToken,
-    // lastToken]
-    // After the first sweep, this theoretically should remove at most 1 tablet
-    it = existingTablets.tailSet(Tablet.malformedTablet(lastToken), true).iterator();
-    while (it.hasNext()) {
-      Tablet tablet = it.next();
-      if (tablet.firstToken >= lastToken) {
-        break;
+  private void mergePendingTablets() {
+    // Only one thread merges at a time, the others leave their tablets to it. The queue is checked
+    // again after merging, in case a tablet was added after it was drained but before the flag was
+    // reset.
+    while (!pendingTablets.isEmpty() && merging.compareAndSet(false, true)) {
+      try {
+        Map<String, Map<String, List<Tablet>>> batch = new HashMap<>();
+        Tablet tablet;
+        while ((tablet = pendingTablets.poll()) != null) {
+          batch
+              .computeIfAbsent(tablet.keyspaceName, k -> new HashMap<>())
+              .computeIfAbsent(tablet.tableName, k -> new ArrayList<>())
+              .add(tablet);
+        }
+        for (Map.Entry<String, Map<String, List<Tablet>>> keyspace : batch.entrySet()) {
+          ConcurrentMap<String, TableTablets> tables = tablesOf(keyspace.getKey());
+          for (Map.Entry<String, List<Tablet>> table : keyspace.getValue().entrySet()) {
+            TableTablets current = tables.get(table.getKey());
+            if (current == null) {
+              current = TableTablets.EMPTY;
+            }
+            // Only the merging thread writes, so there is no need for a compare-and-set
+            tables.put(table.getKey(), current.merge(table.getValue()));
+          }
+        }
+      } finally {
+        merging.set(false);
       }
-      it.remove();
     }
+  }
+
+  private ConcurrentMap<String, TableTablets> tablesOf(String keyspace) {
+    return mapping.computeIfAbsent(keyspace, k -> new ConcurrentHashMap<>());
+  }
 
-    // Add new (now) non-overlapping tablet
-    existingTablets.add(new Tablet(keyspace, null, table, firstToken, lastToken, replicas));
+  /**
+   * Invalidates the replicas resolved for all tablets. Must be called whenever a host is added to
+   * or removed from the cluster metadata.
+   */
+  void onHostsChanged() {
+    hostsVersion.incrementAndGet();
+  }
 
-    // Set the updated result in the main map
-    mapping.put(ktPair, existingTablets);
+  long getHostsVersion() {
+    return hostsVersion.get();
   }
 
   public TupleType getPayloadOuterTuple() {
@@ -270,8 +331,14 @@ public class TabletMap {
     private final long firstToken;
     private final long lastToken;
     private final Set<HostShardPair> replicas;
-
-    private Tablet(
+    // The replicas as arrays, in the server's order, to avoid iterating over the set on the hot
+    // path.
+    final UUID[] hostIds;
+    final int[] shards;
+    // Resolved lazily, see Metadata.getTabletReplicas
+    volatile TabletReplicas resolvedReplicas;
+
+    Tablet(
         String keyspaceName,
         UUID tableId,
         String tableName,
@@ -284,6 +351,17 @@ public class TabletMap {
       this.firstToken = firstToken;
       this.lastToken = lastToken;
       this.replicas = replicas;
+      int size = (replicas == null) ? 0 : replicas.size();
+      this.hostIds = new UUID[size];
+      this.shards = new int[size];
+      if (replicas != null) {
+        int i = 0;
+        for (HostShardPair replica : replicas) {
+          hostIds[i] = replica.getHost();
+          shards[i] = replica.getShard();
+          i += 1;
+        }
+      }
     }
 
     /**
@@ -364,4 +442,181 @@ public class TabletMap {
       return Long.compare(this.lastToken, tablet.lastToken);
     }
   }
+
+  /**
+   * The replicas of a tablet, resolved to the hosts currently known by the driver, in the order in
+   * which they were reported by the server, along with the shard of each of them.
+   *
+   * <p>Instances are cached on their {@link Tablet}, and rebuilt on next access once hosts have
+   * been added or removed (see {@link #onHostsChanged()}).
+   */
+  static final class TabletReplicas {
+    static final TabletReplicas NONE =
+        new TabletReplicas(new Host[0], new int[0], Collections.<Host>emptySet(), -1);
+
+    private final Host[] hosts;
+    private final int[] shards;
+    private final Set<Host> hostSet;
+    private final long hostsVersion;
+
+    private TabletReplicas(Host[] hosts, int[] shards, Set<Host> hostSet, long hostsVersion) {
+      this.hosts = hosts;
+      this.shards = shards;
+      this.hostSet = hostSet;
+      this.hostsVersion = hostsVersion;
+    }
+
+    /**
+     * Resolves the replicas of {@code tablet} with {@code metadata}. Replicas whose host is not
+     * known are skipped.
+     */
+    static TabletReplicas resolve(Tablet tablet, Metadata metadata, long hostsVersion) {
+      int size = tablet.hostIds.length;
+      Host[] hosts = new Host[size];
+      int[] shards = new int[size];
+      Set<Host> hostSet = new LinkedHashSet<>();
+      int n = 0;
+      for (int i = 0; i < size; i++) {
+        Host host = metadata.getHost(tablet.hostIds[i]);
+        if (host != null && hostSet.add(host)) {
+          hosts[n] = host;
+          shards[n] = tablet.shards[i];
+          n += 1;
+        }
+      }
+      return new TabletReplicas(
+          Arrays.copyOf(hosts, n),
+          Arrays.copyOf(shards, n),
+          Collections.unmodifiableSet(hostSet),
+          hostsVersion);
+    }
+
+    boolean isValid(long hostsVersion) {
+      return this.hostsVersion == hostsVersion;
+    }
+
+    /** @return the replicas, as an immutable set ordered like the server reported them. */
+    Set<Host> getHosts() {
+      return hostSet;
+    }
+
+    /** @return the shard of {@code host}, or -1 if {@code host} is not a replica. */
+    int getShard(Host host) {
+      for (int i = 0; i < hosts.length; i++) {
+        if (hosts[i].getHostId().equals(host.getHostId())) {
+          return shards[i];
+        }
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * An immutable snapshot of the tablets of a table, sorted by token. {@code firstTokens[i]} and
+   * {@code lastTokens[i]} are the bounds of {@code tablets[i]}; ranges do not overlap.
+   */
+  static final class TableTablets {
+    static final TableTablets EMPTY = new TableTablets(new Tablet[0]);
+
+    private final long[] firstTokens;
+    private final long[] lastTokens;
+    private final Tablet[] tablets;
+
+    // Built lazily for getMapping(), racing threads would only build equal sets
+    private volatile NavigableSet<Tablet> asSet;
+
+    private TableTablets(Tablet[] tablets) {
+      this.tablets = tablets;
+      this.firstTokens = new long[tablets.length];
+      this.lastTokens = new long[tablets.length];
+      for (int i = 0; i < tablets.length; i++) {
+        firstTokens[i] = tablets[i].firstToken;
+        lastTokens[i] = tablets[i].lastToken;
+      }
+    }
+
+    /** Returns the tablets of this snapshot as an immutable set. */
+    NavigableSet<Tablet> asSet() {
+      NavigableSet<Tablet> set = asSet;
+      if (set == null) {
+        set = Collections.unmodifiableNavigableSet(new TreeSet<>(Arrays.asList(tablets)));
+        asSet = set;
+      }
+      return set;
+    }
+
+    /** Returns the tablet whose range {@code (firstToken, lastToken]} contains {@code token}. */
+    Tablet find(long token) {
+      int i = firstIndexWithLastTokenAtLeast(lastTokens, token);
+      if (i < tablets.length && firstTokens[i] < token) {
+        return tablets[i];
+      }
+      return null;
+    }
+
+    /**
+     * Returns a new snapshot with {@code incoming} added, in order, and the existing tablets that
+     * overlap with any of them removed.
+     */
+    TableTablets merge(List<Tablet> incoming) {
+      // First reduce the incoming tablets: a later one replaces the earlier ones it overlaps with.
+      TreeMap<Long, Tablet> added = new TreeMap<>();
+      for (Tablet tablet : incoming) {
+        Iterator<Tablet> overlapping = added.tailMap(tablet.firstToken, false).values().iterator();
+        while (overlapping.hasNext() && overlapping.next().firstToken < tablet.lastToken) {
+          overlapping.remove();
+        }
+        added.put(tablet.lastToken, tablet);
+      }
+      long[] addedFirstTokens = new long[added.size()];
+      long[] addedLastTokens = new long[added.size()];
+      int n = 0;
+      for (Tablet tablet : added.values()) {
+        addedFirstTokens[n] = tablet.firstToken;
+        addedLastTokens[n] = tablet.lastToken;
+        n += 1;
+      }
+
+      // Then merge both sorted sequences, dropping the existing tablets that are replaced.
+      List<Tablet> result = new ArrayList<>(tablets.length + n);
+      Iterator<Tablet> addedIterator = added.values().iterator();
+      Tablet nextAdded = addedIterator.hasNext() ? addedIterator.next() : null;
+      for (Tablet existing : tablets) {
+        int i = firstIndexWithLastTokenAbove(addedLastTokens, existing.firstToken);
+        if (i < n && addedFirstTokens[i] < existing.lastToken) {
+          continue;
+        }
+        while (nextAdded != null && nextAdded.lastToken < existing.lastToken) {
+          result.add(nextAdded);
+          nextAdded = addedIterator.hasNext() ? addedIterator.next() : null;
+        }
+        result.add(existing);
+      }
+      while (nextAdded != null) {
+        result.add(nextAdded);
+        nextAdded = addedIterator.hasNext() ? addedIterator.next() : null;
+      }
+      return new TableTablets(result.toArray(new Tablet[0]));
+    }
+
+    private static int firstIndexWithLastTokenAtLeast(long[] lastTokens, long token) {
+      int low = 0;
+      int high = lastTokens.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (lastTokens[mid] < token) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    private static int firstIndexWithLastTokenAbove(long[] lastTokens, long token) {
+      return (token == Long.MAX_VALUE)
+          ? lastTokens.length
+          : firstIndexWithLastTokenAtLeast(lastTokens, token + 1);
+    }
+  }
 }
@@ -15,6 +15,7 @@
  */
 package com.datastax.driver.core;
 
+import com.google.common.annotations.Beta;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import java.util.concurrent.ExecutorService;
@@ -124,6 +125,36 @@ public class ThreadingOptions {
     return executor;
   }
 
+  /**
+   * Builds the executor used to compute the replicas of distinct replication strategies in
+   * parallel, when the token map is rebuilt after a topology or schema change.
+   *
+   * <p>The thread that rebuilds the token map also computes replicas, and waits for the other
+   * computations to complete; the executor must not be one of the other executors of this class. If
+   * it returns {@code null}, all the replicas are computed by the rebuilding thread.
+   *
+   * <p>The default implementation uses as many threads as there are available cores, and releases
+   * them when they are idle.
+   *
+   * @param clusterName the name of the cluster, as specified by {@link
+   *     com.datastax.driver.core.Cluster.Builder#withClusterName(String)}.
+   * @return the executor, or {@code null} to disable parallel computations.
+   */
+  @Beta
+  public ExecutorService createTokenMapExecutor(String clusterName) {
+    int threads = Runtime.getRuntime().availableProcessors();
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            DEFAULT_THREAD_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            createThreadFactory(clusterName, "token-map-worker"));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
   /**
    * Builds the executor when reconnection attempts will be scheduled.
    *
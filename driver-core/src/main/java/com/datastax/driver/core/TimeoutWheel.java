@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import io.netty.util.concurrent.EventExecutor;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The read timeouts of the requests sent on the connections of an event loop.
+ *
+ * <p>Rather than scheduling a timer task per request, timeouts are grouped in buckets by deadline,
+ * with a resolution of {@link #TICK_NANOS}. A single task, that runs on the event loop as long as
+ * there are pending timeouts, expires the buckets as time passes. Responses are also processed on
+ * the event loop, so most timeouts get cancelled by unlinking them from their bucket directly,
+ * without any synchronization.
+ *
+ * <p>The buckets form a hashed wheel: deadlines more than a turn of the wheel away share a bucket
+ * with closer ones, and are skipped until their turn comes.
+ */
+final class TimeoutWheel implements Runnable {
+
+  private static final Logger logger = LoggerFactory.getLogger(TimeoutWheel.class);
+
+  static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  // About 5 seconds per turn
+  private static final int WHEEL_SIZE = 512;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  /** A timeout that can be registered in a wheel. Each instance can only be started once. */
+  abstract static class Entry {
+    // Only accessed from the event loop, except for deadlineNanos which is set before publication
+    private Entry previous;
+    private Entry next;
+    private int bucket = -1;
+    private long deadlineNanos;
+
+    private volatile boolean cancelled;
+
+    /** Invoked on the event loop when the deadline has passed. */
+    abstract void onTimeout();
+  }
+
+  private final WeakReference<EventExecutor> eventLoopRef;
+  // Timeouts started outside of the event loop, waiting to be put in their bucket
+  private final Queue<Entry> incoming = new ConcurrentLinkedQueue<Entry>();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  // The fields below are only accessed from the event loop
+  private final Entry[] buckets = new Entry[WHEEL_SIZE];
+  // The buckets of all ticks up to this one have been expired
+  private long currentTick = Math.floorDiv(System.nanoTime(), TICK_NANOS);
+  private int size;
+  private final List<Entry> expired = new ArrayList<Entry>();
+
+  TimeoutWheel(EventExecutor eventLoop) {
+    this.eventLoopRef = new WeakReference<EventExecutor>(eventLoop);
+  }
+
+  /** Starts a timeout. This can be called from any thread. */
+  void add(Entry entry, long delayNanos) {
+    if (entry.cancelled) return;
+    entry.deadlineNanos = System.nanoTime() + delayNanos;
+    EventExecutor eventLoop = eventLoopRef.get();
+    if (eventLoop == null) return;
+    if (eventLoop.inEventLoop()) {
+      insert(entry);
+    } else {
+      incoming.add(entry);
+    }
+    if (!scheduled.get() && scheduled.compareAndSet(false, true)) schedule(eventLoop);
+  }
+
+  /**
+   * Cancels a timeout, so that {@link Entry#onTimeout()} won't be invoked if it hasn't been yet.
+   * This can be called from any thread, and before the timeout was started.
+   */
+  void cancel(Entry entry) {
+    entry.cancelled = true;
+    // Otherwise it will be unlinked when its bucket expires
+    EventExecutor eventLoop = eventLoopRef.get();
+    if (eventLoop != null && eventLoop.inEventLoop() && entry.bucket >= 0) unlink(entry);
+  }
+
+  @Override
+  public void run() {
+    long now = System.nanoTime();
+    Entry entry;
+    while ((entry = incoming.poll()) != null) {
+      if (!entry.cancelled) insert(entry);
+    }
+
+    long nowTick = Math.floorDiv(now, TICK_NANOS);
+    // If we've been idle for more than a turn, each bucket only needs to be visited once
+    for (long tick = Math.max(currentTick + 1, nowTick - WHEEL_MASK); tick <= nowTick; tick++) {
+      currentTick = tick;
+      if (size > 0) expire((int) (tick & WHEEL_MASK), now);
+    }
+    currentTick = Math.max(currentTick, nowTick);
+
+    // Invoked last, since callbacks can start and cancel other timeouts
+    for (int i = 0; i < expired.size(); i++) {
+      entry = expired.get(i);
+      if (entry.cancelled) continue;
+      try {
+        entry.onTimeout();
+      } catch (Throwable t) {
+        logger.warn("Unexpected error while processing a request timeout", t);
+      }
+    }
+    expired.clear();
+
+    EventExecutor eventLoop = eventLoopRef.get();
+    if (eventLoop == null) return;
+    if (size > 0) {
+      schedule(eventLoop);
+    } else {
+      scheduled.set(false);
+      // A timeout might have been started after we drained the queue, but before we reset the flag
+      if (!incoming.isEmpty() && scheduled.compareAndSet(false, true)) schedule(eventLoop);
+    }
+  }
+
+  private void schedule(EventExecutor eventLoop) {
+    if (!eventLoop.isShuttingDown()) eventLoop.schedule(this, TICK_NANOS, TimeUnit.NANOSECONDS);
+  }
+
+  private void insert(Entry entry) {
+    // The first tick that starts after the deadline, so that the entry expires when its bucket is
+    // visited
+    long tick = Math.max(Math.floorDiv(entry.deadlineNanos - 1, TICK_NANOS) + 1, currentTick + 1);
+    int index = (int) (tick & WHEEL_MASK);
+    Entry head = buckets[index];
+    entry.bucket = index;
+    entry.previous = null;
+    entry.next = head;
+    if (head != null) head.previous = entry;
+    buckets[index] = entry;
+    size += 1;
+  }
+
+  private void unlink(Entry entry) {
+    if (entry.previous == null) {
+      buckets[entry.bucket] = entry.next;
+    } else {
+      entry.previous.next = entry.next;
+    }
+    if (entry.next != null) entry.next.previous = entry.previous;
+    entry.previous = null;
+    entry.next = null;
+    entry.bucket = -1;
+    size -= 1;
+  }
+
+  private void expire(int index, long now) {
+    Entry entry = buckets[index];
+    while (entry != null) {
+      Entry next = entry.next;
+      if (entry.cancelled) {
+        unlink(entry);
+      } else if (entry.deadlineNanos - now <= 0) {
+        unlink(entry);
+        expired.add(entry);
+      }
+      entry = next;
+    }
+  }
+
+  /** The number of timeouts in the buckets. Only accurate when called from the event loop. */
+  int size() {
+    return size;
+  }
+}
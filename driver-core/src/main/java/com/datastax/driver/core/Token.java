@@ -115,12 +115,19 @@ public abstract class Token implements Comparable<Token> {
   // Tokens represented by a 64-bit integer.
   // (getValue() returning Long)
   abstract static class TokenLong64 extends Token {
+
+    /** Returns the value of this token, without boxing it like {@link #getValue()} does. */
+    abstract long longValue();
+
+    @Override
+    public Object getValue() {
+      return longValue();
+    }
+
     @Override
     public int compareTo(Token other) {
       assert other instanceof TokenLong64;
-      Long value = (Long) getValue();
-      Long otherValue = (Long) other.getValue();
-      return value.compareTo(otherValue);
+      return Long.compare(longValue(), ((TokenLong64) other).longValue());
     }
 
     @Override
@@ -128,7 +135,7 @@ public abstract class Token implements Comparable<Token> {
       if (this == obj) return true;
       if (!(obj instanceof TokenLong64)) return false;
 
-      return getValue().equals(((TokenLong64) obj).getValue());
+      return longValue() == ((TokenLong64) obj).longValue();
     }
   }
 
@@ -334,7 +341,7 @@ public abstract class Token implements Comparable<Token> {
     }
 
     @Override
-    public Object getValue() {
+    long longValue() {
       return value;
     }
 
@@ -785,7 +792,7 @@ public abstract class Token implements Comparable<Token> {
     }
 
     @Override
-    public Object getValue() {
+    long longValue() {
       return value;
     }
 
@@ -421,6 +421,27 @@ public abstract class TypeCodec<T> {
     return DurationCodec.instance;
   }
 
+  /**
+   * Returns a codec that maps a {@link DataType#vector(DataType, int) vector} of {@code float} to a
+   * Java {@code float[]}.
+   *
+   * <p>This is the codec that the {@link CodecRegistry} creates by default for vectors of floats.
+   * Arrays are written to, and read from, the serialized buffer in bulk, without boxing the
+   * elements or going through an intermediary {@code List}.
+   *
+   * <p>This method does not cache returned instances and returns a newly-allocated object at each
+   * invocation.
+   *
+   * @param type the vector type this codec should handle. Its elements must be of type {@code
+   *     float}.
+   * @return A newly-created codec for the given vector type.
+   */
+  public static TypeCodec<float[]> floatVector(DataType.VectorType type) {
+    checkArgument(
+        type.getElementType().getName() == Name.FLOAT, "Expected a vector of float, got %s", type);
+    return new FloatVectorCodec(type);
+  }
+
   protected final TypeToken<T> javaType;
 
   protected final DataType cqlType;
@@ -2710,4 +2731,79 @@ public abstract class TypeCodec<T> {
       return value.toString();
     }
   }
+
+  private static class FloatVectorCodec extends TypeCodec<float[]> {
+
+    private final int dimensions;
+
+    private FloatVectorCodec(DataType.VectorType cqlType) {
+      super(cqlType, float[].class);
+      this.dimensions = cqlType.getDimensions();
+    }
+
+    @Override
+    public ByteBuffer serialize(float[] value, ProtocolVersion protocolVersion)
+        throws InvalidTypeException {
+      if (value == null) return null;
+      if (value.length != dimensions)
+        throw new InvalidTypeException(
+            String.format(
+                "Expected %d elements for %s, got %d", dimensions, cqlType, value.length));
+      // Vectors of fixed-length elements are serialized without any size
+      ByteBuffer bytes = ByteBuffer.allocate(4 * dimensions);
+      bytes.asFloatBuffer().put(value);
+      return bytes;
+    }
+
+    @Override
+    public float[] deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion)
+        throws InvalidTypeException {
+      if (bytes == null || bytes.remaining() == 0) return null;
+      if (bytes.remaining() != 4 * dimensions)
+        throw new InvalidTypeException(
+            String.format(
+                "Invalid %s value, expecting %d bytes but got %d",
+                cqlType, 4 * dimensions, bytes.remaining()));
+      float[] value = new float[dimensions];
+      // the duplicate is big-endian, whatever the byte order of the original buffer
+      bytes.duplicate().asFloatBuffer().get(value);
+      return value;
+    }
+
+    @Override
+    public float[] parse(String value) throws InvalidTypeException {
+      if (value == null || value.isEmpty() || value.equalsIgnoreCase("NULL")) return null;
+      String trimmed = value.trim();
+      if (!trimmed.startsWith("[") || !trimmed.endsWith("]"))
+        throw new InvalidTypeException(
+            String.format("Cannot parse %s value from \"%s\"", cqlType, value));
+      String[] elements = trimmed.substring(1, trimmed.length() - 1).split(",", -1);
+      if (elements.length != dimensions)
+        throw new InvalidTypeException(
+            String.format(
+                "Cannot parse %s value from \"%s\", expecting %d elements",
+                cqlType, value, dimensions));
+      float[] result = new float[dimensions];
+      for (int i = 0; i < dimensions; i++) {
+        try {
+          result[i] = Float.parseFloat(elements[i].trim());
+        } catch (NumberFormatException e) {
+          throw new InvalidTypeException(
+              String.format("Cannot parse %s value from \"%s\"", cqlType, value), e);
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public String format(float[] value) throws InvalidTypeException {
+      if (value == null) return "NULL";
+      StringBuilder sb = new StringBuilder("[");
+      for (int i = 0; i < value.length; i++) {
+        if (i > 0) sb.append(", ");
+        sb.append(value[i]);
+      }
+      return sb.append(']').toString();
+    }
+  }
 }
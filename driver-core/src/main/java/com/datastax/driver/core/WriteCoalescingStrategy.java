@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when the requests written to connections get flushed to the network.
+ *
+ * <p>Requests are not written to the network one by one: they are queued, and an I/O thread writes
+ * all the queued requests to their connections before flushing them. Each flush costs at least one
+ * system call per connection, so under high concurrency, waiting a little to flush more requests at
+ * once can increase throughput, at the cost of some latency.
+ *
+ * <p>After writing queued requests, the I/O thread asks the strategy how long it should wait before
+ * flushing. If new requests are queued while it waits, it writes them and asks again.
+ *
+ * <p>A strategy is shared by all the I/O threads of a {@link Cluster}, and must therefore be
+ * thread-safe. The batch sizes that result from it are exposed by {@link
+ * Metrics#getFlushBatchSizes()}.
+ *
+ * @see SocketOptions#setWriteCoalescingStrategy(WriteCoalescingStrategy)
+ */
+@Beta
+public interface WriteCoalescingStrategy {
+
+  /**
+   * Returns how long to wait before flushing the requests that were written since the last flush.
+   *
+   * @param pendingRequests the number of requests written since the last flush (always strictly
+   *     positive).
+   * @param elapsedNanos the time elapsed since the first of these requests was written, in
+   *     nanoseconds.
+   * @return the delay before flushing, in nanoseconds; {@code 0} or less to flush now.
+   */
+  long nanosBeforeFlush(int pendingRequests, long elapsedNanos);
+
+  /**
+   * Flushes as soon as the queued requests have been written. This is the default.
+   *
+   * <p>Requests still get coalesced when they are queued faster than the I/O thread can write them.
+   */
+  class Immediate implements WriteCoalescingStrategy {
+
+    public static final Immediate INSTANCE = new Immediate();
+
+    private Immediate() {}
+
+    @Override
+    public long nanosBeforeFlush(int pendingRequests, long elapsedNanos) {
+      return 0;
+    }
+  }
+
+  /** Flushes once a fixed delay has elapsed since the first request of the batch was written. */
+  class BoundedDelay implements WriteCoalescingStrategy {
+
+    private final long delayNanos;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param delay the maximum time a request can wait before being flushed.
+     * @param unit the unit of {@code delay}.
+     */
+    public BoundedDelay(long delay, TimeUnit unit) {
+      Preconditions.checkArgument(delay >= 0, "delay must be positive");
+      this.delayNanos = unit.toNanos(delay);
+    }
+
+    @Override
+    public long nanosBeforeFlush(int pendingRequests, long elapsedNanos) {
+      return delayNanos - elapsedNanos;
+    }
+  }
+
+  /**
+   * Flushes once a given number of requests have been written, or once a maximum delay has elapsed
+   * since the first request of the batch was written, whichever happens first.
+   */
+  class MaxBatch implements WriteCoalescingStrategy {
+
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxBatchSize the number of requests that triggers a flush.
+     * @param maxDelay the maximum time a request can wait before being flushed.
+     * @param unit the unit of {@code maxDelay}.
+     */
+    public MaxBatch(int maxBatchSize, long maxDelay, TimeUnit unit) {
+      Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be strictly positive");
+      Preconditions.checkArgument(maxDelay >= 0, "maxDelay must be positive");
+      this.maxBatchSize = maxBatchSize;
+      this.maxDelayNanos = unit.toNanos(maxDelay);
+    }
+
+    @Override
+    public long nanosBeforeFlush(int pendingRequests, long elapsedNanos) {
+      return (pendingRequests >= maxBatchSize) ? 0 : maxDelayNanos - elapsedNanos;
+    }
+  }
+
+  /**
+   * Waits longer as more requests are pending: a single request is flushed right away, so that
+   * latency is not affected under low load, and the delay then grows linearly with the number of
+   * pending requests, up to a maximum.
+   */
+  class Adaptive implements WriteCoalescingStrategy {
+
+    private final long maxDelayNanos;
+    private final int saturationBatchSize;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxDelay the maximum time a request can wait before being flushed.
+     * @param unit the unit of {@code maxDelay}.
+     * @param saturationBatchSize the number of pending requests from which the delay is {@code
+     *     maxDelay}.
+     */
+    public Adaptive(long maxDelay, TimeUnit unit, int saturationBatchSize) {
+      Preconditions.checkArgument(maxDelay >= 0, "maxDelay must be positive");
+      Preconditions.checkArgument(
+          saturationBatchSize > 1, "saturationBatchSize must be greater than 1");
+      this.maxDelayNanos = unit.toNanos(maxDelay);
+      this.saturationBatchSize = saturationBatchSize;
+    }
+
+    @Override
+    public long nanosBeforeFlush(int pendingRequests, long elapsedNanos) {
+      int depth = Math.min(pendingRequests, saturationBatchSize) - 1;
+      return maxDelayNanos * depth / (saturationBatchSize - 1) - elapsedNanos;
+    }
+  }
+}
@@ -30,7 +30,9 @@ import com.datastax.driver.core.HostDistance;
 import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.RoutingContext;
 import com.datastax.driver.core.Statement;
+import com.google.common.annotations.Beta;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Lists;
 import java.nio.ByteBuffer;
@@ -179,7 +181,7 @@ public class TokenAwarePolicy implements ChainableLoadBalancingPolicy {
    * plan.
    */
   @Override
-  public Iterator<Host> newQueryPlan(final String loggedKeyspace, final Statement statement) {
+  public Iterator<Host> newQueryPlan(String loggedKeyspace, Statement statement) {
 
     ByteBuffer partitionKey = statement.getRoutingKey(protocolVersion, codecRegistry);
     String keyspace = statement.getKeyspace();
@@ -199,9 +201,44 @@ public class TokenAwarePolicy implements ChainableLoadBalancingPolicy {
       tableName = defs.getTable(0);
     }
 
-    final Set<Host> replicas =
+    Set<Host> replicas =
         clusterMetadata.getReplicas(
             Metadata.quote(keyspace), tableName, statement.getPartitioner(), partitionKey);
+    return newQueryPlan(loggedKeyspace, keyspace, statement, replicas);
+  }
+
+  /**
+   * Returns the hosts to use for a new query, reading the replicas from the given routing context.
+   *
+   * <p>This behaves exactly like {@link #newQueryPlan(String, Statement)}, except that the
+   * statement's routing key, its token and its replicas are read from {@code routingContext}
+   * instead of being recomputed. When the load balancing policy of a cluster is a {@code
+   * TokenAwarePolicy} (and not a subclass, which may override {@link #newQueryPlan(String,
+   * Statement)}), the driver uses this method for all the requests it executes, so that the routing
+   * information of a request is only computed once.
+   *
+   * @param loggedKeyspace the currently logged keyspace (the one set through either {@link
+   *     Cluster#connect(String)} or by manually doing a {@code USE} query) for the session on which
+   *     this plan need to be built. This can be {@code null} if the corresponding session has no
+   *     keyspace logged in.
+   * @param routingContext the routing information of the query.
+   * @return the new query plan.
+   */
+  @Beta
+  public Iterator<Host> newQueryPlan(String loggedKeyspace, RoutingContext routingContext) {
+    Statement statement = routingContext.getStatement();
+    String keyspace = routingContext.getKeyspace();
+    if (routingContext.getRoutingKey() == null || keyspace == null)
+      return childPolicy.newQueryPlan(keyspace, statement);
+
+    return newQueryPlan(loggedKeyspace, keyspace, statement, routingContext.getReplicas());
+  }
+
+  private Iterator<Host> newQueryPlan(
+      final String loggedKeyspace,
+      String keyspace,
+      final Statement statement,
+      final Set<Host> replicas) {
     if (replicas.isEmpty()) return childPolicy.newQueryPlan(loggedKeyspace, statement);
 
     if (replicaOrdering == ReplicaOrdering.NEUTRAL) {
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.datastax.driver.core.exceptions.CodecNotFoundException;
+import com.google.common.base.Charsets;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.UUID;
+import org.testng.annotations.Test;
+
+public class ColumnarPageTest {
+
+  private static final ProtocolVersion V = ProtocolVersion.DEFAULT;
+
+  private static final UUID ID1 = UUID.randomUUID();
+  private static final UUID ID2 = UUID.randomUUID();
+  private static final UUID ID3 = UUID.randomUUID();
+
+  @Test(groups = "unit")
+  public void should_expose_remaining_rows_of_page_as_columns() {
+    ResultSet rs = resultSet();
+
+    // consume one row the usual way first
+    assertThat(rs.one().getUUID("id")).isEqualTo(ID1);
+
+    ColumnarPage page = ColumnarPage.nextPage(rs);
+    assertThat(page.getRowCount()).isEqualTo(2);
+    assertThat(page.getColumnDefinitions().size()).isEqualTo(4);
+    assertThat(page.getUUIDColumn("id")).containsExactly(ID2, ID3);
+    assertThat(page.getDoubleColumn("amount")).containsExactly(0.0, 3.5);
+    assertThat(page.isNull(0, 1)).isTrue();
+    assertThat(page.isNull(1, 1)).isFalse();
+    assertThat(page.getLongColumn(2)).containsExactly(2L, 3L);
+    assertThat(page.getStringColumn("name")).containsExactly("b", null);
+
+    assertThat(rs.isExhausted()).isTrue();
+    assertThat(ColumnarPage.nextPage(rs).getRowCount()).isEqualTo(0);
+  }
+
+  @Test(groups = "unit", expectedExceptions = CodecNotFoundException.class)
+  public void should_fail_if_column_type_does_not_match() {
+    ColumnarPage.nextPage(resultSet()).getLongColumn("name");
+  }
+
+  @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+  public void should_fail_if_column_does_not_exist() {
+    ColumnarPage.nextPage(resultSet()).getLongColumn("unknown");
+  }
+
+  @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+  public void should_fail_if_result_set_was_not_returned_by_driver() {
+    ColumnarPage.nextPage(mock(ResultSet.class));
+  }
+
+  private static ResultSet resultSet() {
+    ByteBuf body = Unpooled.buffer();
+    body.writeInt(1); // GLOBAL_TABLES_SPEC
+    body.writeInt(4);
+    writeString("ks", body);
+    writeString("t", body);
+    column("id", DataType.uuid(), body);
+    column("amount", DataType.cdouble(), body);
+    column("n", DataType.bigint(), body);
+    column("name", DataType.varchar(), body);
+    body.writeInt(3);
+    row(ID1, 1.5, 1L, "a", body);
+    row(ID2, null, 2L, "b", body);
+    row(ID3, 3.5, 3L, null, body);
+
+    Responses.Result rows =
+        Responses.Result.Rows.subcodec.decode(body, V, CodecRegistry.DEFAULT_INSTANCE);
+    return ArrayBackedResultSet.fromMessage(rows, null, V, null, null);
+  }
+
+  private static void column(String name, DataType type, ByteBuf body) {
+    writeString(name, body);
+    body.writeShort(type.getName().protocolId);
+  }
+
+  private static void writeString(String s, ByteBuf body) {
+    byte[] bytes = s.getBytes(Charsets.UTF_8);
+    body.writeShort(bytes.length);
+    body.writeBytes(bytes);
+  }
+
+  private static void row(UUID id, Double amount, long n, String name, ByteBuf body) {
+    CBUtil.writeValue(TypeCodec.uuid().serialize(id, V), body);
+    CBUtil.writeValue(TypeCodec.cdouble().serialize(amount, V), body);
+    CBUtil.writeValue(TypeCodec.bigint().serialize(n, V), body);
+    CBUtil.writeValue(TypeCodec.varchar().serialize(name, V), body);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static com.datastax.driver.core.ConnectionSelectionStrategy.LEAST_BUSY;
+import static com.datastax.driver.core.ConnectionSelectionStrategy.POWER_OF_TWO_CHOICES;
+import static com.datastax.driver.core.ConnectionSelectionStrategy.ROUND_ROBIN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+public class ConnectionSelectionStrategyTest {
+
+  @Test(groups = "unit")
+  public void should_return_null_when_no_connections() {
+    HostConnectionPool.ShardConnections connections = new HostConnectionPool.ShardConnections();
+    for (ConnectionSelectionStrategy strategy : ConnectionSelectionStrategy.values()) {
+      assertThat(strategy.select(connections)).isNull();
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_select_least_busy_connection() throws Exception {
+    Connection c1 = connection(10);
+    Connection c2 = connection(2);
+    Connection c3 = connection(5);
+    HostConnectionPool.ShardConnections connections = shardConnections(c1, c2, c3);
+
+    assertThat(LEAST_BUSY.select(connections)).isSameAs(c2);
+  }
+
+  @Test(groups = "unit")
+  public void should_never_select_most_busy_of_two_choices() throws Exception {
+    Connection c1 = connection(10);
+    Connection c2 = connection(2);
+    Connection c3 = connection(5);
+    HostConnectionPool.ShardConnections connections = shardConnections(c1, c2, c3);
+
+    Set<Connection> selected = new HashSet<Connection>();
+    for (int i = 0; i < 1000; i++) selected.add(POWER_OF_TWO_CHOICES.select(connections));
+    assertThat(selected).containsOnly(c2, c3);
+
+    connections = shardConnections(c1, c3);
+    for (int i = 0; i < 100; i++) assertThat(POWER_OF_TWO_CHOICES.select(connections)).isSameAs(c3);
+  }
+
+  @Test(groups = "unit")
+  public void should_cycle_through_connections() throws Exception {
+    Connection c1 = connection(10);
+    Connection c2 = connection(2);
+    Connection c3 = connection(5);
+    HostConnectionPool.ShardConnections connections = shardConnections(c1, c2, c3);
+
+    Connection first = ROUND_ROBIN.select(connections);
+    Connection second = ROUND_ROBIN.select(connections);
+    Connection third = ROUND_ROBIN.select(connections);
+    assertThat(new Connection[] {first, second, third}).containsOnly(c1, c2, c3);
+    assertThat(ROUND_ROBIN.select(connections)).isSameAs(first);
+  }
+
+  @Test(groups = "unit")
+  public void should_copy_on_write() throws Exception {
+    Connection c1 = connection(0);
+    Connection c2 = connection(0);
+    HostConnectionPool.ShardConnections connections = shardConnections(c1, c2);
+
+    Connection[] snapshot = connections.snapshot();
+    assertThat(connections.remove(c1)).isTrue();
+    assertThat(connections.remove(c1)).isFalse();
+    assertThat(snapshot).containsExactly(c1, c2);
+    assertThat(connections).containsExactly(c2);
+  }
+
+  private static HostConnectionPool.ShardConnections shardConnections(Connection... connections) {
+    HostConnectionPool.ShardConnections result = new HostConnectionPool.ShardConnections();
+    for (Connection connection : connections) result.add(connection);
+    return result;
+  }
+
+  private static Connection connection(int inFlight) throws Exception {
+    Connection connection = mock(Connection.class);
+    Field field = Connection.class.getDeclaredField("inFlight");
+    field.setAccessible(true);
+    field.set(connection, new AtomicInteger(inFlight));
+    return connection;
+  }
+}
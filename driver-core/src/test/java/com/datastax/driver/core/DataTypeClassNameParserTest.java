@@ -173,4 +173,42 @@ public class DataTypeClassNameParserTest {
         .isFrozen()
         .hasTypeArguments(DataType.cint(), DataType.cint());
   }
+
+  @Test(groups = "unit")
+  public void should_parse_vector_types() {
+    DataType type =
+        DataTypeClassNameParser.parseOne(
+            "org.apache.cassandra.db.marshal.VectorType(org.apache.cassandra.db.marshal.FloatType, 3)",
+            protocolVersion,
+            codecRegistry);
+    assertEquals(type, DataType.vector(DataType.cfloat(), 3));
+    assertTrue(type instanceof DataType.VectorType);
+    assertEquals(((DataType.VectorType) type).getElementType(), DataType.cfloat());
+    assertEquals(((DataType.VectorType) type).getDimensions(), 3);
+    assertEquals(type.toString(), "vector<float, 3>");
+
+    type =
+        DataTypeClassNameParser.parseOne(
+            "org.apache.cassandra.db.marshal.VectorType(org.apache.cassandra.db.marshal.FrozenType(org.apache.cassandra.db.marshal.ListType(org.apache.cassandra.db.marshal.Int32Type)),2)",
+            protocolVersion,
+            codecRegistry);
+    assertEquals(type, DataType.vector(DataType.frozenList(DataType.cint()), 2));
+    assertEquals(type.toString(), "vector<frozen<list<int>>, 2>");
+  }
+
+  @Test(groups = "unit")
+  public void should_build_vector_class_names() {
+    assertEquals(
+        DataType.vector(DataType.cfloat(), 3).getCustomTypeClassName(),
+        "org.apache.cassandra.db.marshal.VectorType(org.apache.cassandra.db.marshal.FloatType , 3)");
+    assertEquals(
+        DataType.vector(DataType.map(DataType.text(), DataType.cint()), 2).getCustomTypeClassName(),
+        "org.apache.cassandra.db.marshal.VectorType("
+            + "org.apache.cassandra.db.marshal.FrozenType(org.apache.cassandra.db.marshal.MapType("
+            + "org.apache.cassandra.db.marshal.UTF8Type,org.apache.cassandra.db.marshal.Int32Type)) , 2)");
+    // vectors are transmitted as custom types
+    assertEquals(
+        DataType.vector(DataType.cfloat(), 3),
+        DataType.custom(DataType.vector(DataType.cfloat(), 3).getCustomTypeClassName()));
+  }
 }
@@ -39,6 +39,7 @@ import static com.datastax.driver.core.DataType.tinyint;
 import static com.datastax.driver.core.DataType.uuid;
 import static com.datastax.driver.core.DataType.varchar;
 import static com.datastax.driver.core.DataType.varint;
+import static com.datastax.driver.core.DataType.vector;
 import static com.datastax.driver.core.DataTypeCqlNameParser.parse;
 import static com.datastax.driver.core.Metadata.quote;
 
@@ -102,6 +103,16 @@ public class DataTypeCqlNameParserTest extends CCMTestsSupport {
         .isEqualTo(map(date(), timeuuid()));
   }
 
+  @Test(groups = "short")
+  public void should_parse_vector_types() {
+    assertThat(parse("vector<float, 3>", cluster(), null, null, null, false, false))
+        .isEqualTo(vector(cfloat(), 3));
+    assertThat(parse("VECTOR < int,2 >", cluster(), null, null, null, false, false))
+        .isEqualTo(vector(cint(), 2));
+    assertThat(parse("vector<frozen<list<int>>, 4>", cluster(), null, null, null, false, false))
+        .isEqualTo(vector(list(cint(), true), 4));
+  }
+
   @Test(groups = "short")
   public void should_parse_frozen_collection_types() {
     assertThat(parse("frozen<list<int>>", cluster(), null, null, null, false, false))
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.annotations.Test;
+
+public class PageRowsTest {
+
+  private static final ProtocolVersion V = ProtocolVersion.DEFAULT;
+
+  @Test(groups = "unit")
+  public void should_decode_rows_as_views_over_the_page() {
+    ByteBuf body = Unpooled.buffer();
+    for (long i = 0; i < 3; i++) {
+      CBUtil.writeValue(TypeCodec.bigint().serialize(i, V), body);
+      // null, then empty, then regular value
+      CBUtil.writeValue(
+          i == 0 ? null : TypeCodec.varchar().serialize(i == 1 ? "" : "v" + i, V), body);
+    }
+    body.writeByte(42);
+
+    PageRows rows = PageRows.decode(body, 3, 2);
+
+    assertThat(body.readByte()).isEqualTo((byte) 42);
+    assertThat(rows).hasSize(3);
+    List<List<ByteBuffer>> all = new ArrayList<List<ByteBuffer>>(rows);
+    assertThat(all).hasSize(3);
+    assertThat(rows.size()).isEqualTo(3);
+
+    List<ByteBuffer> first = rows.peek();
+    assertThat(rows.poll()).isEqualTo(first);
+    assertThat(TypeCodec.bigint().deserialize(first.get(0), V)).isEqualTo(0L);
+    assertThat(first.get(1)).isNull();
+
+    List<ByteBuffer> second = rows.poll();
+    assertThat(TypeCodec.bigint().deserialize(second.get(0), V)).isEqualTo(1L);
+    assertThat(second.get(1).remaining()).isEqualTo(0);
+
+    assertThat(rows.size()).isEqualTo(1);
+    List<ByteBuffer> third = rows.poll();
+    assertThat(third.get(1).position()).isEqualTo(0);
+    assertThat(TypeCodec.varchar().deserialize(third.get(1), V)).isEqualTo("v2");
+
+    assertThat(rows.isEmpty()).isTrue();
+    assertThat(rows.poll()).isNull();
+    assertThat(rows.peek()).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_back_rows() {
+    ByteBuf body = Unpooled.buffer();
+    CBUtil.writeValue(TypeCodec.bigint().serialize(7L, V), body);
+    ColumnDefinitions definitions =
+        new ColumnDefinitions(
+            new ColumnDefinitions.Definition[] {
+              new ColumnDefinitions.Definition("ks", "t", "c", DataType.bigint())
+            },
+            CodecRegistry.DEFAULT_INSTANCE);
+
+    Row row = ArrayBackedRow.fromData(definitions, null, V, PageRows.decode(body, 1, 1).poll());
+
+    assertThat(row.getLong("c")).isEqualTo(7L);
+    assertThat(row.getLong(0)).isEqualTo(7L);
+    assertThat(row.isNull(0)).isFalse();
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.HostConnectionPool.PendingBorrow;
+import com.datastax.driver.core.HostConnectionPool.PendingBorrowQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+public class PendingBorrowQueueTest {
+
+  @Test(groups = "unit")
+  public void should_reject_borrows_when_full() {
+    PendingBorrowQueue queue = new PendingBorrowQueue();
+    PendingBorrow borrow1 = new PendingBorrow(10, MILLISECONDS, 0);
+    PendingBorrow borrow2 = new PendingBorrow(10, MILLISECONDS, 0);
+
+    assertThat(queue.offer(borrow1, 2)).isTrue();
+    assertThat(queue.offer(borrow2, 2)).isTrue();
+    assertThat(queue.offer(new PendingBorrow(10, MILLISECONDS, 0), 2)).isFalse();
+    assertThat(queue.size()).isEqualTo(2);
+
+    assertThat(queue.poll()).isSameAs(borrow1);
+    assertThat(queue.offer(new PendingBorrow(10, MILLISECONDS, 0), 2)).isTrue();
+    assertThat(queue.poll()).isSameAs(borrow2);
+  }
+
+  @Test(groups = "unit")
+  public void should_share_bound_between_queues() {
+    AtomicInteger total = new AtomicInteger();
+    PendingBorrowQueue queue1 = new PendingBorrowQueue(total);
+    PendingBorrowQueue queue2 = new PendingBorrowQueue(total);
+
+    // A single queue can use the whole bound
+    assertThat(queue1.offer(new PendingBorrow(10, MILLISECONDS, 0), 3)).isTrue();
+    assertThat(queue1.offer(new PendingBorrow(10, MILLISECONDS, 0), 3)).isTrue();
+    assertThat(queue2.offer(new PendingBorrow(10, MILLISECONDS, 0), 3)).isTrue();
+    assertThat(queue2.offer(new PendingBorrow(10, MILLISECONDS, 0), 3)).isFalse();
+    assertThat(total.get()).isEqualTo(3);
+
+    // Removing from any queue frees space in the others
+    queue1.poll();
+    assertThat(total.get()).isEqualTo(2);
+    assertThat(queue2.offer(new PendingBorrow(10, MILLISECONDS, 0), 3)).isTrue();
+
+    queue1.expire(MILLISECONDS.toNanos(20), new ArrayList<PendingBorrow>());
+    assertThat(total.get()).isEqualTo(2);
+    queue2.drain();
+    assertThat(total.get()).isZero();
+  }
+
+  @Test(groups = "unit")
+  public void should_remove_expired_borrows_and_return_next_deadline() {
+    PendingBorrowQueue queue = new PendingBorrowQueue();
+    PendingBorrow expiresAt10 = new PendingBorrow(10, MILLISECONDS, 0);
+    PendingBorrow expiresAt30 = new PendingBorrow(20, MILLISECONDS, MILLISECONDS.toNanos(10));
+    PendingBorrow expiresAt15 = new PendingBorrow(5, MILLISECONDS, MILLISECONDS.toNanos(10));
+    queue.offer(expiresAt10, 10);
+    queue.offer(expiresAt30, 10);
+    queue.offer(expiresAt15, 10);
+
+    List<PendingBorrow> expired = new ArrayList<PendingBorrow>();
+    long nextDelay = queue.expire(MILLISECONDS.toNanos(12), expired);
+    assertThat(expired).containsExactly(expiresAt10);
+    assertThat(nextDelay).isEqualTo(MILLISECONDS.toNanos(3));
+    assertThat(queue.size()).isEqualTo(2);
+
+    expired.clear();
+    nextDelay = queue.expire(MILLISECONDS.toNanos(30), expired);
+    assertThat(expired).containsExactly(expiresAt30, expiresAt15);
+    assertThat(nextDelay).isEqualTo(Long.MAX_VALUE);
+    assertThat(queue.isEmpty()).isTrue();
+  }
+
+  @Test(groups = "unit")
+  public void should_round_sweep_delays_up_to_whole_ticks() {
+    long tick = MILLISECONDS.toNanos(10);
+    assertThat(HostConnectionPool.sweepDelay(0)).isEqualTo(tick);
+    assertThat(HostConnectionPool.sweepDelay(1)).isEqualTo(tick);
+    assertThat(HostConnectionPool.sweepDelay(tick)).isEqualTo(tick);
+    assertThat(HostConnectionPool.sweepDelay(tick + 1)).isEqualTo(2 * tick);
+    // borrows expiring nanoseconds apart are swept together
+    assertThat(HostConnectionPool.sweepDelay(MILLISECONDS.toNanos(3) + 7))
+        .isEqualTo(HostConnectionPool.sweepDelay(MILLISECONDS.toNanos(3) + 8));
+  }
+
+  @Test(groups = "unit")
+  public void should_drain_all_borrows() {
+    PendingBorrowQueue queue = new PendingBorrowQueue();
+    PendingBorrow borrow1 = new PendingBorrow(10, MILLISECONDS, 0);
+    PendingBorrow borrow2 = new PendingBorrow(10, MILLISECONDS, 0);
+    queue.offer(borrow1, 10);
+    queue.offer(borrow2, 10);
+
+    assertThat(queue.drain()).containsExactly(borrow1, borrow2);
+    assertThat(queue.isEmpty()).isTrue();
+    assertThat(queue.poll()).isNull();
+  }
+}
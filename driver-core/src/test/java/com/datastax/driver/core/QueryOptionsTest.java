@@ -19,8 +19,11 @@ import static com.datastax.driver.core.Assertions.assertThat;
 import static com.datastax.driver.core.TestUtils.nonQuietClusterCloseOptions;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import org.scassandra.http.client.PreparedStatementExecution;
 import org.scassandra.http.client.PreparedStatementPreparation;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -223,6 +226,143 @@ public class QueryOptionsTest {
     valideReprepareOnUp(false);
   }
 
+  @Test(groups = "short")
+  public void should_reprepare_most_recently_used_statements_first_on_up() throws Exception {
+    queryOptions.setReprepareOnUpHotStatements(1);
+    String query1 = "select sansa_stark from the_known_world";
+    String query2 = "select arya_stark from the_known_world";
+    PreparedStatement statement1 = session.prepare(query1);
+    session.prepare(query2);
+    // Usage is tracked with a one-second resolution
+    TimeUnit.MILLISECONDS.sleep(1100);
+    session.execute(statement1.bind());
+
+    scassandra.node(1).activityClient().clearAllRecordedActivity();
+    scassandra.node(1).stop();
+    assertThat(cluster).host(1).goesDownWithin(10, TimeUnit.SECONDS);
+    scassandra.node(1).start();
+    assertThat(cluster).host(1).comesUpWithin(60, TimeUnit.SECONDS);
+
+    // The second statement is prepared in the background
+    ConditionChecker.check()
+        .that(
+            new Callable<Boolean>() {
+              @Override
+              public Boolean call() {
+                return scassandra
+                        .node(1)
+                        .activityClient()
+                        .retrievePreparedStatementPreparations()
+                        .size()
+                    >= 2;
+              }
+            })
+        .before(10, TimeUnit.SECONDS)
+        .becomesTrue();
+    List<PreparedStatementPreparation> preparations =
+        scassandra.node(1).activityClient().retrievePreparedStatementPreparations();
+    assertThat(preparations.get(0).getPreparedStatementText()).isEqualTo(query1);
+    assertThat(preparations.get(1).getPreparedStatementText()).isEqualTo(query2);
+  }
+
+  @Test(groups = "short")
+  public void should_not_prepare_again_when_statement_is_cached() {
+    queryOptions.setPreparedStatementCacheSize(1000);
+    Session session = cluster.connect();
+    String query = "select sansa_stark from the_known_world";
+    PreparedStatement statement1 = session.prepare(query);
+    PreparedStatement statement2 = session.prepare(query);
+
+    assertThat(statement2).isSameAs(statement1);
+    assertThat(scassandra.node(1).activityClient().retrievePreparedStatementPreparations())
+        .hasSize(1);
+    assertThat(cluster.getMetrics().getPreparedStatementCacheMisses().getCount()).isEqualTo(1);
+    assertThat(cluster.getMetrics().getPreparedStatementCacheHits().getCount()).isEqualTo(1);
+    assertThat(cluster.getMetrics().getPreparedStatementCacheSize().getValue()).isEqualTo(1);
+  }
+
+  @Test(groups = "short")
+  public void should_share_in_flight_preparations() throws Exception {
+    queryOptions.setPreparedStatementCacheSize(1000);
+    Session session = cluster.connect();
+    String query = "select sansa_stark from the_known_world";
+    ListenableFuture<PreparedStatement> future1 = session.prepareAsync(query);
+    ListenableFuture<PreparedStatement> future2 = session.prepareAsync(query);
+
+    assertThat(future2.get()).isSameAs(future1.get());
+    assertThat(scassandra.node(1).activityClient().retrievePreparedStatementPreparations())
+        .hasSize(1);
+  }
+
+  @Test(groups = "short")
+  public void should_evict_least_recently_prepared_statements() {
+    queryOptions.setPreparedStatementCacheSize(1);
+    Session session = cluster.connect();
+    String query1 = "select sansa_stark from the_known_world";
+    String query2 = "select arya_stark from the_known_world";
+
+    session.prepare(query1);
+    session.prepare(query2);
+    session.prepare(query1);
+
+    assertThat(scassandra.node(1).activityClient().retrievePreparedStatementPreparations())
+        .hasSize(3);
+  }
+
+  @Test(groups = "short")
+  public void should_prepare_again_when_cache_is_disabled() {
+    // The cache is disabled by default
+    String query = "select sansa_stark from the_known_world";
+
+    session.prepare(query);
+    session.prepare(query);
+
+    assertThat(scassandra.node(1).activityClient().retrievePreparedStatementPreparations())
+        .hasSize(2);
+    assertThat(cluster.getMetrics().getPreparedStatementCacheHits().getCount()).isEqualTo(0);
+  }
+
+  @Test(groups = "short")
+  public void should_execute_simple_statement_as_bound_statement_once_auto_prepared() {
+    queryOptions.setAutoPrepareThreshold(2).setPrepareOnAllHosts(false);
+    final Session session = cluster.connect();
+    final String query = "select sansa_stark from the_known_world where house = ?";
+
+    session.execute(query, "stark");
+    assertThat(scassandra.node(1).activityClient().retrievePreparedStatementPreparations())
+        .isEmpty();
+    session.execute(query, "stark");
+
+    // The statement is prepared in the background, so the next executions might still be queries
+    ConditionChecker.check()
+        .that(
+            new Callable<Boolean>() {
+              @Override
+              public Boolean call() {
+                session.execute(
+                    new SimpleStatement(query, "stark").setConsistencyLevel(ConsistencyLevel.TWO));
+                return !scassandra
+                    .node(1)
+                    .activityClient()
+                    .retrievePreparedStatementExecutions()
+                    .isEmpty();
+              }
+            })
+        .before(5, TimeUnit.SECONDS)
+        .becomesTrue();
+
+    assertThat(scassandra.node(1).activityClient().retrievePreparedStatementPreparations())
+        .hasSize(1);
+    List<PreparedStatementExecution> executions =
+        scassandra.node(1).activityClient().retrievePreparedStatementExecutions();
+    assertThat(executions).isNotEmpty();
+    for (PreparedStatementExecution execution : executions) {
+      assertThat(execution.getPreparedStatementText()).isEqualTo(query);
+      assertThat(execution.getConsistency()).isEqualTo("TWO");
+      assertThat(execution.getVariables()).containsExactly("stark");
+    }
+  }
+
   @AfterMethod(groups = "short", alwaysRun = true)
   public void afterMethod() {
     if (cluster != null) cluster.close();
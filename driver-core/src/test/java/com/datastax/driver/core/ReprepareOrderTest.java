@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.testng.annotations.Test;
+
+public class ReprepareOrderTest {
+
+  @Test(groups = "unit")
+  public void should_sort_most_recently_used_first() {
+    PreparedStatement old = statement(100);
+    PreparedStatement recent = statement(300);
+    PreparedStatement middle = statement(200);
+
+    List<PreparedStatement> statements = new ArrayList<PreparedStatement>();
+    statements.add(old);
+    statements.add(recent);
+    statements.add(middle);
+
+    assertThat(Cluster.mostRecentlyUsedFirst(statements)).containsExactly(recent, middle, old);
+  }
+
+  @Test(groups = "unit")
+  public void should_sort_while_statements_are_being_used() throws Exception {
+    final List<PreparedStatement> statements = new ArrayList<PreparedStatement>();
+    for (int i = 0; i < 2000; i++) statements.add(statement(i));
+
+    // Executing threads keep updating the last use while the statements are sorted
+    final AtomicBoolean running = new AtomicBoolean(true);
+    Thread user =
+        new Thread() {
+          @Override
+          public void run() {
+            Random random = new Random(0);
+            while (running.get()) {
+              PreparedStatement statement = statements.get(random.nextInt(statements.size()));
+              statement.getPreparedId().lastUsedNanos = random.nextInt(10000);
+            }
+          }
+        };
+    user.start();
+    try {
+      for (int i = 0; i < 100; i++) {
+        assertThat(Cluster.mostRecentlyUsedFirst(statements)).hasSize(statements.size());
+      }
+    } finally {
+      running.set(false);
+      user.join();
+    }
+  }
+
+  private static PreparedStatement statement(long lastUsedNanos) {
+    PreparedId.PreparedMetadata metadata = new PreparedId.PreparedMetadata(null, null);
+    PreparedId id = new PreparedId(metadata, metadata, null, ProtocolVersion.V4);
+    id.lastUsedNanos = lastUsedNanos;
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(statement.getPreparedId()).thenReturn(id);
+    return statement;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright ScyllaDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableSet;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import org.testng.annotations.Test;
+
+public class RoutingContextTest {
+
+  private final ByteBuffer routingKey = ByteBuffer.wrap(new byte[] {1, 2, 3, 4});
+
+  @Test(groups = "unit")
+  public void should_compute_routing_information_only_once() {
+    CountingStatement statement = new CountingStatement();
+    Token token = Token.M3PToken.FACTORY.hash(routingKey);
+    Host host = mock(Host.class);
+    Metadata metadata = mock(Metadata.class);
+    when(metadata.tokenFactory()).thenReturn(Token.M3PToken.FACTORY);
+    when(metadata.getReplicas(Metadata.quote("ks"), token)).thenReturn(ImmutableSet.<Host>of(host));
+    when(metadata.getTabletReplicas(null)).thenReturn(TabletMap.TabletReplicas.NONE);
+
+    RoutingContext context =
+        new RoutingContext(
+            metadata, ProtocolVersion.DEFAULT, CodecRegistry.DEFAULT_INSTANCE, "ks", statement);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(context.getRoutingKey()).isEqualTo(routingKey);
+      assertThat(context.getToken()).isEqualTo(token);
+      Set<Host> replicas = context.getReplicas();
+      assertThat(replicas).containsExactly(host);
+    }
+    assertThat(statement.routingKeyCalls).isEqualTo(1);
+    verify(metadata, times(1)).tokenFactory();
+    verify(metadata, times(1)).getReplicas(Metadata.quote("ks"), token);
+  }
+
+  @Test(groups = "unit")
+  public void should_not_resolve_replicas_without_routing_key() {
+    Metadata metadata = mock(Metadata.class);
+    RoutingContext context =
+        new RoutingContext(
+            metadata,
+            ProtocolVersion.DEFAULT,
+            CodecRegistry.DEFAULT_INSTANCE,
+            "ks",
+            new SimpleStatement("irrelevant"));
+
+    assertThat(context.getRoutingKey()).isNull();
+    assertThat(context.getToken()).isNull();
+    assertThat(context.getReplicas()).isEmpty();
+    verify(metadata, never()).getReplicas(anyString(), any(Token.class));
+  }
+
+  private class CountingStatement extends SimpleStatement {
+    private int routingKeyCalls;
+
+    CountingStatement() {
+      super("irrelevant");
+    }
+
+    @Override
+    public ByteBuffer getRoutingKey(ProtocolVersion protocolVersion, CodecRegistry codecRegistry) {
+      routingKeyCalls += 1;
+      return routingKey;
+    }
+  }
+}
@@ -87,5 +87,13 @@ public class ShardingInfoTest {
                   '1', '0', '0', '0', '0', '0',
                 }));
     assertThat(sharding.shardingInfo.shardId(token5)).isEqualTo(2);
+
+    // The primitive variant must agree with the Token one
+    for (Token token : new Token[] {token1, token2, token3, token4, token5}) {
+      assertThat(sharding.shardingInfo.shardId((Long) token.getValue()))
+          .isEqualTo(sharding.shardingInfo.shardId(token));
+    }
+    assertThat(sharding.shardingInfo.shardId(Long.MIN_VALUE)).isEqualTo(0);
+    assertThat(sharding.shardingInfo.shardId(Long.MAX_VALUE)).isEqualTo(11);
   }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+public class StreamHandlerTableTest {
+
+  @Test(groups = "unit")
+  public void should_track_registered_and_completed_handlers() {
+    StreamHandlerTable<String> table = new StreamHandlerTable<String>(128);
+    assertThat(table.isEmpty()).isTrue();
+
+    table.put(0, "a", false);
+    table.put(127, "b", true);
+    assertThat(table.size()).isEqualTo(2);
+    assertThat(table.isEmpty()).isFalse();
+
+    assertThat(table.remove(0)).isEqualTo("a");
+    assertThat(table.size()).isEqualTo(1);
+    assertThat(table.remove(127)).isEqualTo("b");
+    assertThat(table.isEmpty()).isTrue();
+
+    // The slot can be reused once released
+    table.put(0, "c", false);
+    assertThat(table.remove(0)).isEqualTo("c");
+    assertThat(table.isEmpty()).isTrue();
+  }
+
+  @Test(groups = "unit")
+  public void should_ignore_late_and_unknown_stream_ids() {
+    StreamHandlerTable<String> table = new StreamHandlerTable<String>(128);
+    table.put(1, "a", false);
+
+    // Response to a request that timed out: the handler was already removed
+    assertThat(table.remove(1)).isEqualTo("a");
+    assertThat(table.remove(1)).isNull();
+    // Stream ids that were never registered, or out of bounds
+    assertThat(table.remove(2)).isNull();
+    assertThat(table.remove(-1)).isNull();
+    assertThat(table.remove(128)).isNull();
+    assertThat(table.isEmpty()).isTrue();
+    assertThat(table.size()).isZero();
+  }
+
+  @Test(groups = "unit")
+  public void should_only_remove_own_handler() {
+    StreamHandlerTable<String> table = new StreamHandlerTable<String>(128);
+    table.put(3, "a", false);
+
+    // The stream id was released and reused by another request, the cancelled one must not remove
+    // the new handler
+    assertThat(table.remove(3)).isEqualTo("a");
+    table.put(3, "b", false);
+    assertThat(table.remove(3, "a")).isFalse();
+    assertThat(table.size()).isEqualTo(1);
+
+    assertThat(table.remove(3, "b")).isTrue();
+    assertThat(table.remove(3, "b")).isFalse();
+    assertThat(table.isEmpty()).isTrue();
+  }
+}
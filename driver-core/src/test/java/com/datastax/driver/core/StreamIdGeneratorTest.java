@@ -15,8 +15,15 @@
  */
 package com.datastax.driver.core;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.testng.Assert.assertEquals;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.testng.annotations.Test;
 
 public class StreamIdGeneratorTest {
@@ -26,21 +33,91 @@ public class StreamIdGeneratorTest {
 
     StreamIdGenerator generator = StreamIdGenerator.newInstance(ProtocolVersion.V2);
 
-    assertEquals(generator.next(), 0);
-    assertEquals(generator.next(), 64);
-    generator.release(0);
-    assertEquals(generator.next(), 0);
-    assertEquals(generator.next(), 65);
-    assertEquals(generator.next(), 1);
-    generator.release(64);
-    assertEquals(generator.next(), 64);
-    assertEquals(generator.next(), 2);
-
-    for (int i = 5; i < 128; i++) generator.next();
+    Set<Integer> ids = new HashSet<Integer>();
+    for (int i = 0; i < 128; i++) {
+      int id = generator.next();
+      assertThat(id).isBetween(0, 127);
+      ids.add(id);
+    }
+    assertThat(ids).hasSize(128);
+    assertEquals(generator.next(), -1);
 
     generator.release(100);
     assertEquals(generator.next(), 100);
+    assertEquals(generator.next(), -1);
 
+    generator.release(0);
+    generator.release(64);
+    int id1 = generator.next();
+    int id2 = generator.next();
+    assertThat(new int[] {id1, id2}).containsOnly(0, 64);
     assertEquals(generator.next(), -1);
   }
+
+  @Test(groups = "unit")
+  public void should_reclaim_capacity_of_marked_ids_when_released() {
+    StreamIdGenerator generator = StreamIdGenerator.newInstance(ProtocolVersion.V3);
+    int id = generator.next();
+
+    generator.mark(id);
+    assertEquals(generator.maxAvailableStreams(), 32767);
+    // marking twice doesn't count twice
+    generator.mark(id);
+    assertEquals(generator.maxAvailableStreams(), 32767);
+
+    // late response
+    generator.release(id);
+    assertEquals(generator.maxAvailableStreams(), 32768);
+    // a racing unmark after the release must not count twice either
+    generator.unmark(id);
+    assertEquals(generator.maxAvailableStreams(), 32768);
+  }
+
+  @Test(groups = "unit")
+  public void should_unmark_id() {
+    StreamIdGenerator generator = StreamIdGenerator.newInstance(ProtocolVersion.V3);
+    int id = generator.next();
+
+    generator.mark(id);
+    generator.unmark(id);
+    assertEquals(generator.maxAvailableStreams(), 32768);
+    // releasing a non-marked id doesn't change the capacity
+    generator.release(id);
+    assertEquals(generator.maxAvailableStreams(), 32768);
+  }
+
+  @Test(groups = "unit")
+  public void should_never_hand_out_same_id_twice_concurrently() throws Exception {
+    final StreamIdGenerator generator = StreamIdGenerator.newInstance(ProtocolVersion.V3);
+    final boolean[] inUse = new boolean[generator.maxIds()];
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      Set<Future<Integer>> futures = new HashSet<Future<Integer>>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(
+            executor.submit(
+                new Callable<Integer>() {
+                  @Override
+                  public Integer call() {
+                    int conflicts = 0;
+                    for (int i = 0; i < 100000; i++) {
+                      int id = generator.next();
+                      synchronized (inUse) {
+                        if (inUse[id]) conflicts += 1;
+                        inUse[id] = true;
+                      }
+                      synchronized (inUse) {
+                        inUse[id] = false;
+                      }
+                      generator.release(id);
+                    }
+                    return conflicts;
+                  }
+                }));
+      }
+      for (Future<Integer> future : futures) assertThat(future.get()).isEqualTo(0);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
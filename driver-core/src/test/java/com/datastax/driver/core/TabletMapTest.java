@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.TabletMap.TableTablets;
+import com.datastax.driver.core.TabletMap.Tablet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.testng.annotations.Test;
+
+public class TabletMapTest {
+
+  private static final UUID HOST1 = UUID.randomUUID();
+  private static final UUID HOST2 = UUID.randomUUID();
+
+  @Test(groups = "unit")
+  public void should_find_tablet_owning_token() {
+    TableTablets tablets =
+        TableTablets.EMPTY.merge(
+            Arrays.asList(tablet(Long.MIN_VALUE, -100), tablet(-100, 0), tablet(0, 100)));
+
+    assertThat(tablets.find(Long.MIN_VALUE)).isNull();
+    assertThat(tablets.find(Long.MIN_VALUE + 1).getLastToken()).isEqualTo(-100);
+    assertThat(tablets.find(-100).getLastToken()).isEqualTo(-100);
+    assertThat(tablets.find(-99).getLastToken()).isEqualTo(0);
+    assertThat(tablets.find(100).getLastToken()).isEqualTo(100);
+    assertThat(tablets.find(101)).isNull();
+    assertThat(tablets.find(Long.MAX_VALUE)).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_replace_overlapping_tablets() {
+    TableTablets tablets =
+        TableTablets.EMPTY.merge(
+            Arrays.asList(tablet(-300, -200), tablet(-200, -100), tablet(-100, 0), tablet(0, 100)));
+
+    // overlaps the end of the first tablet, the whole second one and the start of the third one
+    tablets = tablets.merge(Collections.singletonList(tablet(-250, -50, HOST2)));
+
+    assertThat(tablets.find(-275)).isNull();
+    assertThat(tablets.find(-250)).isNull();
+    assertThat(tablets.find(-249).getFirstToken()).isEqualTo(-250);
+    assertThat(tablets.find(-50).hostIds).containsExactly(HOST2);
+    assertThat(tablets.find(-49)).isNull();
+    assertThat(tablets.find(50).getLastToken()).isEqualTo(100);
+  }
+
+  @Test(groups = "unit")
+  public void should_apply_tablets_of_a_batch_in_order() {
+    TableTablets tablets =
+        TableTablets.EMPTY.merge(
+            Arrays.asList(
+                tablet(0, 100, HOST1),
+                // replaces the previous one
+                tablet(0, 50, HOST2),
+                tablet(50, 100, HOST2)));
+
+    assertThat(tablets.find(25).hostIds).containsExactly(HOST2);
+    assertThat(tablets.find(75).hostIds).containsExactly(HOST2);
+
+    tablets =
+        tablets.merge(
+            Arrays.asList(
+                tablet(25, 75, HOST1),
+                // does not overlap the previous one, both are kept
+                tablet(75, 90, HOST1)));
+
+    // both existing tablets overlap the new ones and were removed
+    assertThat(tablets.find(25)).isNull();
+    assertThat(tablets.find(26).getLastToken()).isEqualTo(75);
+    assertThat(tablets.find(80).getLastToken()).isEqualTo(90);
+    assertThat(tablets.find(95)).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_build_from_initial_mapping() {
+    NavigableSet<Tablet> set = new TreeSet<>(Arrays.asList(tablet(0, 100), tablet(100, 200)));
+    ConcurrentMap<TabletMap.KeyspaceTableNamePair, NavigableSet<Tablet>> initial =
+        new ConcurrentHashMap<>();
+    initial.put(new TabletMap.KeyspaceTableNamePair("ks", "t"), set);
+
+    TabletMap tabletMap = new TabletMap(null, initial);
+
+    assertThat(tabletMap.getTablet("ks", "t", 150).getLastToken()).isEqualTo(200);
+    assertThat(tabletMap.getTablet("ks", "t", 250)).isNull();
+    assertThat(tabletMap.getTablet("ks", "other", 150)).isNull();
+    assertThat(tabletMap.getTablet("other", "t", 150)).isNull();
+    assertThat(tabletMap.getMapping())
+        .containsOnlyKeys(new TabletMap.KeyspaceTableNamePair("ks", "t"));
+    assertThat(tabletMap.getMapping().values().iterator().next()).containsExactlyElementsOf(set);
+  }
+
+  @Test(groups = "unit")
+  public void should_share_tablet_sets_between_mapping_calls() {
+    TabletMap.TableTablets tablets =
+        TabletMap.TableTablets.EMPTY.merge(Arrays.asList(tablet(0, 100), tablet(100, 200)));
+
+    assertThat(tablets.asSet()).extracting("lastToken").containsExactly(100L, 200L);
+    assertThat(tablets.asSet()).isSameAs(tablets.asSet());
+    // A new snapshot gets its own set
+    TabletMap.TableTablets updated = tablets.merge(Arrays.asList(tablet(200, 300)));
+    assertThat(updated.asSet()).hasSize(3);
+    assertThat(tablets.asSet()).hasSize(2);
+  }
+
+  @Test(groups = "unit")
+  public void should_cache_resolved_replicas_until_hosts_change() {
+    Metadata metadata = new Metadata(null);
+    Host host1 = host(HOST1);
+    Host host2 = host(HOST2);
+    metadata.addIfAbsent(host1);
+    LinkedHashSet<TabletMap.HostShardPair> replicas = new LinkedHashSet<>();
+    replicas.add(new TabletMap.HostShardPair(HOST2, 5));
+    replicas.add(new TabletMap.HostShardPair(HOST1, 3));
+    Tablet tablet = new Tablet("ks", null, "t", 0, 100, replicas);
+
+    TabletMap.TabletReplicas resolved = metadata.getTabletReplicas(tablet);
+    assertThat(resolved.getHosts()).containsExactly(host1);
+    assertThat(resolved.getShard(host1)).isEqualTo(3);
+    assertThat(resolved.getShard(host2)).isEqualTo(-1);
+    assertThat(metadata.getTabletReplicas(tablet)).isSameAs(resolved);
+
+    metadata.addIfAbsent(host2);
+    resolved = metadata.getTabletReplicas(tablet);
+    assertThat(resolved.getHosts()).containsExactly(host2, host1);
+    assertThat(resolved.getShard(host2)).isEqualTo(5);
+
+    metadata.remove(host2);
+    assertThat(metadata.getTabletReplicas(tablet).getHosts()).containsExactly(host1);
+    assertThat(metadata.getTabletReplicas(null).getHosts()).isEmpty();
+  }
+
+  private static Host host(UUID hostId) {
+    Host host = mock(Host.class);
+    when(host.getHostId()).thenReturn(hostId);
+    return host;
+  }
+
+  private static Tablet tablet(long firstToken, long lastToken) {
+    return tablet(firstToken, lastToken, HOST1);
+  }
+
+  private static Tablet tablet(long firstToken, long lastToken, UUID host) {
+    return new Tablet(
+        "ks",
+        null,
+        "t",
+        firstToken,
+        lastToken,
+        new LinkedHashSet<>(Collections.singletonList(pair(host))));
+  }
+
+  private static TabletMap.HostShardPair pair(UUID host) {
+    return new TabletMap.HostShardPair(host, 0);
+  }
+}
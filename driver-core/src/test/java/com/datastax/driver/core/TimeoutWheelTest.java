@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TimeoutWheelTest {
+
+  private EventLoop eventLoop;
+  private TimeoutWheel wheel;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    eventLoop = new DefaultEventLoop();
+    wheel = new TimeoutWheel(eventLoop);
+  }
+
+  @AfterMethod(groups = "unit", alwaysRun = true)
+  public void teardown() {
+    eventLoop.shutdownGracefully(0, 0, SECONDS);
+  }
+
+  @Test(groups = "unit")
+  public void should_expire_timeout_after_its_deadline() throws Exception {
+    TestEntry entry = new TestEntry();
+    long start = System.nanoTime();
+    wheel.add(entry, MILLISECONDS.toNanos(50));
+
+    assertThat(entry.expired.await(5, SECONDS)).isTrue();
+    assertThat(entry.expiredAt - start).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(50));
+    assertThat(sizeOnEventLoop()).isEqualTo(0);
+  }
+
+  @Test(groups = "unit")
+  public void should_expire_timeouts_that_fall_in_the_middle_of_a_tick() throws Exception {
+    TestEntry[] entries = new TestEntry[20];
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = new TestEntry();
+      wheel.add(entries[i], MILLISECONDS.toNanos(10 + i * 7));
+    }
+    // Well under a turn of the wheel
+    for (TestEntry entry : entries) assertThat(entry.expired.await(2, SECONDS)).isTrue();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_expire_cancelled_timeouts() throws Exception {
+    TestEntry cancelled = new TestEntry();
+    TestEntry cancelledBeforeStart = new TestEntry();
+    TestEntry control = new TestEntry();
+    wheel.add(cancelled, MILLISECONDS.toNanos(20));
+    wheel.cancel(cancelled);
+    wheel.cancel(cancelledBeforeStart);
+    wheel.add(cancelledBeforeStart, MILLISECONDS.toNanos(20));
+    wheel.add(control, MILLISECONDS.toNanos(50));
+
+    assertThat(control.expired.await(5, SECONDS)).isTrue();
+    assertThat(cancelled.expired.getCount()).isEqualTo(1);
+    assertThat(cancelledBeforeStart.expired.getCount()).isEqualTo(1);
+  }
+
+  @Test(groups = "unit")
+  public void should_unlink_timeouts_cancelled_on_event_loop() throws Exception {
+    int size =
+        eventLoop
+            .submit(
+                new Callable<Integer>() {
+                  @Override
+                  public Integer call() {
+                    TestEntry entry1 = new TestEntry();
+                    TestEntry entry2 = new TestEntry();
+                    wheel.add(entry1, SECONDS.toNanos(10));
+                    wheel.add(entry2, SECONDS.toNanos(10));
+                    wheel.cancel(entry1);
+                    return wheel.size();
+                  }
+                })
+            .get();
+    assertThat(size).isEqualTo(1);
+  }
+
+  @Test(groups = "unit")
+  public void should_expire_timeouts_further_than_a_turn_of_the_wheel() throws Exception {
+    // Not waiting for a whole turn, but make sure that entries that share a bucket with a closer
+    // one are not expired early
+    TestEntry close = new TestEntry();
+    TestEntry far = new TestEntry();
+    wheel.add(close, MILLISECONDS.toNanos(30));
+    wheel.add(far, MILLISECONDS.toNanos(30) + 512 * TimeoutWheel.TICK_NANOS);
+
+    assertThat(close.expired.await(5, SECONDS)).isTrue();
+    MILLISECONDS.sleep(50);
+    assertThat(far.expired.getCount()).isEqualTo(1);
+    assertThat(sizeOnEventLoop()).isEqualTo(1);
+  }
+
+  private int sizeOnEventLoop() throws Exception {
+    return eventLoop
+        .submit(
+            new Callable<Integer>() {
+              @Override
+              public Integer call() {
+                return wheel.size();
+              }
+            })
+        .get();
+  }
+
+  private static class TestEntry extends TimeoutWheel.Entry {
+    final CountDownLatch expired = new CountDownLatch(1);
+    volatile long expiredAt;
+
+    @Override
+    void onTimeout() {
+      expiredAt = System.nanoTime();
+      expired.countDown();
+    }
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+public class TokenMapTest {
+
+  private static final Token.Factory FACTORY = Token.M3PToken.FACTORY;
+
+  private final Host hostA = mock(Host.class);
+  private final Host hostB = mock(Host.class);
+
+  @Test(groups = "unit")
+  public void should_find_replicas_of_closest_token_on_ring() {
+    Metadata metadata = metadata("ks1");
+
+    assertThat(metadata.getReplicas("ks1", token(-100))).containsExactly(hostA, hostB);
+    assertThat(metadata.getReplicas("ks1", token(-50))).containsExactly(hostB, hostA);
+    assertThat(metadata.getReplicas("ks1", token(50))).containsExactly(hostA, hostB);
+    assertThat(metadata.getReplicas("ks1", token(200))).containsExactly(hostB, hostA);
+    // wraps around the ring
+    assertThat(metadata.getReplicas("ks1", token(300))).containsExactly(hostA, hostB);
+    assertThat(metadata.getReplicas("ks1", token(Long.MIN_VALUE))).containsExactly(hostA, hostB);
+
+    assertThat(metadata.getReplicas("unknown", token(0))).isEmpty();
+  }
+
+  @Test(groups = "unit")
+  public void should_share_identical_replica_sets() {
+    Metadata metadata = metadata("ks1", "ks2");
+
+    Set<Host> replicas = metadata.getReplicas("ks1", token(-100));
+    assertThat(metadata.getReplicas("ks1", token(100))).isSameAs(replicas);
+    assertThat(metadata.getReplicas("ks2", token(100))).isSameAs(replicas);
+    // same hosts, but in a different order
+    assertThat(metadata.getReplicas("ks1", token(0))).isNotSameAs(replicas);
+  }
+
+  @Test(groups = "unit")
+  public void should_forget_removed_keyspace() {
+    Metadata metadata = metadata("ks1");
+    metadata.removeKeyspace("ks1");
+
+    assertThat(metadata.getReplicas("ks1", token(0))).isEmpty();
+  }
+
+  @Test(groups = "unit")
+  public void should_rebuild_incrementally_when_host_is_added_or_removed() {
+    List<Host> hosts = hosts(7);
+    Map<Host, Set<Token>> tokens = randomTokens(hosts.subList(0, 6), 16);
+    Metadata metadata = vnodesMetadata();
+    metadata.rebuildTokenMap(FACTORY, tokens);
+
+    Map<Token, Set<Host>> before = replicas(metadata, "simple", tokens);
+    tokens.remove(hosts.get(5));
+    metadata.rebuildTokenMap(FACTORY, tokens);
+    assertSameAsFullRebuild(metadata, tokens, hosts);
+
+    // The replicas of the positions that are far enough from the removed tokens are reused
+    int reused = 0;
+    for (Map.Entry<Token, Set<Host>> entry : replicas(metadata, "simple", tokens).entrySet()) {
+      if (entry.getValue() == before.get(entry.getKey())) reused += 1;
+    }
+    assertThat(reused).isGreaterThan(0);
+
+    tokens.putAll(randomTokens(hosts.subList(6, 7), 16));
+    metadata.rebuildTokenMap(FACTORY, tokens);
+    assertSameAsFullRebuild(metadata, tokens, hosts);
+  }
+
+  @Test(groups = "unit")
+  public void should_rebuild_incrementally_when_tokens_move() {
+    List<Host> hosts = hosts(6);
+    Map<Host, Set<Token>> tokens = randomTokens(hosts, 16);
+    Metadata metadata = vnodesMetadata();
+    metadata.rebuildTokenMap(FACTORY, tokens);
+
+    // Give a few tokens of the first host to the second one
+    List<Token> moved = new ArrayList<Token>(tokens.get(hosts.get(0))).subList(0, 4);
+    tokens.get(hosts.get(0)).removeAll(moved);
+    tokens.get(hosts.get(1)).addAll(moved);
+    metadata.rebuildTokenMap(FACTORY, tokens);
+    assertSameAsFullRebuild(metadata, tokens, hosts);
+  }
+
+  @Test(groups = "unit")
+  public void should_reuse_replicas_when_only_keyspaces_change() {
+    List<Host> hosts = hosts(6);
+    Map<Host, Set<Token>> tokens = randomTokens(hosts, 16);
+    Metadata metadata = vnodesMetadata();
+    metadata.rebuildTokenMap(FACTORY, tokens);
+    Token token = tokens.get(hosts.get(0)).iterator().next();
+    Set<Host> replicas = metadata.getReplicas("nts", token);
+
+    metadata.keyspaces.put("nts2", keyspace("nts2", "NetworkTopologyStrategy", "dc1", "3"));
+    metadata.rebuildTokenMap();
+
+    assertThat(metadata.getReplicas("nts", token)).isSameAs(replicas);
+    assertThat(metadata.getReplicas("nts2", token)).isSameAs(replicas);
+  }
+
+  @Test(groups = "unit")
+  public void should_compute_distinct_strategies_on_driver_executor() {
+    final AtomicInteger submitted = new AtomicInteger();
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>()) {
+          @Override
+          public void execute(Runnable command) {
+            submitted.incrementAndGet();
+            super.execute(command);
+          }
+        };
+    try {
+      Cluster.Manager cluster = mock(Cluster.Manager.class);
+      cluster.tokenMapExecutor = executor;
+      Metadata metadata = new Metadata(cluster);
+      metadata.keyspaces.putAll(vnodesMetadata().keyspaces);
+      List<Host> hosts = hosts(6);
+      Map<Host, Set<Token>> tokens = randomTokens(hosts, 16);
+      metadata.rebuildTokenMap(FACTORY, tokens);
+
+      // One of the two strategies is computed by the rebuilding thread
+      assertThat(submitted.get()).isEqualTo(1);
+      assertSameAsFullRebuild(metadata, tokens, hosts);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void assertSameAsFullRebuild(
+      Metadata metadata, Map<Host, Set<Token>> tokens, List<Host> hosts) {
+    Metadata expected = vnodesMetadata();
+    expected.rebuildTokenMap(FACTORY, tokens);
+    for (String keyspace : metadata.keyspaces.keySet()) {
+      for (Map.Entry<Token, Set<Host>> entry : replicas(expected, keyspace, tokens).entrySet()) {
+        assertThat(metadata.getReplicas(keyspace, entry.getKey()))
+            .containsExactlyElementsOf(entry.getValue());
+      }
+      for (Host host : hosts) {
+        assertThat(metadata.getTokenRanges(keyspace, host))
+            .isEqualTo(expected.getTokenRanges(keyspace, host));
+      }
+    }
+  }
+
+  private static Map<Token, Set<Host>> replicas(
+      Metadata metadata, String keyspace, Map<Host, Set<Token>> tokens) {
+    Map<Token, Set<Host>> replicas = new HashMap<Token, Set<Host>>();
+    for (Set<Token> hostTokens : tokens.values()) {
+      for (Token token : hostTokens) replicas.put(token, metadata.getReplicas(keyspace, token));
+    }
+    return replicas;
+  }
+
+  private static Metadata vnodesMetadata() {
+    Metadata metadata = new Metadata(null);
+    metadata.keyspaces.put(
+        "simple", keyspace("simple", "SimpleStrategy", "replication_factor", "3"));
+    metadata.keyspaces.put("nts", keyspace("nts", "NetworkTopologyStrategy", "dc1", "3"));
+    return metadata;
+  }
+
+  private static List<Host> hosts(int count) {
+    List<Host> hosts = new ArrayList<Host>();
+    for (int i = 0; i < count; i++) {
+      Host host = mock(Host.class);
+      when(host.getDatacenter()).thenReturn("dc1");
+      when(host.getRack()).thenReturn("r" + (i % 3));
+      hosts.add(host);
+    }
+    return hosts;
+  }
+
+  private static Map<Host, Set<Token>> randomTokens(List<Host> hosts, int tokensPerHost) {
+    Random random = new Random(hosts.size());
+    Map<Host, Set<Token>> tokens = new HashMap<Host, Set<Token>>();
+    for (Host host : hosts) {
+      Set<Token> hostTokens = new HashSet<Token>();
+      for (int i = 0; i < tokensPerHost; i++) hostTokens.add(token(random.nextLong()));
+      tokens.put(host, hostTokens);
+    }
+    return tokens;
+  }
+
+  private static KeyspaceMetadata keyspace(
+      String name, String strategy, String option, String value) {
+    return new KeyspaceMetadata(
+        name, true, ImmutableMap.of("class", strategy, option, value), false);
+  }
+
+  private Metadata metadata(String... keyspaces) {
+    Metadata metadata = new Metadata(null);
+    for (String keyspace : keyspaces) {
+      metadata.keyspaces.put(
+          keyspace, keyspace(keyspace, "SimpleStrategy", "replication_factor", "2"));
+    }
+    Map<Host, Set<Token>> tokens =
+        ImmutableMap.<Host, Set<Token>>of(
+            hostA, ImmutableSet.of(token(-100), token(100)),
+            hostB, ImmutableSet.of(token(0), token(200)));
+    metadata.rebuildTokenMap(FACTORY, tokens);
+    return metadata;
+  }
+
+  private static Token token(long value) {
+    return FACTORY.fromString(Long.toString(value));
+  }
+}
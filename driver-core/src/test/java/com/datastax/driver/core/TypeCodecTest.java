@@ -308,6 +308,58 @@ public class TypeCodecTest {
     assertThat(TypeCodec.cdouble()).accepts(Double.class).accepts(Double.TYPE).accepts(42.0D);
   }
 
+  @Test(groups = "unit")
+  public void should_map_float_vectors_to_float_arrays() {
+    DataType.VectorType type = DataType.vector(DataType.cfloat(), 3);
+    TypeCodec<float[]> codec = codecRegistry.codecFor(type);
+    assertThat(codec).accepts(float[].class).accepts(type);
+    assertThat(codecRegistry.codecFor(type, float[].class).getJavaType())
+        .isEqualTo(TypeToken.of(float[].class));
+    assertThat(codecRegistry.codecFor(type, new float[3]).getJavaType())
+        .isEqualTo(TypeToken.of(float[].class));
+    // like other custom types, vectors can still be handled as raw bytes
+    assertThat(codecRegistry.codecFor(type, ByteBuffer.class).getJavaType())
+        .isEqualTo(TypeToken.of(ByteBuffer.class));
+
+    float[] value = {1.5f, -2f, 0f};
+    ByteBuffer bytes = codec.serialize(value, V3);
+    assertThat(bytes.remaining()).isEqualTo(12);
+    assertThat(bytes.getFloat(0)).isEqualTo(1.5f);
+    assertThat(bytes.getFloat(4)).isEqualTo(-2f);
+    assertThat(codec.deserialize(bytes, V3)).containsExactly(1.5f, -2f, 0f);
+    assertThat(bytes.position()).isZero();
+    assertThat(codec.format(value)).isEqualTo("[1.5, -2.0, 0.0]");
+    assertThat(codec.parse(" [1.5,-2, 0 ] ")).containsExactly(1.5f, -2f, 0f);
+    assertThat(codec.serialize(null, V3)).isNull();
+    assertThat(codec.deserialize(null, V3)).isNull();
+    assertThat(codec).cannotSerialize(new float[2]);
+    try {
+      codec.parse("[1, 2]");
+      fail("Expected InvalidTypeException");
+    } catch (InvalidTypeException e) {
+      // expected
+    }
+    try {
+      codec.deserialize(ByteBuffer.allocate(8), V3);
+      fail("Expected InvalidTypeException");
+    } catch (InvalidTypeException e) {
+      // expected
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_map_other_vectors_to_byte_buffers() {
+    DataType.VectorType type = DataType.vector(DataType.cint(), 2);
+    assertThat(codecRegistry.codecFor(type).getJavaType())
+        .isEqualTo(TypeToken.of(ByteBuffer.class));
+    try {
+      codecRegistry.codecFor(type, float[].class);
+      fail("Expected CodecNotFoundException");
+    } catch (CodecNotFoundException e) {
+      // expected
+    }
+  }
+
   private class ListVarcharToListListInteger extends TypeCodec<List<List<Integer>>> {
 
     private final TypeCodec<List<String>> codec = TypeCodec.list(TypeCodec.varchar());
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+public class WriteCoalescingStrategyTest {
+
+  @Test(groups = "unit")
+  public void should_flush_immediately() {
+    WriteCoalescingStrategy strategy = WriteCoalescingStrategy.Immediate.INSTANCE;
+    assertThat(strategy.nanosBeforeFlush(1, 0)).isLessThanOrEqualTo(0);
+    assertThat(strategy.nanosBeforeFlush(1000, 0)).isLessThanOrEqualTo(0);
+  }
+
+  @Test(groups = "unit")
+  public void should_flush_after_bounded_delay() {
+    WriteCoalescingStrategy strategy = new WriteCoalescingStrategy.BoundedDelay(20, MICROSECONDS);
+    assertThat(strategy.nanosBeforeFlush(1, 0)).isEqualTo(20000);
+    assertThat(strategy.nanosBeforeFlush(100, 15000)).isEqualTo(5000);
+    assertThat(strategy.nanosBeforeFlush(100, 20000)).isLessThanOrEqualTo(0);
+  }
+
+  @Test(groups = "unit")
+  public void should_flush_when_batch_is_full_or_after_max_delay() {
+    WriteCoalescingStrategy strategy = new WriteCoalescingStrategy.MaxBatch(16, 20, MICROSECONDS);
+    assertThat(strategy.nanosBeforeFlush(1, 0)).isEqualTo(20000);
+    assertThat(strategy.nanosBeforeFlush(15, 1000)).isEqualTo(19000);
+    assertThat(strategy.nanosBeforeFlush(16, 1000)).isLessThanOrEqualTo(0);
+    assertThat(strategy.nanosBeforeFlush(2, 25000)).isLessThanOrEqualTo(0);
+  }
+
+  @Test(groups = "unit")
+  public void should_grow_delay_with_pending_requests() {
+    WriteCoalescingStrategy strategy = new WriteCoalescingStrategy.Adaptive(100, MICROSECONDS, 11);
+    assertThat(strategy.nanosBeforeFlush(1, 0)).isLessThanOrEqualTo(0);
+    assertThat(strategy.nanosBeforeFlush(2, 0)).isEqualTo(10000);
+    assertThat(strategy.nanosBeforeFlush(6, 0)).isEqualTo(50000);
+    assertThat(strategy.nanosBeforeFlush(11, 0)).isEqualTo(100000);
+    assertThat(strategy.nanosBeforeFlush(1000, 0)).isEqualTo(100000);
+    assertThat(strategy.nanosBeforeFlush(6, 60000)).isLessThanOrEqualTo(0);
+  }
+}
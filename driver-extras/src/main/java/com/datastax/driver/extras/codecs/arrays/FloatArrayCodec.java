@@ -26,6 +26,10 @@ import java.nio.ByteBuffer;
  * {@code float[]}, thus avoiding any unnecessary boxing and unboxing of Java primitive {@code
  * float} values; it also instantiates arrays without the need for an intermediary Java {@code List}
  * object.
+ *
+ * <p>CQL vectors of {@code float} are mapped to {@code float[]} by the driver's default codec for
+ * them, see {@link com.datastax.driver.core.TypeCodec#floatVector}; both codecs can be used with
+ * the same registry.
  */
 public class FloatArrayCodec extends AbstractPrimitiveArrayCodec<float[]> {
 
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs.arrays;
+
+import static com.datastax.driver.core.ProtocolVersion.V4;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.TypeCodec;
+import java.nio.ByteBuffer;
+import org.testng.annotations.Test;
+
+public class FloatArrayCodecTest {
+
+  private final CodecRegistry registry = new CodecRegistry().register(FloatArrayCodec.instance);
+
+  @Test(groups = "unit")
+  public void should_coexist_with_float_vector_codec() {
+    DataType vector = DataType.vector(DataType.cfloat(), 3);
+    float[] value = {1f, 2f, 3f};
+
+    assertThat(registry.codecFor(DataType.list(DataType.cfloat()), float[].class))
+        .isSameAs(FloatArrayCodec.instance);
+    TypeCodec<float[]> vectorCodec = registry.codecFor(vector, value);
+    assertThat(vectorCodec).isNotSameAs(FloatArrayCodec.instance);
+    assertThat(vectorCodec.getCqlType()).isEqualTo(vector);
+
+    // lists carry their size and the size of each element, vectors don't
+    ByteBuffer list = FloatArrayCodec.instance.serialize(value, V4);
+    ByteBuffer bytes = vectorCodec.serialize(value, V4);
+    assertThat(list.remaining()).isEqualTo(4 + 3 * 8);
+    assertThat(bytes.remaining()).isEqualTo(3 * 4);
+    assertThat(vectorCodec.deserialize(bytes, V4)).containsExactly(value);
+    assertThat(FloatArrayCodec.instance.deserialize(list, V4)).containsExactly(value);
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping.processor;
+
+import static com.datastax.driver.mapping.processor.SourceWriter.boxedTypeName;
+import static com.datastax.driver.mapping.processor.SourceWriter.classLiteral;
+import static com.datastax.driver.mapping.processor.SourceWriter.typeExpression;
+import static com.datastax.driver.mapping.processor.SourceWriter.typeName;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.mapping.GeneratedAccessor;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Generates the {@link GeneratedAccessor} implementation of an {@code @Accessor} interface.
+ *
+ * <p>Like the dynamic proxies created at runtime, the implementation executes the methods declared
+ * with {@code @Query} by the interface itself, and throws {@link UnsupportedOperationException}
+ * from its other abstract methods.
+ */
+class AccessorGenerator implements Generator {
+
+  private final ProcessingEnvironment env;
+  private final Elements elements;
+  private final Types types;
+  private final TypeElement type;
+  private final PackageElement pkg;
+
+  AccessorGenerator(ProcessingEnvironment env, TypeElement type) {
+    this.env = env;
+    this.elements = env.getElementUtils();
+    this.types = env.getTypeUtils();
+    this.type = type;
+    this.pkg = elements.getPackageOf(type);
+  }
+
+  @Override
+  public void generate() throws IOException {
+    checkType();
+    List<ExecutableElement> queryMethods = new ArrayList<ExecutableElement>();
+    for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      if (Annotations.mappingAnnotations(method).containsKey("Query")) {
+        checkQueryMethod(method);
+        queryMethods.add(method);
+      }
+    }
+    List<ExecutableElement> unsupportedMethods = new ArrayList<ExecutableElement>();
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+      if (method.getModifiers().contains(Modifier.ABSTRACT)
+          && method.getEnclosingElement().getKind() == ElementKind.INTERFACE
+          && !queryMethods.contains(method)) {
+        if (!method.getTypeParameters().isEmpty()) {
+          throw GenerationException.unsupported(
+              method,
+              "Generic method %s is not supported, %s will be implemented at runtime",
+              method.getSimpleName(),
+              type.getQualifiedName());
+        }
+        unsupportedMethods.add(method);
+      }
+    }
+    write(queryMethods, unsupportedMethods);
+  }
+
+  private void checkType() {
+    if (type.getKind() != ElementKind.INTERFACE) {
+      throw GenerationException.error(
+          type, "@Accessor annotation is only allowed on interfaces, got %s", type);
+    }
+    for (String other : Annotations.mappingAnnotations(type).keySet()) {
+      if (!other.equals("Accessor")) {
+        throw GenerationException.error(
+            type, "Cannot have both @Accessor and @%s on %s", other, type);
+      }
+    }
+    if (!isAccessible(type)) {
+      throw GenerationException.unsupported(
+          type,
+          "%s is not accessible from its package, it will be implemented at runtime",
+          type.getQualifiedName());
+    }
+    if (!type.getTypeParameters().isEmpty()) {
+      throw GenerationException.unsupported(
+          type,
+          "Generic accessor %s is not supported, it will be implemented at runtime",
+          type.getQualifiedName());
+    }
+  }
+
+  // Fails on what the mapper would reject when creating the accessor
+  private void checkQueryMethod(ExecutableElement method) {
+    if (!method.getTypeParameters().isEmpty()) {
+      throw GenerationException.unsupported(
+          method,
+          "Generic method %s is not supported, %s will be implemented at runtime",
+          method.getSimpleName(),
+          type.getQualifiedName());
+    }
+    if (method.isVarArgs()) {
+      throw GenerationException.error(
+          method, "Invalid varargs method %s in @Accessor interface", method.getSimpleName());
+    }
+    TypeKind returnKind = method.getReturnType().getKind();
+    if (returnKind.isPrimitive()) {
+      throw GenerationException.error(
+          method, "Cannot map return to class %s", typeName(method.getReturnType()));
+    }
+    Boolean allParamsNamed = null;
+    for (VariableElement parameter : method.getParameters()) {
+      boolean named = !paramName(parameter).equals("null");
+      if (allParamsNamed != null && allParamsNamed != named) {
+        throw GenerationException.error(
+            method,
+            "For method '%s', either all or none of the parameters must be named",
+            method.getSimpleName());
+      }
+      allParamsNamed = named;
+    }
+    AnnotationMirror options = Annotations.mappingAnnotations(method).get("QueryParameters");
+    if (options != null) {
+      String consistency = Annotations.stringValue(elements, options, "consistency");
+      if (!consistency.isEmpty()) {
+        try {
+          ConsistencyLevel.valueOf(consistency.toUpperCase());
+        } catch (IllegalArgumentException e) {
+          throw GenerationException.error(
+              method, "Invalid consistency level '%s' on method %s", consistency, method);
+        }
+      }
+      if (idempotent(options).size() > 1) {
+        throw GenerationException.error(
+            method, "idemtpotence() attribute can only accept one value");
+      }
+    }
+  }
+
+  private void write(List<ExecutableElement> queryMethods, List<ExecutableElement> unsupported)
+      throws IOException {
+    String accessor = typeName(type.asType());
+    String simpleName = SourceWriter.generatedSimpleName(env, type, GeneratedAccessor.SUFFIX);
+    SourceWriter out = new SourceWriter(env);
+    out.line("// Generated by the driver's mapping annotation processor, do not edit.");
+    if (!pkg.isUnnamed()) out.line("package %s;", pkg.getQualifiedName()).line("");
+    out.line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})")
+        .line(
+            "public final class %s extends com.datastax.driver.mapping.GeneratedAccessor",
+            simpleName)
+        .line("    implements %s {", accessor)
+        .indent()
+        .line("")
+        .line("public %s() {", simpleName)
+        .indent()
+        .line("super(")
+        .indent()
+        .indent()
+        .line("%s.class%s", accessor, queryMethods.isEmpty() ? ");" : ",");
+    for (Iterator<ExecutableElement> it = queryMethods.iterator(); it.hasNext(); ) {
+      writeQueryMethod(out, it.next(), it.hasNext() ? "," : ");");
+    }
+    out.outdent().outdent().outdent().line("}");
+
+    for (int i = 0; i < queryMethods.size(); i++) {
+      ExecutableElement method = queryMethods.get(i);
+      out.line("").line("@Override").line("%s {", signature(method)).indent();
+      StringBuilder args = new StringBuilder();
+      for (VariableElement parameter : method.getParameters()) {
+        args.append(args.length() == 0 ? "new Object[] {" : ", ").append(parameter.getSimpleName());
+      }
+      String arguments = args.length() == 0 ? "NO_ARGS" : args.append("}").toString();
+      if (method.getReturnType().getKind() == TypeKind.VOID) {
+        out.line("invoke(%d, %s);", i, arguments);
+      } else {
+        out.line(
+            "return (%s) invoke(%d, %s);",
+            boxedTypeName(env, method.getReturnType()), i, arguments);
+      }
+      out.outdent().line("}");
+    }
+    for (ExecutableElement method : unsupported) {
+      out.line("")
+          .line("@Override")
+          .line("%s {", signature(method))
+          .indent()
+          .line("throw new UnsupportedOperationException();")
+          .outdent()
+          .line("}");
+    }
+    out.outdent().line("}");
+    out.writeTo(pkg.isUnnamed() ? simpleName : pkg.getQualifiedName() + "." + simpleName, type);
+  }
+
+  private void writeQueryMethod(SourceWriter out, ExecutableElement method, String end) {
+    Map<String, AnnotationMirror> annotations = Annotations.mappingAnnotations(method);
+    String query = Annotations.stringValue(elements, annotations.get("Query"), "value");
+    List<String> lines = new ArrayList<String>();
+    lines.add(
+        String.format(
+            "queryMethod(%s, %s, %s)",
+            out.literal(method.getSimpleName().toString()),
+            out.literal(query),
+            typeExpression(env, method.getReturnType())));
+    for (VariableElement parameter : method.getParameters()) {
+      AnnotationMirror param = Annotations.mappingAnnotations(parameter).get("Param");
+      TypeMirror codec = param == null ? null : Annotations.codecValue(elements, param);
+      lines.add(
+          String.format(
+              "    .param(%s, %s, %s)",
+              paramName(parameter),
+              typeExpression(env, parameter.asType()),
+              codec == null ? "null" : classLiteral(env, codec)));
+    }
+    AnnotationMirror options = annotations.get("QueryParameters");
+    if (options != null) {
+      StringBuilder idempotent = new StringBuilder("new boolean[] {");
+      for (Iterator<? extends AnnotationValue> it = idempotent(options).iterator();
+          it.hasNext(); ) {
+        idempotent.append(it.next().getValue());
+        if (it.hasNext()) idempotent.append(", ");
+      }
+      lines.add(
+          String.format(
+              "    .options(%s, %s, %s, %s})",
+              out.literal(Annotations.stringValue(elements, options, "consistency")),
+              Annotations.value(elements, options, "fetchSize"),
+              Annotations.value(elements, options, "tracing"),
+              idempotent));
+    }
+    for (int i = 0; i < lines.size(); i++) {
+      out.line(i == lines.size() - 1 ? lines.get(i) + end : lines.get(i));
+    }
+  }
+
+  // The declaration of an interface method, as a member of the accessor
+  private String signature(ExecutableElement method) {
+    ExecutableType methodType =
+        (ExecutableType) types.asMemberOf((DeclaredType) type.asType(), method);
+    StringBuilder signature =
+        new StringBuilder("public ")
+            .append(typeName(methodType.getReturnType()))
+            .append(' ')
+            .append(method.getSimpleName())
+            .append('(');
+    List<? extends VariableElement> parameters = method.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      if (i > 0) signature.append(", ");
+      signature
+          .append(typeName(methodType.getParameterTypes().get(i)))
+          .append(' ')
+          .append(parameters.get(i).getSimpleName());
+    }
+    return signature.append(')').toString();
+  }
+
+  private String paramName(VariableElement parameter) {
+    AnnotationMirror param = Annotations.mappingAnnotations(parameter).get("Param");
+    if (param == null) return "null";
+    String name = Annotations.stringValue(elements, param, "value");
+    return name.isEmpty() ? "null" : env.getElementUtils().getConstantExpression(name);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<? extends AnnotationValue> idempotent(AnnotationMirror options) {
+    return (List<? extends AnnotationValue>) Annotations.value(elements, options, "idempotent");
+  }
+
+  private boolean isAccessible(Element element) {
+    for (Element e = element; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+      Set<Modifier> modifiers = e.getModifiers();
+      if (modifiers.contains(Modifier.PRIVATE)) return false;
+      if (!e.getKind().isClass() && !e.getKind().isInterface()) return false;
+    }
+    return true;
+  }
+}
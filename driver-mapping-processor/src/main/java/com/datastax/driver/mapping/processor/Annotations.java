@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping.processor;
+
+import com.datastax.driver.mapping.annotations.Defaults;
+import com.datastax.driver.mapping.annotations.Table;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+
+/** Reads the mapping annotations of elements, without loading them. */
+class Annotations {
+
+  private static final String MAPPING_PACKAGE = Table.class.getPackage().getName();
+
+  private static final String NO_CODEC = Defaults.NoCodec.class.getCanonicalName();
+
+  private Annotations() {}
+
+  /**
+   * Returns the annotations of the mapping package present on an element, indexed by simple name.
+   */
+  static Map<String, AnnotationMirror> mappingAnnotations(Element element) {
+    Map<String, AnnotationMirror> annotations = new LinkedHashMap<String, AnnotationMirror>();
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+      String name = annotationType.getQualifiedName().toString();
+      if (name.equals(MAPPING_PACKAGE + "." + annotationType.getSimpleName())) {
+        annotations.put(annotationType.getSimpleName().toString(), annotation);
+      }
+    }
+    return annotations;
+  }
+
+  /** Returns the value of an attribute of an annotation, or its default value. */
+  static Object value(Elements elements, AnnotationMirror annotation, String attribute) {
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+        elements.getElementValuesWithDefaults(annotation).entrySet()) {
+      if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+        return entry.getValue().getValue();
+      }
+    }
+    throw new IllegalArgumentException(
+        "No attribute " + attribute + " in " + annotation.getAnnotationType());
+  }
+
+  static String stringValue(Elements elements, AnnotationMirror annotation, String attribute) {
+    return (String) value(elements, annotation, attribute);
+  }
+
+  /** Returns the codec class of a {@code codec} attribute, or {@code null} if it is the default. */
+  static TypeMirror codecValue(Elements elements, AnnotationMirror annotation) {
+    TypeMirror codec = (TypeMirror) value(elements, annotation, "codec");
+    TypeElement codecClass = (TypeElement) ((DeclaredType) codec).asElement();
+    return codecClass.getQualifiedName().contentEquals(NO_CODEC) ? null : codec;
+  }
+}
@@ -0,0 +1,624 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping.processor;
+
+import static com.datastax.driver.mapping.processor.SourceWriter.boxedTypeName;
+import static com.datastax.driver.mapping.processor.SourceWriter.classLiteral;
+import static com.datastax.driver.mapping.processor.SourceWriter.hasTypeVariables;
+import static com.datastax.driver.mapping.processor.SourceWriter.typeName;
+import static com.datastax.driver.mapping.processor.SourceWriter.typeTokenExpression;
+
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.mapping.DefaultNamingStrategy;
+import com.datastax.driver.mapping.GeneratedMapping;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates the {@link GeneratedMapping} of a {@code @Table} or {@code @UDT} class.
+ *
+ * <p>Properties are discovered with the rules of a {@code DefaultPropertyMapper} with its default
+ * settings: fields and Java Beans getters and setters of the class and its ancestors, transient if
+ * annotated with {@code @Transient}, and named by a {@code DefaultNamingStrategy}.
+ */
+class EntityGenerator implements Generator {
+
+  private static final Set<String> VALID_COLUMN_ANNOTATIONS =
+      ImmutableSet.of(
+          "Column",
+          "Computed",
+          "ClusteringColumn",
+          "Frozen",
+          "FrozenKey",
+          "FrozenValue",
+          "PartitionKey",
+          "Transient");
+
+  private static final Set<String> VALID_FIELD_ANNOTATIONS =
+      ImmutableSet.of("Field", "Frozen", "FrozenKey", "FrozenValue", "Transient");
+
+  private static final Set<String> NON_TRANSIENT_ANNOTATIONS =
+      ImmutableSet.of(
+          "Column",
+          "PartitionKey",
+          "ClusteringColumn",
+          "Field",
+          "Computed",
+          "Frozen",
+          "FrozenKey",
+          "FrozenValue");
+
+  private static final Set<String> DEFAULT_TRANSIENT_PROPERTY_NAMES =
+      ImmutableSet.of("class", "metaClass");
+
+  private static final DefaultNamingStrategy NAMING_STRATEGY = new DefaultNamingStrategy();
+
+  private final ProcessingEnvironment env;
+  private final Elements elements;
+  private final Types types;
+  private final TypeElement type;
+  private final String annotation;
+  private final Set<String> allowed;
+  private final PackageElement pkg;
+  private final List<TypeElement> hierarchy;
+
+  EntityGenerator(ProcessingEnvironment env, TypeElement type, boolean udt) {
+    this.env = env;
+    this.elements = env.getElementUtils();
+    this.types = env.getTypeUtils();
+    this.type = type;
+    this.annotation = udt ? "UDT" : "Table";
+    this.allowed = udt ? VALID_FIELD_ANNOTATIONS : VALID_COLUMN_ANNOTATIONS;
+    this.pkg = elements.getPackageOf(type);
+    this.hierarchy = hierarchy(type);
+  }
+
+  @Override
+  public void generate() throws IOException {
+    checkType();
+    Map<String, Property> properties = scanProperties();
+    List<GenerationException> errors = new ArrayList<GenerationException>();
+    List<Property> mapped = new ArrayList<Property>();
+    for (Property property : properties.values()) {
+      try {
+        if (map(property)) mapped.add(property);
+      } catch (GenerationException e) {
+        if (!e.error) throw e;
+        errors.add(e);
+      }
+    }
+    if (errors.isEmpty()) {
+      write(mapped);
+    } else {
+      for (GenerationException error : errors) {
+        env.getMessager().printMessage(Diagnostic.Kind.ERROR, error.getMessage(), error.element);
+      }
+    }
+  }
+
+  private void checkType() {
+    if (type.getKind() != ElementKind.CLASS) {
+      throw GenerationException.unsupported(
+          type, "@%s is only supported on classes, %s will be mapped at runtime", annotation, type);
+    }
+    if (type.getNestingKind() == NestingKind.LOCAL
+        || type.getNestingKind() == NestingKind.ANONYMOUS
+        || !isAccessible(type)) {
+      throw GenerationException.unsupported(
+          type,
+          "%s is not accessible from its package, it will be mapped at runtime",
+          type.getQualifiedName());
+    }
+    for (String other : Annotations.mappingAnnotations(type).keySet()) {
+      if (!other.equals(annotation)) {
+        throw GenerationException.error(
+            type, "Cannot have both @%s and @%s on %s", annotation, other, type);
+      }
+    }
+  }
+
+  // Mirrors DefaultPropertyMapper.mapTableOrUdt; returns false if the property is transient
+  private boolean map(Property property) {
+    Element element = property.element();
+    for (String annotationName : property.annotations.keySet()) {
+      if (!allowed.contains(annotationName)) {
+        throw GenerationException.error(
+            element,
+            "Annotation @%s is not allowed on property '%s'",
+            annotationName,
+            property.name);
+      }
+    }
+    if (property.has("PartitionKey") && property.has("ClusteringColumn")) {
+      throw GenerationException.error(
+          element,
+          "Property '%s' cannot be annotated with both @PartitionKey and @ClusteringColumn",
+          property.name);
+    }
+    if (property.has("Computed")) {
+      if (property.string("Computed", "value").isEmpty()) {
+        throw GenerationException.error(
+            element,
+            "Property '%s': attribute 'value' of annotation @Computed is mandatory for computed properties",
+            property.name);
+      }
+      if (property.has("Column")) {
+        throw GenerationException.error(
+            element,
+            "Property '%s' cannot be annotated with both @Column and @Computed",
+            property.name);
+      }
+    }
+    if (property.has("Transient")
+        || (DEFAULT_TRANSIENT_PROPERTY_NAMES.contains(property.name)
+            && Collections.disjoint(property.annotations.keySet(), NON_TRANSIENT_ANNOTATIONS))) {
+      return false;
+    }
+    if (!property.has("Computed") && property.field == null && property.getter == null) {
+      throw GenerationException.error(element, "Property '%s' is not readable", property.name);
+    }
+    if (property.field == null && property.setter == null) {
+      throw GenerationException.error(element, "Property '%s' is not writable", property.name);
+    }
+    property.type = propertyType(property);
+    property.mappedName = mappedName(property);
+    return true;
+  }
+
+  private TypeMirror propertyType(Property property) {
+    TypeMirror propertyType =
+        property.getter != null
+            ? ((ExecutableType) types.asMemberOf(declaredType(), property.getter)).getReturnType()
+            : types.asMemberOf(declaredType(), property.field);
+    if (hasTypeVariables(propertyType)) {
+      throw GenerationException.unsupported(
+          property.element(),
+          "The type of property '%s' depends on a type variable, %s will be mapped at runtime",
+          property.name,
+          type.getQualifiedName());
+    }
+    return propertyType;
+  }
+
+  // Mirrors DefaultPropertyMapper.inferMappedName
+  private String mappedName(Property property) {
+    if (property.has("Computed")) return property.string("Computed", "value");
+    String nameAnnotation = property.has("Column") ? "Column" : "Field";
+    if (property.has(nameAnnotation)) {
+      String name = property.string(nameAnnotation, "name");
+      if (!name.isEmpty()) {
+        boolean caseSensitive =
+            (Boolean)
+                Annotations.value(
+                    elements, property.annotations.get(nameAnnotation), "caseSensitive");
+        return caseSensitive ? Metadata.quote(name) : name.toLowerCase();
+      }
+    }
+    return Metadata.quoteIfNecessary(NAMING_STRATEGY.toCassandraName(property.name));
+  }
+
+  private void write(List<Property> properties) throws IOException {
+    String entity = typeName(types.erasure(type.asType()));
+    String simpleName = SourceWriter.generatedSimpleName(env, type, GeneratedMapping.SUFFIX);
+    SourceWriter out = new SourceWriter(env);
+    out.line("// Generated by the driver's mapping annotation processor, do not edit.");
+    if (!pkg.isUnnamed()) out.line("package %s;", pkg.getQualifiedName()).line("");
+    out.line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})")
+        .line(
+            "public final class %s extends com.datastax.driver.mapping.GeneratedMapping<%s> {",
+            simpleName, entity)
+        .indent()
+        .line("")
+        .line("@Override")
+        .line(
+            "public java.util.Set<com.datastax.driver.mapping.MappedProperty<?>> getProperties() {")
+        .indent()
+        .line("java.util.Set<com.datastax.driver.mapping.MappedProperty<?>> properties =")
+        .line(
+            "    new java.util.HashSet<com.datastax.driver.mapping.MappedProperty<?>>(%d);",
+            properties.size() * 2);
+    for (Property property : properties) {
+      writeProperty(out, entity, property);
+    }
+    out.line("return properties;").outdent().line("}").line("");
+    out.line("@Override").line("public %s newInstance() {", entity).indent();
+    if (hasAccessibleNoArgConstructor()) out.line("return new %s();", entity);
+    else out.line("return newInstanceReflectively(%s.class);", entity);
+    out.outdent().line("}").outdent().line("}");
+    out.writeTo(qualifiedName(simpleName), type);
+  }
+
+  private void writeProperty(SourceWriter out, String entity, Property property) {
+    String valueType = boxedTypeName(env, property.type);
+    int position = -1;
+    if (property.has("PartitionKey")) position = property.integer("PartitionKey", "value");
+    else if (property.has("ClusteringColumn"))
+      position = property.integer("ClusteringColumn", "value");
+    String nameAnnotation = property.has("Column") ? "Column" : "Field";
+    TypeMirror codec =
+        property.has(nameAnnotation)
+            ? Annotations.codecValue(elements, property.annotations.get(nameAnnotation))
+            : null;
+
+    boolean readField = property.getter == null && property.field != null;
+    boolean writeField = property.setter == null;
+    boolean reflectiveRead = readField && !canReadDirectly(property);
+    boolean reflectiveWrite = writeField && !canWriteDirectly(property);
+
+    out.line("properties.add(")
+        .indent()
+        .line("new com.datastax.driver.mapping.GeneratedMappedProperty<%s, %s>(", entity, valueType)
+        .indent()
+        .indent()
+        .line("%s.class,", entity)
+        .line("%s,", out.literal(property.name))
+        .line("%s,", out.literal(property.mappedName))
+        .line("%s,", typeTokenExpression(env, property.type))
+        .line("%d,", position)
+        .line("%s,", property.has("PartitionKey"))
+        .line("%s,", property.has("ClusteringColumn"))
+        .line("%s,", property.has("Computed"))
+        .line("%s) {", codec == null ? "null" : classLiteral(env, codec))
+        .outdent();
+    if (reflectiveRead || reflectiveWrite) {
+      out.line("")
+          .line(
+              "private final java.lang.reflect.Field field = field(%s, %s);",
+              declaringClassExpression(entity, property.field),
+              out.literal(property.field.getSimpleName().toString()));
+    }
+
+    out.line("")
+        .line("@Override")
+        .line("protected %s get(%s entity) throws Exception {", valueType, entity)
+        .indent();
+    if (property.getter != null) {
+      out.line("return entity.%s();", property.getter.getSimpleName());
+    } else if (property.field == null) {
+      out.line(
+          "throw new UnsupportedOperationException(%s);",
+          out.literal("Property '" + property.name + "' is not readable"));
+    } else if (reflectiveRead) {
+      out.line("return (%s) field.get(entity);", valueType);
+    } else {
+      out.line("return %s;", fieldExpression(entity, property));
+    }
+    out.outdent().line("}");
+
+    out.line("")
+        .line("@Override")
+        .line("protected void set(%s entity, %s value) throws Exception {", entity, valueType)
+        .indent();
+    if (!writeField) {
+      TypeMirror parameterType =
+          ((ExecutableType) types.asMemberOf(declaredType(), property.setter))
+              .getParameterTypes()
+              .get(0);
+      String value =
+          types.isAssignable(property.type, parameterType)
+              ? "value"
+              : "(" + typeName(types.erasure(parameterType)) + ") value";
+      out.line("entity.%s(%s);", property.setter.getSimpleName(), value);
+    } else if (reflectiveWrite) {
+      out.line("field.set(entity, value);");
+    } else {
+      out.line("%s = value;", fieldExpression(entity, property));
+    }
+    out.outdent().line("}").outdent().line("});").outdent();
+  }
+
+  private String qualifiedName(String simpleName) {
+    return pkg.isUnnamed() ? simpleName : pkg.getQualifiedName() + "." + simpleName;
+  }
+
+  // Qualifies the field with its declaring class, in case it is masked by a static or transient
+  // field of a subclass
+  private String fieldExpression(String entity, Property property) {
+    TypeElement owner = (TypeElement) property.field.getEnclosingElement();
+    String target =
+        owner.equals(type)
+            ? "entity"
+            : "((" + typeName(types.erasure(owner.asType())) + ") entity)";
+    String expression = target + "." + property.field.getSimpleName();
+    if (!owner.equals(type) && !owner.getTypeParameters().isEmpty()) {
+      // the raw declaring class erases the type of the field
+      expression = "(" + boxedTypeName(env, property.type) + ") " + expression;
+    }
+    return expression;
+  }
+
+  // Reaches the declaring class through getSuperclass(), which works even if it is not accessible
+  private String declaringClassExpression(String entity, VariableElement field) {
+    StringBuilder expression = new StringBuilder(entity).append(".class");
+    for (TypeElement clazz : hierarchy) {
+      if (clazz.equals(field.getEnclosingElement())) break;
+      expression.append(".getSuperclass()");
+    }
+    return expression.toString();
+  }
+
+  private boolean canReadDirectly(Property property) {
+    return isAccessible(property.field)
+        && isAccessible((TypeElement) property.field.getEnclosingElement());
+  }
+
+  private boolean canWriteDirectly(Property property) {
+    return canReadDirectly(property)
+        && !property.field.getModifiers().contains(Modifier.FINAL)
+        && types.isAssignable(property.type, types.asMemberOf(declaredType(), property.field));
+  }
+
+  private boolean hasAccessibleNoArgConstructor() {
+    if (type.getModifiers().contains(Modifier.ABSTRACT)) return false;
+    if (type.getNestingKind() == NestingKind.MEMBER
+        && !type.getModifiers().contains(Modifier.STATIC)) return false;
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (constructor.getParameters().isEmpty()) {
+        return !constructor.getModifiers().contains(Modifier.PRIVATE);
+      }
+    }
+    return false;
+  }
+
+  /** Whether an element can be referenced from the generated class, in the package of the type. */
+  private boolean isAccessible(Element element) {
+    for (Element e = element; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+      Set<Modifier> modifiers = e.getModifiers();
+      if (modifiers.contains(Modifier.PRIVATE)) return false;
+      if (!modifiers.contains(Modifier.PUBLIC) && !elements.getPackageOf(e).equals(pkg))
+        return false;
+      if (e.getKind() != ElementKind.CLASS
+          && e.getKind() != ElementKind.INTERFACE
+          && e.getKind() != ElementKind.ENUM
+          && !e.getKind().isField()) return false;
+    }
+    return true;
+  }
+
+  private DeclaredType declaredType() {
+    return (DeclaredType) type.asType();
+  }
+
+  private static List<TypeElement> hierarchy(TypeElement type) {
+    List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+    for (TypeElement clazz = type; clazz != null; clazz = superclass(clazz)) {
+      if (clazz.getQualifiedName().contentEquals("java.lang.Object")) break;
+      hierarchy.add(clazz);
+    }
+    return hierarchy;
+  }
+
+  private static TypeElement superclass(TypeElement clazz) {
+    TypeMirror superclass = clazz.getSuperclass();
+    return superclass.getKind() == TypeKind.DECLARED
+        ? (TypeElement) ((DeclaredType) superclass).asElement()
+        : null;
+  }
+
+  // Mirrors DefaultPropertyMapper.scanFields and scanProperties: the most specific declaration of
+  // a field or property wins
+  private Map<String, Property> scanProperties() {
+    Map<String, Property> properties = new TreeMap<String, Property>();
+    for (TypeElement clazz : hierarchy) {
+      for (VariableElement field : ElementFilter.fieldsIn(clazz.getEnclosedElements())) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) continue;
+        String name = field.getSimpleName().toString();
+        if (!properties.containsKey(name)) {
+          Property property = new Property(name);
+          property.field = field;
+          properties.put(name, property);
+        }
+      }
+    }
+    Set<String> seen = new HashSet<String>();
+    for (TypeElement clazz : hierarchy) {
+      Map<String, ExecutableElement> getters = new LinkedHashMap<String, ExecutableElement>();
+      Map<String, List<ExecutableElement>> setters =
+          new LinkedHashMap<String, List<ExecutableElement>>();
+      scanAccessors(clazz, getters, setters);
+      Set<String> names = new LinkedHashSet<String>(getters.keySet());
+      names.addAll(setters.keySet());
+      for (String name : names) {
+        if (!seen.add(name)) continue;
+        ExecutableElement getter = getters.get(name);
+        ExecutableElement setter = pairedSetter(getter, setters.get(name));
+        if (setter == null && getter != null) setter = relaxedSetter(name, getter);
+        Property property = properties.get(name);
+        if (property == null) {
+          property = new Property(name);
+          properties.put(name, property);
+        }
+        property.getter = getter;
+        property.setter = setter;
+      }
+    }
+    for (Property property : properties.values()) {
+      scanAnnotations(property);
+    }
+    return properties;
+  }
+
+  // Java Beans rules, as applied by the Introspector to the methods declared by one class
+  private void scanAccessors(
+      TypeElement clazz,
+      Map<String, ExecutableElement> getters,
+      Map<String, List<ExecutableElement>> setters) {
+    for (ExecutableElement method : ElementFilter.methodsIn(clazz.getEnclosedElements())) {
+      Set<Modifier> modifiers = method.getModifiers();
+      if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) continue;
+      String name = method.getSimpleName().toString();
+      TypeKind returnKind = method.getReturnType().getKind();
+      int parameters = method.getParameters().size();
+      if (parameters == 0 && name.startsWith("is") && name.length() > 2) {
+        if (returnKind == TypeKind.BOOLEAN) getters.put(decapitalize(name.substring(2)), method);
+      } else if (parameters == 0 && name.startsWith("get") && name.length() > 3) {
+        String property = decapitalize(name.substring(3));
+        if (returnKind != TypeKind.VOID && !isBooleanGetter(getters.get(property)))
+          getters.put(property, method);
+      } else if (parameters == 1
+          && name.startsWith("set")
+          && name.length() > 3
+          && returnKind == TypeKind.VOID) {
+        String property = decapitalize(name.substring(3));
+        List<ExecutableElement> candidates = setters.get(property);
+        if (candidates == null) {
+          candidates = new ArrayList<ExecutableElement>();
+          setters.put(property, candidates);
+        }
+        candidates.add(method);
+      }
+    }
+  }
+
+  private static boolean isBooleanGetter(ExecutableElement getter) {
+    return getter != null && getter.getSimpleName().toString().startsWith("is");
+  }
+
+  private ExecutableElement pairedSetter(
+      ExecutableElement getter, List<ExecutableElement> candidates) {
+    if (candidates == null) return null;
+    if (getter == null) return candidates.get(0);
+    for (ExecutableElement candidate : candidates) {
+      if (sameErasure(candidate.getParameters().get(0).asType(), getter.getReturnType()))
+        return candidate;
+    }
+    return null;
+  }
+
+  // JAVA-984: a public setter of the class or its ancestors, whose return type may be anything
+  private ExecutableElement relaxedSetter(String property, ExecutableElement getter) {
+    String setterName = "set" + property.substring(0, 1).toUpperCase() + property.substring(1);
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+      Set<Modifier> modifiers = method.getModifiers();
+      if (method.getSimpleName().contentEquals(setterName)
+          && modifiers.contains(Modifier.PUBLIC)
+          && !modifiers.contains(Modifier.STATIC)
+          && method.getParameters().size() == 1
+          && sameErasure(method.getParameters().get(0).asType(), getter.getReturnType()))
+        return method;
+    }
+    return null;
+  }
+
+  private boolean sameErasure(TypeMirror t1, TypeMirror t2) {
+    return types.isSameType(types.erasure(t1), types.erasure(t2));
+  }
+
+  // Mirrors DefaultPropertyMapper.scanPropertyAnnotations
+  private void scanAnnotations(Property property) {
+    if (property.field != null) {
+      property.annotations.putAll(Annotations.mappingAnnotations(property.field));
+    }
+    ExecutableElement getter = property.getter;
+    if (getter == null) return;
+    property.annotations.putAll(Annotations.mappingAnnotations(getter));
+    TypeElement getterClass = (TypeElement) getter.getEnclosingElement();
+    for (TypeElement clazz = superclass(getterClass);
+        clazz != null && !clazz.getQualifiedName().contentEquals("java.lang.Object");
+        clazz = superclass(clazz)) {
+      addOverriddenGetterAnnotations(property, clazz);
+    }
+    for (TypeElement clazz = getterClass;
+        clazz != null && !clazz.getQualifiedName().contentEquals("java.lang.Object");
+        clazz = superclass(clazz)) {
+      for (TypeMirror itf : clazz.getInterfaces()) {
+        addOverriddenGetterAnnotations(property, (TypeElement) ((DeclaredType) itf).asElement());
+      }
+    }
+  }
+
+  private void addOverriddenGetterAnnotations(Property property, TypeElement clazz) {
+    for (ExecutableElement method : ElementFilter.methodsIn(clazz.getEnclosedElements())) {
+      if (method.getSimpleName().equals(property.getter.getSimpleName())
+          && method.getParameters().isEmpty()) {
+        for (Map.Entry<String, AnnotationMirror> entry :
+            Annotations.mappingAnnotations(method).entrySet()) {
+          if (!property.annotations.containsKey(entry.getKey()))
+            property.annotations.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+  }
+
+  // Same as java.beans.Introspector.decapitalize
+  private static String decapitalize(String name) {
+    if (name.length() > 1
+        && Character.isUpperCase(name.charAt(1))
+        && Character.isUpperCase(name.charAt(0))) return name;
+    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+
+  private class Property {
+
+    final String name;
+    final Map<String, AnnotationMirror> annotations = new LinkedHashMap<String, AnnotationMirror>();
+    VariableElement field;
+    ExecutableElement getter;
+    ExecutableElement setter;
+    TypeMirror type;
+    String mappedName;
+
+    Property(String name) {
+      this.name = name;
+    }
+
+    Element element() {
+      if (field != null) return field;
+      if (getter != null) return getter;
+      return setter;
+    }
+
+    boolean has(String annotation) {
+      return annotations.containsKey(annotation);
+    }
+
+    String string(String annotation, String attribute) {
+      return Annotations.stringValue(elements, annotations.get(annotation), attribute);
+    }
+
+    int integer(String annotation, String attribute) {
+      return (Integer) Annotations.value(elements, annotations.get(annotation), attribute);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping.processor;
+
+import javax.lang.model.element.Element;
+
+/**
+ * Aborts the generation of a class. Errors fail the compilation, like the mapper would fail at
+ * runtime; otherwise the class is skipped with a warning, and mapped with reflection at runtime.
+ */
+class GenerationException extends RuntimeException {
+
+  private static final long serialVersionUID = 1;
+
+  final Element element;
+  final boolean error;
+
+  private GenerationException(Element element, boolean error, String message) {
+    super(message);
+    this.element = element;
+    this.error = error;
+  }
+
+  static GenerationException error(Element element, String format, Object... args) {
+    return new GenerationException(element, true, String.format(format, args));
+  }
+
+  static GenerationException unsupported(Element element, String format, Object... args) {
+    return new GenerationException(element, false, String.format(format, args));
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping.processor;
+
+import java.io.IOException;
+
+/** Generates the source of one class. */
+interface Generator {
+
+  /**
+   * Writes the generated class to the filer.
+   *
+   * @throws GenerationException if the class cannot or should not be generated.
+   */
+  void generate() throws IOException;
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping.processor;
+
+import com.datastax.driver.mapping.annotations.Accessor;
+import com.datastax.driver.mapping.annotations.Table;
+import com.datastax.driver.mapping.annotations.UDT;
+import java.io.IOException;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates, at compile time, the mappings of the classes annotated with {@link Table @Table} or
+ * {@link UDT @UDT}, and the implementations of the interfaces annotated with {@link Accessor
+ * {@literal @}Accessor}.
+ *
+ * <p>The generated classes are found by the {@code MappingManager} at runtime, by name: they
+ * replace the scanning of the classes with reflection, the reflective access to their properties,
+ * and the dynamic proxies of the accessors. Classes that cannot be generated, for example private
+ * nested classes, are reported with a warning and keep being mapped at runtime. Mapping errors that
+ * the mapper would report at runtime, such as invalid annotations, fail the compilation.
+ *
+ * <p>The processor is registered as a service: it runs as soon as this module is in the annotation
+ * processor path of the compiler.
+ */
+@SupportedAnnotationTypes({
+  "com.datastax.driver.mapping.annotations.Table",
+  "com.datastax.driver.mapping.annotations.UDT",
+  "com.datastax.driver.mapping.annotations.Accessor"
+})
+public class MappingProcessor extends AbstractProcessor {
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(Table.class)) {
+      generate(element, new EntityGenerator(processingEnv, (TypeElement) element, false));
+    }
+    for (Element element : roundEnv.getElementsAnnotatedWith(UDT.class)) {
+      generate(element, new EntityGenerator(processingEnv, (TypeElement) element, true));
+    }
+    for (Element element : roundEnv.getElementsAnnotatedWith(Accessor.class)) {
+      generate(element, new AccessorGenerator(processingEnv, (TypeElement) element));
+    }
+    // other processors may handle the same annotations
+    return false;
+  }
+
+  private void generate(Element element, Generator generator) {
+    try {
+      generator.generate();
+    } catch (GenerationException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(
+              e.error ? Diagnostic.Kind.ERROR : Diagnostic.Kind.WARNING, e.getMessage(), e.element);
+    } catch (IOException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(Diagnostic.Kind.ERROR, "Could not write the generated code: " + e, element);
+    }
+  }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.SimpleTypeVisitor8;
+import javax.tools.JavaFileObject;
+
+/**
+ * Builds the source of a generated class, and prints types as source code.
+ *
+ * <p>Types are always printed with their qualified names, so that the generated code needs no
+ * imports and cannot clash with the names of the user's classes.
+ */
+class SourceWriter {
+
+  private static final String INDENT = "  ";
+
+  private final ProcessingEnvironment env;
+  private final StringBuilder source = new StringBuilder();
+  private int indent;
+
+  SourceWriter(ProcessingEnvironment env) {
+    this.env = env;
+  }
+
+  /** Appends a line at the current indentation level. */
+  SourceWriter line(String format, Object... args) {
+    String line = args.length == 0 ? format : String.format(format, args);
+    if (!line.isEmpty()) {
+      for (int i = 0; i < indent; i++) source.append(INDENT);
+    }
+    source.append(line).append('\n');
+    return this;
+  }
+
+  SourceWriter indent() {
+    indent++;
+    return this;
+  }
+
+  SourceWriter outdent() {
+    indent--;
+    return this;
+  }
+
+  /** Writes the source to a new file of the filer. */
+  void writeTo(String qualifiedName, Element originatingElement) throws IOException {
+    JavaFileObject file = env.getFiler().createSourceFile(qualifiedName, originatingElement);
+    Writer writer = file.openWriter();
+    try {
+      writer.write(source.toString());
+    } finally {
+      writer.close();
+    }
+  }
+
+  /** Returns a string as a Java literal, or {@code null}. */
+  String literal(String value) {
+    return value == null ? "null" : env.getElementUtils().getConstantExpression(value);
+  }
+
+  /** Returns the name of the class generated for a type, without its package. */
+  static String generatedSimpleName(ProcessingEnvironment env, TypeElement type, String suffix) {
+    String binaryName = env.getElementUtils().getBinaryName(type).toString();
+    PackageElement pkg = env.getElementUtils().getPackageOf(type);
+    String simpleName =
+        pkg.isUnnamed() ? binaryName : binaryName.substring(pkg.getQualifiedName().length() + 1);
+    return simpleName.replace('$', '_') + suffix;
+  }
+
+  /** Prints a type as it would appear in a declaration. */
+  static String typeName(TypeMirror type) {
+    return type.accept(TYPE_PRINTER, null);
+  }
+
+  /** Prints the boxed version of a type, for use as a type argument or in a cast. */
+  static String boxedTypeName(ProcessingEnvironment env, TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return typeName(env.getTypeUtils().boxedClass((PrimitiveType) type).asType());
+    }
+    return typeName(type);
+  }
+
+  /** Prints the class literal of the erasure of a type. */
+  static String classLiteral(ProcessingEnvironment env, TypeMirror type) {
+    return typeName(env.getTypeUtils().erasure(type)) + ".class";
+  }
+
+  /**
+   * Prints an expression that evaluates to the {@link java.lang.reflect.Type} of a type: a class
+   * literal when it is not parameterized, a type token otherwise.
+   */
+  static String typeExpression(ProcessingEnvironment env, TypeMirror type) {
+    return isParameterized(type)
+        ? "new com.google.common.reflect.TypeToken<" + typeName(type) + ">() {}.getType()"
+        : classLiteral(env, type);
+  }
+
+  /** Prints an expression that evaluates to the {@code TypeToken} of a type. */
+  static String typeTokenExpression(ProcessingEnvironment env, TypeMirror type) {
+    return isParameterized(type)
+        ? "new com.google.common.reflect.TypeToken<" + typeName(type) + ">() {}"
+        : "com.google.common.reflect.TypeToken.of(" + classLiteral(env, type) + ")";
+  }
+
+  /** Whether a type has type arguments, anywhere in its structure. */
+  static boolean isParameterized(TypeMirror type) {
+    switch (type.getKind()) {
+      case ARRAY:
+        return isParameterized(((ArrayType) type).getComponentType());
+      case DECLARED:
+        DeclaredType declared = (DeclaredType) type;
+        return !declared.getTypeArguments().isEmpty()
+            || isParameterized(declared.getEnclosingType());
+      default:
+        return false;
+    }
+  }
+
+  /** Whether a type refers to a type variable, anywhere in its structure. */
+  static boolean hasTypeVariables(TypeMirror type) {
+    switch (type.getKind()) {
+      case TYPEVAR:
+        return true;
+      case ARRAY:
+        return hasTypeVariables(((ArrayType) type).getComponentType());
+      case WILDCARD:
+        WildcardType wildcard = (WildcardType) type;
+        return (wildcard.getExtendsBound() != null && hasTypeVariables(wildcard.getExtendsBound()))
+            || (wildcard.getSuperBound() != null && hasTypeVariables(wildcard.getSuperBound()));
+      case DECLARED:
+        DeclaredType declared = (DeclaredType) type;
+        for (TypeMirror argument : declared.getTypeArguments()) {
+          if (hasTypeVariables(argument)) return true;
+        }
+        return hasTypeVariables(declared.getEnclosingType());
+      default:
+        return false;
+    }
+  }
+
+  // TypeMirror.toString() is not reliable for this: it includes type annotations.
+  private static final SimpleTypeVisitor8<String, Void> TYPE_PRINTER =
+      new SimpleTypeVisitor8<String, Void>() {
+
+        @Override
+        protected String defaultAction(TypeMirror type, Void p) {
+          return type.toString();
+        }
+
+        @Override
+        public String visitPrimitive(PrimitiveType type, Void p) {
+          return type.getKind().name().toLowerCase();
+        }
+
+        @Override
+        public String visitArray(ArrayType type, Void p) {
+          return visit(type.getComponentType()) + "[]";
+        }
+
+        @Override
+        public String visitDeclared(DeclaredType type, Void p) {
+          TypeElement element = (TypeElement) type.asElement();
+          StringBuilder name = new StringBuilder();
+          TypeMirror enclosing = type.getEnclosingType();
+          if (enclosing.getKind() == TypeKind.DECLARED && isParameterized(enclosing)) {
+            name.append(visit(enclosing)).append('.').append(element.getSimpleName());
+          } else {
+            name.append(element.getQualifiedName());
+          }
+          List<? extends TypeMirror> arguments = type.getTypeArguments();
+          if (!arguments.isEmpty()) {
+            name.append('<');
+            for (Iterator<? extends TypeMirror> it = arguments.iterator(); it.hasNext(); ) {
+              name.append(visit(it.next()));
+              if (it.hasNext()) name.append(", ");
+            }
+            name.append('>');
+          }
+          return name.toString();
+        }
+
+        @Override
+        public String visitWildcard(WildcardType type, Void p) {
+          if (type.getExtendsBound() != null) return "? extends " + visit(type.getExtendsBound());
+          if (type.getSuperBound() != null) return "? super " + visit(type.getSuperBound());
+          return "?";
+        }
+
+        @Override
+        public String visitTypeVariable(TypeVariable type, Void p) {
+          return type.asElement().getSimpleName().toString();
+        }
+
+        @Override
+        public String visitNoType(javax.lang.model.type.NoType type, Void p) {
+          return type.getKind() == TypeKind.VOID ? "void" : type.toString();
+        }
+      };
+
+  @Override
+  public String toString() {
+    return source.toString();
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.StubNode;
+import com.datastax.driver.mapping.annotations.Accessor;
+import com.datastax.driver.mapping.annotations.Column;
+import com.datastax.driver.mapping.annotations.Field;
+import com.datastax.driver.mapping.annotations.Param;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Query;
+import com.datastax.driver.mapping.annotations.QueryParameters;
+import com.datastax.driver.mapping.annotations.Table;
+import com.datastax.driver.mapping.annotations.Transient;
+import com.datastax.driver.mapping.annotations.UDT;
+import com.google.common.reflect.TypeToken;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/** Checks that the classes generated by the processor for the test sources are used. */
+public class GeneratedCodeTest {
+
+  private StubNode node;
+  private Cluster cluster;
+  private Session session;
+
+  @BeforeClass(groups = "unit")
+  public void setup() {
+    List<Object[]> rows = new ArrayList<Object[]>();
+    rows.add(new Object[] {1, "user1", "user1@example.com", Arrays.asList("a", "b")});
+    rows.add(new Object[] {2, "user2", "user2@example.com", Arrays.asList("c")});
+    node =
+        new StubNode(new InetSocketAddress("127.0.0.1", 0))
+            .withTable(
+                "ks",
+                "users",
+                "id",
+                DataType.cint(),
+                "name",
+                DataType.text(),
+                "mail",
+                DataType.text(),
+                "tags",
+                DataType.list(DataType.text()))
+            .withRows("ks", "users", rows)
+            .start();
+    cluster = Cluster.builder().addContactPointsWithPorts(node.getAddress()).build();
+    session = cluster.connect();
+  }
+
+  @AfterClass(groups = "unit", alwaysRun = true)
+  public void teardown() {
+    if (cluster != null) cluster.close();
+    if (node != null) node.stop();
+  }
+
+  @Test(groups = "unit")
+  public void should_generate_table_mapping() {
+    GeneratedMapping<User> mapping = GeneratedCode.mapping(User.class);
+    assertThat(mapping).isNotNull();
+    assertThat(mapping.getClass().getName())
+        .isEqualTo("com.datastax.driver.mapping.GeneratedCodeTest_User_Mapping");
+
+    Map<String, MappedProperty<Object>> properties = properties(mapping);
+    assertThat(properties.keySet()).containsOnly("id", "name", "email", "tags");
+    assertThat(properties.get("id").getMappedName()).isEqualTo("id");
+    assertThat(properties.get("id").isPartitionKey()).isTrue();
+    assertThat(properties.get("id").getPosition()).isEqualTo(0);
+    assertThat(properties.get("id").getPropertyType()).isEqualTo(TypeToken.of(int.class));
+    assertThat(properties.get("email").getMappedName()).isEqualTo("mail");
+    assertThat(properties.get("email").isPartitionKey()).isFalse();
+    assertThat(properties.get("email").getPosition()).isEqualTo(-1);
+    assertThat(properties.get("tags").getPropertyType())
+        .isEqualTo(new TypeToken<List<String>>() {});
+
+    User user = mapping.newInstance();
+    properties.get("id").setValue(user, 42);
+    properties.get("name").setValue(user, "foo");
+    properties.get("email").setValue(user, "foo@example.com");
+    properties.get("tags").setValue(user, Arrays.asList("x"));
+    assertThat(user.getId()).isEqualTo(42);
+    assertThat(user.getName()).isEqualTo("foo");
+    assertThat(user.email).isEqualTo("foo@example.com");
+    assertThat(properties.get("tags").getValue(user)).isEqualTo(Arrays.asList("x"));
+  }
+
+  @Test(groups = "unit")
+  public void should_generate_udt_mapping() {
+    GeneratedMapping<Address> mapping = GeneratedCode.mapping(Address.class);
+    assertThat(mapping).isNotNull();
+
+    Map<String, MappedProperty<Object>> properties = properties(mapping);
+    assertThat(properties.keySet()).containsOnly("street", "zipCode");
+    assertThat(properties.get("zipCode").getMappedName()).isEqualTo("zipcode");
+
+    Address address = mapping.newInstance();
+    properties.get("street").setValue(address, "Main St");
+    assertThat(properties.get("street").getValue(address)).isEqualTo("Main St");
+  }
+
+  @Test(groups = "unit")
+  public void should_map_rows_with_generated_mapping() {
+    MappingManager manager = new MappingManager(session);
+    assertThat(manager.getGeneratedMapping(User.class)).isNotNull();
+    Mapper<User> mapper = manager.mapper(User.class);
+
+    List<User> users = mapper.map(session.execute("SELECT * FROM ks.users")).all();
+
+    assertThat(users).hasSize(2);
+    assertThat(users.get(0).getId()).isEqualTo(1);
+    assertThat(users.get(0).getName()).isEqualTo("user1");
+    assertThat(users.get(0).email).isEqualTo("user1@example.com");
+    assertThat(users.get(0).getTags()).containsExactly("a", "b");
+    assertThat(users.get(0).ignored).isNull();
+
+    BoundStatement save = (BoundStatement) mapper.saveQuery(users.get(1));
+    assertThat(save.preparedStatement().getQueryString()).contains("mail");
+    assertThat(save.getString("mail")).isEqualTo("user2@example.com");
+  }
+
+  @Test(groups = "unit")
+  public void should_ignore_generated_mapping_if_property_mapper_is_configured() {
+    MappingConfiguration configuration =
+        MappingConfiguration.builder().withPropertyMapper(new DefaultPropertyMapper()).build();
+    MappingManager manager = new MappingManager(session, configuration);
+    assertThat(manager.getGeneratedMapping(User.class)).isNull();
+
+    List<User> users =
+        manager.mapper(User.class).map(session.execute("SELECT * FROM ks.users")).all();
+
+    assertThat(users).hasSize(2);
+    assertThat(users.get(1).email).isEqualTo("user2@example.com");
+  }
+
+  @Test(groups = "unit")
+  public void should_use_generated_accessor() {
+    UserAccessor accessor = new MappingManager(session).createAccessor(UserAccessor.class);
+
+    assertThat(accessor).isInstanceOf(GeneratedAccessor.class);
+    assertThat(accessor.getClass().getName())
+        .isEqualTo("com.datastax.driver.mapping.GeneratedCodeTest_UserAccessor_Impl");
+    assertThat(accessor.toString())
+        .isEqualTo("UserAccessor implementation generated by the Cassandra driver mapper");
+    assertThat(accessor.getAll().all()).extracting("name").containsExactly("user1", "user2");
+    assertThat(accessor.getOne(1).getName()).isEqualTo("user1");
+    ResultSet rs = accessor.getAllRaw();
+    assertThat(rs.all()).hasSize(2);
+    ResultPage<User> page = accessor.getAllPages();
+    assertThat(page.hasMorePages()).isFalse();
+    assertThat(page).extracting("name").containsExactly("user1", "user2");
+    try {
+      accessor.notAQuery();
+      fail("Expected UnsupportedOperationException");
+    } catch (UnsupportedOperationException e) {
+      // expected, like with the proxies
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, MappedProperty<Object>> properties(GeneratedMapping<?> mapping) {
+    Map<String, MappedProperty<Object>> properties = new HashMap<String, MappedProperty<Object>>();
+    for (MappedProperty<?> property : mapping.getProperties()) {
+      assertThat(property).isInstanceOf(GeneratedMappedProperty.class);
+      properties.put(property.getPropertyName(), (MappedProperty<Object>) property);
+    }
+    return properties;
+  }
+
+  @SuppressWarnings("unused")
+  @Table(keyspace = "ks", name = "users")
+  public static class User {
+
+    @PartitionKey private int id;
+
+    private String name;
+
+    // accessed directly
+    @Column(name = "mail")
+    String email;
+
+    // accessed with reflection
+    private List<String> tags;
+
+    @Transient String ignored;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    List<String> getTags() {
+      return tags;
+    }
+  }
+
+  @UDT(keyspace = "ks", name = "address")
+  public static class Address {
+
+    @Field public String street;
+
+    public int zipCode;
+  }
+
+  @Accessor
+  public interface UserAccessor {
+
+    @Query("SELECT * FROM ks.users")
+    Result<User> getAll();
+
+    @Query("SELECT * FROM ks.users WHERE id = ?")
+    @QueryParameters(consistency = "ONE", fetchSize = 100)
+    User getOne(@Param("id") int id);
+
+    @Query("SELECT * FROM ks.users")
+    ResultSet getAllRaw();
+
+    @Query("SELECT * FROM ks.users")
+    ResultPage<User> getAllPages();
+
+    void notAQuery();
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Compiles sources with the processor, and checks the diagnostics that it reports. */
+public class MappingProcessorTest {
+
+  private File output;
+
+  @BeforeMethod(groups = "unit")
+  public void createOutputDirectory() throws IOException {
+    output = File.createTempFile("mapping-processor", "");
+    assertThat(output.delete() && output.mkdir()).isTrue();
+  }
+
+  @AfterMethod(groups = "unit", alwaysRun = true)
+  public void deleteOutputDirectory() {
+    delete(output);
+  }
+
+  @Test(groups = "unit")
+  public void should_generate_classes_for_valid_sources() {
+    List<Diagnostic<? extends JavaFileObject>> diagnostics =
+        compile(
+            "test.User",
+            "package test;",
+            "@com.datastax.driver.mapping.annotations.Table(name = \"users\")",
+            "public class User {",
+            "  @com.datastax.driver.mapping.annotations.PartitionKey public int id;",
+            "  private String name;",
+            "  public String getName() { return name; }",
+            "  public void setName(String name) { this.name = name; }",
+            "  @com.datastax.driver.mapping.annotations.Accessor",
+            "  public interface Dao {",
+            "    @com.datastax.driver.mapping.annotations.Query(\"SELECT * FROM users\")",
+            "    com.datastax.driver.mapping.Result<User> all();",
+            "  }",
+            "}");
+
+    assertThat(errors(diagnostics)).isEmpty();
+    assertThat(new File(output, "test/User_Mapping.class")).exists();
+    assertThat(new File(output, "test/User_Dao_Impl.class")).exists();
+  }
+
+  @Test(groups = "unit")
+  public void should_fail_on_annotation_not_allowed_on_table() {
+    assertThat(
+            errors(
+                compile(
+                    "test.User",
+                    "package test;",
+                    "@com.datastax.driver.mapping.annotations.Table(name = \"users\")",
+                    "public class User {",
+                    "  @com.datastax.driver.mapping.annotations.Field public int id;",
+                    "}")))
+        .containsExactly("Annotation @Field is not allowed on property 'id'");
+  }
+
+  @Test(groups = "unit")
+  public void should_fail_on_partition_key_and_clustering_column() {
+    assertThat(
+            errors(
+                compile(
+                    "test.User",
+                    "package test;",
+                    "@com.datastax.driver.mapping.annotations.Table(name = \"users\")",
+                    "public class User {",
+                    "  @com.datastax.driver.mapping.annotations.PartitionKey",
+                    "  @com.datastax.driver.mapping.annotations.ClusteringColumn",
+                    "  public int id;",
+                    "}")))
+        .containsExactly(
+            "Property 'id' cannot be annotated with both @PartitionKey and @ClusteringColumn");
+  }
+
+  @Test(groups = "unit")
+  public void should_fail_on_property_that_is_not_writable() {
+    assertThat(
+            errors(
+                compile(
+                    "test.User",
+                    "package test;",
+                    "@com.datastax.driver.mapping.annotations.Table(name = \"users\")",
+                    "public class User {",
+                    "  public int id;",
+                    "  public String getName() { return null; }",
+                    "}")))
+        .containsExactly("Property 'name' is not writable");
+  }
+
+  @Test(groups = "unit")
+  public void should_skip_private_classes_with_a_warning() {
+    List<Diagnostic<? extends JavaFileObject>> diagnostics =
+        compile(
+            "test.Outer",
+            "package test;",
+            "public class Outer {",
+            "  @com.datastax.driver.mapping.annotations.Table(name = \"users\")",
+            "  private static class User {",
+            "    public int id;",
+            "  }",
+            "}");
+
+    assertThat(errors(diagnostics)).isEmpty();
+    assertThat(messages(diagnostics, Diagnostic.Kind.WARNING))
+        .containsExactly(
+            "test.Outer.User is not accessible from its package, it will be mapped at runtime");
+    assertThat(new File(output, "test/Outer_User_Mapping.class")).doesNotExist();
+  }
+
+  @Test(groups = "unit")
+  public void should_fail_on_accessor_class() {
+    assertThat(
+            errors(
+                compile(
+                    "test.Dao",
+                    "package test;",
+                    "@com.datastax.driver.mapping.annotations.Accessor",
+                    "public class Dao {",
+                    "}")))
+        .containsExactly("@Accessor annotation is only allowed on interfaces, got test.Dao");
+  }
+
+  @Test(groups = "unit")
+  public void should_fail_on_partially_named_parameters() {
+    assertThat(
+            errors(
+                compile(
+                    "test.Dao",
+                    "package test;",
+                    "import com.datastax.driver.mapping.annotations.*;",
+                    "@Accessor",
+                    "public interface Dao {",
+                    "  @Query(\"SELECT * FROM users WHERE a = :a AND b = ?\")",
+                    "  com.datastax.driver.core.ResultSet get(@Param(\"a\") int a, int b);",
+                    "}")))
+        .containsExactly("For method 'get', either all or none of the parameters must be named");
+  }
+
+  @Test(groups = "unit")
+  public void should_fail_on_invalid_consistency_level() {
+    assertThat(
+            errors(
+                compile(
+                    "test.Dao",
+                    "package test;",
+                    "import com.datastax.driver.mapping.annotations.*;",
+                    "@Accessor",
+                    "public interface Dao {",
+                    "  @Query(\"SELECT * FROM users\")",
+                    "  @QueryParameters(consistency = \"MOST\")",
+                    "  com.datastax.driver.core.ResultSet get();",
+                    "}")))
+        .containsExactly("Invalid consistency level 'MOST' on method get()");
+  }
+
+  private List<Diagnostic<? extends JavaFileObject>> compile(String className, String... lines) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+    List<String> options =
+        Arrays.asList(
+            "-classpath",
+            System.getProperty("java.class.path"),
+            "-d",
+            output.getPath(),
+            "-s",
+            output.getPath());
+    JavaCompiler.CompilationTask task =
+        compiler.getTask(
+            null,
+            fileManager,
+            diagnostics,
+            options,
+            null,
+            Collections.singletonList(new Source(className, lines)));
+    task.setProcessors(Collections.singletonList(new MappingProcessor()));
+    task.call();
+    return diagnostics.getDiagnostics();
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) delete(child);
+    }
+    file.delete();
+  }
+
+  private static List<String> errors(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+    return messages(diagnostics, Diagnostic.Kind.ERROR);
+  }
+
+  private static List<String> messages(
+      List<Diagnostic<? extends JavaFileObject>> diagnostics, Diagnostic.Kind kind) {
+    List<String> messages = new ArrayList<String>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+      if (diagnostic.getKind() == kind) messages.add(diagnostic.getMessage(null));
+    }
+    return messages;
+  }
+
+  private static class Source extends SimpleJavaFileObject {
+
+    private final String code;
+
+    Source(String className, String... lines) {
+      super(
+          URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension),
+          Kind.SOURCE);
+      StringBuilder code = new StringBuilder();
+      for (String line : lines) code.append(line).append('\n');
+      this.code = code.toString();
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return code;
+    }
+  }
+}
@@ -105,9 +105,10 @@ class AnnotationParser {
                 tableName, keyspaceName));
     }
 
+    GeneratedMapping<T> generated = mappingManager.getGeneratedMapping(entityClass);
     EntityMapper<T> mapper =
         new EntityMapper<T>(
-            entityClass, keyspaceName, tableName, writeConsistency, readConsistency);
+            entityClass, keyspaceName, tableName, writeConsistency, readConsistency, generated);
 
     List<AliasedMappedProperty> pks = new ArrayList<AliasedMappedProperty>();
     List<AliasedMappedProperty> ccs = new ArrayList<AliasedMappedProperty>();
@@ -115,7 +116,9 @@ class AnnotationParser {
 
     MappingConfiguration configuration = mappingManager.getConfiguration();
     Set<? extends MappedProperty<?>> properties =
-        configuration.getPropertyMapper().mapTable(entityClass);
+        generated != null
+            ? generated.getProperties()
+            : configuration.getPropertyMapper().mapTable(entityClass);
     AtomicInteger columnCounter =
         mappingManager.protocolVersionAsInt == 1 ? null : new AtomicInteger(0);
 
@@ -195,8 +198,11 @@ class AnnotationParser {
         new HashMap<String, AliasedMappedProperty>();
 
     MappingConfiguration configuration = mappingManager.getConfiguration();
+    GeneratedMapping<T> generated = mappingManager.getGeneratedMapping(udtClass);
     Set<? extends MappedProperty<?>> properties =
-        configuration.getPropertyMapper().mapUdt(udtClass);
+        generated != null
+            ? generated.getProperties()
+            : configuration.getPropertyMapper().mapUdt(udtClass);
 
     for (MappedProperty<?> mappedProperty : properties) {
 
@@ -214,7 +220,7 @@ class AnnotationParser {
       propertyMappers.put(mappedProperty.getMappedName(), aliasedMappedProperty);
     }
 
-    return new MappedUDTCodec<T>(userType, udtClass, propertyMappers, mappingManager);
+    return new MappedUDTCodec<T>(userType, udtClass, propertyMappers, mappingManager, generated);
   }
 
   static <T> AccessorMapper<T> parseAccessor(Class<T> accClass, MappingManager mappingManager) {
@@ -248,13 +254,7 @@ class AnnotationParser {
             break;
           }
         }
-        boolean thisParamNamed = (paramName != null);
-        if (allParamsNamed == null) allParamsNamed = thisParamNamed;
-        else if (allParamsNamed != thisParamNamed)
-          throw new IllegalArgumentException(
-              String.format(
-                  "For method '%s', either all or none of the parameters must be named",
-                  m.getName()));
+        allParamsNamed = checkParamNaming(allParamsNamed, paramName, m.getName());
 
         paramMappers[i] =
             newParamMapper(
@@ -274,16 +274,10 @@ class AnnotationParser {
 
       QueryParameters options = m.getAnnotation(QueryParameters.class);
       if (options != null) {
-        cl =
-            options.consistency().isEmpty()
-                ? null
-                : ConsistencyLevel.valueOf(options.consistency().toUpperCase());
+        cl = consistency(options.consistency());
         fetchSize = options.fetchSize();
         tracing = options.tracing();
-        if (options.idempotent().length > 1) {
-          throw new IllegalArgumentException("idemtpotence() attribute can only accept one value");
-        }
-        idempotent = options.idempotent().length == 0 ? null : options.idempotent()[0];
+        idempotent = idempotence(options.idempotent());
       }
 
       methods.add(
@@ -293,6 +287,62 @@ class AnnotationParser {
     return new AccessorMapper<T>(accClass, methods);
   }
 
+  /** Same as {@link #parseAccessor}, with the description of a generated implementation. */
+  static <T> AccessorMapper<T> parseGeneratedAccessor(
+      Class<T> accClass, GeneratedAccessor generated, MappingManager mappingManager) {
+    List<MethodMapper> methods = new ArrayList<MethodMapper>();
+    for (GeneratedAccessor.QueryMethod m : generated.getQueryMethods()) {
+      ParamMapper[] paramMappers = new ParamMapper[m.paramTypes.size()];
+      Boolean allParamsNamed = null;
+      for (int i = 0; i < paramMappers.length; i++) {
+        String paramName = m.paramNames.get(i);
+        allParamsNamed = checkParamNaming(allParamsNamed, paramName, m.name);
+        paramMappers[i] =
+            newParamMapper(
+                accClass.getName(),
+                m.name,
+                i,
+                paramName,
+                m.paramCodecs.get(i),
+                m.paramTypes.get(i),
+                mappingManager);
+      }
+      methods.add(
+          new MethodMapper(
+              m.name,
+              m.returnType,
+              m.query,
+              paramMappers,
+              consistency(m.consistency),
+              m.fetchSize,
+              m.tracing,
+              idempotence(m.idempotent)));
+    }
+    generated.init(methods);
+    return new AccessorMapper<T>(accClass, methods);
+  }
+
+  private static Boolean checkParamNaming(
+      Boolean allParamsNamed, String paramName, String methodName) {
+    boolean thisParamNamed = (paramName != null);
+    if (allParamsNamed != null && allParamsNamed != thisParamNamed)
+      throw new IllegalArgumentException(
+          String.format(
+              "For method '%s', either all or none of the parameters must be named", methodName));
+    return thisParamNamed;
+  }
+
+  private static ConsistencyLevel consistency(String consistency) {
+    return consistency.isEmpty() ? null : ConsistencyLevel.valueOf(consistency.toUpperCase());
+  }
+
+  private static Boolean idempotence(boolean[] idempotent) {
+    if (idempotent.length > 1) {
+      throw new IllegalArgumentException("idemtpotence() attribute can only accept one value");
+    }
+    return idempotent.length == 0 ? null : idempotent[0];
+  }
+
   private static ParamMapper newParamMapper(
       String className,
       String methodName,
@@ -29,6 +29,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /** Default implementation of {@link MappedProperty}. */
 class DefaultMappedProperty<T> implements MappedProperty<T> {
@@ -40,7 +42,8 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
       Field field,
       Method getter,
       Method setter,
-      Map<Class<? extends Annotation>, Annotation> annotations) {
+      Map<Class<? extends Annotation>, Annotation> annotations,
+      PropertyAccessorGenerationStrategy accessorGenerationStrategy) {
     @SuppressWarnings("unchecked")
     TypeToken<T> propertyType = (TypeToken<T>) inferType(field, getter);
     boolean partitionKey = annotations.containsKey(PartitionKey.class);
@@ -62,7 +65,8 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
         codecClass,
         field,
         getter,
-        setter);
+        setter,
+        accessorGenerationStrategy);
   }
 
   private final Class<?> mappedClass;
@@ -77,6 +81,9 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
   private final Field field;
   private final Method getter;
   private final Method setter;
+  // null when the property is accessed with reflection
+  private final Function<Object, Object> getterFunction;
+  private final BiConsumer<Object, Object> setterFunction;
 
   private DefaultMappedProperty(
       Class<?> mappedClass,
@@ -90,7 +97,8 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
       Class<? extends TypeCodec<T>> codecClass,
       Field field,
       Method getter,
-      Method setter) {
+      Method setter,
+      PropertyAccessorGenerationStrategy accessorGenerationStrategy) {
     checkArgument(propertyName != null && !propertyName.isEmpty());
     checkArgument(mappedName != null && !mappedName.isEmpty());
     checkNotNull(propertyType);
@@ -109,6 +117,14 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
     this.field = field;
     this.getter = getter;
     this.setter = setter;
+    Method readMethod = getter != null && getter.isAccessible() ? getter : null;
+    Method writeMethod = setter != null && setter.isAccessible() ? setter : null;
+    this.getterFunction =
+        PropertyAccessors.getter(
+            accessorGenerationStrategy, readMethod == null ? field : null, readMethod);
+    this.setterFunction =
+        PropertyAccessors.setter(
+            accessorGenerationStrategy, writeMethod == null ? field : null, writeMethod);
   }
 
   @Override
@@ -155,6 +171,7 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
   @Override
   public T getValue(Object entity) {
     try {
+      if (getterFunction != null) return (T) getterFunction.apply(entity);
       // try getter first, if available, otherwise direct field access
       if (getter != null && getter.isAccessible()) return (T) getter.invoke(entity);
       else return (T) checkNotNull(field).get(entity);
@@ -167,6 +184,10 @@ class DefaultMappedProperty<T> implements MappedProperty<T> {
   @Override
   public void setValue(Object entity, T value) {
     try {
+      if (setterFunction != null) {
+        setterFunction.accept(entity, value);
+        return;
+      }
       // try setter first, if available, otherwise direct field access
       if (setter != null && setter.isAccessible()) setter.invoke(entity, value);
       else checkNotNull(field).set(entity, value);
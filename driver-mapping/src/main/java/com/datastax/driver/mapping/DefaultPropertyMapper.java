@@ -28,6 +28,7 @@ import com.datastax.driver.mapping.annotations.PartitionKey;
 import com.datastax.driver.mapping.annotations.Table;
 import com.datastax.driver.mapping.annotations.Transient;
 import com.datastax.driver.mapping.annotations.UDT;
+import com.google.common.annotations.Beta;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
@@ -118,6 +119,9 @@ public class DefaultPropertyMapper implements PropertyMapper {
 
   private NamingStrategy namingStrategy = new DefaultNamingStrategy();
 
+  private PropertyAccessorGenerationStrategy propertyAccessorGenerationStrategy =
+      PropertyAccessorGenerationStrategy.LAMBDA_METAFACTORY;
+
   private Set<String> transientPropertyNames =
       new HashSet<String>(DEFAULT_TRANSIENT_PROPERTY_NAMES);
 
@@ -176,6 +180,24 @@ public class DefaultPropertyMapper implements PropertyMapper {
     return this;
   }
 
+  /**
+   * Sets the {@link PropertyAccessorGenerationStrategy property accessor generation strategy} to
+   * use. The default is {@link PropertyAccessorGenerationStrategy#LAMBDA_METAFACTORY}.
+   *
+   * <p>This only affects the {@link MappedProperty} instances created by {@link
+   * #createMappedProperty}.
+   *
+   * @param propertyAccessorGenerationStrategy the {@link PropertyAccessorGenerationStrategy
+   *     property accessor generation strategy} to use; may not be {@code null}.
+   * @return this {@link DefaultPropertyMapper} instance (to allow for fluent builder pattern).
+   */
+  @Beta
+  public DefaultPropertyMapper setPropertyAccessorGenerationStrategy(
+      PropertyAccessorGenerationStrategy propertyAccessorGenerationStrategy) {
+    this.propertyAccessorGenerationStrategy = checkNotNull(propertyAccessorGenerationStrategy);
+    return this;
+  }
+
   /**
    * Sets transient property names. This will completely replace any names already configured for
    * this object.
@@ -485,7 +507,14 @@ public class DefaultPropertyMapper implements PropertyMapper {
       Method setter,
       Map<Class<? extends Annotation>, Annotation> annotations) {
     return DefaultMappedProperty.create(
-        mappedClass, propertyName, mappedName, field, getter, setter, annotations);
+        mappedClass,
+        propertyName,
+        mappedName,
+        field,
+        getter,
+        setter,
+        annotations,
+        propertyAccessorGenerationStrategy);
   }
 
   private static Map<String, Field> scanFields(List<Class<?>> classHierarchy) {
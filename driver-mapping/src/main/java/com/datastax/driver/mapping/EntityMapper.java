@@ -16,6 +16,7 @@
 package com.datastax.driver.mapping;
 
 import com.datastax.driver.core.ConsistencyLevel;
+import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -33,17 +34,25 @@ class EntityMapper<T> {
 
   final List<AliasedMappedProperty> allColumns = new ArrayList<AliasedMappedProperty>();
 
+  // null if the entity was not mapped at compile time
+  private final GeneratedMapping<T> generated;
+
+  // Resolved on first use: entities that are only written don't need a no-arg constructor
+  private volatile Constructor<T> constructor;
+
   EntityMapper(
       Class<T> entityClass,
       String keyspace,
       String table,
       ConsistencyLevel writeConsistency,
-      ConsistencyLevel readConsistency) {
+      ConsistencyLevel readConsistency,
+      GeneratedMapping<T> generated) {
     this.entityClass = entityClass;
     this.keyspace = keyspace;
     this.table = table;
     this.writeConsistency = writeConsistency;
     this.readConsistency = readConsistency;
+    this.generated = generated;
   }
 
   int primaryKeySize() {
@@ -68,6 +77,10 @@ class EntityMapper<T> {
   }
 
   T newEntity() {
-    return ReflectionUtils.newInstance(entityClass);
+    if (generated != null) return generated.newInstance();
+    Constructor<T> constructor = this.constructor;
+    if (constructor == null)
+      this.constructor = constructor = ReflectionUtils.getNoArgConstructor(entityClass);
+    return ReflectionUtils.newInstance(constructor);
   }
 }
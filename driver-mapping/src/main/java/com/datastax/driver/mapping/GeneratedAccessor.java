@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.mapping.annotations.Accessor;
+import com.datastax.driver.mapping.annotations.Param;
+import com.datastax.driver.mapping.annotations.Query;
+import com.datastax.driver.mapping.annotations.QueryParameters;
+import com.google.common.annotations.Beta;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The implementation of an {@link Accessor @Accessor} interface, generated at compile time by the
+ * annotation processor of the {@code scylla-driver-mapping-processor} module.
+ *
+ * <p>The generated class is named after the binary name of the interface, with {@code $} replaced
+ * by {@code _}, followed by {@link #SUFFIX}: for example {@code com.acme.UserAccessor_Impl}. The
+ * {@link MappingManager} looks it up when {@link MappingManager#createAccessor(Class) creating the
+ * accessor}, and returns an instance of it instead of a dynamic proxy. The generated methods call
+ * the query methods by index, and the interface does not need to be scanned.
+ *
+ * <p>This class is not meant to be extended by hand.
+ */
+@Beta
+public abstract class GeneratedAccessor {
+
+  /** The suffix appended to the name of the interface to form the name of this class. */
+  public static final String SUFFIX = "_Impl";
+
+  protected static final Object[] NO_ARGS = new Object[0];
+
+  private final Class<?> accessorInterface;
+  private final List<QueryMethod> queryMethods;
+
+  // Set by the mapping manager before the instance is published
+  private MethodMapper[] methods;
+
+  /**
+   * @param queryMethods the methods annotated with {@link Query @Query}, in the order of their
+   *     indices.
+   */
+  protected GeneratedAccessor(Class<?> accessorInterface, QueryMethod... queryMethods) {
+    this.accessorInterface = accessorInterface;
+    this.queryMethods = Arrays.asList(queryMethods);
+  }
+
+  /**
+   * Describes a method annotated with {@link Query @Query}.
+   *
+   * @param returnType the generic return type of the method.
+   */
+  protected static QueryMethod queryMethod(String name, String query, Type returnType) {
+    return new QueryMethod(name, query, returnType);
+  }
+
+  /** Executes the query method at the given index. */
+  protected final Object invoke(int method, Object[] args) {
+    return methods[method].invoke(args);
+  }
+
+  Class<?> getAccessorInterface() {
+    return accessorInterface;
+  }
+
+  List<QueryMethod> getQueryMethods() {
+    return queryMethods;
+  }
+
+  void init(List<MethodMapper> methods) {
+    this.methods = methods.toArray(new MethodMapper[methods.size()]);
+  }
+
+  @Override
+  public String toString() {
+    return accessorInterface.getSimpleName()
+        + " implementation generated by the Cassandra driver mapper";
+  }
+
+  /** The description of a method annotated with {@link Query @Query}. */
+  public static final class QueryMethod {
+
+    final String name;
+    final String query;
+    final Type returnType;
+    final List<String> paramNames = new ArrayList<String>();
+    final List<Type> paramTypes = new ArrayList<Type>();
+    final List<Class<? extends TypeCodec<?>>> paramCodecs =
+        new ArrayList<Class<? extends TypeCodec<?>>>();
+    String consistency = "";
+    int fetchSize = -1;
+    boolean tracing;
+    boolean[] idempotent = new boolean[0];
+
+    private QueryMethod(String name, String query, Type returnType) {
+      this.name = name;
+      this.query = query;
+      this.returnType = returnType;
+    }
+
+    /**
+     * Adds the next parameter of the method.
+     *
+     * @param name the name given by its {@link Param @Param} annotation, or {@code null}.
+     * @param type its generic type.
+     * @param codecClass the codec given by its {@link Param @Param} annotation, or {@code null}.
+     * @return this object.
+     */
+    public QueryMethod param(String name, Type type, Class<? extends TypeCodec<?>> codecClass) {
+      paramNames.add(name);
+      paramTypes.add(type);
+      paramCodecs.add(codecClass);
+      return this;
+    }
+
+    /**
+     * Sets the attributes of the {@link QueryParameters @QueryParameters} annotation of the method.
+     *
+     * @return this object.
+     */
+    public QueryMethod options(
+        String consistency, int fetchSize, boolean tracing, boolean[] idempotent) {
+      this.consistency = consistency;
+      this.fetchSize = fetchSize;
+      this.tracing = tracing;
+      this.idempotent = idempotent;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Looks up the classes generated at compile time for mapped classes and accessors. */
+class GeneratedCode {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(GeneratedCode.class);
+
+  private GeneratedCode() {}
+
+  /** Returns a new instance of the generated mapping of a class, or {@code null} if none. */
+  @SuppressWarnings("unchecked")
+  static <T> GeneratedMapping<T> mapping(Class<T> mappedClass) {
+    return load(mappedClass, GeneratedMapping.SUFFIX, GeneratedMapping.class);
+  }
+
+  /** Returns a new instance of the generated implementation of an accessor, or {@code null}. */
+  static GeneratedAccessor accessor(Class<?> accessorInterface) {
+    GeneratedAccessor accessor =
+        load(accessorInterface, GeneratedAccessor.SUFFIX, GeneratedAccessor.class);
+    if (accessor != null
+        && (!accessorInterface.isInstance(accessor)
+            || accessor.getAccessorInterface() != accessorInterface)) {
+      LOGGER.debug("Ignoring {}, it does not implement {}", accessor.getClass(), accessorInterface);
+      return null;
+    }
+    return accessor;
+  }
+
+  static String generatedName(Class<?> klass, String suffix) {
+    String name = klass.getName();
+    int dot = name.lastIndexOf('.');
+    return name.substring(0, dot + 1) + name.substring(dot + 1).replace('$', '_') + suffix;
+  }
+
+  private static <T> T load(Class<?> klass, String suffix, Class<T> baseClass) {
+    String name = generatedName(klass, suffix);
+    Class<?> generated;
+    try {
+      generated = Class.forName(name, true, klass.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+    if (!baseClass.isAssignableFrom(generated)) {
+      LOGGER.debug("Ignoring {}, it does not extend {}", generated, baseClass.getSimpleName());
+      return null;
+    }
+    LOGGER.debug("Using generated {} for {}", generated, klass);
+    return baseClass.cast(ReflectionUtils.newInstance(generated));
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.mapping.annotations.Defaults;
+import com.google.common.annotations.Beta;
+import com.google.common.reflect.TypeToken;
+import java.lang.reflect.Field;
+
+/**
+ * A {@link MappedProperty} of a {@link GeneratedMapping}, whose accessors are generated code.
+ *
+ * <p>This class is not meant to be extended by hand.
+ *
+ * @param <E> the mapped class.
+ * @param <T> the type of the property.
+ */
+@Beta
+public abstract class GeneratedMappedProperty<E, T> implements MappedProperty<T> {
+
+  private final Class<E> mappedClass;
+  private final String propertyName;
+  private final String mappedName;
+  private final TypeToken<T> propertyType;
+  private final int position;
+  private final boolean partitionKey;
+  private final boolean clusteringColumn;
+  private final boolean computed;
+  private final TypeCodec<T> customCodec;
+
+  /**
+   * @param position the value of the {@code @PartitionKey} or {@code @ClusteringColumn} annotation,
+   *     or -1.
+   * @param codecClass the custom codec of the property, or {@code null}.
+   */
+  @SuppressWarnings("unchecked")
+  protected GeneratedMappedProperty(
+      Class<E> mappedClass,
+      String propertyName,
+      String mappedName,
+      TypeToken<T> propertyType,
+      int position,
+      boolean partitionKey,
+      boolean clusteringColumn,
+      boolean computed,
+      Class<? extends TypeCodec<?>> codecClass) {
+    checkArgument(propertyName != null && !propertyName.isEmpty());
+    checkArgument(mappedName != null && !mappedName.isEmpty());
+    this.mappedClass = mappedClass;
+    this.propertyName = propertyName;
+    this.mappedName = mappedName;
+    this.propertyType = checkNotNull(propertyType);
+    this.position = position;
+    this.partitionKey = partitionKey;
+    this.clusteringColumn = clusteringColumn;
+    this.computed = computed;
+    this.customCodec =
+        codecClass == null || codecClass.equals(Defaults.NoCodec.class)
+            ? null
+            : (TypeCodec<T>) ReflectionUtils.newInstance(codecClass);
+  }
+
+  /** Reads the property. */
+  protected abstract T get(E entity) throws Exception;
+
+  /** Writes the property. */
+  protected abstract void set(E entity, T value) throws Exception;
+
+  /**
+   * Returns a field of the mapped class or one of its ancestors, made accessible, for properties
+   * that the generated code cannot access directly.
+   */
+  protected static Field field(Class<?> declaringClass, String name) {
+    try {
+      Field field = declaringClass.getDeclaredField(name);
+      field.setAccessible(true);
+      return field;
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          "Unable to access field '" + name + "' in " + declaringClass, e);
+    }
+  }
+
+  @Override
+  public String getPropertyName() {
+    return propertyName;
+  }
+
+  @Override
+  public TypeToken<T> getPropertyType() {
+    return propertyType;
+  }
+
+  @Override
+  public String getMappedName() {
+    return mappedName;
+  }
+
+  @Override
+  public int getPosition() {
+    return position;
+  }
+
+  @Override
+  public TypeCodec<T> getCustomCodec() {
+    return customCodec;
+  }
+
+  @Override
+  public boolean isComputed() {
+    return computed;
+  }
+
+  @Override
+  public boolean isPartitionKey() {
+    return partitionKey;
+  }
+
+  @Override
+  public boolean isClusteringColumn() {
+    return clusteringColumn;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public T getValue(Object entity) {
+    try {
+      return get((E) entity);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          "Unable to read property '" + getPropertyName() + "' in " + entity.getClass(), e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void setValue(Object entity, T value) {
+    try {
+      set((E) entity, value);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          "Unable to write property '" + getPropertyName() + "' in " + entity.getClass(), e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return mappedClass.getSimpleName() + "." + getPropertyName();
+  }
+}
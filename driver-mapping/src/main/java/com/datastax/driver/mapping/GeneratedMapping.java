@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import com.datastax.driver.mapping.annotations.Table;
+import com.datastax.driver.mapping.annotations.UDT;
+import com.google.common.annotations.Beta;
+import java.util.Set;
+
+/**
+ * The mapping of a {@link Table @Table} or {@link UDT @UDT} class, generated at compile time by the
+ * annotation processor of the {@code scylla-driver-mapping-processor} module.
+ *
+ * <p>The generated class is named after the binary name of the mapped class, with {@code $}
+ * replaced by {@code _}, followed by {@link #SUFFIX}: for example {@code com.acme.User_Mapping} or
+ * {@code com.acme.Outer_Inner_Mapping}. The {@link MappingManager} looks it up when it creates the
+ * mapper or codec of the class, and uses it instead of scanning the class. Its properties are
+ * accessed directly rather than with reflection.
+ *
+ * <p>Generated mappings follow the rules of a {@link DefaultPropertyMapper} with its default
+ * settings. They are therefore ignored if the {@link MappingConfiguration} was given a {@link
+ * MappingConfiguration.Builder#withPropertyMapper(PropertyMapper) property mapper}.
+ *
+ * <p>This class is not meant to be extended by hand.
+ *
+ * @param <T> the mapped class.
+ */
+@Beta
+public abstract class GeneratedMapping<T> {
+
+  /** The suffix appended to the name of the mapped class to form the name of this class. */
+  public static final String SUFFIX = "_Mapping";
+
+  /**
+   * Returns the mapped properties of the class, as {@link DefaultPropertyMapper#mapTable(Class)} or
+   * {@link DefaultPropertyMapper#mapUdt(Class)} would.
+   *
+   * @return a new set of properties.
+   */
+  public abstract Set<? extends MappedProperty<?>> getProperties();
+
+  /**
+   * Creates a new instance of the class with its no-arg constructor.
+   *
+   * @return the new instance.
+   * @throws IllegalArgumentException if the instance cannot be created.
+   */
+  public abstract T newInstance();
+
+  /**
+   * Creates a new instance with reflection, for classes whose no-arg constructor cannot be called
+   * by the generated code.
+   */
+  protected static <T> T newInstanceReflectively(Class<T> mappedClass) {
+    return ReflectionUtils.newInstance(mappedClass);
+  }
+}
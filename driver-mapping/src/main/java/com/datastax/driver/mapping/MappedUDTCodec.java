@@ -28,23 +28,27 @@ class MappedUDTCodec<T> extends TypeCodec.AbstractUDTCodec<T> {
   private final Class<T> udtClass;
   private final Map<String, AliasedMappedProperty> columnMappers;
   private final CodecRegistry codecRegistry;
+  // null if the class was not mapped at compile time
+  private final GeneratedMapping<T> generated;
 
   MappedUDTCodec(
       UserType cqlUserType,
       Class<T> udtClass,
       Map<String, AliasedMappedProperty> columnMappers,
-      MappingManager mappingManager) {
+      MappingManager mappingManager,
+      GeneratedMapping<T> generated) {
     super(cqlUserType, udtClass);
     this.cqlUserType = cqlUserType;
     this.udtClass = udtClass;
     this.columnMappers = columnMappers;
     this.codecRegistry =
         mappingManager.getSession().getCluster().getConfiguration().getCodecRegistry();
+    this.generated = generated;
   }
 
   @Override
   protected T newInstance() {
-    return ReflectionUtils.newInstance(udtClass);
+    return generated == null ? ReflectionUtils.newInstance(udtClass) : generated.newInstance();
   }
 
   Class<T> getUdtClass() {
@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.datastax.driver.core.AbstractSession;
 import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.GuavaCompatibility;
 import com.datastax.driver.core.KeyspaceMetadata;
@@ -40,6 +41,7 @@ import com.datastax.driver.core.utils.MoreObjects;
 import com.datastax.driver.mapping.Mapper.Option.SaveNullFields;
 import com.datastax.driver.mapping.annotations.Accessor;
 import com.datastax.driver.mapping.annotations.Computed;
+import com.google.common.annotations.Beta;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Preconditions;
@@ -82,6 +84,12 @@ public class Mapper<T> {
   private final ConcurrentMap<MapperQueryKey, ListenableFuture<PreparedStatement>> preparedQueries =
       new ConcurrentHashMap<MapperQueryKey, ListenableFuture<PreparedStatement>>();
 
+  // Compiled row mappings, by result metadata. Mapper-generated queries and accessors only ever
+  // produce a few distinct metadata, but arbitrary queries passed to map() could produce more.
+  private static final int MAX_MAPPING_PLANS = 64;
+  private final ConcurrentMap<MappingPlan.Key, MappingPlan<T>> mappingPlans =
+      new ConcurrentHashMap<MappingPlan.Key, MappingPlan<T>>();
+
   private volatile EnumMap<Option.Type, Option> defaultSaveOptions;
   private volatile EnumMap<Option.Type, Option> defaultGetOptions;
   private volatile EnumMap<Option.Type, Option> defaultDeleteOptions;
@@ -92,6 +100,7 @@ public class Mapper<T> {
   private final Function<ResultSet, T> mapOneFunction;
   final Function<ResultSet, T> mapOneFunctionWithoutAliases;
   final Function<ResultSet, Result<T>> mapAllFunctionWithoutAliases;
+  final Function<ResultSet, ResultPage<T>> mapPagesFunction;
 
   Mapper(MappingManager manager, Class<T> klass, EntityMapper<T> mapper) {
     this.manager = manager;
@@ -122,6 +131,13 @@ public class Mapper<T> {
             return Mapper.this.map(rs);
           }
         };
+    this.mapPagesFunction =
+        new Function<ResultSet, ResultPage<T>>() {
+          @Override
+          public ResultPage<T> apply(ResultSet rs) {
+            return Mapper.this.mapPages(rs);
+          }
+        };
 
     this.defaultSaveOptions = NO_OPTIONS;
     this.defaultGetOptions = NO_OPTIONS;
@@ -835,7 +851,7 @@ public class Mapper<T> {
    */
   public Result<T> map(ResultSet resultSet) {
     boolean useAlias = (manager.protocolVersionAsInt > 1) && isFromMapperQuery(resultSet);
-    return new Result<T>(resultSet, mapper, useAlias);
+    return new Result<T>(resultSet, this, useAlias);
   }
 
   /**
@@ -862,6 +878,34 @@ public class Mapper<T> {
         });
   }
 
+  /**
+   * Maps the rows of a {@link ResultSet} page by page, without blocking while the next pages are
+   * fetched.
+   *
+   * <p>The rows are mapped like with {@link #map(ResultSet)}. The returned page only contains the
+   * rows that were already received, and the next page starts being fetched in the background; see
+   * {@link ResultPage} for how to iterate over the following pages.
+   *
+   * @param resultSet the {@code ResultSet} to map. It must not be consumed directly afterwards.
+   * @return the first page.
+   */
+  @Beta
+  public ResultPage<T> mapPages(ResultSet resultSet) {
+    boolean useAlias = (manager.protocolVersionAsInt > 1) && isFromMapperQuery(resultSet);
+    return ResultPage.first(resultSet, this, useAlias);
+  }
+
+  /**
+   * Asynchronously maps the rows from a {@link ResultSetFuture} page by page.
+   *
+   * @param resultSetFuture the {@link ResultSetFuture} to map.
+   * @return a future of the first page, see {@link #mapPages(ResultSet)}.
+   */
+  @Beta
+  public ListenableFuture<ResultPage<T>> mapPagesAsync(ResultSetFuture resultSetFuture) {
+    return GuavaCompatibility.INSTANCE.transform(resultSetFuture, mapPagesFunction);
+  }
+
   private boolean isFromMapperQuery(ResultSet resultSet) {
     return resultSet.getExecutionInfo().getStatement() instanceof MapperBoundStatement;
   }
@@ -874,7 +918,26 @@ public class Mapper<T> {
   public Result<T> mapAliased(ResultSet resultSet) {
     return (manager.protocolVersionAsInt == 1)
         ? map(resultSet) // no aliases
-        : new Result<T>(resultSet, mapper, true);
+        : new Result<T>(resultSet, this, true);
+  }
+
+  /** Returns the plan to map rows with the given metadata, compiling it on first use. */
+  MappingPlan<T> mappingPlan(ColumnDefinitions definitions, boolean useAlias) {
+    MappingPlan.Key key = new MappingPlan.Key(definitions, useAlias);
+    MappingPlan<T> plan = mappingPlans.get(key);
+    if (plan == null) {
+      plan =
+          MappingPlan.compile(
+              mapper,
+              definitions,
+              useAlias,
+              session().getCluster().getConfiguration().getCodecRegistry());
+      if (mappingPlans.size() < MAX_MAPPING_PLANS) {
+        MappingPlan<T> previous = mappingPlans.putIfAbsent(key, plan);
+        if (previous != null) plan = previous;
+      }
+    }
+    return plan;
   }
 
   /**
@@ -30,11 +30,14 @@ public class MappingConfiguration {
   /** Builder for {@link MappingConfiguration} instances. */
   public static class Builder {
 
-    private PropertyMapper propertyMapper = new DefaultPropertyMapper();
+    private PropertyMapper propertyMapper;
 
     /**
      * Sets the {@link PropertyMapper property access strategy} to use.
      *
+     * <p>If this is not called, a {@link DefaultPropertyMapper} is used, and the {@link
+     * GeneratedMapping mappings generated at compile time} are used for the classes that have one.
+     *
      * @param propertyMapper the {@link PropertyMapper property access strategy} to use.
      * @return this {@link Builder} instance (to allow for fluent builder pattern).
      */
@@ -49,14 +52,18 @@ public class MappingConfiguration {
      * @return a new instance of {@link MappingConfiguration}
      */
     public MappingConfiguration build() {
-      return new MappingConfiguration(propertyMapper);
+      return propertyMapper == null
+          ? new MappingConfiguration(new DefaultPropertyMapper(), true)
+          : new MappingConfiguration(propertyMapper, false);
     }
   }
 
   private final PropertyMapper propertyMapper;
+  private final boolean useGeneratedMappings;
 
-  private MappingConfiguration(PropertyMapper propertyMapper) {
+  private MappingConfiguration(PropertyMapper propertyMapper, boolean useGeneratedMappings) {
     this.propertyMapper = propertyMapper;
+    this.useGeneratedMappings = useGeneratedMappings;
   }
 
   /**
@@ -67,4 +74,9 @@ public class MappingConfiguration {
   public PropertyMapper getPropertyMapper() {
     return propertyMapper;
   }
+
+  /** Whether mappings generated at compile time replace the default property mapper. */
+  boolean useGeneratedMappings() {
+    return useGeneratedMappings;
+  }
 }
@@ -355,9 +355,13 @@ public class MappingManager {
   private <T> T getAccessor(Class<T> klass) {
     T accessor = (T) accessors.get(klass);
     if (accessor == null) {
-      AccessorMapper<T> mapper = AnnotationParser.parseAccessor(klass, this);
+      GeneratedAccessor generated = GeneratedCode.accessor(klass);
+      AccessorMapper<T> mapper =
+          generated == null
+              ? AnnotationParser.parseAccessor(klass, this)
+              : AnnotationParser.parseGeneratedAccessor(klass, generated, this);
       mapper.prepare(this);
-      accessor = mapper.createProxy();
+      accessor = generated == null ? mapper.createProxy() : klass.cast(generated);
       T old = (T) accessors.putIfAbsent(klass, accessor);
       if (old != null) {
         accessor = old;
@@ -366,6 +370,14 @@ public class MappingManager {
     return accessor;
   }
 
+  /**
+   * Returns the mapping generated at compile time for a class, or {@code null} if there is none, or
+   * if the configuration does not allow it.
+   */
+  <T> GeneratedMapping<T> getGeneratedMapping(Class<T> mappedClass) {
+    return configuration.useGeneratedMappings() ? GeneratedCode.mapping(mappedClass) : null;
+  }
+
   private static class CacheKey {
     final Class<?> klass;
     final String keyspace;
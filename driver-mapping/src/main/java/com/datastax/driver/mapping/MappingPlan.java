@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.TypeCodec;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How to map the rows of a given result metadata to an entity: the index of each mapped column in
+ * the rows, the property it is set to, and the codec that deserializes it.
+ *
+ * <p>Resolving column names and codecs is costly compared to decoding a value, so plans are
+ * compiled once per result metadata and cached by {@link Mapper#mappingPlan}.
+ */
+class MappingPlan<T> {
+
+  private final EntityMapper<T> mapper;
+  private final int[] indexes;
+  private final MappedProperty<Object>[] properties;
+  private final TypeCodec<Object>[] codecs;
+
+  @SuppressWarnings("unchecked")
+  private MappingPlan(
+      EntityMapper<T> mapper,
+      List<Integer> indexes,
+      List<MappedProperty<Object>> properties,
+      List<TypeCodec<Object>> codecs) {
+    this.mapper = mapper;
+    this.indexes = new int[indexes.size()];
+    for (int i = 0; i < this.indexes.length; i++) this.indexes[i] = indexes.get(i);
+    this.properties = properties.toArray(new MappedProperty[properties.size()]);
+    this.codecs = codecs.toArray(new TypeCodec[codecs.size()]);
+  }
+
+  /**
+   * Compiles the plan for the rows of the given metadata. The mapped columns that are not part of
+   * the rows are left unset in the entities.
+   *
+   * @param useAlias whether the columns are named after their alias, see {@link Mapper#map}.
+   */
+  static <T> MappingPlan<T> compile(
+      EntityMapper<T> mapper,
+      ColumnDefinitions definitions,
+      boolean useAlias,
+      CodecRegistry codecRegistry) {
+    List<Integer> indexes = new ArrayList<Integer>();
+    List<MappedProperty<Object>> properties = new ArrayList<MappedProperty<Object>>();
+    List<TypeCodec<Object>> codecs = new ArrayList<TypeCodec<Object>>();
+    for (AliasedMappedProperty col : mapper.allColumns) {
+      String name = col.alias != null && useAlias ? col.alias : col.mappedProperty.getMappedName();
+      if (!definitions.contains(name)) continue;
+
+      int index = definitions.getIndexOf(name);
+      TypeCodec<Object> codec = col.mappedProperty.getCustomCodec();
+      if (codec == null)
+        codec =
+            codecRegistry.codecFor(
+                definitions.getType(index), col.mappedProperty.getPropertyType());
+
+      indexes.add(index);
+      properties.add(col.mappedProperty);
+      codecs.add(codec);
+    }
+    return new MappingPlan<T>(mapper, indexes, properties, codecs);
+  }
+
+  T map(Row row) {
+    T entity = mapper.newEntity();
+    for (int i = 0; i < indexes.length; i++) {
+      Object value = row.get(indexes[i], codecs[i]);
+      if (shouldSetValue(value)) {
+        properties[i].setValue(entity, value);
+      }
+    }
+    return entity;
+  }
+
+  @SuppressWarnings("SimplifiableIfStatement")
+  private static boolean shouldSetValue(Object value) {
+    if (value == null) return false;
+    if (value instanceof Collection) return !((Collection<?>) value).isEmpty();
+    if (value instanceof Map) return !((Map<?, ?>) value).isEmpty();
+    return true;
+  }
+
+  /** The cache key of a plan, result metadata being compared by value. */
+  static class Key {
+
+    private final List<ColumnDefinitions.Definition> definitions;
+    private final boolean useAlias;
+    private final int hashCode;
+
+    Key(ColumnDefinitions definitions, boolean useAlias) {
+      this.definitions = definitions.asList();
+      this.useAlias = useAlias;
+      this.hashCode = 31 * this.definitions.hashCode() + (useAlias ? 1 : 0);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other == this) return true;
+      if (!(other instanceof Key)) return false;
+      Key that = (Key) other;
+      return this.useAlias == that.useAlias && this.definitions.equals(that.definitions);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
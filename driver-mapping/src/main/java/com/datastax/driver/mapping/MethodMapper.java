@@ -36,7 +36,12 @@ import java.util.Set;
 
 class MethodMapper {
 
+  // null for the methods of generated accessors
   final Method method;
+  private final String methodName;
+  private final Type returnType;
+  private final int parameterCount;
+  private final boolean varArgs;
   final String queryString;
   private final ParamMapper[] paramMappers;
 
@@ -51,6 +56,7 @@ class MethodMapper {
   private boolean returnStatement;
   private Mapper<?> returnMapper;
   private boolean mapOne;
+  private boolean mapPages;
   private boolean async;
 
   MethodMapper(
@@ -61,7 +67,60 @@ class MethodMapper {
       int fetchSize,
       boolean enableTracing,
       Boolean idempotent) {
+    this(
+        method,
+        method.getName(),
+        method.getGenericReturnType(),
+        method.getParameterTypes().length,
+        method.isVarArgs(),
+        queryString,
+        paramMappers,
+        consistency,
+        fetchSize,
+        enableTracing,
+        idempotent);
+  }
+
+  MethodMapper(
+      String methodName,
+      Type returnType,
+      String queryString,
+      ParamMapper[] paramMappers,
+      ConsistencyLevel consistency,
+      int fetchSize,
+      boolean enableTracing,
+      Boolean idempotent) {
+    this(
+        null,
+        methodName,
+        returnType,
+        paramMappers.length,
+        false,
+        queryString,
+        paramMappers,
+        consistency,
+        fetchSize,
+        enableTracing,
+        idempotent);
+  }
+
+  private MethodMapper(
+      Method method,
+      String methodName,
+      Type returnType,
+      int parameterCount,
+      boolean varArgs,
+      String queryString,
+      ParamMapper[] paramMappers,
+      ConsistencyLevel consistency,
+      int fetchSize,
+      boolean enableTracing,
+      Boolean idempotent) {
     this.method = method;
+    this.methodName = methodName;
+    this.returnType = returnType;
+    this.parameterCount = parameterCount;
+    this.varArgs = varArgs;
     this.queryString = queryString;
     this.paramMappers = paramMappers;
     this.consistency = consistency;
@@ -76,7 +135,7 @@ class MethodMapper {
 
     validateParameters();
 
-    Class<?> returnType = method.getReturnType();
+    Class<?> returnType = TypeToken.of(this.returnType).getRawType();
     if (Void.TYPE.isAssignableFrom(returnType) || ResultSet.class.isAssignableFrom(returnType))
       return;
 
@@ -92,20 +151,20 @@ class MethodMapper {
 
     if (ListenableFuture.class.isAssignableFrom(returnType)) {
       this.async = true;
-      Type k = ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
+      Type k = ((ParameterizedType) this.returnType).getActualTypeArguments()[0];
       if (k instanceof Class && ResultSet.class.isAssignableFrom((Class<?>) k)) return;
 
       mapType(manager, returnType, k);
     } else {
-      mapType(manager, returnType, method.getGenericReturnType());
+      mapType(manager, returnType, this.returnType);
     }
   }
 
   // Checks the method parameters against the query's bind variables
   private void validateParameters() {
-    if (method.isVarArgs())
+    if (varArgs)
       throw new IllegalArgumentException(
-          String.format("Invalid varargs method %s in @Accessor interface", method.getName()));
+          String.format("Invalid varargs method %s in @Accessor interface", methodName));
 
     ColumnDefinitions variables = statement.getVariables();
     Set<String> names = Sets.newHashSet();
@@ -113,19 +172,19 @@ class MethodMapper {
       names.add(variable.getName());
     }
 
-    if (method.getParameterTypes().length < names.size())
+    if (parameterCount < names.size())
       throw new IllegalArgumentException(
           String.format(
               "Not enough arguments for method %s, "
                   + "found %d but it should be at least the number of unique bind parameter names in the @Query (%d)",
-              method.getName(), method.getParameterTypes().length, names.size()));
+              methodName, parameterCount, names.size()));
 
-    if (method.getParameterTypes().length > variables.size())
+    if (parameterCount > variables.size())
       throw new IllegalArgumentException(
           String.format(
               "Too many arguments for method %s, "
                   + "found %d but it should be at most the number of bind parameters in the @Query (%d)",
-              method.getName(), method.getParameterTypes().length, variables.size()));
+              methodName, parameterCount, variables.size()));
 
     // TODO could go further, e.g. check that the types match, inspect @Param annotations to check
     // that all names are bound...
@@ -139,6 +198,9 @@ class MethodMapper {
       Type raw = pt.getRawType();
       if (raw instanceof Class && Result.class.isAssignableFrom((Class) raw)) {
         type = pt.getActualTypeArguments()[0];
+      } else if (raw == ResultPage.class) {
+        mapPages = true;
+        type = pt.getActualTypeArguments()[0];
       } else {
         mapOne = true;
       }
@@ -148,7 +210,9 @@ class MethodMapper {
 
     if (!(type instanceof Class))
       throw new RuntimeException(
-          String.format("Cannot map return of method %s to unsupported type %s", method, type));
+          String.format(
+              "Cannot map return of method %s to unsupported type %s",
+              method == null ? methodName : method, type));
 
     try {
       this.returnMapper = manager.mapper((Class<?>) type);
@@ -176,6 +240,8 @@ class MethodMapper {
       ListenableFuture<ResultSet> future = session.executeAsync(bs);
       if (returnMapper == null) return future;
 
+      if (mapPages)
+        return GuavaCompatibility.INSTANCE.transform(future, returnMapper.mapPagesFunction);
       return mapOne
           ? GuavaCompatibility.INSTANCE.transform(future, returnMapper.mapOneFunctionWithoutAliases)
           : GuavaCompatibility.INSTANCE.transform(
@@ -183,6 +249,7 @@ class MethodMapper {
     } else {
       ResultSet rs = session.execute(bs);
       if (returnMapper == null) return rs;
+      if (mapPages) return returnMapper.mapPages(rs);
 
       Result<?> result = returnMapper.map(rs);
       return mapOne ? result.one() : result;
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A strategy to determine how the values of mapped properties are read and written.
+ *
+ * <p>Accessors are built once, when the mapper is created. If an accessor cannot be built with the
+ * chosen strategy (for example because of a security manager, or because the property's class is
+ * not accessible), the next strategy in the list is tried, down to {@link #REFLECTION}.
+ *
+ * <p>Which members are accessed (getters and setters, or fields) is determined by the {@link
+ * PropertyAccessStrategy}, not by this strategy.
+ *
+ * @see
+ *     DefaultPropertyMapper#setPropertyAccessorGenerationStrategy(PropertyAccessorGenerationStrategy)
+ */
+@Beta
+public enum PropertyAccessorGenerationStrategy {
+
+  /**
+   * Generate classes that call getters and setters directly, with {@link
+   * java.lang.invoke.LambdaMetafactory}, like the JVM does for method references. This is as fast
+   * as hand-written code once compiled. Fields are accessed with method handles. This is the
+   * default strategy.
+   */
+  LAMBDA_METAFACTORY,
+
+  /** Use {@link java.lang.invoke.MethodHandle method handles}. */
+  METHOD_HANDLES,
+
+  /**
+   * Use {@link java.lang.reflect.Method#invoke} and {@link java.lang.reflect.Field#get}/{@link
+   * java.lang.reflect.Field#set}. This was the only strategy before it became configurable.
+   */
+  REFLECTION
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import com.google.common.base.Throwables;
+import com.google.common.primitives.Primitives;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds the accessors of mapped properties according to a {@link
+ * PropertyAccessorGenerationStrategy}.
+ *
+ * <p>The methods of this class return {@code null} when the property should be accessed with
+ * reflection, either because of the strategy or because no other accessor could be built.
+ */
+class PropertyAccessors {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PropertyAccessors.class);
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  // Java 9+: lambdas can be generated in any class that is open to this one
+  private static final Method PRIVATE_LOOKUP_IN;
+
+  static {
+    Method privateLookupIn = null;
+    try {
+      privateLookupIn =
+          MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+    } catch (NoSuchMethodException e) {
+      // Java 8
+    }
+    PRIVATE_LOOKUP_IN = privateLookupIn;
+  }
+
+  /** @param getter the getter to use, or {@code null} to read the field. */
+  static Function<Object, Object> getter(
+      PropertyAccessorGenerationStrategy strategy, Field field, Method getter) {
+    if (strategy == PropertyAccessorGenerationStrategy.REFLECTION) return null;
+    try {
+      if (getter != null) {
+        if (strategy == PropertyAccessorGenerationStrategy.LAMBDA_METAFACTORY) {
+          try {
+            return lambdaGetter(getter);
+          } catch (Throwable t) {
+            LOGGER.debug("Could not generate a lambda for {}, using a method handle", getter, t);
+          }
+        }
+        return handleGetter(MethodHandles.lookup().unreflect(getter));
+      }
+      if (field != null) return handleGetter(MethodHandles.lookup().unreflectGetter(field));
+    } catch (Throwable t) {
+      LOGGER.debug(
+          "Could not create a method handle for {}, using reflection",
+          getter == null ? field : getter,
+          t);
+    }
+    return null;
+  }
+
+  /** @param setter the setter to use, or {@code null} to write the field. */
+  static BiConsumer<Object, Object> setter(
+      PropertyAccessorGenerationStrategy strategy, Field field, Method setter) {
+    if (strategy == PropertyAccessorGenerationStrategy.REFLECTION) return null;
+    try {
+      if (setter != null) {
+        if (strategy == PropertyAccessorGenerationStrategy.LAMBDA_METAFACTORY) {
+          try {
+            return lambdaSetter(setter);
+          } catch (Throwable t) {
+            LOGGER.debug("Could not generate a lambda for {}, using a method handle", setter, t);
+          }
+        }
+        return handleSetter(MethodHandles.lookup().unreflect(setter));
+      }
+      if (field != null) return handleSetter(MethodHandles.lookup().unreflectSetter(field));
+    } catch (Throwable t) {
+      LOGGER.debug(
+          "Could not create a method handle for {}, using reflection",
+          setter == null ? field : setter,
+          t);
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> lambdaGetter(Method getter) throws Throwable {
+    Class<?> owner = getter.getDeclaringClass();
+    MethodHandles.Lookup lookup = lookupFor(owner, getter);
+    CallSite site =
+        LambdaMetafactory.metafactory(
+            lookup,
+            "apply",
+            MethodType.methodType(Function.class),
+            GETTER_TYPE,
+            lookup.unreflect(getter),
+            MethodType.methodType(Primitives.wrap(getter.getReturnType()), owner));
+    return (Function<Object, Object>) site.getTarget().invoke();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static BiConsumer<Object, Object> lambdaSetter(Method setter) throws Throwable {
+    Class<?> owner = setter.getDeclaringClass();
+    MethodHandles.Lookup lookup = lookupFor(owner, setter);
+    CallSite site =
+        LambdaMetafactory.metafactory(
+            lookup,
+            "accept",
+            MethodType.methodType(BiConsumer.class),
+            SETTER_TYPE,
+            lookup.unreflect(setter),
+            MethodType.methodType(
+                void.class, owner, Primitives.wrap(setter.getParameterTypes()[0])));
+    return (BiConsumer<Object, Object>) site.getTarget().invoke();
+  }
+
+  /** A lookup that the lambda metafactory accepts, and whose class can link to the method. */
+  private static MethodHandles.Lookup lookupFor(Class<?> owner, Method method) throws Exception {
+    if (PRIVATE_LOOKUP_IN != null)
+      return (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, owner, MethodHandles.lookup());
+    // Java 8 requires a lookup with private access, i.e. ours: the generated class then links
+    // against the method from this class
+    if (!Modifier.isPublic(method.getModifiers())
+        || !Modifier.isPublic(owner.getModifiers())
+        || Class.forName(owner.getName(), false, PropertyAccessors.class.getClassLoader()) != owner)
+      throw new IllegalAccessException(method + " is not visible from the driver");
+    return MethodHandles.lookup();
+  }
+
+  private static Function<Object, Object> handleGetter(MethodHandle handle) {
+    final MethodHandle getter = handle.asType(GETTER_TYPE);
+    return new Function<Object, Object>() {
+      @Override
+      public Object apply(Object entity) {
+        try {
+          return getter.invokeExact(entity);
+        } catch (Throwable t) {
+          throw Throwables.propagate(t);
+        }
+      }
+    };
+  }
+
+  private static BiConsumer<Object, Object> handleSetter(MethodHandle handle) {
+    final MethodHandle setter = handle.asType(SETTER_TYPE);
+    return new BiConsumer<Object, Object>() {
+      @Override
+      public void accept(Object entity, Object value) {
+        try {
+          setter.invokeExact(entity, value);
+        } catch (Throwable t) {
+          throw Throwables.propagate(t);
+        }
+      }
+    };
+  }
+}
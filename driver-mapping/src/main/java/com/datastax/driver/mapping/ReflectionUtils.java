@@ -21,23 +21,31 @@ import java.lang.reflect.Constructor;
 class ReflectionUtils {
 
   static <T> T newInstance(Class<T> clazz) {
-    Constructor<T> publicConstructor;
+    return newInstance(getNoArgConstructor(clazz));
+  }
+
+  /** Returns the public or private no-arg constructor of a class, made accessible if needed. */
+  static <T> Constructor<T> getNoArgConstructor(Class<T> clazz) {
     try {
-      publicConstructor = clazz.getConstructor();
+      return clazz.getConstructor();
     } catch (NoSuchMethodException e) {
       try {
         // try private constructor
         Constructor<T> privateConstructor = clazz.getDeclaredConstructor();
         privateConstructor.setAccessible(true);
-        return privateConstructor.newInstance();
+        return privateConstructor;
       } catch (Exception e1) {
         throw new IllegalArgumentException("Can't create an instance of " + clazz, e);
       }
     }
+  }
+
+  static <T> T newInstance(Constructor<T> constructor) {
     try {
-      return publicConstructor.newInstance();
+      return constructor.newInstance();
     } catch (Exception e) {
-      throw new IllegalArgumentException("Can't create an instance of " + clazz, e);
+      throw new IllegalArgumentException(
+          "Can't create an instance of " + constructor.getDeclaringClass(), e);
     }
   }
 }
@@ -15,60 +15,43 @@
  */
 package com.datastax.driver.mapping;
 
+import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.ExecutionInfo;
 import com.datastax.driver.core.GuavaCompatibility;
 import com.datastax.driver.core.PagingIterable;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
-import com.datastax.driver.core.TypeCodec;
 import com.google.common.base.Function;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 /** A result set whose rows are mapped to an entity class. */
 public class Result<T> implements PagingIterable<Result<T>, T> {
 
   private final ResultSet rs;
-  private final EntityMapper<T> mapper;
+  private final Mapper<T> mapper;
   private final boolean useAlias;
 
-  Result(ResultSet rs, EntityMapper<T> mapper, boolean useAlias) {
+  // The plan for the rows of the last seen metadata, which is the same for all the rows of a page,
+  // and usually of all pages
+  private ColumnDefinitions definitions;
+  private MappingPlan<T> plan;
+
+  Result(ResultSet rs, Mapper<T> mapper, boolean useAlias) {
     this.rs = rs;
     this.mapper = mapper;
     this.useAlias = useAlias;
   }
 
   private T map(Row row) {
-    T entity = mapper.newEntity();
-    for (AliasedMappedProperty c : mapper.allColumns) {
-      @SuppressWarnings("unchecked")
-      AliasedMappedProperty col = c;
-      String name =
-          col.alias != null && this.useAlias ? col.alias : col.mappedProperty.getMappedName();
-      if (!row.getColumnDefinitions().contains(name)) continue;
-
-      Object value;
-      TypeCodec<Object> customCodec = col.mappedProperty.getCustomCodec();
-      if (customCodec != null) value = row.get(name, customCodec);
-      else value = row.get(name, col.mappedProperty.getPropertyType());
-
-      if (shouldSetValue(value)) {
-        col.mappedProperty.setValue(entity, value);
-      }
+    ColumnDefinitions definitions = row.getColumnDefinitions();
+    if (definitions != this.definitions) {
+      this.plan = mapper.mappingPlan(definitions, useAlias);
+      this.definitions = definitions;
     }
-    return entity;
-  }
-
-  @SuppressWarnings("SimplifiableIfStatement")
-  private static boolean shouldSetValue(Object value) {
-    if (value == null) return false;
-    if (value instanceof Collection) return !((Collection<?>) value).isEmpty();
-    if (value instanceof Map) return !((Map<?, ?>) value).isEmpty();
-    return true;
+    return plan.map(row);
   }
 
   @Override
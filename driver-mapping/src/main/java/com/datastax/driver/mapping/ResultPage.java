@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.GuavaCompatibility;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * One page of a result set whose rows are mapped to an entity class, for iterating over large
+ * results without blocking.
+ *
+ * <p>Unlike the iterator of a {@link Result}, which blocks while it fetches the next page, the
+ * iterator of a page only returns the rows that were received with it. The next page is requested
+ * as soon as this page is returned to the caller, so that it is usually received while the rows of
+ * this page are being mapped. At most one page is fetched ahead:
+ *
+ * <pre>{@code
+ * void process(ResultPage<User> page) {
+ *   for (User user : page) {
+ *     ...
+ *   }
+ *   if (page.hasMorePages()) {
+ *     Futures.addCallback(page.fetchNextPage(), new FutureCallback<ResultPage<User>>() {
+ *       public void onSuccess(ResultPage<User> next) { process(next); }
+ *       public void onFailure(Throwable t) { ... }
+ *     });
+ *   }
+ * }
+ * }</pre>
+ *
+ * The callbacks of the futures returned by {@link #fetchNextPage()} run on a driver I/O thread
+ * unless they are given an executor; rows are mapped by the thread that iterates over the page.
+ *
+ * <p>Pages are obtained with {@link Mapper#mapPagesAsync}, {@link Mapper#mapPages}, or from an
+ * {@link com.datastax.driver.mapping.annotations.Accessor @Accessor} method that returns a {@code
+ * ResultPage<T>} or a {@code ListenableFuture<ResultPage<T>>}. They consume the underlying {@link
+ * ResultSet}, which must not be used directly anymore. Like result sets, they are not thread-safe.
+ *
+ * @param <T> the mapped class.
+ */
+@Beta
+public class ResultPage<T> implements Iterable<T> {
+
+  private final ResultSet rs;
+  private final Mapper<T> mapper;
+  private final boolean useAlias;
+  private final List<Row> rows;
+  private final boolean lastPage;
+  private int next;
+
+  // The plan for the rows of the last seen metadata, see Result
+  private ColumnDefinitions definitions;
+  private MappingPlan<T> plan;
+
+  // Set when the page is returned to the caller
+  private ListenableFuture<ResultPage<T>> nextPage;
+
+  private ResultPage(ResultSet rs, Mapper<T> mapper, boolean useAlias) {
+    this.rs = rs;
+    this.mapper = mapper;
+    this.useAlias = useAlias;
+    // Only take the rows that were received, ResultSet.one() would block past them
+    int available = rs.getAvailableWithoutFetching();
+    this.rows = new ArrayList<Row>(available);
+    for (int i = 0; i < available; i++) {
+      rows.add(rs.one());
+    }
+    this.lastPage = rs.isFullyFetched();
+  }
+
+  /** Returns the first page of a result set, and starts fetching the next one. */
+  static <T> ResultPage<T> first(ResultSet rs, Mapper<T> mapper, boolean useAlias) {
+    return new ResultPage<T>(rs, mapper, useAlias).prefetch();
+  }
+
+  private synchronized ResultPage<T> prefetch() {
+    if (nextPage == null && !lastPage) {
+      nextPage =
+          GuavaCompatibility.INSTANCE.transform(
+              rs.fetchMoreResults(),
+              new Function<ResultSet, ResultPage<T>>() {
+                @Override
+                public ResultPage<T> apply(ResultSet rs) {
+                  return new ResultPage<T>(rs, mapper, useAlias);
+                }
+              });
+    }
+    return this;
+  }
+
+  /**
+   * Returns the number of rows of this page that have not been iterated over yet.
+   *
+   * @return the number of remaining rows.
+   */
+  public int remaining() {
+    return rows.size() - next;
+  }
+
+  /**
+   * Whether there are more pages after this one. If there are none, the result set is exhausted
+   * once the rows of this page have been iterated over.
+   *
+   * @return whether there are more pages.
+   */
+  public boolean hasMorePages() {
+    return !lastPage;
+  }
+
+  /**
+   * Returns the next page. It has usually been requested already, when this page was returned.
+   *
+   * <p>The next page only contains the rows that follow this page: the remaining rows of this page
+   * can still be iterated over, before or after the next page is received.
+   *
+   * @return a future of the next page; once it completes, the page after it is being fetched.
+   * @throws IllegalStateException if there are no more pages.
+   */
+  public ListenableFuture<ResultPage<T>> fetchNextPage() {
+    if (lastPage) throw new IllegalStateException("There are no more pages");
+    return GuavaCompatibility.INSTANCE.transform(
+        prefetch().nextPage,
+        new Function<ResultPage<T>, ResultPage<T>>() {
+          @Override
+          public ResultPage<T> apply(ResultPage<T> page) {
+            return page.prefetch();
+          }
+        });
+  }
+
+  /**
+   * Returns an iterator over the remaining rows of this page, mapped to entities. It never blocks.
+   *
+   * <p>The page is consumed by iterating over it, and all the iterators share the same position.
+   */
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      @Override
+      public boolean hasNext() {
+        return next < rows.size();
+      }
+
+      @Override
+      public T next() {
+        if (next >= rows.size()) throw new NoSuchElementException();
+        Row row = rows.get(next);
+        // release the row, the page may be kept while the next one is processed
+        rows.set(next++, null);
+        return map(row);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  private T map(Row row) {
+    ColumnDefinitions definitions = row.getColumnDefinitions();
+    if (definitions != this.definitions) {
+      this.plan = mapper.mappingPlan(definitions, useAlias);
+      this.definitions = definitions;
+    }
+    return plan.map(row);
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.StubNode;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class MappingPlanTest {
+
+  private StubNode node;
+  private Cluster cluster;
+  private Session session;
+
+  @BeforeClass(groups = "unit")
+  public void setup() {
+    List<Object[]> rows = new ArrayList<Object[]>();
+    // Columns in a different order than the entity's properties
+    rows.add(new Object[] {1, Arrays.asList("a", "b"), "user1@example.com", "user1"});
+    rows.add(new Object[] {2, Collections.emptyList(), null, "user2"});
+    node =
+        new StubNode(new InetSocketAddress("127.0.0.1", 0))
+            .withTable(
+                "ks",
+                "users",
+                "id",
+                DataType.cint(),
+                "tags",
+                DataType.list(DataType.text()),
+                "email",
+                DataType.text(),
+                "name",
+                DataType.text())
+            .withRows("ks", "users", rows)
+            .start();
+    cluster = Cluster.builder().addContactPointsWithPorts(node.getAddress()).build();
+    session = cluster.connect();
+  }
+
+  @AfterClass(groups = "unit", alwaysRun = true)
+  public void teardown() {
+    if (cluster != null) cluster.close();
+    if (node != null) node.stop();
+  }
+
+  @Test(groups = "unit")
+  public void should_map_columns_by_index() {
+    Mapper<User> mapper = new MappingManager(session).mapper(User.class);
+
+    List<User> users = mapper.map(session.execute("SELECT * FROM ks.users")).all();
+
+    assertThat(users).hasSize(2);
+    assertThat(users.get(0).getId()).isEqualTo(1);
+    assertThat(users.get(0).getName()).isEqualTo("user1");
+    assertThat(users.get(0).getEmail()).isEqualTo("user1@example.com");
+    assertThat(users.get(0).getTags()).containsExactly("a", "b");
+    // Null values and empty collections are not set, so the defaults of the entity remain
+    assertThat(users.get(1).getId()).isEqualTo(2);
+    assertThat(users.get(1).getName()).isEqualTo("user2");
+    assertThat(users.get(1).getEmail()).isEqualTo("unknown");
+    assertThat(users.get(1).getTags()).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_reuse_plan_for_equal_metadata() {
+    Mapper<User> mapper = new MappingManager(session).mapper(User.class);
+
+    ResultSet rs1 = session.execute("SELECT * FROM ks.users");
+    ResultSet rs2 = session.execute("SELECT * FROM ks.users");
+    ColumnDefinitions definitions1 = rs1.getColumnDefinitions();
+    ColumnDefinitions definitions2 = rs2.getColumnDefinitions();
+    assertThat(definitions1).isNotSameAs(definitions2);
+
+    MappingPlan<User> plan = mapper.mappingPlan(definitions1, false);
+    assertThat(mapper.mappingPlan(definitions2, false)).isSameAs(plan);
+    assertThat(mapper.mappingPlan(definitions1, true)).isNotSameAs(plan);
+  }
+
+  @SuppressWarnings("unused")
+  @Table(keyspace = "ks", name = "users")
+  public static class User {
+
+    @PartitionKey private int id;
+    private String name;
+    private String email = "unknown";
+    private List<String> tags;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public String getEmail() {
+      return email;
+    }
+
+    public void setEmail(String email) {
+      this.email = email;
+    }
+
+    public List<String> getTags() {
+      return tags;
+    }
+
+    public void setTags(List<String> tags) {
+      this.tags = tags;
+    }
+  }
+}
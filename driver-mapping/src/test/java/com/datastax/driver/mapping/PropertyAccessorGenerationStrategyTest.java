@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class PropertyAccessorGenerationStrategyTest {
+
+  @DataProvider(name = "strategies")
+  public static Object[][] strategies() {
+    PropertyAccessorGenerationStrategy[] values = PropertyAccessorGenerationStrategy.values();
+    Object[][] strategies = new Object[values.length][];
+    for (int i = 0; i < values.length; i++) strategies[i] = new Object[] {values[i]};
+    return strategies;
+  }
+
+  @Test(groups = "unit", dataProvider = "strategies")
+  public void should_read_and_write_properties(PropertyAccessorGenerationStrategy strategy) {
+    Map<String, MappedProperty<Object>> properties = mapProperties(strategy);
+    Foo foo = new Foo();
+
+    properties.get("k").setValue(foo, 42);
+    properties.get("v").setValue(foo, "value");
+    properties.get("enabled").setValue(foo, true);
+
+    assertThat(foo.k).isEqualTo(42);
+    assertThat(foo.v).isEqualTo("value");
+    assertThat(foo.enabled).isTrue();
+    // the setter of k was used, the other properties only have private fields or accessors
+    assertThat(foo.setterCalls).isEqualTo(1);
+    assertThat(properties.get("k").getValue(foo)).isEqualTo(42);
+    assertThat(properties.get("v").getValue(foo)).isEqualTo("value");
+    assertThat(properties.get("enabled").getValue(foo)).isEqualTo(true);
+  }
+
+  @Test(groups = "unit", dataProvider = "strategies")
+  public void should_report_errors_of_accessors(PropertyAccessorGenerationStrategy strategy) {
+    Map<String, MappedProperty<Object>> properties = mapProperties(strategy);
+    Foo foo = new Foo();
+
+    try {
+      properties.get("k").setValue(foo, -1);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessageContaining("Unable to write property 'k'");
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, MappedProperty<Object>> mapProperties(
+      PropertyAccessorGenerationStrategy strategy) {
+    Map<String, MappedProperty<Object>> properties = new HashMap<String, MappedProperty<Object>>();
+    for (MappedProperty<?> property :
+        new DefaultPropertyMapper()
+            .setPropertyAccessorGenerationStrategy(strategy)
+            .mapTable(Foo.class)) {
+      properties.put(property.getPropertyName(), (MappedProperty<Object>) property);
+    }
+    assertThat(properties.keySet()).containsOnly("k", "v", "enabled");
+    return properties;
+  }
+
+  @SuppressWarnings("unused")
+  @Table(name = "foo")
+  public static class Foo {
+
+    @PartitionKey private int k;
+
+    private String v;
+
+    private boolean enabled;
+
+    private transient int setterCalls;
+
+    public int getK() {
+      return k;
+    }
+
+    public void setK(int k) {
+      if (k < 0) throw new IllegalStateException("negative");
+      setterCalls++;
+      this.k = k;
+    }
+
+    private boolean isEnabled() {
+      return enabled;
+    }
+
+    private void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+  }
+}
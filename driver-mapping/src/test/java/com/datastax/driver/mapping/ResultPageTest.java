@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.StubNode;
+import com.datastax.driver.mapping.annotations.Accessor;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Query;
+import com.datastax.driver.mapping.annotations.QueryParameters;
+import com.datastax.driver.mapping.annotations.Table;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class ResultPageTest {
+
+  private StubNode node;
+  private Cluster cluster;
+  private Session session;
+
+  @BeforeClass(groups = "unit")
+  public void setup() {
+    List<Object[]> rows = new ArrayList<Object[]>();
+    for (int i = 0; i < 25; i++) {
+      rows.add(new Object[] {i, "user" + i});
+    }
+    node =
+        new StubNode(new InetSocketAddress("127.0.0.1", 0))
+            .withTable("ks", "users", "id", DataType.cint(), "name", DataType.text())
+            .withRows("ks", "users", rows)
+            .start();
+    cluster = Cluster.builder().addContactPointsWithPorts(node.getAddress()).build();
+    session = cluster.connect();
+  }
+
+  @AfterClass(groups = "unit", alwaysRun = true)
+  public void teardown() {
+    if (cluster != null) cluster.close();
+    if (node != null) node.stop();
+  }
+
+  @Test(groups = "unit")
+  public void should_map_rows_page_by_page() throws Exception {
+    Mapper<User> mapper = new MappingManager(session).mapper(User.class);
+
+    ResultPage<User> page =
+        mapper.mapPages(
+            session.execute(new SimpleStatement("SELECT * FROM ks.users").setFetchSize(10)));
+
+    List<Integer> ids = new ArrayList<Integer>();
+    List<Integer> sizes = new ArrayList<Integer>();
+    while (true) {
+      sizes.add(page.remaining());
+      for (User user : page) {
+        assertThat(user.getName()).isEqualTo("user" + user.getId());
+        ids.add(user.getId());
+      }
+      assertThat(page.remaining()).isZero();
+      if (!page.hasMorePages()) break;
+      page = get(page.fetchNextPage());
+    }
+
+    assertThat(sizes).containsExactly(10, 10, 5);
+    assertThat(ids).hasSize(25);
+    assertThat(ids.get(24)).isEqualTo(24);
+    try {
+      page.fetchNextPage();
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_fetch_next_page_when_page_is_returned() throws Exception {
+    Mapper<User> mapper = new MappingManager(session).mapper(User.class);
+
+    ResultPage<User> page =
+        get(
+            mapper.mapPagesAsync(
+                session.executeAsync(
+                    new SimpleStatement("SELECT * FROM ks.users").setFetchSize(10))));
+
+    // The second page was requested when the first one was returned, wait until it is received
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    ListenableFuture<ResultPage<User>> next = page.fetchNextPage();
+    while (!next.isDone() && System.nanoTime() < deadline) {
+      Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+    }
+    assertThat(next.isDone()).isTrue();
+    // The rows of the first page are still available
+    assertThat(page.remaining()).isEqualTo(10);
+    assertThat(get(next).iterator().next().getId()).isEqualTo(10);
+  }
+
+  @Test(groups = "unit")
+  public void should_return_pages_from_accessor() throws Exception {
+    UserAccessor accessor = new MappingManager(session).createAccessor(UserAccessor.class);
+
+    ResultPage<User> page = accessor.getAll();
+    assertThat(page.remaining()).isEqualTo(20);
+    assertThat(page.hasMorePages()).isTrue();
+
+    page = get(accessor.getAllAsync());
+    assertThat(page.remaining()).isEqualTo(20);
+    page = get(page.fetchNextPage());
+    assertThat(page.remaining()).isEqualTo(5);
+    assertThat(page.hasMorePages()).isFalse();
+  }
+
+  private static <T> T get(ListenableFuture<T> future)
+      throws InterruptedException, ExecutionException {
+    return future.get();
+  }
+
+  @Table(keyspace = "ks", name = "users")
+  public static class User {
+
+    @PartitionKey private int id;
+    private String name;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  @Accessor
+  public interface UserAccessor {
+
+    @Query("SELECT * FROM ks.users")
+    @QueryParameters(fetchSize = 20)
+    ResultPage<User> getAll();
+
+    @Query("SELECT * FROM ks.users")
+    @QueryParameters(fetchSize = 20)
+    ListenableFuture<ResultPage<User>> getAllAsync();
+  }
+}
@@ -0,0 +1,1298 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.collect.ImmutableMap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.CharsetUtil;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A minimal node that speaks the native protocol in-process, for benchmarks, tests and stress runs
+ * that need real connections but must not measure a server.
+ *
+ * <p>It completes the handshake and answers the control connection's queries as a single node
+ * cluster. Tables declared with {@link #withTable} or created with a {@code CREATE TABLE} query
+ * appear in the schema metadata, and queries that select from them return the rows given to {@link
+ * #withRows}, in pages if the request has a page size; the variables of prepared statements are
+ * inferred from the columns that precede their bind markers. Every other request gets a VOID
+ * result.
+ *
+ * <p>Protocol v4 and v5 are supported, with compression, and v5 segments. The node can also
+ * advertise Scylla's sharding extensions ({@link #withShards}), and delay or fail a proportion of
+ * the requests ({@link #withLatency}, {@link #withError}).
+ */
+public class StubNode {
+
+  private static final ProtocolVersion MIN_VERSION = ProtocolVersion.V4;
+  // Values are serialized the same way in all the supported versions
+  private static final ProtocolVersion CODEC_VERSION = ProtocolVersion.V4;
+
+  // RESULT kinds
+  private static final int VOID = 1;
+  private static final int ROWS = 2;
+  private static final int SET_KEYSPACE = 3;
+  private static final int PREPARED = 4;
+  private static final int SCHEMA_CHANGE = 5;
+
+  // Rows metadata flags
+  private static final int GLOBAL_TABLES_SPEC = 0x0001;
+  private static final int HAS_MORE_PAGES = 0x0002;
+  private static final int NO_METADATA = 0x0004;
+
+  // QUERY and EXECUTE flags
+  private static final int VALUES = 0x01;
+  private static final int PAGE_SIZE = 0x04;
+  private static final int WITH_PAGING_STATE = 0x08;
+  private static final int WITH_NAMES_FOR_VALUES = 0x40;
+
+  private static final Pattern TABLE_PATTERN =
+      Pattern.compile("(?i)\\b(?:FROM|INTO|UPDATE)\\s+(?:\"?(\\w+)\"?\\.)?\"?(\\w+)\"?");
+  private static final Pattern INSERT_PATTERN =
+      Pattern.compile(
+          "(?i)^\\s*INSERT\\s+INTO\\s+\\S+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(([^)]*)\\)");
+  private static final Pattern RELATION_PATTERN =
+      Pattern.compile("\"?(\\w+)\"?\\s*(?:=|<|>|<=|>=|(?i:IN))\\s*\\?");
+
+  private static final Pattern CREATE_TABLE_PATTERN =
+      Pattern.compile(
+          "(?i)^\\s*CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(?:(\"?\\w+\"?)\\.)?(\"?\\w+\"?)\\s*\\(");
+  private static final Pattern KEYSPACE_DDL_PATTERN =
+      Pattern.compile(
+          "(?i)^\\s*(CREATE|DROP)\\s+KEYSPACE\\s+(IF\\s+(?:NOT\\s+)?EXISTS\\s+)?(\"?\\w+\"?)");
+  private static final Pattern PRIMARY_KEY_PATTERN =
+      Pattern.compile("(?i)^PRIMARY\\s+KEY\\s*\\(\\s*\\(?\\s*(\"?\\w+\"?)");
+  private static final Pattern SYSTEM_QUERY_PATTERN =
+      Pattern.compile("\\bfrom\\s+system(?:_\\w+)?\\.");
+
+  private static final Pattern EQUALITY_PATTERN = Pattern.compile("(\\w+)\\s*=\\s*'([^']*)'");
+  private static final Pattern NEXT_PAGE_PATTERN = Pattern.compile(">\\s*\\(?'");
+
+  private static final List<ColumnDefinitions.Definition> LOCAL_COLUMNS =
+      columns(
+          "system",
+          "local",
+          "key",
+          DataType.varchar(),
+          "cluster_name",
+          DataType.varchar(),
+          "partitioner",
+          DataType.varchar(),
+          "data_center",
+          DataType.varchar(),
+          "rack",
+          DataType.varchar(),
+          "release_version",
+          DataType.varchar(),
+          "host_id",
+          DataType.uuid(),
+          "schema_version",
+          DataType.uuid(),
+          "tokens",
+          DataType.set(DataType.varchar()),
+          "rpc_address",
+          DataType.inet(),
+          "broadcast_address",
+          DataType.inet(),
+          "listen_address",
+          DataType.inet());
+
+  private static final List<ColumnDefinitions.Definition> PEERS_COLUMNS =
+      columns(
+          "system",
+          "peers",
+          "peer",
+          DataType.inet(),
+          "data_center",
+          DataType.varchar(),
+          "rack",
+          DataType.varchar(),
+          "release_version",
+          DataType.varchar(),
+          "host_id",
+          DataType.uuid(),
+          "schema_version",
+          DataType.uuid(),
+          "tokens",
+          DataType.set(DataType.varchar()),
+          "rpc_address",
+          DataType.inet());
+
+  private static final List<ColumnDefinitions.Definition> KEYSPACES_COLUMNS =
+      columns(
+          "system_schema",
+          "keyspaces",
+          "keyspace_name",
+          DataType.varchar(),
+          "durable_writes",
+          DataType.cboolean(),
+          "replication",
+          DataType.map(DataType.varchar(), DataType.varchar()));
+
+  private static final List<ColumnDefinitions.Definition> TABLES_COLUMNS =
+      columns(
+          "system_schema",
+          "tables",
+          "keyspace_name",
+          DataType.varchar(),
+          "table_name",
+          DataType.varchar(),
+          "additional_write_policy",
+          DataType.varchar(),
+          "bloom_filter_fp_chance",
+          DataType.cdouble(),
+          "caching",
+          DataType.map(DataType.varchar(), DataType.varchar()),
+          "comment",
+          DataType.varchar(),
+          "compaction",
+          DataType.map(DataType.varchar(), DataType.varchar()),
+          "compression",
+          DataType.map(DataType.varchar(), DataType.varchar()),
+          "crc_check_chance",
+          DataType.cdouble(),
+          "dclocal_read_repair_chance",
+          DataType.cdouble(),
+          "default_time_to_live",
+          DataType.cint(),
+          "extensions",
+          DataType.map(DataType.varchar(), DataType.blob()),
+          "flags",
+          DataType.set(DataType.varchar()),
+          "gc_grace_seconds",
+          DataType.cint(),
+          "id",
+          DataType.uuid(),
+          "max_index_interval",
+          DataType.cint(),
+          "memtable_flush_period_in_ms",
+          DataType.cint(),
+          "min_index_interval",
+          DataType.cint(),
+          "read_repair",
+          DataType.varchar(),
+          "read_repair_chance",
+          DataType.cdouble(),
+          "speculative_retry",
+          DataType.varchar());
+
+  private static final List<ColumnDefinitions.Definition> SCHEMA_COLUMNS_COLUMNS =
+      columns(
+          "system_schema",
+          "columns",
+          "keyspace_name",
+          DataType.varchar(),
+          "table_name",
+          DataType.varchar(),
+          "column_name",
+          DataType.varchar(),
+          "clustering_order",
+          DataType.varchar(),
+          "kind",
+          DataType.varchar(),
+          "position",
+          DataType.cint(),
+          "type",
+          DataType.varchar());
+
+  private volatile InetSocketAddress address;
+  private final UUID hostId = UUID.randomUUID();
+  private final UUID schemaVersion = UUID.randomUUID();
+  private final Set<String> keyspaces = new CopyOnWriteArraySet<String>();
+  private final List<Table> tables = new CopyOnWriteArrayList<Table>();
+  private final ConcurrentMap<MD5Digest, Prepared> prepared =
+      new ConcurrentHashMap<MD5Digest, Prepared>();
+
+  private volatile ProtocolVersion maxVersion = ProtocolVersion.V5;
+  private volatile int ioThreads = 1;
+  private volatile int shardCount;
+  private final AtomicInteger nextShard = new AtomicInteger();
+  private volatile Latency latency = Latency.fixed(0, TimeUnit.NANOSECONDS);
+  private final Map<Error, Double> errorRates = new EnumMap<Error, Double>(Error.class);
+
+  private EventLoopGroup group;
+  private Channel serverChannel;
+  private Channel shardAwareServerChannel;
+
+  /**
+   * Creates a new node that will listen on the given address once {@link #start() started}.
+   *
+   * @param address the address to bind to. If its port is 0, an ephemeral port is picked when the
+   *     node starts.
+   */
+  public StubNode(InetSocketAddress address) {
+    this.address = address;
+  }
+
+  /** Returns the address of this node; its port is only known once started if it was 0. */
+  public InetSocketAddress getAddress() {
+    return address;
+  }
+
+  /**
+   * Sets the highest protocol version that this node accepts; the driver is told to downgrade from
+   * higher versions. Defaults to v5.
+   *
+   * @param version {@link ProtocolVersion#V4} or {@link ProtocolVersion#V5}.
+   * @return this node.
+   */
+  public StubNode withMaxProtocolVersion(ProtocolVersion version) {
+    if (version.compareTo(MIN_VERSION) < 0 || version.compareTo(ProtocolVersion.V5) > 0)
+      throw new IllegalArgumentException("Unsupported protocol version " + version);
+    this.maxVersion = version;
+    return this;
+  }
+
+  /**
+   * Sets the number of I/O threads of this node. Defaults to 1.
+   *
+   * @return this node.
+   */
+  public StubNode withIoThreads(int ioThreads) {
+    if (ioThreads < 1) throw new IllegalArgumentException("ioThreads must be strictly positive");
+    this.ioThreads = ioThreads;
+    return this;
+  }
+
+  /**
+   * Makes this node behave like a Scylla node with the given number of shards: it advertises its
+   * sharding parameters to the driver, assigns each connection to a shard, and listens on a
+   * shard-aware port, where the shard of a connection is its client port modulo the number of
+   * shards. By default, the node does not advertise any sharding parameter, like Cassandra.
+   *
+   * @return this node.
+   */
+  public StubNode withShards(int shardCount) {
+    if (shardCount < 1) throw new IllegalArgumentException("shardCount must be strictly positive");
+    this.shardCount = shardCount;
+    return this;
+  }
+
+  /**
+   * Delays the responses to queries, executions and batches by the given latency. The handshake and
+   * the control connection's queries are never delayed.
+   *
+   * @return this node.
+   */
+  public StubNode withLatency(Latency latency) {
+    this.latency = latency;
+    return this;
+  }
+
+  /**
+   * Makes a given proportion of the queries, executions and batches fail with the given error. Can
+   * be called once per type of error; the sum of all the proportions must not exceed 1.
+   *
+   * @param error the error to return.
+   * @param probability the probability that any request gets this error, between 0 and 1.
+   * @return this node.
+   */
+  public synchronized StubNode withError(Error error, double probability) {
+    double total = probability;
+    for (Map.Entry<Error, Double> entry : errorRates.entrySet()) {
+      if (entry.getKey() != error) total += entry.getValue();
+    }
+    if (probability < 0 || total > 1)
+      throw new IllegalArgumentException(
+          "The error probabilities must be positive and add up to 1 at most");
+    errorRates.put(error, probability);
+    return this;
+  }
+
+  /**
+   * Declares a table in the schema of this node. Tables can also be declared by executing a {@code
+   * CREATE TABLE} query against the node.
+   *
+   * @param keyspace the keyspace of the table. It is created if needed.
+   * @param table the name of the table.
+   * @param namesAndTypes the name and {@link DataType} of each column, alternately. The first
+   *     column is the partition key.
+   * @return this node.
+   */
+  public StubNode withTable(String keyspace, String table, Object... namesAndTypes) {
+    addTable(new Table(columns(keyspace, table, namesAndTypes)));
+    return this;
+  }
+
+  /**
+   * Sets the rows returned by queries that select from a table declared with {@link #withTable}.
+   *
+   * @param keyspace the keyspace of the table.
+   * @param table the name of the table.
+   * @param rows the rows, with one value per column, in the order of the table declaration.
+   * @return this node.
+   */
+  public StubNode withRows(String keyspace, String table, List<Object[]> rows) {
+    Table t = findTable(keyspace, table);
+    if (t == null)
+      throw new IllegalArgumentException(String.format("Unknown table %s.%s", keyspace, table));
+    t.rows = new ArrayList<Object[]>(rows);
+    return this;
+  }
+
+  /** Starts listening. */
+  public synchronized StubNode start() {
+    if (serverChannel != null) return this;
+    group = new NioEventLoopGroup(ioThreads);
+    serverChannel = bind(address, false);
+    address = (InetSocketAddress) serverChannel.localAddress();
+    if (shardCount > 0)
+      shardAwareServerChannel = bind(new InetSocketAddress(address.getAddress(), 0), true);
+    return this;
+  }
+
+  private Channel bind(InetSocketAddress address, final boolean shardAware) {
+    return new ServerBootstrap()
+        .group(group)
+        .channel(NioServerSocketChannel.class)
+        .option(ChannelOption.SO_REUSEADDR, true)
+        .childOption(ChannelOption.TCP_NODELAY, true)
+        .childHandler(
+            new ChannelInitializer<SocketChannel>() {
+              @Override
+              protected void initChannel(SocketChannel channel) {
+                int shard = 0;
+                if (shardCount > 0) {
+                  shard =
+                      shardAware
+                          ? channel.remoteAddress().getPort() % shardCount
+                          : (nextShard.getAndIncrement() & Integer.MAX_VALUE) % shardCount;
+                }
+                channel
+                    .pipeline()
+                    .addLast("frameDecoder", new RequestFrameDecoder())
+                    .addLast("frameEncoder", new ResponseFrameEncoder())
+                    .addLast("handler", new RequestHandler(shard));
+              }
+            })
+        .bind(address)
+        .syncUninterruptibly()
+        .channel();
+  }
+
+  /** Closes the server sockets and all the connections, and waits for the I/O threads to stop. */
+  public synchronized void stop() {
+    if (serverChannel == null) return;
+    serverChannel.close().syncUninterruptibly();
+    if (shardAwareServerChannel != null) shardAwareServerChannel.close().syncUninterruptibly();
+    group.shutdownGracefully(0, 0, TimeUnit.SECONDS).syncUninterruptibly();
+    serverChannel = null;
+    shardAwareServerChannel = null;
+    group = null;
+  }
+
+  private class RequestHandler extends SimpleChannelInboundHandler<Frame> {
+
+    private final int shard;
+    // The keyspace set by the last USE query on this connection
+    private String keyspace;
+
+    RequestHandler(int shard) {
+      this.shard = shard;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, Frame request) {
+      try {
+        ProtocolVersion version = request.header.version;
+        if (version.compareTo(MIN_VERSION) < 0 || version.compareTo(maxVersion) > 0) {
+          // The driver recognizes this message and retries with a lower version
+          reply(
+              ctx,
+              request,
+              Message.Response.Type.ERROR,
+              error(
+                  ctx,
+                  ExceptionCode.PROTOCOL_ERROR,
+                  "Invalid or unsupported protocol version (" + version + ")"));
+        } else {
+          handle(ctx, request);
+        }
+      } finally {
+        request.body.release();
+      }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+      ctx.flush();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      ctx.close();
+    }
+
+    private void handle(ChannelHandlerContext ctx, Frame request) {
+      int opcode = request.header.opcode;
+      if (opcode == Message.Request.Type.OPTIONS.opcode) {
+        ByteBuf body = ctx.alloc().buffer();
+        writeStringMultimap(supported(), body);
+        reply(ctx, request, Message.Response.Type.SUPPORTED, body);
+      } else if (opcode == Message.Request.Type.STARTUP.opcode) {
+        String compression = readStringMap(request.body).get("COMPRESSION");
+        reply(ctx, request, Message.Response.Type.READY, ctx.alloc().buffer(0));
+        // The READY response went through the encoders already, anything after it uses the
+        // negotiated compression and framing
+        configureFraming(
+            ctx,
+            request.header.version,
+            compression == null
+                ? ProtocolOptions.Compression.NONE
+                : ProtocolOptions.Compression.fromString(compression));
+      } else if (opcode == Message.Request.Type.REGISTER.opcode) {
+        reply(ctx, request, Message.Response.Type.READY, ctx.alloc().buffer(0));
+      } else if (opcode == Message.Request.Type.QUERY.opcode) {
+        String query = readLongString(request.body);
+        String normalized = query.trim().toLowerCase();
+        if (normalized.startsWith("use ")) {
+          keyspace = identifier(query.trim().substring(4).trim(), null);
+          ByteBuf body = ctx.alloc().buffer();
+          body.writeInt(SET_KEYSPACE);
+          writeString(keyspace, body);
+          reply(ctx, request, Message.Response.Type.RESULT, body);
+        } else if (KEYSPACE_DDL_PATTERN.matcher(query).find()) {
+          try {
+            reply(ctx, request, Message.Response.Type.RESULT, keyspaceDdl(ctx, query));
+          } catch (IllegalArgumentException e) {
+            reply(
+                ctx,
+                request,
+                Message.Response.Type.ERROR,
+                error(ctx, ExceptionCode.INVALID, e.getMessage()));
+          }
+        } else if (normalized.startsWith("create table")) {
+          try {
+            reply(ctx, request, Message.Response.Type.RESULT, createTable(ctx, query, keyspace));
+          } catch (IllegalArgumentException e) {
+            reply(
+                ctx,
+                request,
+                Message.Response.Type.ERROR,
+                error(ctx, ExceptionCode.INVALID, e.getMessage()));
+          }
+        } else if (SYSTEM_QUERY_PATTERN.matcher(normalized).find()) {
+          reply(ctx, request, Message.Response.Type.RESULT, systemQueryResult(ctx, query));
+        } else {
+          Table table = normalized.startsWith("select") ? tableOf(query) : null;
+          ConsistencyLevel consistency = CBUtil.readConsistencyLevel(request.body);
+          respond(ctx, request, consistency, table, page(request), false);
+        }
+      } else if (opcode == Message.Request.Type.PREPARE.opcode) {
+        String query = readLongString(request.body);
+        reply(
+            ctx,
+            request,
+            Message.Response.Type.RESULT,
+            prepare(ctx, query, request.header.version));
+      } else if (opcode == Message.Request.Type.EXECUTE.opcode) {
+        MD5Digest id = MD5Digest.wrap(CBUtil.readBytes(request.body));
+        Prepared statement = prepared.get(id);
+        if (statement == null) {
+          ByteBuf body = error(ctx, ExceptionCode.UNPREPARED, "Unknown prepared statement");
+          CBUtil.writeShortBytes(id.bytes, body);
+          reply(ctx, request, Message.Response.Type.ERROR, body);
+        } else {
+          if (ProtocolFeature.PREPARED_METADATA_CHANGES.isSupportedBy(request.header.version))
+            CBUtil.readBytes(request.body); // result metadata id
+          ConsistencyLevel consistency = CBUtil.readConsistencyLevel(request.body);
+          respond(ctx, request, consistency, statement.table, page(request), false);
+        }
+      } else if (opcode == Message.Request.Type.BATCH.opcode) {
+        respond(ctx, request, ConsistencyLevel.ONE, null, null, true);
+      } else {
+        reply(
+            ctx,
+            request,
+            Message.Response.Type.ERROR,
+            error(ctx, ExceptionCode.PROTOCOL_ERROR, "Unsupported opcode " + opcode));
+      }
+    }
+
+    private Map<String, List<String>> supported() {
+      Map<String, List<String>> supported = new LinkedHashMap<String, List<String>>();
+      supported.put("CQL_VERSION", Collections.singletonList("3.0.0"));
+      supported.put("COMPRESSION", Arrays.asList("snappy", "lz4"));
+      if (shardCount > 0) {
+        supported.put("SCYLLA_SHARD", Collections.singletonList(Integer.toString(shard)));
+        supported.put("SCYLLA_NR_SHARDS", Collections.singletonList(Integer.toString(shardCount)));
+        supported.put(
+            "SCYLLA_PARTITIONER",
+            Collections.singletonList("org.apache.cassandra.dht.Murmur3Partitioner"));
+        supported.put(
+            "SCYLLA_SHARDING_ALGORITHM", Collections.singletonList("biased-token-round-robin"));
+        supported.put("SCYLLA_SHARDING_IGNORE_MSB", Collections.singletonList("12"));
+        supported.put(
+            "SCYLLA_SHARD_AWARE_PORT",
+            Collections.singletonList(
+                Integer.toString(
+                    ((InetSocketAddress) shardAwareServerChannel.localAddress()).getPort())));
+      }
+      return supported;
+    }
+  }
+
+  /**
+   * Switches a connection to the compression and framing format negotiated by its handshake: legacy
+   * frames that are compressed individually up to v4, and segments from v5.
+   */
+  private static void configureFraming(
+      ChannelHandlerContext ctx, ProtocolVersion version, ProtocolOptions.Compression compression) {
+    ChannelPipeline pipeline = ctx.pipeline();
+    if (version.compareTo(ProtocolVersion.V5) >= 0) {
+      SegmentCodec segmentCodec = new SegmentCodec(ctx.alloc(), compression);
+      pipeline.replace(
+          "frameDecoder", "bytesToSegmentDecoder", new BytesToSegmentDecoder(segmentCodec));
+      pipeline.addAfter(
+          "bytesToSegmentDecoder", "segmentToFrameDecoder", new SegmentToFrameDecoder());
+      pipeline.replace(
+          "frameEncoder", "segmentToBytesEncoder", new SegmentToBytesEncoder(segmentCodec));
+      pipeline.addAfter(
+          "segmentToBytesEncoder", "frameToSegmentEncoder", new ResponseSegmentEncoder());
+    } else if (compression != ProtocolOptions.Compression.NONE) {
+      pipeline.addAfter(
+          "frameDecoder", "frameDecompressor", new Frame.Decompressor(compression.compressor()));
+      pipeline.addAfter(
+          "frameEncoder", "frameCompressor", new Frame.Compressor(compression.compressor()));
+    }
+  }
+
+  /**
+   * Answers a query, an execution or a batch, after the configured latency, with either a result or
+   * one of the configured errors.
+   */
+  private void respond(
+      final ChannelHandlerContext ctx,
+      Frame request,
+      ConsistencyLevel consistency,
+      Table table,
+      int[] page,
+      boolean isBatch) {
+    Error error = nextError();
+    final Frame response =
+        error == null
+            ? response(request, Message.Response.Type.RESULT, result(ctx, table, page))
+            : response(
+                request, Message.Response.Type.ERROR, error.encode(ctx, consistency, isBatch));
+    long delay = latency.nextNanos(ThreadLocalRandom.current());
+    if (delay <= 0) {
+      ctx.write(response);
+    } else {
+      ctx.executor()
+          .schedule(
+              new Runnable() {
+                @Override
+                public void run() {
+                  if (ctx.channel().isActive()) ctx.writeAndFlush(response);
+                  else response.body.release();
+                }
+              },
+              delay,
+              TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private Error nextError() {
+    Map<Error, Double> rates;
+    synchronized (this) {
+      if (errorRates.isEmpty()) return null;
+      rates = new EnumMap<Error, Double>(errorRates);
+    }
+    double draw = ThreadLocalRandom.current().nextDouble();
+    for (Map.Entry<Error, Double> entry : rates.entrySet()) {
+      draw -= entry.getValue();
+      if (draw < 0) return entry.getKey();
+    }
+    return null;
+  }
+
+  private ByteBuf systemQueryResult(ChannelHandlerContext ctx, String query) {
+    String normalized = query.trim().toLowerCase();
+    if (normalized.contains("from system.local")) {
+      InetAddress ip = address.getAddress();
+      return rows(
+          ctx,
+          LOCAL_COLUMNS,
+          Collections.singletonList(
+              new Object[] {
+                "local",
+                "stub",
+                "org.apache.cassandra.dht.Murmur3Partitioner",
+                "dc1",
+                "rack1",
+                "4.0.0",
+                hostId,
+                schemaVersion,
+                Collections.singleton("0"),
+                ip,
+                ip,
+                ip
+              }));
+    } else if (normalized.contains("from system.peers")) {
+      return rows(ctx, PEERS_COLUMNS, Collections.<Object[]>emptyList());
+    } else if (normalized.contains("from system_schema.keyspaces")) {
+      return rows(ctx, KEYSPACES_COLUMNS, filter(query, KEYSPACES_COLUMNS, keyspaceRows()));
+    } else if (normalized.contains("from system_schema.tables")) {
+      return rows(ctx, TABLES_COLUMNS, filter(query, TABLES_COLUMNS, tableRows()));
+    } else if (normalized.contains("from system_schema.columns")) {
+      return rows(ctx, SCHEMA_COLUMNS_COLUMNS, filter(query, SCHEMA_COLUMNS_COLUMNS, columnRows()));
+    } else {
+      // Other system tables, for example the optional schema tables (views, functions...)
+      return ctx.alloc().buffer(4).writeInt(VOID);
+    }
+  }
+
+  private ByteBuf result(ChannelHandlerContext ctx, Table table, int[] page) {
+    if (table == null) return ctx.alloc().buffer(4).writeInt(VOID);
+    List<Object[]> rows = table.rows;
+    int pageSize = page[0], offset = Math.min(page[1], rows.size());
+    if (pageSize <= 0 || rows.size() - offset <= pageSize)
+      return rows(ctx, table.columns, rows.subList(offset, rows.size()), null);
+    int end = offset + pageSize;
+    return rows(ctx, table.columns, rows.subList(offset, end), end);
+  }
+
+  /**
+   * Reads the page size and the paging state of a QUERY or EXECUTE request, which follow its
+   * consistency level. The paging state is the offset of the first row of the page.
+   *
+   * @return the page size, or -1, and the offset.
+   */
+  private static int[] page(Frame request) {
+    ByteBuf body = request.body;
+    int flags =
+        request.header.version.compareTo(ProtocolVersion.V5) >= 0
+            ? body.readInt()
+            : body.readUnsignedByte();
+    if ((flags & VALUES) != 0) {
+      int count = body.readUnsignedShort();
+      for (int i = 0; i < count; i++) {
+        if ((flags & WITH_NAMES_FOR_VALUES) != 0) CBUtil.readString(body);
+        int length = body.readInt();
+        if (length > 0) body.skipBytes(length);
+      }
+    }
+    int pageSize = (flags & PAGE_SIZE) != 0 ? body.readInt() : -1;
+    int offset = 0;
+    if ((flags & WITH_PAGING_STATE) != 0) {
+      ByteBuffer state = CBUtil.readValue(body);
+      offset = state.getInt(state.position());
+    }
+    return new int[] {pageSize, offset};
+  }
+
+  /** Creates or drops a keyspace. Replication options are ignored. */
+  private ByteBuf keyspaceDdl(ChannelHandlerContext ctx, String query) {
+    Matcher matcher = KEYSPACE_DDL_PATTERN.matcher(query);
+    matcher.find();
+    boolean create = matcher.group(1).equalsIgnoreCase("CREATE");
+    boolean ifClause = matcher.group(2) != null;
+    String keyspace = identifier(matcher.group(3), null);
+    if (create) {
+      if (!keyspaces.add(keyspace) && !ifClause)
+        throw new IllegalArgumentException("Keyspace " + keyspace + " already exists");
+    } else {
+      if (!keyspaces.remove(keyspace) && !ifClause)
+        throw new IllegalArgumentException("Cannot drop non existing keyspace " + keyspace);
+      for (Table table : tables) {
+        if (table.keyspace().equals(keyspace)) tables.remove(table);
+      }
+    }
+    ByteBuf body = ctx.alloc().buffer();
+    body.writeInt(SCHEMA_CHANGE);
+    writeString(create ? "CREATED" : "DROPPED", body);
+    writeString("KEYSPACE", body);
+    writeString(keyspace, body);
+    return body;
+  }
+
+  /**
+   * Declares the table created by a {@code CREATE TABLE} query, replacing any table with the same
+   * name. Only the column definitions are used, table options are ignored.
+   */
+  private ByteBuf createTable(ChannelHandlerContext ctx, String query, String currentKeyspace) {
+    Matcher matcher = CREATE_TABLE_PATTERN.matcher(query);
+    if (!matcher.find()) throw new IllegalArgumentException("Unsupported query: " + query);
+    String keyspace = identifier(matcher.group(1), currentKeyspace);
+    if (keyspace == null) throw new IllegalArgumentException("No keyspace has been specified");
+    String name = identifier(matcher.group(2), null);
+
+    // Split the column definitions on the commas that are not in a type or a primary key
+    List<String> definitions = new ArrayList<String>();
+    int depth = 0;
+    int start = matcher.end();
+    for (int i = matcher.end(); i < query.length(); i++) {
+      char c = query.charAt(i);
+      if (c == '(' || c == '<') {
+        depth += 1;
+      } else if ((c == ')' || c == '>') && depth > 0) {
+        depth -= 1;
+      } else if (depth == 0 && (c == ',' || c == ')')) {
+        definitions.add(query.substring(start, i).trim());
+        start = i + 1;
+        if (c == ')') break;
+      }
+    }
+
+    String partitionKey = null;
+    List<Object> namesAndTypes = new ArrayList<Object>();
+    for (String definition : definitions) {
+      Matcher primaryKey = PRIMARY_KEY_PATTERN.matcher(definition);
+      if (primaryKey.find()) {
+        partitionKey = identifier(primaryKey.group(1), null);
+        continue;
+      }
+      String[] nameAndType = definition.split("\\s+", 2);
+      if (nameAndType.length < 2)
+        throw new IllegalArgumentException("Invalid column definition: " + definition);
+      String column = identifier(nameAndType[0], null);
+      String type = nameAndType[1];
+      if (type.toUpperCase().endsWith("PRIMARY KEY")) {
+        type = type.substring(0, type.length() - "PRIMARY KEY".length()).trim();
+        partitionKey = column;
+      }
+      namesAndTypes.add(column);
+      try {
+        namesAndTypes.add(
+            DataTypeCqlNameParser.parse(type, null, keyspace, null, null, false, false));
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException("Unsupported type: " + type);
+      }
+    }
+    // Move the partition key first
+    int index = namesAndTypes.indexOf(partitionKey);
+    if (index < 0) throw new IllegalArgumentException("Missing primary key: " + query);
+    Object type = namesAndTypes.remove(index + 1);
+    namesAndTypes.remove(index);
+    namesAndTypes.add(0, type);
+    namesAndTypes.add(0, partitionKey);
+    addTable(new Table(columns(keyspace, name, namesAndTypes.toArray())));
+
+    ByteBuf body = ctx.alloc().buffer();
+    body.writeInt(SCHEMA_CHANGE);
+    writeString("CREATED", body);
+    writeString("TABLE", body);
+    writeString(keyspace, body);
+    writeString(name, body);
+    return body;
+  }
+
+  private void addTable(Table table) {
+    keyspaces.add(table.keyspace());
+    Table previous = findTable(table.keyspace(), table.name());
+    if (previous != null) tables.remove(previous);
+    tables.add(table);
+  }
+
+  /** Returns the internal form of a CQL identifier: unquoted identifiers are case insensitive. */
+  private static String identifier(String cql, String defaultValue) {
+    if (cql == null) return defaultValue;
+    return cql.startsWith("\"") ? cql.substring(1, cql.length() - 1) : cql.toLowerCase();
+  }
+
+  private ByteBuf prepare(ChannelHandlerContext ctx, String query, ProtocolVersion version) {
+    Table table = tableOf(query);
+    List<ColumnDefinitions.Definition> variables = variables(query, table);
+    boolean isSelect = query.trim().toLowerCase().startsWith("select");
+    byte[] id = md5(query);
+    prepared.put(MD5Digest.wrap(id), new Prepared(isSelect ? table : null));
+
+    ByteBuf body = ctx.alloc().buffer();
+    body.writeInt(PREPARED);
+    CBUtil.writeShortBytes(id, body);
+    if (ProtocolFeature.PREPARED_METADATA_CHANGES.isSupportedBy(version))
+      CBUtil.writeShortBytes(id, body); // result metadata id, never changes
+    // Variables metadata, with the index of the partition key if it is bound
+    body.writeInt(variables.isEmpty() ? 0 : GLOBAL_TABLES_SPEC);
+    body.writeInt(variables.size());
+    int pkIndex = -1;
+    for (int i = 0; i < variables.size(); i++) {
+      if (variables.get(i) == table.columns.get(0)) pkIndex = i;
+    }
+    if (pkIndex < 0) {
+      body.writeInt(0);
+    } else {
+      body.writeInt(1);
+      body.writeShort(pkIndex);
+    }
+    writeColumns(variables, body);
+    // Result metadata
+    if (isSelect && table != null) {
+      body.writeInt(GLOBAL_TABLES_SPEC);
+      body.writeInt(table.columns.size());
+      writeColumns(table.columns, body);
+    } else {
+      body.writeInt(NO_METADATA);
+      body.writeInt(0);
+    }
+    return body;
+  }
+
+  private Table tableOf(String query) {
+    Matcher matcher = TABLE_PATTERN.matcher(query);
+    return matcher.find() ? findTable(matcher.group(1), matcher.group(2)) : null;
+  }
+
+  private Table findTable(String keyspace, String name) {
+    for (Table table : tables) {
+      if ((keyspace == null || table.keyspace().equalsIgnoreCase(keyspace))
+          && table.name().equalsIgnoreCase(name)) return table;
+    }
+    return null;
+  }
+
+  /** Returns the columns that the bind markers of a query are compared or assigned to. */
+  private static List<ColumnDefinitions.Definition> variables(String query, Table table) {
+    if (table == null) return Collections.emptyList();
+    List<String> names = new ArrayList<String>();
+    Matcher insert = INSERT_PATTERN.matcher(query);
+    if (insert.find()) {
+      String[] columns = insert.group(1).split(",");
+      String[] values = insert.group(2).split(",");
+      for (int i = 0; i < columns.length && i < values.length; i++) {
+        if (values[i].trim().equals("?")) names.add(columns[i].trim().replace("\"", ""));
+      }
+    } else {
+      Matcher relation = RELATION_PATTERN.matcher(query);
+      while (relation.find()) names.add(relation.group(1));
+    }
+    List<ColumnDefinitions.Definition> variables = new ArrayList<ColumnDefinitions.Definition>();
+    for (String name : names) {
+      for (ColumnDefinitions.Definition column : table.columns) {
+        if (column.getName().equalsIgnoreCase(name)) variables.add(column);
+      }
+    }
+    return variables;
+  }
+
+  /**
+   * Applies the {@code column = 'value'} restrictions of a schema query. The schema is small enough
+   * to always fit in the first page, so the queries that fetch the next pages get no rows.
+   */
+  private static List<Object[]> filter(
+      String query, List<ColumnDefinitions.Definition> columns, List<Object[]> rows) {
+    if (NEXT_PAGE_PATTERN.matcher(query).find()) return Collections.emptyList();
+    List<Object[]> result = new ArrayList<Object[]>(rows);
+    Matcher equality = EQUALITY_PATTERN.matcher(query);
+    while (equality.find()) {
+      for (int i = 0; i < columns.size(); i++) {
+        if (columns.get(i).getName().equals(equality.group(1))) {
+          for (Iterator<Object[]> it = result.iterator(); it.hasNext(); ) {
+            if (!equality.group(2).equals(it.next()[i])) it.remove();
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private List<Object[]> keyspaceRows() {
+    List<Object[]> rows = new ArrayList<Object[]>();
+    for (String keyspace : keyspaces) {
+      rows.add(
+          new Object[] {
+            keyspace,
+            true,
+            ImmutableMap.of(
+                "class", "org.apache.cassandra.locator.SimpleStrategy", "replication_factor", "1")
+          });
+    }
+    return rows;
+  }
+
+  private List<Object[]> tableRows() {
+    Map<String, String> empty = Collections.emptyMap();
+    List<Object[]> rows = new ArrayList<Object[]>();
+    for (Table table : tables) {
+      rows.add(
+          new Object[] {
+            table.keyspace(),
+            table.name(),
+            "99PERCENTILE",
+            0.01,
+            empty,
+            "",
+            ImmutableMap.of(
+                "class", "org.apache.cassandra.db.compaction.SizeTieredCompactionStrategy"),
+            empty,
+            1.0,
+            0.1,
+            0,
+            Collections.<String, ByteBuffer>emptyMap(),
+            Collections.singleton("compound"),
+            864000,
+            table.id,
+            2048,
+            0,
+            128,
+            "BLOCKING",
+            0.0,
+            "99PERCENTILE"
+          });
+    }
+    return rows;
+  }
+
+  private List<Object[]> columnRows() {
+    List<Object[]> rows = new ArrayList<Object[]>();
+    for (Table table : tables) {
+      for (int i = 0; i < table.columns.size(); i++) {
+        ColumnDefinitions.Definition column = table.columns.get(i);
+        rows.add(
+            new Object[] {
+              table.keyspace(),
+              table.name(),
+              column.getName(),
+              "none",
+              i == 0 ? "partition_key" : "regular",
+              i == 0 ? 0 : -1,
+              column.getType().asFunctionParameterString()
+            });
+      }
+    }
+    return rows;
+  }
+
+  private static ByteBuf rows(
+      ChannelHandlerContext ctx, List<ColumnDefinitions.Definition> columns, List<Object[]> rows) {
+    return rows(ctx, columns, rows, null);
+  }
+
+  /** @param nextOffset the paging state of the next page, or {@code null} if this is the last. */
+  private static ByteBuf rows(
+      ChannelHandlerContext ctx,
+      List<ColumnDefinitions.Definition> columns,
+      List<Object[]> rows,
+      Integer nextOffset) {
+    ByteBuf body = ctx.alloc().buffer();
+    body.writeInt(ROWS);
+    body.writeInt(nextOffset == null ? GLOBAL_TABLES_SPEC : GLOBAL_TABLES_SPEC | HAS_MORE_PAGES);
+    body.writeInt(columns.size());
+    if (nextOffset != null) {
+      CBUtil.writeValue(ByteBuffer.allocate(4).putInt(0, nextOffset), body);
+    }
+    writeColumns(columns, body);
+    body.writeInt(rows.size());
+    for (Object[] row : rows) {
+      for (int i = 0; i < columns.size(); i++) {
+        DataType type = columns.get(i).getType();
+        ByteBuffer value =
+            CodecRegistry.DEFAULT_INSTANCE.codecFor(type).serialize(row[i], CODEC_VERSION);
+        CBUtil.writeValue(value, body);
+      }
+    }
+    return body;
+  }
+
+  private static void writeColumns(List<ColumnDefinitions.Definition> columns, ByteBuf body) {
+    if (columns.isEmpty()) return;
+    writeString(columns.get(0).getKeyspace(), body);
+    writeString(columns.get(0).getTable(), body);
+    for (ColumnDefinitions.Definition column : columns) {
+      writeString(column.getName(), body);
+      writeType(column.getType(), body);
+    }
+  }
+
+  private static ByteBuf error(ChannelHandlerContext ctx, ExceptionCode code, String message) {
+    ByteBuf body = ctx.alloc().buffer();
+    body.writeInt(code.value);
+    writeString(message, body);
+    return body;
+  }
+
+  private static void reply(
+      ChannelHandlerContext ctx, Frame request, Message.Response.Type type, ByteBuf body) {
+    ctx.write(response(request, type, body));
+  }
+
+  private static Frame response(Frame request, Message.Response.Type type, ByteBuf body) {
+    return Frame.create(
+        request.header.version,
+        type.opcode,
+        request.header.streamId,
+        EnumSet.noneOf(Frame.Header.Flag.class),
+        body);
+  }
+
+  private static List<ColumnDefinitions.Definition> columns(
+      String keyspace, String table, Object... namesAndTypes) {
+    ColumnDefinitions.Definition[] definitions =
+        new ColumnDefinitions.Definition[namesAndTypes.length / 2];
+    for (int i = 0; i < definitions.length; i++) {
+      definitions[i] =
+          new ColumnDefinitions.Definition(
+              keyspace, table, (String) namesAndTypes[2 * i], (DataType) namesAndTypes[2 * i + 1]);
+    }
+    return Arrays.asList(definitions);
+  }
+
+  private static void writeType(DataType type, ByteBuf body) {
+    body.writeShort(type.getName().protocolId);
+    if (type instanceof DataType.CustomType)
+      writeString(((DataType.CustomType) type).getCustomTypeClassName(), body);
+    for (DataType argument : type.getTypeArguments()) writeType(argument, body);
+  }
+
+  private static byte[] md5(String query) {
+    try {
+      return MessageDigest.getInstance("MD5").digest(query.getBytes(CharsetUtil.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static String readLongString(ByteBuf body) {
+    int length = body.readInt();
+    return body.readCharSequence(length, CharsetUtil.UTF_8).toString();
+  }
+
+  private static Map<String, String> readStringMap(ByteBuf body) {
+    int size = body.readUnsignedShort();
+    Map<String, String> map = new HashMap<String, String>(size);
+    for (int i = 0; i < size; i++) map.put(CBUtil.readString(body), CBUtil.readString(body));
+    return map;
+  }
+
+  private static void writeString(String s, ByteBuf body) {
+    byte[] bytes = s.getBytes(CharsetUtil.UTF_8);
+    body.writeShort(bytes.length);
+    body.writeBytes(bytes);
+  }
+
+  private static void writeStringMultimap(Map<String, List<String>> map, ByteBuf body) {
+    body.writeShort(map.size());
+    for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+      writeString(entry.getKey(), body);
+      body.writeShort(entry.getValue().size());
+      for (String value : entry.getValue()) writeString(value, body);
+    }
+  }
+
+  private static class Table {
+    final List<ColumnDefinitions.Definition> columns;
+    final UUID id = UUID.randomUUID();
+    volatile List<Object[]> rows = Collections.emptyList();
+
+    Table(List<ColumnDefinitions.Definition> columns) {
+      this.columns = columns;
+    }
+
+    String keyspace() {
+      return columns.get(0).getKeyspace();
+    }
+
+    String name() {
+      return columns.get(0).getTable();
+    }
+  }
+
+  private static class Prepared {
+    // the table whose rows are returned, for SELECT queries
+    final Table table;
+
+    Prepared(Table table) {
+      this.table = table;
+    }
+  }
+
+  /** The errors that a node can be configured to return with {@link #withError}. */
+  public enum Error {
+    OVERLOADED(ExceptionCode.OVERLOADED),
+    SERVER_ERROR(ExceptionCode.SERVER_ERROR),
+    UNAVAILABLE(ExceptionCode.UNAVAILABLE),
+    READ_TIMEOUT(ExceptionCode.READ_TIMEOUT),
+    WRITE_TIMEOUT(ExceptionCode.WRITE_TIMEOUT);
+
+    private final ExceptionCode code;
+
+    Error(ExceptionCode code) {
+      this.code = code;
+    }
+
+    ByteBuf encode(ChannelHandlerContext ctx, ConsistencyLevel consistency, boolean isBatch) {
+      ByteBuf body = error(ctx, code, "Simulated " + name().toLowerCase() + " error");
+      // As if the request needed one replica, and none responded
+      switch (this) {
+        case UNAVAILABLE:
+          CBUtil.writeConsistencyLevel(consistency, body);
+          body.writeInt(1); // required
+          body.writeInt(0); // alive
+          break;
+        case READ_TIMEOUT:
+          CBUtil.writeConsistencyLevel(consistency, body);
+          body.writeInt(0); // received
+          body.writeInt(1); // block for
+          body.writeByte(0); // data present
+          break;
+        case WRITE_TIMEOUT:
+          CBUtil.writeConsistencyLevel(consistency, body);
+          body.writeInt(0); // received
+          body.writeInt(1); // block for
+          writeString(isBatch ? "BATCH" : "SIMPLE", body);
+          break;
+        default:
+          break;
+      }
+      return body;
+    }
+  }
+
+  /** The distribution of the latencies of a node, see {@link #withLatency}. */
+  public abstract static class Latency {
+
+    /** Returns the next latency, in nanoseconds. */
+    public abstract long nextNanos(Random random);
+
+    /** Always the same latency. */
+    public static Latency fixed(long latency, TimeUnit unit) {
+      final long nanos = unit.toNanos(latency);
+      return new Latency() {
+        @Override
+        public long nextNanos(Random random) {
+          return nanos;
+        }
+      };
+    }
+
+    /** Latencies distributed uniformly between {@code min} and {@code max}. */
+    public static Latency uniform(long min, long max, TimeUnit unit) {
+      final long minNanos = unit.toNanos(min);
+      final long rangeNanos = unit.toNanos(max) - minNanos;
+      if (minNanos < 0 || rangeNanos < 0)
+        throw new IllegalArgumentException("Expected 0 <= min <= max");
+      return new Latency() {
+        @Override
+        public long nextNanos(Random random) {
+          return minNanos + (long) (random.nextDouble() * rangeNanos);
+        }
+      };
+    }
+
+    /**
+     * Latencies with a long tail: exponentially distributed above {@code min}, with the given mean.
+     */
+    public static Latency exponential(long min, long mean, TimeUnit unit) {
+      final long minNanos = unit.toNanos(min);
+      final double scaleNanos = unit.toNanos(mean) - minNanos;
+      if (minNanos < 0 || scaleNanos < 0)
+        throw new IllegalArgumentException("Expected 0 <= min <= mean");
+      return new Latency() {
+        @Override
+        public long nextNanos(Random random) {
+          return minNanos + (long) (-scaleNanos * Math.log(1 - random.nextDouble()));
+        }
+      };
+    }
+  }
+
+  /** Splits the incoming bytes into request frames, in the legacy framing format. */
+  private static class RequestFrameDecoder extends LengthFieldBasedFrameDecoder {
+
+    RequestFrameDecoder() {
+      // Frame.Decoder only accepts response opcodes, so split requests ourselves. The header is 9
+      // bytes for all the supported versions, with the length last.
+      super(256 * 1024 * 1024, 5, 4);
+    }
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+      ByteBuf frame = (ByteBuf) super.decode(ctx, in);
+      return frame == null ? null : new Frame(Frame.Header.decode(frame), frame);
+    }
+  }
+
+  /** Encodes response frames, in the legacy framing format. */
+  private static class ResponseFrameEncoder extends MessageToMessageEncoder<Frame> {
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Frame frame, List<Object> out) {
+      out.add(encodeHeader(ctx, frame.header));
+      out.add(frame.body);
+    }
+  }
+
+  /**
+   * Wraps response frames into segments, from protocol v5. Each frame gets its own segment, or is
+   * sliced over several segments if it is too large.
+   */
+  private static class ResponseSegmentEncoder extends MessageToMessageEncoder<Frame> {
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Frame frame, List<Object> out) {
+      ByteBuf header = encodeHeader(ctx, frame.header);
+      ByteBuf encoded = ctx.alloc().ioBuffer(header.readableBytes() + frame.body.readableBytes());
+      encoded.writeBytes(header).writeBytes(frame.body);
+      header.release();
+      frame.body.release();
+      if (encoded.readableBytes() <= Segment.MAX_PAYLOAD_LENGTH) {
+        out.add(new Segment(encoded, true));
+      } else {
+        while (encoded.isReadable()) {
+          int length = Math.min(encoded.readableBytes(), Segment.MAX_PAYLOAD_LENGTH);
+          out.add(new Segment(encoded.readRetainedSlice(length), false));
+        }
+        encoded.release();
+      }
+    }
+  }
+
+  private static ByteBuf encodeHeader(ChannelHandlerContext ctx, Frame.Header header) {
+    ByteBuf buffer = ctx.alloc().ioBuffer(Frame.Header.lengthFor(header.version));
+    header.encodeInto(buffer);
+    buffer.setByte(0, 0x80 | header.version.toInt()); // response direction
+    return buffer;
+  }
+}
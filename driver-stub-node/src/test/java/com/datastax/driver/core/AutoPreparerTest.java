@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static com.datastax.driver.core.ConditionChecker.check;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class AutoPreparerTest {
+
+  private static final String QUERY = "SELECT * FROM ks.t WHERE k = ?";
+
+  private StubNode node;
+  private Cluster cluster;
+  private SessionManager session;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    node =
+        new StubNode(new InetSocketAddress("127.0.0.1", 0))
+            .withTable("ks", "t", "k", DataType.cint(), "v", DataType.text())
+            .start();
+    cluster =
+        Cluster.builder()
+            .addContactPointsWithPorts(node.getAddress())
+            .withQueryOptions(
+                new QueryOptions().setPreparedStatementCacheSize(100).setAutoPrepareThreshold(1))
+            .build();
+    session = (SessionManager) cluster.connect();
+  }
+
+  @AfterMethod(groups = "unit", alwaysRun = true)
+  public void teardown() {
+    if (cluster != null) cluster.close();
+    if (node != null) node.stop();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_share_prepared_statement_with_application() {
+    PreparedStatement applicationStatement = session.prepare(QUERY);
+    applicationStatement
+        .setConsistencyLevel(ConsistencyLevel.EACH_QUORUM)
+        .setIdempotent(true)
+        .enableTracing();
+
+    BoundStatement bound = waitUntilAutoPrepared();
+
+    assertThat(bound.preparedStatement()).isNotSameAs(applicationStatement);
+    assertThat(bound.getConsistencyLevel()).isNull();
+    assertThat(bound.isIdempotent()).isNull();
+    assertThat(bound.isTracing()).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_prepare_again_automatically_after_invalidation() {
+    waitUntilAutoPrepared();
+
+    // A schema change invalidates the cache, the query must be prepared again instead of being
+    // bound to the stale prepared statement
+    session.invalidatePreparedStatementCache();
+    assertThat(session.autoPreparer.maybeBind(new SimpleStatement(QUERY, 1)))
+        .isInstanceOf(SimpleStatement.class);
+    waitUntilAutoPrepared();
+  }
+
+  private BoundStatement waitUntilAutoPrepared() {
+    final Statement[] bound = new Statement[1];
+    check()
+        .that(
+            new Callable<Boolean>() {
+              @Override
+              public Boolean call() {
+                bound[0] = session.autoPreparer.maybeBind(new SimpleStatement(QUERY, 1));
+                return bound[0] instanceof BoundStatement;
+              }
+            })
+        .before(5, TimeUnit.SECONDS)
+        .becomesTrue();
+    return (BoundStatement) bound[0];
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class PreparedStatementCacheTest {
+
+  private StubNode node;
+  private Cluster cluster;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    node =
+        new StubNode(new InetSocketAddress("127.0.0.1", 0))
+            .withTable("ks", "t", "k", DataType.cint(), "v", DataType.text())
+            .start();
+    cluster =
+        Cluster.builder()
+            .addContactPointsWithPorts(node.getAddress())
+            .withQueryOptions(new QueryOptions().setPreparedStatementCacheSize(100))
+            .build();
+  }
+
+  @AfterMethod(groups = "unit", alwaysRun = true)
+  public void teardown() {
+    if (cluster != null) cluster.close();
+    if (node != null) node.stop();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_propagate_cancellation_to_other_callers() throws Exception {
+    Session session = cluster.connect();
+    String query = "SELECT * FROM ks.t WHERE k = ?";
+
+    ListenableFuture<PreparedStatement> first = session.prepareAsync(query);
+    ListenableFuture<PreparedStatement> second = session.prepareAsync(query);
+    assertThat(second).isNotSameAs(first);
+    first.cancel(true);
+
+    PreparedStatement prepared = second.get(10, TimeUnit.SECONDS);
+    assertThat(prepared.getQueryString()).isEqualTo(query);
+    // the preparation is still cached
+    assertThat(session.prepareAsync(query).get(10, TimeUnit.SECONDS)).isSameAs(prepared);
+    assertThat(((SessionManager) session).preparedStatementCacheSize()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.datastax.driver.core.exceptions.ReadTimeoutException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class StubNodeTest {
+
+  private StubNode node;
+
+  @BeforeMethod(groups = "unit")
+  public void startNode() {
+    node = new StubNode(new InetSocketAddress("127.0.0.1", 0)).start();
+  }
+
+  @AfterMethod(groups = "unit", alwaysRun = true)
+  public void stopNode() {
+    if (node != null) node.stop();
+  }
+
+  @Test(groups = "unit")
+  public void should_accept_connections_and_answer_requests() {
+    Cluster cluster =
+        Cluster.builder()
+            .addContactPointsWithPorts(node.getAddress())
+            .withQueryOptions(new QueryOptions().setMetadataEnabled(false))
+            .build();
+    try {
+      Session session = cluster.connect();
+      assertThat(cluster.getConfiguration().getProtocolOptions().getProtocolVersion())
+          .isEqualTo(ProtocolVersion.V4);
+      assertThat(cluster.getMetadata().getAllHosts()).hasSize(1);
+
+      ResultSet rs = session.execute("INSERT INTO ks.t (k, v) VALUES (1, 1)");
+      assertThat(rs.one()).isNull();
+
+      PreparedStatement ps = session.prepare("INSERT INTO ks.t (k, v) VALUES (2, 2)");
+      rs = session.execute(ps.bind());
+      assertThat(rs.one()).isNull();
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_expose_tables_and_return_their_rows() {
+    node.withTable("ks", "users", "id", DataType.cint(), "name", DataType.text())
+        .withRows("ks", "users", Arrays.asList(new Object[] {1, "alice"}, new Object[] {2, "bob"}));
+    Cluster cluster = Cluster.builder().addContactPointsWithPorts(node.getAddress()).build();
+    try {
+      Session session = cluster.connect();
+      TableMetadata table = cluster.getMetadata().getKeyspace("ks").getTable("users");
+      assertThat(table.getPartitionKey()).hasSize(1);
+      assertThat(table.getColumn("name").getType()).isEqualTo(DataType.text());
+
+      PreparedStatement ps = session.prepare("SELECT * FROM ks.users WHERE id = ?");
+      assertThat(ps.getVariables().size()).isEqualTo(1);
+      assertThat(ps.getPreparedId().routingKeyIndexes).containsExactly(0);
+      List<Row> rows = session.execute(ps.bind(1)).all();
+      assertThat(rows).hasSize(2);
+      assertThat(rows.get(1).getString("name")).isEqualTo("bob");
+
+      ps = session.prepare("INSERT INTO ks.users (id, name) VALUES (?, ?)");
+      assertThat(ps.getVariables().getType(1)).isEqualTo(DataType.text());
+      assertThat(session.execute(ps.bind(3, "carol")).one()).isNull();
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_compress_frames_with_protocol_v4() {
+    node.stop();
+    node =
+        new StubNode(new InetSocketAddress("127.0.0.1", 0))
+            .withMaxProtocolVersion(ProtocolVersion.V4)
+            .withTable("ks", "t", "k", DataType.cint(), "v", DataType.text())
+            .start();
+    node.withRows("ks", "t", rows(100, 100));
+    Cluster cluster =
+        Cluster.builder()
+            .addContactPointsWithPorts(node.getAddress())
+            .withCompression(ProtocolOptions.Compression.LZ4)
+            .build();
+    try {
+      Session session = cluster.connect();
+      assertThat(cluster.getConfiguration().getProtocolOptions().getProtocolVersion())
+          .isEqualTo(ProtocolVersion.V4);
+      assertThat(session.execute("SELECT * FROM ks.t").all()).hasSize(100);
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_return_vector_columns() {
+    List<Object[]> rows = new ArrayList<Object[]>();
+    rows.add(new Object[] {1, new float[] {0.5f, 1f, -1f}});
+    node.withTable("ks", "t", "k", DataType.cint(), "v", DataType.vector(DataType.cfloat(), 3))
+        .withRows("ks", "t", rows);
+    Cluster cluster = Cluster.builder().addContactPointsWithPorts(node.getAddress()).build();
+    try {
+      Row row = cluster.connect().execute("SELECT * FROM ks.t").one();
+      assertThat(row.getColumnDefinitions().getType("v"))
+          .isEqualTo(DataType.vector(DataType.cfloat(), 3));
+      assertThat(row.get("v", float[].class)).containsExactly(0.5f, 1f, -1f);
+      assertThat((float[]) row.getObject("v")).containsExactly(0.5f, 1f, -1f);
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_return_rows_in_pages() {
+    node.withTable("ks", "t", "k", DataType.cint(), "v", DataType.text())
+        .withRows("ks", "t", rows(25, 10));
+    Cluster cluster = Cluster.builder().addContactPointsWithPorts(node.getAddress()).build();
+    try {
+      Session session = cluster.connect();
+      ResultSet rs = session.execute(new SimpleStatement("SELECT * FROM ks.t").setFetchSize(10));
+      assertThat(rs.getAvailableWithoutFetching()).isEqualTo(10);
+      assertThat(rs.isFullyFetched()).isFalse();
+
+      List<Row> rows = rs.all();
+      assertThat(rows).hasSize(25);
+      assertThat(rows.get(24).getInt("k")).isEqualTo(24);
+      assertThat(rs.getAllExecutionInfo()).hasSize(3);
+
+      PreparedStatement ps = session.prepare("SELECT * FROM ks.t WHERE k = ?");
+      rs = session.execute(ps.bind(1).setFetchSize(20));
+      assertThat(rs.getAvailableWithoutFetching()).isEqualTo(20);
+      assertThat(rs.all()).hasSize(25);
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_slice_large_responses_into_segments_with_protocol_v5() {
+    // 200 KB, more than the maximum payload of a segment
+    node.withTable("ks", "t", "k", DataType.cint(), "v", DataType.text())
+        .withRows("ks", "t", rows(200, 1000));
+    for (ProtocolOptions.Compression compression :
+        Arrays.asList(ProtocolOptions.Compression.NONE, ProtocolOptions.Compression.LZ4)) {
+      Cluster cluster =
+          Cluster.builder()
+              .addContactPointsWithPorts(node.getAddress())
+              .withProtocolVersion(ProtocolVersion.V5)
+              .withCompression(compression)
+              .build();
+      try {
+        Session session = cluster.connect();
+        assertThat(cluster.getConfiguration().getProtocolOptions().getProtocolVersion())
+            .isEqualTo(ProtocolVersion.V5);
+        List<Row> rows = session.execute("SELECT * FROM ks.t").all();
+        assertThat(rows).hasSize(200);
+        assertThat(rows.get(199).getString("v")).hasSize(1000);
+      } finally {
+        cluster.close();
+      }
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_advertise_shards() {
+    node.stop();
+    node = new StubNode(new InetSocketAddress("127.0.0.1", 0)).withShards(4).start();
+    Cluster cluster =
+        Cluster.builder()
+            .addContactPointsWithPorts(node.getAddress())
+            .withQueryOptions(new QueryOptions().setMetadataEnabled(false))
+            .build();
+    try {
+      Session session = cluster.connect();
+      Host host = cluster.getMetadata().getAllHosts().iterator().next();
+      assertThat(host.getShardingInfo()).isNotNull();
+      assertThat(host.getShardingInfo().getShardsCount()).isEqualTo(4);
+      assertThat(host.getShardingInfo().getShardAwarePort(false))
+          .isNotEqualTo(node.getAddress().getPort());
+      for (int i = 0; i < 10; i++) session.execute("INSERT INTO ks.t (k, v) VALUES (1, 1)");
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_delay_and_fail_requests() {
+    node.withTable("ks", "t", "k", DataType.cint(), "v", DataType.text())
+        .withLatency(StubNode.Latency.fixed(50, TimeUnit.MILLISECONDS))
+        .withError(StubNode.Error.READ_TIMEOUT, 1);
+    Cluster cluster = Cluster.builder().addContactPointsWithPorts(node.getAddress()).build();
+    try {
+      Session session = cluster.connect();
+      long start = System.nanoTime();
+      try {
+        session.execute("SELECT * FROM ks.t WHERE k = 1");
+        fail("Expected a ReadTimeoutException");
+      } catch (ReadTimeoutException e) {
+        assertThat(e.getReceivedAcknowledgements()).isEqualTo(0);
+        assertThat(e.getRequiredAcknowledgements()).isEqualTo(1);
+      }
+      assertThat(System.nanoTime() - start)
+          .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    } finally {
+      cluster.close();
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_create_tables() {
+    Cluster cluster = Cluster.builder().addContactPointsWithPorts(node.getAddress()).build();
+    try {
+      Session session = cluster.connect();
+      session.execute(
+          "CREATE KEYSPACE ks WITH replication = {'class': 'SimpleStrategy', 'replication_factor': 1}");
+      session.execute("USE ks");
+      session.execute(
+          "CREATE TABLE t (c int, \"K\" bigint, v map<text, blob>, PRIMARY KEY (\"K\", c))");
+      TableMetadata table = cluster.getMetadata().getKeyspace("ks").getTable("t");
+      assertThat(table).isNotNull();
+      assertThat(table.getPartitionKey().get(0).getName()).isEqualTo("K");
+      assertThat(table.getColumn("v").getType())
+          .isEqualTo(DataType.map(DataType.text(), DataType.blob()));
+
+      PreparedStatement ps = session.prepare("UPDATE t SET v = ? WHERE \"K\" = ?");
+      session.execute(ps.bind(null, 1L));
+
+      session.execute("DROP KEYSPACE ks");
+      assertThat(cluster.getMetadata().getKeyspace("ks")).isNull();
+    } finally {
+      cluster.close();
+    }
+  }
+
+  private static List<Object[]> rows(int count, int valueSize) {
+    char[] value = new char[valueSize];
+    Arrays.fill(value, 'a');
+    List<Object[]> rows = new ArrayList<Object[]>();
+    for (int i = 0; i < count; i++) rows.add(new Object[] {i, new String(value)});
+    return rows;
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.policies.RoundRobinPolicy;
+import com.datastax.driver.core.policies.TokenAwarePolicy;
+import java.net.InetSocketAddress;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+public class TokenAwareQueryPlanTest {
+
+  @Test(groups = "unit")
+  public void should_use_overridden_query_plan_of_token_aware_policy_subclass() {
+    final AtomicInteger plans = new AtomicInteger();
+    TokenAwarePolicy policy =
+        new TokenAwarePolicy(new RoundRobinPolicy()) {
+          @Override
+          public Iterator<Host> newQueryPlan(String loggedKeyspace, Statement statement) {
+            plans.incrementAndGet();
+            return super.newQueryPlan(loggedKeyspace, statement);
+          }
+        };
+    StubNode node = new StubNode(new InetSocketAddress("127.0.0.1", 0)).start();
+    Cluster cluster =
+        Cluster.builder()
+            .addContactPointsWithPorts(node.getAddress())
+            .withLoadBalancingPolicy(policy)
+            .build();
+    try {
+      Session session = cluster.connect();
+      int before = plans.get();
+      session.execute("SELECT * FROM system.local");
+      assertThat(plans.get()).isEqualTo(before + 1);
+    } finally {
+      cluster.close();
+      node.stop();
+    }
+  }
+}
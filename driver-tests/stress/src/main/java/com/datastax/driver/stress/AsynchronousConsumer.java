@@ -85,9 +85,7 @@ public class AsynchronousConsumer implements Consumer {
 
           @Override
           public void onFailure(final Throwable t) {
-            // Could do better I suppose
-            System.err.println("Error during request: " + t);
-            ctx.done();
+            ctx.failed(t);
             request();
           }
         },
@@ -52,19 +52,16 @@ public class BlockingConsumer implements Consumer {
 
     @Override
     public void run() {
-      try {
-        while (requests.hasNext()) handle(requests.next());
-      } catch (DriverException e) {
-        System.err.println("Error during query: " + e.getMessage());
-      }
+      while (requests.hasNext()) handle(requests.next());
     }
 
     protected void handle(QueryGenerator.Request request) {
       Reporter.Context ctx = reporter.newRequest();
       try {
         request.execute(session);
-      } finally {
         ctx.done();
+      } catch (DriverException e) {
+        ctx.failed(e);
       }
     }
   }
@@ -248,4 +248,157 @@ public class Generators {
           };
         }
       };
+
+  public static final QueryGenerator.Builder MIXED =
+      new QueryGenerator.Builder() {
+
+        @Override
+        public String name() {
+          return "mixed";
+        }
+
+        // Computed once in prepare, the zipfian distribution is costly to create with many keys
+        private KeyDistribution keys;
+
+        @Override
+        public OptionParser addOptions(OptionParser parser) {
+          String msg =
+              "A mix of reads, writes and lightweight transactions (LWT) on the table of the insert generator, "
+                  + "with prepared statements. Each request picks its kind at random according to the given ratios, "
+                  + "and its key according to the given key distribution.";
+          parser.formatHelpWith(Stress.Help.formatFor(name(), msg));
+
+          parser
+              .accepts("reads", "The ratio of reads")
+              .withRequiredArg()
+              .ofType(Double.class)
+              .defaultsTo(1.0);
+          parser
+              .accepts("writes", "The ratio of writes")
+              .withRequiredArg()
+              .ofType(Double.class)
+              .defaultsTo(1.0);
+          parser
+              .accepts("lwts", "The ratio of conditional updates")
+              .withRequiredArg()
+              .ofType(Double.class)
+              .defaultsTo(0.0);
+          parser
+              .accepts("keys", "The number of distinct keys")
+              .withRequiredArg()
+              .ofType(Long.class)
+              .defaultsTo(1000000L);
+          parser
+              .accepts("key-distribution", "How keys are picked: uniform, zipfian or hotspot")
+              .withRequiredArg()
+              .ofType(String.class)
+              .defaultsTo("uniform");
+          parser
+              .accepts("zipf-exponent", "The exponent of the zipfian distribution, between 0 and 1")
+              .withRequiredArg()
+              .ofType(Double.class)
+              .defaultsTo(0.99);
+          parser
+              .accepts(
+                  "hot-keys", "The fraction of the keys that are hot, for the hotspot distribution")
+              .withRequiredArg()
+              .ofType(Double.class)
+              .defaultsTo(0.2);
+          parser
+              .accepts(
+                  "hot-accesses",
+                  "The fraction of the accesses that go to hot keys, for the hotspot distribution")
+              .withRequiredArg()
+              .ofType(Double.class)
+              .defaultsTo(0.8);
+          parser
+              .accepts("columns-per-row", "Number of columns per CQL3 row")
+              .withRequiredArg()
+              .ofType(Integer.class)
+              .defaultsTo(5);
+          parser
+              .accepts("value-size", "The size in bytes for column values")
+              .withRequiredArg()
+              .ofType(Integer.class)
+              .defaultsTo(34);
+          return parser;
+        }
+
+        @Override
+        public void prepare(OptionSet options, Session session) {
+          // Unlike insert, keep existing data, so that reads of a previous run's keys find rows
+          session.execute(
+              "CREATE KEYSPACE IF NOT EXISTS stress WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+
+          session.execute("USE stress");
+
+          StringBuilder sb = new StringBuilder();
+          sb.append("CREATE TABLE IF NOT EXISTS standard1 (key bigint PRIMARY KEY");
+          for (int i = 0; i < (Integer) options.valueOf("columns-per-row"); ++i)
+            sb.append(", C").append(i).append(" blob");
+          sb.append(')');
+          session.execute(sb.toString());
+
+          keys =
+              KeyDistribution.forName(
+                  (String) options.valueOf("key-distribution"),
+                  (Long) options.valueOf("keys"),
+                  (Double) options.valueOf("zipf-exponent"),
+                  (Double) options.valueOf("hot-keys"),
+                  (Double) options.valueOf("hot-accesses"));
+          System.out.println("  keys:                 " + keys);
+        }
+
+        @Override
+        public QueryGenerator create(int id, int iterations, OptionSet options, Session session) {
+          final int valueSize = (Integer) options.valueOf("value-size");
+          final int columnsPerRow = (Integer) options.valueOf("columns-per-row");
+          final KeyDistribution keys = this.keys;
+
+          double reads = (Double) options.valueOf("reads");
+          double writes = (Double) options.valueOf("writes");
+          double lwts = (Double) options.valueOf("lwts");
+          double total = reads + writes + lwts;
+          if (reads < 0 || writes < 0 || lwts < 0 || total <= 0)
+            throw new IllegalArgumentException(
+                "The ratios of reads, writes and LWTs must be positive, and not all zero");
+          final double readThreshold = reads / total;
+          final double writeThreshold = (reads + writes) / total;
+
+          StringBuilder sb = new StringBuilder();
+          sb.append("UPDATE standard1 SET ");
+          for (int i = 0; i < columnsPerRow; ++i) {
+            if (i > 0) sb.append(", ");
+            sb.append('C').append(i).append("=?");
+          }
+          sb.append(" WHERE key = ?");
+
+          final PreparedStatement read = session.prepare("SELECT * FROM standard1 WHERE key = ?");
+          final PreparedStatement write = session.prepare(sb.toString());
+          final PreparedStatement lwt =
+              session.prepare("UPDATE standard1 SET C0=? WHERE key = ? IF EXISTS");
+
+          return new AbstractGenerator(iterations) {
+            @Override
+            public QueryGenerator.Request next() {
+              Random r = random.get();
+              long key = keys.next(r);
+              double kind = r.nextDouble();
+              BoundStatement b;
+              if (kind < readThreshold) {
+                b = read.bind();
+              } else if (kind < writeThreshold) {
+                b = write.bind();
+                for (int i = 0; i < columnsPerRow; ++i) b.setBytes("c" + i, makeValue(valueSize));
+              } else {
+                b = lwt.bind();
+                b.setBytes("c0", makeValue(valueSize));
+              }
+              b.setLong("key", key);
+              ++iteration;
+              return new QueryGenerator.Request.PreparedQuery(b);
+            }
+          };
+        }
+      };
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.stress;
+
+import java.util.Random;
+
+/**
+ * Picks the keys accessed by a workload among {@code [0, keys)}.
+ *
+ * <p>Instances are immutable and can be shared between threads, each thread passing its own {@link
+ * Random}.
+ */
+public abstract class KeyDistribution {
+
+  protected final long keys;
+
+  protected KeyDistribution(long keys) {
+    if (keys < 1)
+      throw new IllegalArgumentException("The number of keys must be strictly positive");
+    this.keys = keys;
+  }
+
+  public abstract long next(Random random);
+
+  /**
+   * Creates a distribution from its name, as accepted on the command line.
+   *
+   * @param name one of {@code uniform}, {@code zipfian} or {@code hotspot}.
+   */
+  public static KeyDistribution forName(
+      String name, long keys, double zipfExponent, double hotFraction, double hotAccessFraction) {
+    if (name.equals("uniform")) return uniform(keys);
+    if (name.equals("zipfian")) return zipfian(keys, zipfExponent);
+    if (name.equals("hotspot")) return hotspot(keys, hotFraction, hotAccessFraction);
+    throw new IllegalArgumentException("Unknown key distribution " + name);
+  }
+
+  /** All keys are equally likely. */
+  public static KeyDistribution uniform(long keys) {
+    return new KeyDistribution(keys) {
+      @Override
+      public long next(Random random) {
+        return nextLong(random, 0, this.keys);
+      }
+
+      @Override
+      public String toString() {
+        return String.format("uniform over %d keys", this.keys);
+      }
+    };
+  }
+
+  /**
+   * The probability of the key of rank {@code i} is proportional to {@code 1 / i^exponent}: key 0
+   * is the most popular, and so on.
+   *
+   * <p>This uses the algorithm from Gray et al., "Quickly generating billion-record synthetic
+   * databases", which is also the one used by YCSB. Creating the distribution is linear in the
+   * number of keys, drawing from it is constant time.
+   *
+   * @param exponent strictly between 0 and 1; YCSB uses 0.99.
+   */
+  public static KeyDistribution zipfian(long keys, double exponent) {
+    return new Zipfian(keys, exponent);
+  }
+
+  /**
+   * A fraction {@code hotAccessFraction} of the accesses go to the first {@code hotFraction} of the
+   * keys, uniformly; the other accesses are spread uniformly over the remaining keys.
+   */
+  public static KeyDistribution hotspot(
+      long keys, final double hotFraction, final double hotAccessFraction) {
+    if (hotFraction <= 0 || hotFraction >= 1)
+      throw new IllegalArgumentException("The hot fraction of keys must be between 0 and 1");
+    if (hotAccessFraction < 0 || hotAccessFraction > 1)
+      throw new IllegalArgumentException("The hot fraction of accesses must be between 0 and 1");
+    final long hotKeys = Math.max(1, (long) (keys * hotFraction));
+    return new KeyDistribution(keys) {
+      @Override
+      public long next(Random random) {
+        if (hotKeys == this.keys || random.nextDouble() < hotAccessFraction)
+          return nextLong(random, 0, hotKeys);
+        return nextLong(random, hotKeys, this.keys);
+      }
+
+      @Override
+      public String toString() {
+        return String.format(
+            "hotspot over %d keys (%.0f%% of accesses to %d keys)",
+            this.keys, hotAccessFraction * 100, hotKeys);
+      }
+    };
+  }
+
+  private static long nextLong(Random random, long from, long to) {
+    return from + (long) (random.nextDouble() * (to - from));
+  }
+
+  private static class Zipfian extends KeyDistribution {
+
+    private final double exponent;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+    private final double secondKeyThreshold;
+
+    private Zipfian(long keys, double exponent) {
+      super(keys);
+      if (exponent <= 0 || exponent >= 1)
+        throw new IllegalArgumentException("The zipfian exponent must be between 0 and 1");
+      this.exponent = exponent;
+      this.zetaN = zeta(keys, exponent);
+      double zeta2 = zeta(2, exponent);
+      this.alpha = 1 / (1 - exponent);
+      this.eta = (1 - Math.pow(2.0 / keys, 1 - exponent)) / (1 - zeta2 / zetaN);
+      this.secondKeyThreshold = 1 + Math.pow(0.5, exponent);
+    }
+
+    private static double zeta(long n, double exponent) {
+      double sum = 0;
+      for (long i = 1; i <= n; i++) sum += 1 / Math.pow(i, exponent);
+      return sum;
+    }
+
+    @Override
+    public long next(Random random) {
+      double u = random.nextDouble();
+      double uz = u * zetaN;
+      if (uz < 1) return 0;
+      if (uz < secondKeyThreshold) return Math.min(1, keys - 1);
+      long key = (long) (keys * Math.pow(eta * u - eta + 1, alpha));
+      return Math.min(key, keys - 1);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("zipfian over %d keys (exponent %.2f)", keys, exponent);
+    }
+  }
+}
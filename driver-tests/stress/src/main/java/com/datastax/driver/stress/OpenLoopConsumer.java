@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2026 ScyllaDB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.stress;
+
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a fixed rate, whether previous requests have completed or not.
+ *
+ * <p>Each request has an intended start time on a fixed schedule, and its latency is measured from
+ * that time rather than from when it was actually sent. If the client falls behind (because of a GC
+ * pause, or because the driver cannot keep up), the requests that should have been sent in the
+ * meantime are sent as soon as possible, and the time they spent waiting counts in their latency.
+ * This avoids the coordinated omission of closed-loop consumers, which slow down with the system
+ * under test and therefore hide its queueing delays.
+ */
+public class OpenLoopConsumer implements Consumer {
+
+  private final Runner runner = new Runner();
+  private final CountDownLatch shutdownLatch = new CountDownLatch(1);
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile boolean allSent;
+
+  private final Session session;
+  private final QueryGenerator requests;
+  private final Reporter reporter;
+  private final double nanosPerRequest;
+
+  /** @param rate the number of requests per second sent by this consumer. */
+  public OpenLoopConsumer(
+      Session session, QueryGenerator requests, Reporter reporter, double rate) {
+    if (rate <= 0) throw new IllegalArgumentException("The rate must be strictly positive");
+    this.session = session;
+    this.requests = requests;
+    this.reporter = reporter;
+    this.nanosPerRequest = TimeUnit.SECONDS.toNanos(1) / rate;
+    this.runner.setDaemon(true);
+  }
+
+  @Override
+  public void start() {
+    this.runner.start();
+  }
+
+  @Override
+  public void join() {
+    awaitUninterruptibly(shutdownLatch);
+  }
+
+  private void onCompletion() {
+    if (inFlight.decrementAndGet() == 0 && allSent) shutdownLatch.countDown();
+  }
+
+  private class Runner extends Thread {
+
+    public Runner() {
+      super("Open-loop Consumer Thread");
+    }
+
+    @Override
+    public void run() {
+      long start = System.nanoTime();
+      for (long i = 0; requests.hasNext(); i++) {
+        // Computed from the start rather than incremented, so that rounding errors don't accumulate
+        long intendedStart = start + (long) (i * nanosPerRequest);
+        long delay;
+        while ((delay = intendedStart - System.nanoTime()) > 0) LockSupport.parkNanos(delay);
+        handle(requests.next(), intendedStart);
+      }
+      allSent = true;
+      if (inFlight.get() == 0) shutdownLatch.countDown();
+    }
+
+    private void handle(QueryGenerator.Request request, long intendedStart) {
+      final Reporter.Context ctx = reporter.newRequest(intendedStart);
+      inFlight.incrementAndGet();
+      Futures.addCallback(
+          request.executeAsync(session),
+          new FutureCallback<ResultSet>() {
+            @Override
+            public void onSuccess(ResultSet result) {
+              ctx.done();
+              onCompletion();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+              ctx.failed(t);
+              onCompletion();
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+  }
+}
@@ -18,16 +18,22 @@ package com.datastax.driver.stress;
 import com.yammer.metrics.Metrics;
 import com.yammer.metrics.core.Meter;
 import com.yammer.metrics.core.Timer;
-import com.yammer.metrics.core.TimerContext;
 import com.yammer.metrics.stats.Snapshot;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
 
 public class Reporter implements Runnable {
 
@@ -39,12 +45,23 @@ public class Reporter implements Runnable {
 
   private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
 
+  // Latencies in nanoseconds, from the intended start of requests (which, in open-loop mode, can be
+  // earlier than when they are sent) and from when they are sent
+  private final Recorder responseTimes = new Recorder(3);
+  private final Recorder serviceTimes = new Recorder(3);
+  private final Histogram totalResponseTimes = new Histogram(3);
+  private final Histogram totalServiceTimes = new Histogram(3);
+
   private final File csvFile;
+  private final File hlogFile;
   private final String header;
   private final long period;
   private final int consoleReportPeriod;
   private final int iterations;
   private final AtomicInteger requestsDone = new AtomicInteger(0);
+  private final AtomicLong errors = new AtomicLong();
+  private final ConcurrentMap<Class<?>, Boolean> reportedErrors =
+      new ConcurrentHashMap<Class<?>, Boolean>();
 
   private final int middleLowBound;
   private final int middleHighBound;
@@ -55,19 +72,42 @@ public class Reporter implements Runnable {
   private long lastOpCount;
 
   private PrintStream csv;
+  private HistogramLogWriter hlog;
 
   private long lastConsoleOpCount;
   private long lastConsoleTimestamp;
   private int tickSinceLastConsoleReport;
 
-  public Reporter(int consoleReportPeriod, String csvFileName, String[] args, int iterations) {
-    this(1, consoleReportPeriod, new File(csvFileName), formatHeader(args), iterations);
+  /**
+   * @param hlogFileName the file to log the latency histogram of each interval to, in the
+   *     HdrHistogram log format, or {@code null} to not log them.
+   */
+  public Reporter(
+      int consoleReportPeriod,
+      String csvFileName,
+      String hlogFileName,
+      String[] args,
+      int iterations) {
+    this(
+        1,
+        consoleReportPeriod,
+        new File(csvFileName),
+        hlogFileName == null ? null : new File(hlogFileName),
+        formatHeader(args),
+        iterations);
   }
 
-  private Reporter(int csvPeriod, int consolePeriod, File csvFile, String header, int iterations) {
+  private Reporter(
+      int csvPeriod,
+      int consolePeriod,
+      File csvFile,
+      File hlogFile,
+      String header,
+      int iterations) {
     this.period = csvPeriod;
     this.consoleReportPeriod = consolePeriod / csvPeriod;
     this.csvFile = csvFile;
+    this.hlogFile = hlogFile;
     this.header = header;
     this.iterations = iterations;
 
@@ -92,11 +132,22 @@ public class Reporter implements Runnable {
     this.startTime = System.currentTimeMillis();
     initConsole();
     initCSV();
+    initHistogramLog();
 
     this.executor.scheduleAtFixedRate(this, period, period, TimeUnit.SECONDS);
   }
 
   public Context newRequest() {
+    return newRequest(System.nanoTime());
+  }
+
+  /**
+   * @param intendedStartNanos when the request should have started according to the schedule of an
+   *     open-loop consumer, as returned by {@link System#nanoTime()}. Its latency is measured from
+   *     that time.
+   */
+  public Context newRequest(long intendedStartNanos) {
+    long startNanos = System.nanoTime();
     int iteration = requestsDone.getAndIncrement();
     if (iteration >= middleLowBound) {
       if (latenciesMiddle == null) {
@@ -113,23 +164,38 @@ public class Reporter implements Runnable {
       if (iteration > middleHighBound) {
         if (meanMiddleRate < 0) meanMiddleRate = requestsMiddle.meanRate();
 
-        return new Context(this, latencies.time(), null);
+        return new Context(this, intendedStartNanos, startNanos, false);
       } else {
-        return new Context(this, latencies.time(), latenciesMiddle.time());
+        return new Context(this, intendedStartNanos, startNanos, true);
       }
     } else {
-      return new Context(this, latencies.time(), null);
+      return new Context(this, intendedStartNanos, startNanos, false);
     }
   }
 
+  private void onError(Throwable t) {
+    errors.incrementAndGet();
+    // Only print the first error of each type, there could be many with an injected error rate
+    if (reportedErrors.putIfAbsent(t.getClass(), true) == null)
+      System.err.println("Error during request (next ones of this type are only counted): " + t);
+  }
+
   public void stop() {
     executor.shutdown();
+    try {
+      // Wait for a concurrent report, so that intervals are not logged concurrently
+      executor.awaitTermination(period, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
 
     long tstamp = System.currentTimeMillis();
     long elapsed = TimeUnit.MILLISECONDS.toSeconds(tstamp - startTime);
     Report lastReport = new Report(tstamp, elapsed, requests, latencies, lastOpCount);
 
     stopCSV(lastReport);
+    recordInterval();
+    if (hlog != null) hlog.close();
     stopConsole(lastReport);
   }
 
@@ -146,6 +212,7 @@ public class Reporter implements Runnable {
     lastOpCount = report.totalOps;
 
     reportToCSV(report);
+    recordInterval();
     reportToConsole(report);
   }
 
@@ -193,6 +260,34 @@ public class Reporter implements Runnable {
     reportToCSV(lastReport);
   }
 
+  private void initHistogramLog() {
+    if (hlogFile == null) return;
+    try {
+      hlog = new HistogramLogWriter(hlogFile);
+    } catch (FileNotFoundException e) {
+      throw new RuntimeException("Error creating histogram log file " + hlogFile, e);
+    }
+    hlog.outputComment(header);
+    hlog.outputLogFormatVersion();
+    hlog.outputStartTime(startTime);
+    hlog.setBaseTime(startTime);
+    hlog.outputLegend();
+  }
+
+  private void recordInterval() {
+    Histogram response = responseTimes.getIntervalHistogram();
+    Histogram service = serviceTimes.getIntervalHistogram();
+    totalResponseTimes.add(response);
+    totalServiceTimes.add(service);
+    if (hlog != null) {
+      // Values are in nanoseconds, the log writer reports their max in milliseconds
+      response.setTag("response");
+      service.setTag("service");
+      hlog.outputIntervalHistogram(response);
+      hlog.outputIntervalHistogram(service);
+    }
+  }
+
   private void initConsole() {
     this.lastConsoleTimestamp = startTime;
 
@@ -234,6 +329,25 @@ public class Reporter implements Runnable {
   private void stopConsole(Report lastReport) {
     printReportToConsole(lastReport);
 
+    if (errors.get() > 0) {
+      System.out.println();
+      System.out.println(String.format("Failed requests: %d", errors.get()));
+    }
+
+    // Response times are measured from the intended start of requests, which differs from when
+    // they are sent only in open-loop mode, if the client falls behind schedule
+    System.out.println();
+    System.out.println("Latency distribution (ms):   response time   service time");
+    double[] percentiles = {50, 90, 99, 99.9, 99.99, 100};
+    for (double percentile : percentiles) {
+      System.out.println(
+          String.format(
+              "  %-25s %13.3f  %13.3f",
+              percentile == 100 ? "Max:" : percentile + "th percentile:",
+              totalResponseTimes.getValueAtPercentile(percentile) / 1e6,
+              totalServiceTimes.getValueAtPercentile(percentile) / 1e6));
+    }
+
     if (latenciesMiddle == null) return;
 
     Snapshot snapshot = latenciesMiddle.getSnapshot();
@@ -286,22 +400,33 @@ public class Reporter implements Runnable {
 
   public static class Context {
     private final Reporter reporter;
-    private final TimerContext context;
-    private final TimerContext contextMiddle;
+    private final long intendedStartNanos;
+    private final long startNanos;
+    private final boolean middle;
 
-    private Context(Reporter reporter, TimerContext context, TimerContext contextMiddle) {
+    private Context(Reporter reporter, long intendedStartNanos, long startNanos, boolean middle) {
       this.reporter = reporter;
-      this.context = context;
-      this.contextMiddle = contextMiddle;
+      this.intendedStartNanos = intendedStartNanos;
+      this.startNanos = startNanos;
+      this.middle = middle;
+    }
+
+    public void failed(Throwable t) {
+      done();
+      reporter.onError(t);
     }
 
     public void done() {
-      context.stop();
+      long now = System.nanoTime();
+      long responseTime = now - intendedStartNanos;
+      reporter.latencies.update(responseTime, TimeUnit.NANOSECONDS);
       reporter.requests.mark();
-      if (contextMiddle != null) {
-        contextMiddle.stop();
+      if (middle) {
+        reporter.latenciesMiddle.update(responseTime, TimeUnit.NANOSECONDS);
         reporter.requestsMiddle.mark();
       }
+      reporter.responseTimes.recordValue(responseTime);
+      reporter.serviceTimes.recordValue(now - startNanos);
     }
   }
 }
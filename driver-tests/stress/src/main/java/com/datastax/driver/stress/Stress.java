@@ -17,18 +17,26 @@ package com.datastax.driver.stress;
 
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.HostDistance;
 import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.PoolingOptions;
 import com.datastax.driver.core.ProtocolOptions;
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.QueryOptions;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.SocketOptions;
+import com.datastax.driver.core.StubNode;
 import com.datastax.driver.core.exceptions.NoHostAvailableException;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import joptsimple.BuiltinHelpFormatter;
 import joptsimple.HelpFormatter;
 import joptsimple.OptionDescriptor;
@@ -51,7 +59,7 @@ public class Stress {
         System.getProperty("log4j.configuration", "./conf/log4j.properties"));
 
     QueryGenerator.Builder[] gs =
-        new QueryGenerator.Builder[] {Generators.INSERTER, Generators.READER};
+        new QueryGenerator.Builder[] {Generators.INSERTER, Generators.READER, Generators.MIXED};
 
     for (QueryGenerator.Builder b : gs) register(b.name(), b);
   }
@@ -69,6 +77,11 @@ public class Stress {
                 .ofType(Integer.class)
                 .defaultsTo(50);
             accepts("async", "Make asynchronous requests instead of blocking ones");
+            accepts(
+                    "rate",
+                    "Send requests at this total rate (requests/sec), whether previous ones have completed or not, and measure latencies from when requests should have been sent. The requests are sent by as many threads as the level of concurrency")
+                .withRequiredArg()
+                .ofType(Double.class);
             accepts("ip", "The hosts ip to connect to")
                 .withRequiredArg()
                 .ofType(String.class)
@@ -77,11 +90,48 @@ public class Stress {
                 .withRequiredArg()
                 .ofType(String.class)
                 .defaultsTo("last.csv");
+            accepts(
+                    "hlog-file",
+                    "The name of the file to log the latency histogram of each second to, in HdrHistogram log format (default: none)")
+                .withRequiredArg()
+                .ofType(String.class);
             accepts("print-delay", "The delay in seconds at which to report on the console")
                 .withRequiredArg()
                 .ofType(Integer.class)
                 .defaultsTo(5);
             accepts("compression", "Use compression (SNAPPY)");
+            accepts("protocol-version", "The native protocol version to use (default: negotiated)")
+                .withRequiredArg()
+                .ofType(Integer.class);
+            accepts(
+                "stub",
+                "Run against an in-process stub node instead of a cluster, to measure the driver alone");
+            accepts("stub-latency", "The mean latency of the stub node, in microseconds")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(0);
+            accepts(
+                    "stub-latency-distribution",
+                    "The distribution of the latencies of the stub node: fixed, uniform (between 0 and twice the mean) or exponential")
+                .withRequiredArg()
+                .ofType(String.class)
+                .defaultsTo("fixed");
+            accepts(
+                    "stub-errors",
+                    "The errors returned by the stub node, as <error>:<probability> pairs, for example READ_TIMEOUT:0.01,OVERLOADED:0.001. Errors can be one of "
+                        + Arrays.toString(StubNode.Error.values()))
+                .withRequiredArg()
+                .ofType(String.class)
+                .withValuesSeparatedBy(',');
+            accepts(
+                    "stub-shards",
+                    "The number of shards that the stub node advertises (default: none, like Cassandra)")
+                .withRequiredArg()
+                .ofType(Integer.class);
+            accepts("stub-io-threads", "The number of I/O threads of the stub node")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(1);
             accepts(
                     "connections-per-host",
                     "The number of connections per hosts (default: based on the number of threads)")
@@ -229,6 +279,58 @@ public class Stress {
     }
   }
 
+  /**
+   * Starts a stub node, with the table of the insert and read generators already declared so that
+   * reads can run first. The insert generator recreates it with the requested number of columns.
+   */
+  private static StubNode startStubNode(OptionSet options) {
+    StubNode stub =
+        new StubNode(new InetSocketAddress("127.0.0.1", 0))
+            .withIoThreads((Integer) options.valueOf("stub-io-threads"));
+    if (options.has("stub-shards")) stub.withShards((Integer) options.valueOf("stub-shards"));
+
+    long latency = (Integer) options.valueOf("stub-latency");
+    String distribution = (String) options.valueOf("stub-latency-distribution");
+    if (distribution.equals("fixed"))
+      stub.withLatency(StubNode.Latency.fixed(latency, TimeUnit.MICROSECONDS));
+    else if (distribution.equals("uniform"))
+      stub.withLatency(StubNode.Latency.uniform(0, 2 * latency, TimeUnit.MICROSECONDS));
+    else if (distribution.equals("exponential"))
+      stub.withLatency(StubNode.Latency.exponential(0, latency, TimeUnit.MICROSECONDS));
+    else throw new IllegalArgumentException("Unknown latency distribution " + distribution);
+
+    for (Object error : options.valuesOf("stub-errors")) {
+      String[] errorAndProbability = ((String) error).split(":");
+      if (errorAndProbability.length != 2)
+        throw new IllegalArgumentException(
+            "Invalid error " + error + ", expected <error>:<probability>");
+      stub.withError(
+          StubNode.Error.valueOf(errorAndProbability[0].toUpperCase()),
+          Double.parseDouble(errorAndProbability[1]));
+    }
+
+    Object[] row = new Object[6];
+    row[0] = 0L;
+    for (int i = 1; i < row.length; i++) row[i] = ByteBuffer.allocate(34);
+    return stub.withTable(
+            "stress",
+            "standard1",
+            "key",
+            DataType.bigint(),
+            "c0",
+            DataType.blob(),
+            "c1",
+            DataType.blob(),
+            "c2",
+            DataType.blob(),
+            "c3",
+            DataType.blob(),
+            "c4",
+            DataType.blob())
+        .withRows("stress", "standard1", Collections.singletonList(row))
+        .start();
+  }
+
   public static void main(String[] args) throws Exception {
 
     Stresser stresser = Stresser.forCommandLineArguments(args);
@@ -241,6 +343,7 @@ public class Stress {
     String reportFileName = (String) options.valueOf("report-file");
 
     boolean async = options.has("async");
+    Double rate = (Double) options.valueOf("rate");
 
     int iterations = (requests == -1 ? -1 : requests / concurrency);
 
@@ -261,20 +364,33 @@ public class Stress {
     System.out.println("  request count:        " + (requests == -1 ? "unlimited" : requests));
     System.out.println(
         "  concurrency:          " + concurrency + " (" + iterations + " requests/thread)");
-    System.out.println("  mode:                 " + (async ? "asynchronous" : "blocking"));
+    System.out.println(
+        "  mode:                 "
+            + (rate != null
+                ? String.format("open-loop at %.0f requests/sec", rate)
+                : async ? "asynchronous" : "blocking"));
     System.out.println("  per-host connections: " + maxConnections);
     System.out.println("  compression:          " + options.has("compression"));
     System.out.println("  consistency-level:    " + consistencyLevel.name());
 
     try {
       // Create session to hosts
-      Cluster cluster =
+      Cluster.Builder builder =
           new Cluster.Builder()
-              .addContactPoints(String.valueOf(options.valueOf("ip")))
               .withPoolingOptions(pools)
               .withSocketOptions(new SocketOptions().setTcpNoDelay(true))
-              .withQueryOptions(new QueryOptions().setConsistencyLevel(consistencyLevel))
-              .build();
+              .withQueryOptions(new QueryOptions().setConsistencyLevel(consistencyLevel));
+      if (options.has("stub")) {
+        StubNode stub = startStubNode(options);
+        System.out.println("  stub node:            " + stub.getAddress());
+        builder.addContactPointsWithPorts(stub.getAddress());
+      } else {
+        builder.addContactPoints(String.valueOf(options.valueOf("ip")));
+      }
+      if (options.has("protocol-version"))
+        builder.withProtocolVersion(
+            ProtocolVersion.fromInt((Integer) options.valueOf("protocol-version")));
+      Cluster cluster = builder.build();
 
       if (options.has("compression"))
         cluster
@@ -294,15 +410,22 @@ public class Stress {
       stresser.prepare(session);
 
       Reporter reporter =
-          new Reporter((Integer) options.valueOf("print-delay"), reportFileName, args, requests);
+          new Reporter(
+              (Integer) options.valueOf("print-delay"),
+              reportFileName,
+              (String) options.valueOf("hlog-file"),
+              args,
+              requests);
 
       Consumer[] consumers = new Consumer[concurrency];
       for (int i = 0; i < concurrency; i++) {
         QueryGenerator generator = stresser.newGenerator(i, session, iterations);
         consumers[i] =
-            async
-                ? new AsynchronousConsumer(session, generator, reporter)
-                : new BlockingConsumer(session, generator, reporter);
+            rate != null
+                ? new OpenLoopConsumer(session, generator, reporter, rate / concurrency)
+                : async
+                    ? new AsynchronousConsumer(session, generator, reporter)
+                    : new BlockingConsumer(session, generator, reporter);
       }
 
       System.out.println("Starting to stress test...");